@@ -0,0 +1,91 @@
+package com.ejemplo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de las operaciones escalares de Calculadora
+ * Ubicación: src/jmh/java/com/ejemplo/CalculadoraBenchmark.java
+ *
+ * Los operandos viven en campos no finales para que el JIT no pueda plegarlos como constantes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculadoraBenchmark {
+
+    private Calculadora calculadora;
+    private double a;
+    private double b;
+    private int exponente;
+
+    @Setup
+    public void setUp() {
+        calculadora = new Calculadora();
+        a = 12345.678;
+        b = 3.14159;
+        exponente = 7;
+    }
+
+    // ========== UN SOLO HILO ==========
+
+    @Benchmark
+    public double sumar() {
+        return calculadora.sumar(a, b);
+    }
+
+    @Benchmark
+    public double dividir() {
+        return calculadora.dividir(a, b);
+    }
+
+    @Benchmark
+    public double potencia() {
+        return calculadora.potencia(b, exponente);
+    }
+
+    @Benchmark
+    public double raizCuadrada() {
+        return calculadora.raizCuadrada(a);
+    }
+
+    // ========== VARIOS HILOS ==========
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public double sumarConcurrente() {
+        return calculadora.sumar(a, b);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public double dividirConcurrente() {
+        return calculadora.dividir(a, b);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public double potenciaConcurrente() {
+        return calculadora.potencia(b, exponente);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public double raizCuadradaConcurrente() {
+        return calculadora.raizCuadrada(a);
+    }
+}
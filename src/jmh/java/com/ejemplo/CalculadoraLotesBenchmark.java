@@ -0,0 +1,130 @@
+package com.ejemplo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operaciones por lotes de Calculadora frente al bucle de llamadas escalares
+ * Ubicación: src/jmh/java/com/ejemplo/CalculadoraLotesBenchmark.java
+ *
+ * Cada operación mide un recorrido completo del arreglo. Con 100M elementos los tres
+ * arreglos ocupan unos 2.4 GB; el fork usa -Xmx4g.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CalculadoraLotesBenchmark {
+
+    @Param({"1000", "1000000", "100000000"})
+    private int elementos;
+
+    private Calculadora calculadora;
+    private double[] a;
+    private double[] b;
+    private double[] resultado;
+    private boolean[] errores;
+
+    @Setup
+    public void generar() {
+        calculadora = new Calculadora();
+        a = new double[elementos];
+        b = new double[elementos];
+        resultado = new double[elementos];
+        errores = new boolean[elementos];
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        for (int i = 0; i < elementos; i++) {
+            a[i] = aleatorio.nextDouble(-1000, 1000);
+            // Un divisor cero cada 1000 elementos, para ejercitar la máscara de errores
+            b[i] = i % 1000 == 999 ? 0 : aleatorio.nextDouble(1, 1000);
+        }
+    }
+
+    // ========== SUMA ==========
+
+    @Benchmark
+    public double[] sumarEscalar() {
+        for (int i = 0; i < elementos; i++) {
+            resultado[i] = calculadora.sumar(a[i], b[i]);
+        }
+        return resultado;
+    }
+
+    @Benchmark
+    public double[] sumarLote() {
+        calculadora.sumar(a, b, resultado);
+        return resultado;
+    }
+
+    // ========== MULTIPLICACIÓN Y SUMA ==========
+
+    @Benchmark
+    public double[] multiplicarSumarEscalar() {
+        for (int i = 0; i < elementos; i++) {
+            resultado[i] = calculadora.sumar(calculadora.multiplicar(a[i], b[i]), a[i]);
+        }
+        return resultado;
+    }
+
+    @Benchmark
+    public double[] multiplicarSumarLote() {
+        calculadora.multiplicarSumar(a, b, a, resultado);
+        return resultado;
+    }
+
+    // ========== DIVISIÓN ==========
+
+    @Benchmark
+    public int dividirEscalar() {
+        int fallidos = 0;
+        for (int i = 0; i < elementos; i++) {
+            try {
+                resultado[i] = calculadora.dividir(a[i], b[i]);
+            } catch (IllegalArgumentException e) {
+                resultado[i] = Double.NaN;
+                fallidos++;
+            }
+        }
+        return fallidos;
+    }
+
+    @Benchmark
+    public int dividirLote() {
+        return calculadora.dividir(a, b, resultado, errores);
+    }
+
+    // ========== RAÍZ CUADRADA ==========
+
+    @Benchmark
+    public int raizCuadradaEscalar() {
+        int fallidos = 0;
+        for (int i = 0; i < elementos; i++) {
+            try {
+                resultado[i] = calculadora.raizCuadrada(a[i]);
+            } catch (IllegalArgumentException e) {
+                resultado[i] = Double.NaN;
+                fallidos++;
+            }
+        }
+        return fallidos;
+    }
+
+    @Benchmark
+    public int raizCuadradaLote() {
+        return calculadora.raizCuadrada(a, resultado, errores);
+    }
+}
@@ -0,0 +1,122 @@
+package com.ejemplo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escalado de Estadisticas.resumir de 1 a N hilos, frente al bucle secuencial con Calculadora
+ * Ubicación: src/jmh/java/com/ejemplo/EstadisticasBenchmark.java
+ *
+ * Con 100M elementos el arreglo ocupa 800 MB y el archivo temporal otro tanto.
+ * Para medir en una máquina con más núcleos: -Djmh.args="-p hilos=1,2,4,8,16,32".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class EstadisticasBenchmark {
+
+    @Param({"100000000"})
+    private int elementos;
+
+    @Param({"1", "2", "4", "8"})
+    private int hilos;
+
+    private double[] datos;
+    private Path archivo;
+    private ForkJoinPool pool;
+    private Calculadora calculadora;
+
+    @Setup
+    public void generar() throws IOException {
+        calculadora = new Calculadora();
+        pool = new ForkJoinPool(hilos);
+        datos = new double[elementos];
+        SplittableRandom aleatorio = new SplittableRandom(1);
+        for (int i = 0; i < elementos; i++) {
+            datos[i] = aleatorio.nextInt(-1_000_000, 1_000_000) / 8.0;
+        }
+        archivo = Files.createTempFile("estadisticas-bench", ".bin");
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            ByteBuffer bloque = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.nativeOrder());
+            for (int i = 0; i < elementos; i++) {
+                bloque.putDouble(datos[i]);
+                if (!bloque.hasRemaining()) {
+                    bloque.flip();
+                    while (bloque.hasRemaining()) {
+                        canal.write(bloque);
+                    }
+                    bloque.clear();
+                }
+            }
+            bloque.flip();
+            while (bloque.hasRemaining()) {
+                canal.write(bloque);
+            }
+        }
+    }
+
+    @TearDown
+    public void borrar() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(archivo);
+    }
+
+    @Benchmark
+    public ResumenEstadistico arreglo() {
+        return Estadisticas.resumir(datos, pool);
+    }
+
+    @Benchmark
+    public ResumenEstadistico archivoMapeado() throws IOException {
+        return Estadisticas.resumir(archivo, ByteOrder.nativeOrder(), pool);
+    }
+
+    /**
+     * Lo que se hacía antes: un bucle en un hilo, sin compensación (no depende de hilos)
+     */
+    @Benchmark
+    public double bucleSecuencial() {
+        double suma = 0;
+        double minimo = Double.POSITIVE_INFINITY;
+        double maximo = Double.NEGATIVE_INFINITY;
+        long pares = 0;
+        for (double x : datos) {
+            suma = calculadora.sumar(suma, x);
+            minimo = Math.min(minimo, x);
+            maximo = Math.max(maximo, x);
+            if (x == (int) x && calculadora.esPar((int) x)) {
+                pares++;
+            }
+        }
+        double media = suma / datos.length;
+        double m2 = 0;
+        for (double x : datos) {
+            m2 += (x - media) * (x - media);
+        }
+        return suma + minimo + maximo + pares + m2;
+    }
+}
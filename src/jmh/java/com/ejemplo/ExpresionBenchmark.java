@@ -0,0 +1,98 @@
+package com.ejemplo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluación de expresiones: árbol de clausuras compilado frente a un intérprete que
+ * recorre el árbol sin plegar, y frente a la misma fórmula escrita a mano con Calculadora
+ * Ubicación: src/jmh/java/com/ejemplo/ExpresionBenchmark.java
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpresionBenchmark {
+
+    private static final int FILAS = 1024;
+
+    @Param({"sqrt(a*a + b*b) / c", "(a * (1 + 0.05 / 12) ^ 12 - b) * 2 / (c + 4 * 0.25)"})
+    private String formula;
+
+    private Calculadora calculadora;
+    private Expresion compilada;
+    private NodoExpresion sinPlegar;
+    private double[][] filas;
+
+    @Setup
+    public void preparar() {
+        calculadora = new Calculadora();
+        compilada = Expresion.compilar(formula);
+        sinPlegar = AnalizadorExpresion.analizar(formula).arbol;
+        filas = new double[FILAS][];
+        SplittableRandom aleatorio = new SplittableRandom(5);
+        for (int i = 0; i < FILAS; i++) {
+            filas[i] = new double[]{aleatorio.nextDouble(1, 100), aleatorio.nextDouble(1, 100),
+                    aleatorio.nextDouble(1, 100)};
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public double compilada() {
+        double suma = 0;
+        for (double[] fila : filas) {
+            suma += compilada.evaluar(fila);
+        }
+        return suma;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public double interpretada() {
+        double suma = 0;
+        for (double[] fila : filas) {
+            suma += sinPlegar.interpretar(fila);
+        }
+        return suma;
+    }
+
+    /**
+     * Lo que había que escribir antes: sólo para la primera fórmula
+     */
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public double aMano() {
+        double suma = 0;
+        for (double[] fila : filas) {
+            suma += calculadora.dividir(calculadora.raizCuadrada(calculadora.sumar(
+                    calculadora.multiplicar(fila[0], fila[0]), calculadora.multiplicar(fila[1], fila[1]))), fila[2]);
+        }
+        return suma;
+    }
+
+    @Benchmark
+    public Expresion compilarDesdeCache() {
+        return Expresion.compilar(formula);
+    }
+
+    @Benchmark
+    public Expresion compilarSinCache() {
+        return Expresion.compilarSinCache(formula);
+    }
+}
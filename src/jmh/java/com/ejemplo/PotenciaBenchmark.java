@@ -0,0 +1,125 @@
+package com.ejemplo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculadora.potencia frente a Math.pow según el tipo de base
+ * Ubicación: src/jmh/java/com/ejemplo/PotenciaBenchmark.java
+ *
+ * Cada invocación recorre 1024 pares (base, exponente) aleatorios del mismo tipo:
+ * "tabla" bases enteras de 2 a 16, "potenciaDeDos" bases 2^k con exponentes negativos,
+ * "enteraGrande" bases enteras de hasta 10^5 con resultado menor que 2^53, y
+ * "fraccionaria" bases no enteras, que siempre terminan en Math.pow.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PotenciaBenchmark {
+
+    private static final int PARES = 1024;
+
+    @Param({"tabla", "potenciaDeDos", "enteraGrande", "fraccionaria"})
+    private String tipo;
+
+    private Calculadora calculadora;
+    private double[] bases;
+    private int[] exponentes;
+    private long[] basesEnteras;
+
+    @Setup
+    public void generar() {
+        calculadora = new Calculadora();
+        bases = new double[PARES];
+        exponentes = new int[PARES];
+        basesEnteras = new long[PARES];
+        SplittableRandom aleatorio = new SplittableRandom(11);
+        for (int i = 0; i < PARES; i++) {
+            switch (tipo) {
+                case "tabla":
+                    bases[i] = aleatorio.nextInt(2, 17);
+                    exponentes[i] = aleatorio.nextInt(1, 13);
+                    break;
+                case "potenciaDeDos":
+                    bases[i] = 1 << aleatorio.nextInt(1, 5);
+                    exponentes[i] = aleatorio.nextInt(-60, 60);
+                    break;
+                case "enteraGrande":
+                    bases[i] = aleatorio.nextInt(17, 100_000);
+                    exponentes[i] = aleatorio.nextInt(1, 4);
+                    break;
+                default:
+                    bases[i] = aleatorio.nextDouble(0.5, 100);
+                    exponentes[i] = aleatorio.nextInt(1, 13);
+                    break;
+            }
+            basesEnteras[i] = (long) bases[i];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PARES)
+    public double mathPow() {
+        double suma = 0;
+        for (int i = 0; i < PARES; i++) {
+            suma += Math.pow(bases[i], exponentes[i]);
+        }
+        return suma;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PARES)
+    public double potencia() {
+        double suma = 0;
+        for (int i = 0; i < PARES; i++) {
+            suma += calculadora.potencia(bases[i], exponentes[i]);
+        }
+        return suma;
+    }
+
+    /**
+     * Potencia exacta en long (sólo tiene sentido para exponentes no negativos)
+     */
+    @Benchmark
+    @OperationsPerInvocation(PARES)
+    public long potenciaExactaLong() {
+        long suma = 0;
+        for (int i = 0; i < PARES; i++) {
+            int exponente = Math.max(0, exponentes[i]);
+            try {
+                suma += calculadora.potenciaExacta(basesEnteras[i], exponente);
+            } catch (ArithmeticException e) {
+                suma--;
+            }
+        }
+        return suma;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PARES)
+    public int potenciaExactaBigInteger() {
+        int bits = 0;
+        for (int i = 0; i < PARES; i++) {
+            bits += calculadora.potenciaExacta(BigInteger.valueOf(basesEnteras[i]), Math.max(0, exponentes[i]))
+                    .bitLength();
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,102 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memoria por usuario y latencia de búsqueda: HashMap de Usuario frente a AlmacenColumnar
+ * Ubicación: src/jmh/java/com/proyecto/AlmacenBenchmark.java
+ *
+ * Cada usuario tiene su propia credencial (sal y hash distintos), como en producción. Los
+ * bytes por usuario se imprimen al poblar: heap usado después de un GC, menos el de antes,
+ * dividido por la cantidad de usuarios.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class AlmacenBenchmark {
+
+    @Param({"MAPA", "COLUMNAR"})
+    private TipoAlmacen tipo;
+
+    @Param({"1000000", "10000000"})
+    private int usuarios;
+
+    private Map<String, Usuario> almacen;
+    private String[] emails;
+    private int cursor;
+
+    @Setup
+    public void poblar() {
+        // Las claves de búsqueda se crean antes de medir para no contarlas
+        emails = new String[4096];
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        for (int i = 0; i < emails.length; i++) {
+            emails[i] = DatosBenchmark.email(aleatorio.nextInt(usuarios));
+        }
+
+        long antes = heapUsado();
+        almacen = tipo == TipoAlmacen.COLUMNAR ? new AlmacenColumnar(usuarios) : new HashMap<>(usuarios * 4 / 3 + 1);
+        byte[] codificada = Credencial.crear(DatosBenchmark.PASSWORD, DatosBenchmark.ITERACIONES_KDF).codificar();
+        for (int i = 0; i < usuarios; i++) {
+            // Sal y hash distintos por usuario sin pagar el KDF
+            aleatorio.nextBytes(codificada);
+            codificada[0] = 0;
+            codificada[1] = 0;
+            codificada[2] = 0;
+            codificada[3] = 1;
+            codificada[4] = 16;
+            String email = DatosBenchmark.email(i);
+            almacen.put(email, new Usuario(email, Credencial.decodificar(codificada), DatosBenchmark.nombre(i),
+                    new Date(1_700_000_000_000L + i)));
+        }
+        long despues = heapUsado();
+        System.out.printf("%n%s: %.1f bytes por usuario%n", tipo, (despues - antes) / (double) usuarios);
+    }
+
+    private static long heapUsado() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private String siguienteEmail() {
+        cursor = (cursor + 1) & (emails.length - 1);
+        return emails[cursor];
+    }
+
+    @Benchmark
+    public boolean existeUsuario() {
+        return almacen.containsKey(siguienteEmail());
+    }
+
+    @Benchmark
+    public String buscarNombre() {
+        return almacen.get(siguienteEmail()).getNombre();
+    }
+
+    @Benchmark
+    public Credencial buscarCredencial() {
+        return almacen.get(siguienteEmail()).getCredencial();
+    }
+}
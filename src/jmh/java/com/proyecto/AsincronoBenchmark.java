@@ -0,0 +1,76 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * autenticar síncrono frente a GestorUsuariosAsync con muchos llamadores a la vez
+ * Ubicación: src/jmh/java/com/proyecto/AsincronoBenchmark.java
+ *
+ * Sin caché de verificaciones y con 1000 iteraciones de PBKDF2, cada login cuesta un KDF.
+ * Con claves "calientes" todos los hilos autentican al mismo usuario: la fachada agrupa los
+ * logins idénticos que esperan en la cola y los resuelve con un solo KDF. SampleTime da
+ * los percentiles de latencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class AsincronoBenchmark {
+
+    private static final int USUARIOS = 1024;
+
+    @Param({"uniformes", "calientes"})
+    private String claves;
+
+    private GestorUsuarios gestor;
+    private GestorUsuariosAsync async;
+
+    @Setup
+    public void poblar() {
+        gestor = new GestorUsuarios(new ConfiguracionGestor().concurrente(true).iteracionesKdf(1000)
+                .cacheVerificaciones(0, 1, TimeUnit.SECONDS));
+        for (int i = 0; i < USUARIOS; i++) {
+            gestor.registrarUsuario(DatosBenchmark.email(i), DatosBenchmark.PASSWORD, DatosBenchmark.nombre(i));
+        }
+        async = new GestorUsuariosAsync(gestor);
+    }
+
+    @TearDown
+    public void cerrar() {
+        async.close();
+        gestor.close();
+    }
+
+    private String email() {
+        return "calientes".equals(claves) ? DatosBenchmark.email(0)
+                : DatosBenchmark.email(ThreadLocalRandom.current().nextInt(USUARIOS));
+    }
+
+    @Benchmark
+    public Usuario sincronico() {
+        return gestor.autenticar(email(), DatosBenchmark.PASSWORD);
+    }
+
+    @Benchmark
+    public Usuario asincronico() {
+        return async.autenticarAsync(email(), DatosBenchmark.PASSWORD).join();
+    }
+}
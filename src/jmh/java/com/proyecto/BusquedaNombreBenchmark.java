@@ -0,0 +1,78 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda de los primeros 20 usuarios por prefijo del nombre: índice frente al recorrido completo
+ * Ubicación: src/jmh/java/com/proyecto/BusquedaNombreBenchmark.java
+ *
+ * escaneoCompleto reproduce lo que hacía la consola de administración: listarUsuarios() y
+ * filtrar la copia. Con 10M usuarios el heap necesario ronda varios GB; el fork usa -Xmx8g.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class BusquedaNombreBenchmark {
+
+    private static final int LIMITE = 20;
+    private static final String[] PREFIJOS = {"jose", "María G", "luc", "OSCAR m", "ines", "sebastian r", "a", "zu"};
+
+    @Param({"1000000", "10000000"})
+    private int usuarios;
+
+    private GestorUsuarios gestor;
+    private int cursor;
+
+    @Setup
+    public void poblar() {
+        gestor = new GestorUsuarios(DatosBenchmark.configuracion(false));
+        for (int i = 0; i < usuarios; i++) {
+            gestor.registrarUsuario(DatosBenchmark.email(i), DatosBenchmark.PASSWORD, DatosBenchmark.nombre(i));
+        }
+    }
+
+    private String prefijo() {
+        cursor = (cursor + 1) % PREFIJOS.length;
+        return PREFIJOS[cursor];
+    }
+
+    @Benchmark
+    public List<Usuario> indice() {
+        return gestor.buscarPorNombre(prefijo(), LIMITE);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Usuario> escaneoCompleto() {
+        // Sin acentos ni orden: sólo lo que la consola podía hacer con la lista completa
+        String buscado = prefijo().toLowerCase(Locale.ROOT);
+        List<Usuario> encontrados = new ArrayList<>();
+        for (Usuario usuario : gestor.listarUsuarios()) {
+            if (usuario.getNombre().toLowerCase(Locale.ROOT).startsWith(buscado)) {
+                encontrados.add(usuario);
+                if (encontrados.size() == LIMITE) {
+                    break;
+                }
+            }
+        }
+        return encontrados;
+    }
+}
@@ -0,0 +1,103 @@
+package com.proyecto;
+
+import com.proyecto.carga.Zipf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsquedas y logins con popularidad Zipf (s = 0.99) sobre el almacén DISCO con distintos
+ * presupuestos de memoria para la caché, y MAPA (memoriaMb = 0) como referencia con todo en
+ * el heap
+ * Ubicación: src/jmh/java/com/proyecto/CacheDiscoBenchmark.java
+ *
+ * Un millón de usuarios ocupan unos 330 MB en la caché; los presupuestos van del 1% al 20%.
+ * SampleTime da los percentiles (p99) de cada búsqueda. Las claves se sortean al poblar, para
+ * no medir el sorteo. Al terminar cada iteración se imprimen los contadores de la caché. Los archivos quedan en la caché de páginas del sistema
+ * operativo, así que un fallo cuesta leer la memoria mapeada y decodificar el usuario, no
+ * una lectura de disco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CacheDiscoBenchmark {
+
+    @Param({"0", "4", "16", "64"})
+    private int memoriaMb;
+
+    @Param({"1000000"})
+    private int usuarios;
+
+    private Path directorio;
+    private GestorUsuarios gestor;
+    private String[] claves;
+    private int siguiente;
+
+    @Setup
+    public void poblar() throws IOException {
+        ConfiguracionGestor configuracion = DatosBenchmark.configuracion(true)
+                .capacidadInicial(usuarios)
+                .indiceNombres(false)
+                .listadoPaginado(false);
+        if (memoriaMb > 0) {
+            directorio = Files.createTempDirectory("disco-bench");
+            configuracion.almacenEnDisco(directorio, (long) memoriaMb << 20).sincronizarDisco(false);
+        }
+        gestor = new GestorUsuarios(configuracion);
+        for (Usuario usuario : DatosBenchmark.generar(0, usuarios)) {
+            gestor.importarUsuario(usuario);
+        }
+        Zipf zipf = new Zipf(usuarios, 0.99);
+        SplittableRandom aleatorio = new SplittableRandom(24);
+        claves = new String[1 << 20];
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = DatosBenchmark.email(zipf.siguiente(aleatorio));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void informar() {
+        if (memoriaMb > 0) {
+            System.out.printf("%n%s%n", gestor.obtenerEstadisticasCache());
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        gestor.close();
+        DatosBenchmark.borrar(directorio);
+    }
+
+    private String email() {
+        return claves[siguiente++ & (claves.length - 1)];
+    }
+
+    @Benchmark
+    public Usuario buscar() {
+        return gestor.buscarUsuario(email());
+    }
+
+    @Benchmark
+    public Usuario autenticar() {
+        return gestor.autenticar(email(), DatosBenchmark.PASSWORD);
+    }
+}
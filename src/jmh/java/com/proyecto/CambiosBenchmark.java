@@ -0,0 +1,95 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Costo del flujo de cambios en el camino de escritura: sin flujo (-1) y con 0, 1 y 8 lectores
+ * que consumen en lotes desde sus propios hilos
+ * Ubicación: src/jmh/java/com/proyecto/CambiosBenchmark.java
+ *
+ * La mutación medida es actualizarUsuario, la más barata (sin KDF), para que se note lo que
+ * agrega publicar. Al terminar se imprimen los cambios leídos y perdidos por los lectores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CambiosBenchmark {
+
+    private static final int USUARIOS = 1024;
+
+    @Param({"-1", "0", "1", "8"})
+    private int lectores;
+
+    private GestorUsuarios gestor;
+    private final List<Thread> hilos = new ArrayList<>();
+    private final LongAdder leidos = new LongAdder();
+    private final LongAdder perdidos = new LongAdder();
+    private volatile boolean fin;
+
+    @Setup
+    public void iniciar() {
+        ConfiguracionGestor configuracion = DatosBenchmark.configuracion(true)
+                .indiceNombres(false)
+                .listadoPaginado(false);
+        if (lectores >= 0) {
+            configuracion.flujoCambios(1 << 16);
+        }
+        gestor = new GestorUsuarios(configuracion);
+        DatosBenchmark.poblar(gestor, USUARIOS);
+        for (int i = 0; i < lectores; i++) {
+            SuscripcionCambios suscripcion = gestor.suscribirCambios();
+            Thread hilo = new Thread(() -> {
+                try {
+                    while (!fin) {
+                        LoteCambios lote = suscripcion.leer(1024, 10, TimeUnit.MILLISECONDS);
+                        leidos.add(lote.getCambios().size());
+                        perdidos.add(lote.getPerdidos());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "lector-cambios-" + i);
+            hilo.setDaemon(true);
+            hilo.start();
+            hilos.add(hilo);
+        }
+    }
+
+    @TearDown
+    public void cerrar() throws InterruptedException {
+        fin = true;
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        if (lectores > 0) {
+            System.out.printf("%nLeídos: %d, perdidos: %d%n", leidos.sum(), perdidos.sum());
+        }
+        gestor.close();
+    }
+
+    @Benchmark
+    public boolean actualizar() {
+        int i = ThreadLocalRandom.current().nextInt(USUARIOS);
+        return gestor.actualizarUsuario(DatosBenchmark.email(i), "Usuario " + i);
+    }
+}
@@ -0,0 +1,100 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de convertir el email a su clave canónica en cada búsqueda, con claves ya canónicas
+ * (lo habitual: el cliente repite el email con el que se registró) y con el dominio en
+ * mayúsculas, que obliga a copiarlo
+ * Ubicación: src/jmh/java/com/proyecto/ClaveEmailBenchmark.java
+ *
+ * Al poblar se imprimen los bytes por usuario: la clave canónica ocupa lo mismo que el email
+ * recibido, así que deben coincidir entre EXACTA y DOMINIO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ClaveEmailBenchmark {
+
+    private static final int CONSULTAS = 1 << 16;
+
+    @Param({"EXACTA", "DOMINIO"})
+    private ClaveEmail clave;
+
+    @Param({"MAPA", "COLUMNAR"})
+    private TipoAlmacen tipo;
+
+    @Param({"10000000"})
+    private int usuarios;
+
+    private GestorUsuarios gestor;
+    private String[] canonicos;
+    private String[] mayusculas;
+    private int cursor;
+
+    @Setup
+    public void poblar() {
+        long antes = heapUsado();
+        gestor = new GestorUsuarios(DatosBenchmark.configuracion(true)
+                .claveEmail(clave)
+                .almacen(tipo)
+                .capacidadInicial(usuarios)
+                .cacheVerificaciones(0, 0, TimeUnit.MILLISECONDS)
+                .indiceNombres(false)
+                .listadoPaginado(false));
+        for (Usuario usuario : DatosBenchmark.generar(0, usuarios)) {
+            gestor.importarUsuario(usuario);
+        }
+        long despues = heapUsado();
+        System.out.printf("%n%s %s: %.1f bytes por usuario%n", tipo, clave, (despues - antes) / (double) usuarios);
+
+        canonicos = new String[CONSULTAS];
+        mayusculas = new String[CONSULTAS];
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        for (int i = 0; i < CONSULTAS; i++) {
+            int indice = aleatorio.nextInt(usuarios);
+            canonicos[i] = DatosBenchmark.email(indice);
+            mayusculas[i] = "usuario" + indice + "@Bench.COM";
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        gestor.close();
+    }
+
+    private static long heapUsado() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Benchmark
+    public Usuario buscarCanonico() {
+        return gestor.buscarUsuario(canonicos[cursor++ & (CONSULTAS - 1)]);
+    }
+
+    @Benchmark
+    public Usuario buscarConMayusculas() {
+        return gestor.buscarUsuario(mayusculas[cursor++ & (CONSULTAS - 1)]);
+    }
+}
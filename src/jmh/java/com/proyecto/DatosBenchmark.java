@@ -0,0 +1,120 @@
+package com.proyecto;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Utilidades compartidas por los benchmarks de GestorUsuarios
+ * Ubicación: src/jmh/java/com/proyecto/DatosBenchmark.java
+ */
+final class DatosBenchmark {
+
+    static final String PASSWORD = "password123";
+
+    /**
+     * Iteraciones del KDF en los benchmarks de estructura: con las iteraciones reales cada
+     * registro costaría decenas de milisegundos y ocultaría lo que se quiere medir.
+     * El costo del KDF se mide aparte en LoginBenchmark.
+     */
+    static final int ITERACIONES_KDF = 1;
+
+    // Credencial compartida por los usuarios generados: derivar una por usuario no aporta nada
+    private static final Credencial CREDENCIAL = Credencial.crear(PASSWORD, ITERACIONES_KDF);
+
+    private static final String[] NOMBRES = {"Ana", "José", "María", "Luis", "Sofía", "Andrés", "Lucía",
+            "Martín", "Valentina", "Sebastián", "Camila", "Nicolás", "Zully", "Melisa", "Óscar", "Inés"};
+    private static final String[] APELLIDOS = {"García", "Rodríguez", "Gómez", "López", "Martínez", "Pérez",
+            "Díaz", "Álvarez", "Sánchez", "Ramírez", "Torres", "Muñoz", "Castro", "Ortiz", "Vargas", "Ríos"};
+
+    private DatosBenchmark() {
+    }
+
+    /**
+     * Nombre determinista y con acentos del usuario número i (nombre, apellido y un número
+     * para que no haya dos iguales)
+     * @param i índice del usuario
+     * @return nombre del usuario
+     */
+    static String nombre(long i) {
+        int mezcla = (int) (i * 0x9E3779B97F4A7C15L >>> 40);
+        return NOMBRES[mezcla & 15] + " " + APELLIDOS[(mezcla >>> 4) & 15] + " " + i;
+    }
+
+    /**
+     * Email determinista del usuario número i
+     * @param i índice del usuario
+     * @return email válido y único para ese índice
+     */
+    static String email(long i) {
+        return "usuario" + i + "@bench.com";
+    }
+
+    /**
+     * Configuración base de los benchmarks de estructura
+     * @param concurrente modo del gestor
+     * @return configuración con el KDF abaratado
+     */
+    static ConfiguracionGestor configuracion(boolean concurrente) {
+        return new ConfiguracionGestor().concurrente(concurrente).iteracionesKdf(ITERACIONES_KDF);
+    }
+
+    /**
+     * Registra n usuarios con emails email(0) .. email(n - 1)
+     * @param gestor gestor a poblar
+     * @param n cantidad de usuarios
+     */
+    static void poblar(GestorUsuarios gestor, int n) {
+        for (int i = 0; i < n; i++) {
+            gestor.registrarUsuario(email(i), PASSWORD, "Usuario " + i);
+        }
+    }
+
+    /**
+     * Genera perezosamente los usuarios desde .. hasta - 1 sin pasar por GestorUsuarios
+     * (para escribir instantáneas grandes rápidamente)
+     * @param desde primer índice
+     * @param hasta índice final (excluido)
+     * @return usuarios generados
+     */
+    static Iterable<Usuario> generar(long desde, long hasta) {
+        return () -> new Iterator<Usuario>() {
+            private long siguiente = desde;
+
+            @Override
+            public boolean hasNext() {
+                return siguiente < hasta;
+            }
+
+            @Override
+            public Usuario next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                long i = siguiente++;
+                return new Usuario(email(i), CREDENCIAL, "Usuario " + i, new Date());
+            }
+        };
+    }
+
+    /**
+     * Borra recursivamente un directorio temporal de benchmark
+     * @param directorio directorio a borrar (puede ser null)
+     */
+    static void borrar(Path directorio) {
+        if (directorio == null) {
+            return;
+        }
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            archivos.sorted(Comparator.reverseOrder()).forEach(archivo -> archivo.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
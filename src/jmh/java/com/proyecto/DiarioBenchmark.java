@@ -0,0 +1,90 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rendimiento de escritura del modo durable sobre un almacén de 10M usuarios,
+ * con y sin fsync, con uno y con todos los hilos (donde se nota la confirmación en grupo)
+ * Ubicación: src/jmh/java/com/proyecto/DiarioBenchmark.java
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class DiarioBenchmark {
+
+    @Param({"10000000"})
+    private int usuarios;
+
+    @Param({"true", "false"})
+    private boolean sincronizarDisco;
+
+    private Path directorio;
+    private GestorUsuarios gestor;
+    private final AtomicLong siguienteNuevo = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void abrir() throws IOException {
+        directorio = Files.createTempDirectory("diario-bench");
+        ArchivoInstantanea.escribir(directorio, 1, DatosBenchmark.generar(0, usuarios));
+        gestor = new GestorUsuarios(DatosBenchmark.configuracion(true)
+                .persistencia(directorio)
+                .sincronizarDisco(sincronizarDisco)
+                .compactacionCada(0, TimeUnit.MILLISECONDS));
+        siguienteNuevo.set(usuarios);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        gestor.close();
+        DatosBenchmark.borrar(directorio);
+    }
+
+    @Benchmark
+    public boolean registrarUsuario() {
+        return gestor.registrarUsuario(
+                DatosBenchmark.email(siguienteNuevo.getAndIncrement()), DatosBenchmark.PASSWORD, "Nuevo");
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean registrarUsuarioConcurrente() {
+        return registrarUsuario();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean actualizarUsuarioConcurrente() {
+        String email = DatosBenchmark.email(ThreadLocalRandom.current().nextInt(usuarios));
+        return gestor.actualizarUsuario(email, "Renombrado");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void compactar() {
+        gestor.compactar();
+    }
+}
@@ -0,0 +1,83 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exportación completa del almacén: copia con listarUsuarios frente a páginas y flujo perezoso
+ * Ubicación: src/jmh/java/com/proyecto/ExportacionBenchmark.java
+ *
+ * Cada método recorre todos los usuarios y suma la longitud de email y nombre, como haría
+ * una exportación. Para ver la memoria asignada por exportación: -Djmh.args="-prof gc"
+ * (gc.alloc.rate.norm, en bytes por operación).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class ExportacionBenchmark {
+
+    private static final int TAMANO_PAGINA = 10_000;
+
+    @Param({"1000000", "10000000"})
+    private int usuarios;
+
+    private GestorUsuarios gestor;
+
+    @Setup
+    public void poblar() {
+        gestor = new GestorUsuarios(DatosBenchmark.configuracion(true).capacidadInicial(usuarios));
+        DatosBenchmark.poblar(gestor, usuarios);
+    }
+
+    private static long exportar(Usuario usuario) {
+        return usuario.getEmail().length() + usuario.getNombre().length();
+    }
+
+    @Benchmark
+    public long listarUsuarios() {
+        long total = 0;
+        for (Usuario usuario : gestor.listarUsuarios()) {
+            total += exportar(usuario);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long listarPagina() {
+        long total = 0;
+        PaginaUsuarios pagina = gestor.listarPagina(null, TAMANO_PAGINA);
+        while (true) {
+            for (Usuario usuario : pagina.getUsuarios()) {
+                total += exportar(usuario);
+            }
+            if (!pagina.hayMas()) {
+                return total;
+            }
+            pagina = gestor.listarPagina(pagina.getSiguienteCursor(), TAMANO_PAGINA);
+        }
+    }
+
+    @Benchmark
+    public long streamUsuarios() {
+        return gestor.streamUsuarios().mapToLong(ExportacionBenchmark::exportar).sum();
+    }
+
+    @Benchmark
+    public long streamUsuariosParalelo() {
+        return gestor.streamUsuarios().parallel().mapToLong(ExportacionBenchmark::exportar).sum();
+    }
+}
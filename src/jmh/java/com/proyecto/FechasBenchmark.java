@@ -0,0 +1,103 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de altas por ventana de tiempo con el índice por fechas y con el recorrido
+ * completo del almacén: cantidad de altas de un día, histograma por hora de 30 días y la
+ * primera página de 100 altas de un día
+ * Ubicación: src/jmh/java/com/proyecto/FechasBenchmark.java
+ *
+ * Los usuarios se reparten en un año (unos 27 mil por día con diez millones). Cada llamada
+ * consulta otro día para no repetir los mismos bloques. Al poblar se imprimen los bytes por
+ * usuario, para ver lo que agrega el índice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class FechasBenchmark {
+
+    private static final long INICIO = 1_700_000_000_000L;
+    private static final long DIA = Duration.ofDays(1).toMillis();
+    private static final int DIAS = 365;
+
+    @Param({"false", "true"})
+    private boolean indice;
+
+    @Param({"10000000"})
+    private int usuarios;
+
+    private GestorUsuarios gestor;
+    private int dia;
+
+    @Setup
+    public void poblar() {
+        long antes = heapUsado();
+        gestor = new GestorUsuarios(DatosBenchmark.configuracion(true)
+                .capacidadInicial(usuarios)
+                .indiceNombres(false)
+                .listadoPaginado(false)
+                .indiceFechas(indice));
+        long paso = DIAS * DIA / usuarios;
+        long i = 0;
+        for (Usuario usuario : DatosBenchmark.generar(0, usuarios)) {
+            gestor.importarUsuario(new Usuario(usuario.getEmail(), usuario.getCredencial(), usuario.getNombre(),
+                    new Date(INICIO + i++ * paso)));
+        }
+        long despues = heapUsado();
+        System.out.printf("%nÍndice %s: %.1f bytes por usuario%n", indice, (despues - antes) / (double) usuarios);
+    }
+
+    @TearDown
+    public void cerrar() {
+        gestor.close();
+    }
+
+    private static long heapUsado() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private Date dia(int desplazamiento) {
+        return new Date(INICIO + (long) (dia + desplazamiento) * DIA);
+    }
+
+    @Benchmark
+    public int contarDia() {
+        dia = (dia + 1) % (DIAS - 30);
+        return gestor.contarAltas(dia(0), dia(1));
+    }
+
+    @Benchmark
+    public int[] histogramaPorHora() {
+        dia = (dia + 1) % (DIAS - 30);
+        return gestor.histogramaAltas(dia(0), dia(30), Duration.ofHours(1));
+    }
+
+    @Benchmark
+    public PaginaUsuarios paginaDia() {
+        dia = (dia + 1) % (DIAS - 30);
+        return gestor.listarAltas(dia(0), dia(1), null, 100);
+    }
+}
@@ -0,0 +1,92 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de emails desconocidos (enumeración de cuentas, typos al loguearse) con y sin
+ * filtro de emails, y el costo que agrega el filtro a las consultas de emails existentes
+ * Ubicación: src/jmh/java/com/proyecto/FiltroEmailsBenchmark.java
+ *
+ * Las claves de consulta son Strings nuevos con el hashCode ya calculado, como los que llegan
+ * de la red después de su primer uso; al pasar de la caché de CPU se nota el bloque de 64
+ * bytes del filtro frente a la cadena de nodos (o columnas) del almacén.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class FiltroEmailsBenchmark {
+
+    private static final int CONSULTAS = 1 << 16;
+
+    @Param({"0", "0.01"})
+    private double filtro;
+
+    @Param({"MAPA", "COLUMNAR"})
+    private TipoAlmacen tipo;
+
+    @Param({"100000", "2000000"})
+    private int usuarios;
+
+    private GestorUsuarios gestor;
+    private String[] desconocidos;
+    private String[] conocidos;
+    private int cursor;
+
+    @Setup
+    public void poblar() {
+        gestor = new GestorUsuarios(DatosBenchmark.configuracion(true)
+                .almacen(tipo)
+                .capacidadInicial(usuarios)
+                .indiceNombres(false)
+                .listadoPaginado(false)
+                .filtroEmails(filtro));
+        for (Usuario usuario : DatosBenchmark.generar(0, usuarios)) {
+            gestor.importarUsuario(usuario);
+        }
+        desconocidos = new String[CONSULTAS];
+        conocidos = new String[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            long indice = (i * 0x9E3779B97F4A7C15L >>> 1) % usuarios;
+            desconocidos[i] = new String("nadie" + indice + "@bench.com");
+            conocidos[i] = new String(DatosBenchmark.email(indice));
+            desconocidos[i].hashCode();
+            conocidos[i].hashCode();
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        gestor.close();
+    }
+
+    @Benchmark
+    public boolean existeDesconocido() {
+        return gestor.existeUsuario(desconocidos[cursor++ & (CONSULTAS - 1)]);
+    }
+
+    @Benchmark
+    public Usuario autenticarDesconocido() {
+        return gestor.autenticar(desconocidos[cursor++ & (CONSULTAS - 1)], DatosBenchmark.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean existeConocido() {
+        return gestor.existeUsuario(conocidos[cursor++ & (CONSULTAS - 1)]);
+    }
+}
@@ -0,0 +1,86 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de un solo hilo de GestorUsuarios con 1K, 100K y 10M usuarios
+ * Ubicación: src/jmh/java/com/proyecto/GestorUsuariosBenchmark.java
+ *
+ * Con 10M usuarios el heap necesario ronda varios GB; el fork usa -Xmx8g.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class GestorUsuariosBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int usuarios;
+
+    private GestorUsuarios gestor;
+    private long siguienteNuevo;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void poblar() {
+        gestor = new GestorUsuarios(DatosBenchmark.configuracion(false));
+        DatosBenchmark.poblar(gestor, usuarios);
+        siguienteNuevo = usuarios;
+    }
+
+    /**
+     * Elimina los usuarios creados por registrarUsuario en la iteración anterior,
+     * para que todas las iteraciones midan un almacén del mismo tamaño
+     */
+    @Setup(Level.Iteration)
+    public void restaurarTamano() {
+        for (long i = usuarios; i < siguienteNuevo; i++) {
+            gestor.eliminarUsuario(DatosBenchmark.email(i));
+        }
+        siguienteNuevo = usuarios;
+    }
+
+    private String emailExistente() {
+        cursor = cursor + 1 == usuarios ? 0 : cursor + 1;
+        return DatosBenchmark.email(cursor);
+    }
+
+    @Benchmark
+    public boolean registrarUsuario() {
+        return gestor.registrarUsuario(DatosBenchmark.email(siguienteNuevo++), DatosBenchmark.PASSWORD, "Nuevo");
+    }
+
+    @Benchmark
+    public Usuario autenticar() {
+        return gestor.autenticar(emailExistente(), DatosBenchmark.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean cambiarPassword() {
+        // Misma password actual y nueva: el estado no cambia entre invocaciones
+        return gestor.cambiarPassword(emailExistente(), DatosBenchmark.PASSWORD, DatosBenchmark.PASSWORD);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Usuario> listarUsuarios() {
+        return gestor.listarUsuarios();
+    }
+}
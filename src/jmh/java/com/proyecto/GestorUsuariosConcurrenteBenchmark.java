@@ -0,0 +1,82 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks de GestorUsuarios en modo concurrente con todos los núcleos disponibles
+ * Ubicación: src/jmh/java/com/proyecto/GestorUsuariosConcurrenteBenchmark.java
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+@Threads(Threads.MAX)
+public class GestorUsuariosConcurrenteBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int usuarios;
+
+    private GestorUsuarios gestor;
+    private final AtomicLong siguienteNuevo = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void poblar() {
+        gestor = new GestorUsuarios(DatosBenchmark.configuracion(true));
+        DatosBenchmark.poblar(gestor, usuarios);
+        siguienteNuevo.set(usuarios);
+    }
+
+    @Setup(Level.Iteration)
+    public void restaurarTamano() {
+        for (long i = usuarios; i < siguienteNuevo.get(); i++) {
+            gestor.eliminarUsuario(DatosBenchmark.email(i));
+        }
+        siguienteNuevo.set(usuarios);
+    }
+
+    private String emailAleatorio() {
+        return DatosBenchmark.email(ThreadLocalRandom.current().nextInt(usuarios));
+    }
+
+    @Benchmark
+    public boolean registrarUsuario() {
+        return gestor.registrarUsuario(
+                DatosBenchmark.email(siguienteNuevo.getAndIncrement()), DatosBenchmark.PASSWORD, "Nuevo");
+    }
+
+    @Benchmark
+    public Usuario autenticar() {
+        return gestor.autenticar(emailAleatorio(), DatosBenchmark.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean cambiarPassword() {
+        return gestor.cambiarPassword(emailAleatorio(), DatosBenchmark.PASSWORD, DatosBenchmark.PASSWORD);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Usuario> listarUsuarios() {
+        return gestor.listarUsuarios();
+    }
+}
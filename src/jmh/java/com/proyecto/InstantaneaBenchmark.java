@@ -0,0 +1,97 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rendimiento de los escritores mientras otros hilos recorren el almacén completo una y otra
+ * vez: con MAPA el recorrido es en vivo (streamUsuarios sobre el ConcurrentHashMap, sin
+ * consistencia); con VERSIONADO cada recorrido es una instantánea
+ * Ubicación: src/jmh/java/com/proyecto/InstantaneaBenchmark.java
+ *
+ * La mutación medida es actualizarUsuario, sin KDF, para que se vea el costo de copiar la
+ * ruta del árbol y el usuario. Al terminar se imprimen los recorridos completados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class InstantaneaBenchmark {
+
+    @Param({"MAPA", "VERSIONADO"})
+    private TipoAlmacen tipo;
+
+    @Param({"0", "1", "4"})
+    private int lectores;
+
+    @Param({"100000"})
+    private int usuarios;
+
+    private GestorUsuarios gestor;
+    private final List<Thread> hilos = new ArrayList<>();
+    private final LongAdder recorridos = new LongAdder();
+    private volatile boolean fin;
+
+    @Setup
+    public void iniciar() {
+        gestor = new GestorUsuarios(DatosBenchmark.configuracion(true)
+                .almacen(tipo)
+                .capacidadInicial(usuarios)
+                .indiceNombres(false)
+                .listadoPaginado(false));
+        for (Usuario usuario : DatosBenchmark.generar(0, usuarios)) {
+            gestor.importarUsuario(usuario);
+        }
+        for (int i = 0; i < lectores; i++) {
+            Thread hilo = new Thread(() -> {
+                while (!fin) {
+                    long largo = tipo == TipoAlmacen.VERSIONADO
+                            ? gestor.instantanea().streamUsuarios().mapToLong(u -> u.getNombre().length()).sum()
+                            : gestor.streamUsuarios().mapToLong(u -> u.getNombre().length()).sum();
+                    if (largo > 0) {
+                        recorridos.increment();
+                    }
+                }
+            }, "lector-instantaneas-" + i);
+            hilo.setDaemon(true);
+            hilo.start();
+            hilos.add(hilo);
+        }
+    }
+
+    @TearDown
+    public void cerrar() throws InterruptedException {
+        fin = true;
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        if (lectores > 0) {
+            System.out.printf("%nRecorridos completos: %d%n", recorridos.sum());
+        }
+        gestor.close();
+    }
+
+    @Benchmark
+    public boolean actualizar() {
+        int i = ThreadLocalRandom.current().nextInt(usuarios);
+        return gestor.actualizarUsuario(DatosBenchmark.email(i), "Usuario " + i);
+    }
+}
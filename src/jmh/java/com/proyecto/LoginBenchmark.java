@@ -0,0 +1,56 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de login con el KDF real: sin caché (cada login deriva la password) frente a
+ * caché caliente (logins repetidos de pocos usuarios, como los reintentos de un cliente)
+ * Ubicación: src/jmh/java/com/proyecto/LoginBenchmark.java
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final int USUARIOS = 64;
+
+    @Param({"false", "true"})
+    private boolean cache;
+
+    @Param({"100000"})
+    private int iteraciones;
+
+    private GestorUsuarios gestor;
+
+    @Setup
+    public void poblar() {
+        ConfiguracionGestor configuracion = new ConfiguracionGestor().concurrente(true).iteracionesKdf(iteraciones);
+        if (!cache) {
+            configuracion.cacheVerificaciones(0, 0, TimeUnit.MILLISECONDS);
+        }
+        gestor = new GestorUsuarios(configuracion);
+        DatosBenchmark.poblar(gestor, USUARIOS);
+    }
+
+    @Benchmark
+    public Usuario autenticar() {
+        return gestor.autenticar(DatosBenchmark.email(ThreadLocalRandom.current().nextInt(USUARIOS)),
+                DatosBenchmark.PASSWORD);
+    }
+}
@@ -0,0 +1,85 @@
+package com.proyecto;
+
+import com.ejemplo.Calculadora;
+import com.proyecto.metricas.RegistroMetricas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de las métricas: las mismas operaciones con y sin RegistroMetricas
+ * Ubicación: src/jmh/java/com/proyecto/MetricasBenchmark.java
+ *
+ * Se eligen las operaciones más baratas, donde el costo de medir pesa más: login con la
+ * caché de verificaciones caliente, login de un email desconocido, cambio de nombre y las
+ * operaciones escalar y por lotes de Calculadora.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricasBenchmark {
+
+    private static final int USUARIOS = 1024;
+
+    @Param({"false", "true"})
+    private boolean metricas;
+
+    private GestorUsuarios gestor;
+    private Calculadora calculadora;
+    private double a = 12345.678;
+    private double b = 3.14159;
+    private final double[] lote = new double[1024];
+
+    @Setup
+    public void poblar() {
+        RegistroMetricas registro = metricas ? new RegistroMetricas() : null;
+        gestor = new GestorUsuarios(new ConfiguracionGestor().concurrente(true).iteracionesKdf(1).metricas(registro));
+        DatosBenchmark.poblar(gestor, USUARIOS);
+        // Llenar la caché de verificaciones
+        for (int i = 0; i < USUARIOS; i++) {
+            gestor.autenticar(DatosBenchmark.email(i), DatosBenchmark.PASSWORD);
+        }
+        calculadora = metricas ? new Calculadora(registro) : new Calculadora();
+    }
+
+    @Benchmark
+    public Usuario autenticar() {
+        return gestor.autenticar(DatosBenchmark.email(ThreadLocalRandom.current().nextInt(USUARIOS)),
+                DatosBenchmark.PASSWORD);
+    }
+
+    @Benchmark
+    public Usuario autenticarDesconocido() {
+        return gestor.autenticar("nadie@ejemplo.com", DatosBenchmark.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean actualizarUsuario() {
+        return gestor.actualizarUsuario(DatosBenchmark.email(ThreadLocalRandom.current().nextInt(USUARIOS)), "Nombre");
+    }
+
+    @Benchmark
+    public double dividir() {
+        return calculadora.dividir(a, b);
+    }
+
+    @Benchmark
+    public double[] sumarLote() {
+        calculadora.sumar(lote, b, lote);
+        return lote;
+    }
+}
@@ -0,0 +1,85 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo de recuperación del modo durable: cargar la instantánea mapeada en memoria
+ * y reproducir una cola del diario
+ * Ubicación: src/jmh/java/com/proyecto/RecuperacionBenchmark.java
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class RecuperacionBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int usuarios;
+
+    @Param({"0", "100000"})
+    private int cola;
+
+    private Path directorio;
+    private GestorUsuarios recuperado;
+
+    @Setup(Level.Trial)
+    public void prepararDirectorio() throws IOException {
+        directorio = Files.createTempDirectory("recuperacion-bench");
+        ArchivoInstantanea.escribir(directorio, 1, DatosBenchmark.generar(0, usuarios));
+        try (GestorUsuarios gestor = abrir()) {
+            for (int i = 0; i < cola; i++) {
+                // Mezcla de altas y renombrados para que la cola no sea sólo inserciones
+                if (i % 2 == 0) {
+                    gestor.registrarUsuario(DatosBenchmark.email(usuarios + i), DatosBenchmark.PASSWORD, "Cola");
+                } else {
+                    gestor.actualizarUsuario(DatosBenchmark.email(i), "Renombrado " + i);
+                }
+            }
+        }
+    }
+
+    private GestorUsuarios abrir() {
+        return new GestorUsuarios(DatosBenchmark.configuracion(true)
+                .persistencia(directorio)
+                .sincronizarDisco(false)
+                .compactacionCada(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Benchmark
+    public int recuperar() {
+        recuperado = abrir();
+        return recuperado.obtenerCantidadUsuarios();
+    }
+
+    @TearDown(Level.Invocation)
+    public void cerrar() {
+        if (recuperado != null) {
+            recuperado.close();
+            recuperado = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void borrarDirectorio() {
+        DatosBenchmark.borrar(directorio);
+    }
+}
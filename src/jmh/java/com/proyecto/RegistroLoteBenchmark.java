@@ -0,0 +1,68 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importación de un tenant completo: bucle de registrarUsuario frente a registrarLote
+ * Ubicación: src/jmh/java/com/proyecto/RegistroLoteBenchmark.java
+ *
+ * El 1% de las filas es inválido o duplicado, como en un archivo de onboarding real.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class RegistroLoteBenchmark {
+
+    @Param({"5000000"})
+    private int filas;
+
+    @Param({"false", "true"})
+    private boolean concurrente;
+
+    private List<RegistroUsuario> registros;
+
+    @Setup
+    public void generarFilas() {
+        registros = new ArrayList<>(filas);
+        for (int i = 0; i < filas; i++) {
+            String email = i % 100 == 99 ? "invalido" + i : DatosBenchmark.email(i % 100 == 98 ? i - 1 : i);
+            registros.add(new RegistroUsuario(email, DatosBenchmark.PASSWORD, "Usuario " + i));
+        }
+    }
+
+    @Benchmark
+    public int bucleRegistrarUsuario() {
+        GestorUsuarios gestor = new GestorUsuarios(DatosBenchmark.configuracion(concurrente));
+        for (RegistroUsuario registro : registros) {
+            try {
+                gestor.registrarUsuario(registro.getEmail(), registro.getPassword(), registro.getNombre());
+            } catch (IllegalArgumentException e) {
+                // Fila inválida: el bucle tiene que atrapar la excepción y seguir
+            }
+        }
+        return gestor.obtenerCantidadUsuarios();
+    }
+
+    @Benchmark
+    public int registrarLote() {
+        GestorUsuarios gestor = new GestorUsuarios(DatosBenchmark.configuracion(concurrente));
+        return gestor.registrarLote(registros.iterator(), registros.size()).contar(ResultadoRegistro.ACEPTADO);
+    }
+}
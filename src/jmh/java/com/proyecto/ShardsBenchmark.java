@@ -0,0 +1,104 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de CoordinadorShards según la cantidad de shards, locales o remotos por loopback
+ * Ubicación: src/jmh/java/com/proyecto/ShardsBenchmark.java
+ *
+ * shards=0 es un GestorUsuarios solo, sin coordinador, como referencia. Con shards remotos
+ * cada operación es una ida y vuelta TCP a otro hilo del mismo proceso: el escalado sólo se
+ * ve con más núcleos que hilos de benchmark más hilos de servidor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(Threads.MAX)
+public class ShardsBenchmark {
+
+    private static final int USUARIOS = 100_000;
+
+    @Param({"0", "1", "2", "4"})
+    private int shards;
+
+    @Param({"false", "true"})
+    private boolean remoto;
+
+    private OperacionesUsuarios operaciones;
+    private final List<AutoCloseable> abiertos = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void poblar() throws IOException {
+        if (shards == 0) {
+            GestorUsuarios gestor = new GestorUsuarios(DatosBenchmark.configuracion(true));
+            abiertos.add(gestor);
+            operaciones = gestor;
+        } else {
+            CoordinadorShards coordinador = new CoordinadorShards();
+            for (int s = 0; s < shards; s++) {
+                GestorUsuarios gestor = new GestorUsuarios(DatosBenchmark.configuracion(true));
+                abiertos.add(gestor);
+                if (remoto) {
+                    ServidorShard servidor = ServidorShard.iniciar(gestor, 0);
+                    abiertos.add(servidor);
+                    coordinador.agregarShardRemoto("shard-" + s, servidor.getDireccion());
+                } else {
+                    coordinador.agregarShard("shard-" + s, gestor);
+                }
+            }
+            abiertos.add(coordinador);
+            operaciones = coordinador;
+        }
+        for (int i = 0; i < USUARIOS; i++) {
+            operaciones.registrarUsuario(DatosBenchmark.email(i), DatosBenchmark.PASSWORD, DatosBenchmark.nombre(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws Exception {
+        for (int i = abiertos.size() - 1; i >= 0; i--) {
+            abiertos.get(i).close();
+        }
+    }
+
+    private static String emailAleatorio() {
+        return DatosBenchmark.email(ThreadLocalRandom.current().nextInt(USUARIOS));
+    }
+
+    @Benchmark
+    public Usuario autenticar() {
+        return operaciones.autenticar(emailAleatorio(), DatosBenchmark.PASSWORD);
+    }
+
+    @Benchmark
+    public Usuario buscarUsuario() {
+        return operaciones.buscarUsuario(emailAleatorio());
+    }
+
+    @Benchmark
+    public boolean actualizarUsuario() {
+        return operaciones.actualizarUsuario(emailAleatorio(), "Nombre");
+    }
+}
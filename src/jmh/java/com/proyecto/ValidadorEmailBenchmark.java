@@ -0,0 +1,62 @@
+package com.proyecto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Validación de email: expresión regular original frente a ValidadorEmail
+ * Ubicación: src/jmh/java/com/proyecto/ValidadorEmailBenchmark.java
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidadorEmailBenchmark {
+
+    private static final Pattern EMAIL_PATTERN =
+            Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+
+    @Param({"usuario1234567@bench.com", "nombre.apellido+etiqueta@sub.dominio.co.uk", "sin-arroba.bench.com"})
+    private String email;
+
+    private String[] emails;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        // Copias distintas para que el JIT no pueda tratar la cadena como constante
+        emails = new String[64];
+        for (int i = 0; i < emails.length; i++) {
+            emails[i] = new String(email.toCharArray());
+        }
+    }
+
+    private String siguiente() {
+        cursor = (cursor + 1) & (emails.length - 1);
+        return emails[cursor];
+    }
+
+    @Benchmark
+    public boolean regex() {
+        return EMAIL_PATTERN.matcher(siguiente()).matches();
+    }
+
+    @Benchmark
+    public boolean validador() {
+        return ValidadorEmail.esValido(siguiente());
+    }
+}
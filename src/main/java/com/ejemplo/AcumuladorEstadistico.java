@@ -0,0 +1,137 @@
+package com.ejemplo;
+
+/**
+ * Estado parcial de una reducción: suma compensada, media y M2 (suma de cuadrados de las
+ * desviaciones), mínimo, máximo y cantidad de pares
+ *
+ * Cada bloque se acumula en dos pasadas (suma de Neumaier, luego desviaciones respecto de
+ * la media del bloque) y los bloques se combinan con la fórmula de Chan. El resultado
+ * depende sólo del orden de las combinaciones, que Estadisticas fija por índice de bloque.
+ */
+final class AcumuladorEstadistico {
+
+    long cantidad;
+    double suma;
+    double compensacion;
+    double media;
+    double m2;
+    double minimo = Double.POSITIVE_INFINITY;
+    double maximo = Double.NEGATIVE_INFINITY;
+    long pares;
+
+    /**
+     * Acumula un bloque de datos
+     * @param datos arreglo con los datos
+     * @param desde primer índice (incluido)
+     * @param hasta último índice (excluido)
+     * @return acumulador del bloque
+     */
+    static AcumuladorEstadistico deBloque(double[] datos, int desde, int hasta) {
+        AcumuladorEstadistico a = new AcumuladorEstadistico();
+        int n = hasta - desde;
+        if (n <= 0) {
+            return a;
+        }
+        double suma = 0;
+        double compensacion = 0;
+        double minimo = Double.POSITIVE_INFINITY;
+        double maximo = Double.NEGATIVE_INFINITY;
+        long pares = 0;
+        for (int i = desde; i < hasta; i++) {
+            double x = datos[i];
+            // Neumaier: la compensación recoge lo que se pierde del sumando más chico
+            double t = suma + x;
+            if (Math.abs(suma) >= Math.abs(x)) {
+                compensacion += (suma - t) + x;
+            } else {
+                compensacion += (x - t) + suma;
+            }
+            suma = t;
+            minimo = Math.min(minimo, x);
+            maximo = Math.max(maximo, x);
+            pares += esPar(x) ? 1 : 0;
+        }
+        double media = (suma + compensacion) / n;
+        double m2 = 0;
+        for (int i = desde; i < hasta; i++) {
+            double d = datos[i] - media;
+            m2 += d * d;
+        }
+        a.cantidad = n;
+        a.suma = suma;
+        a.compensacion = compensacion;
+        a.media = media;
+        a.m2 = m2;
+        a.minimo = minimo;
+        a.maximo = maximo;
+        a.pares = pares;
+        return a;
+    }
+
+    /**
+     * Igual que Calculadora.esPar para valores enteros; falso para fracciones, NaN e infinitos.
+     * x % 2 sería más directo, pero el resto de doubles no tiene instrucción propia y cuesta
+     * decenas de ciclos; x / 2 es exacto y basta con ver si es entero.
+     */
+    static boolean esPar(double x) {
+        double mitad = x * 0.5;
+        if (Math.abs(mitad) < 0x1p52) {
+            return (long) mitad == mitad;
+        }
+        // Desde 2^53 todos los doubles son enteros pares
+        return Math.abs(mitad) != Double.POSITIVE_INFINITY && mitad == mitad;
+    }
+
+    /**
+     * Combina dos acumuladores sin modificarlos. No es conmutativo bit a bit: el orden
+     * (izquierdo, derecho) debe ser siempre el de los bloques.
+     * @param izquierdo datos anteriores
+     * @param derecho datos posteriores
+     * @return acumulador de la unión
+     */
+    static AcumuladorEstadistico combinar(AcumuladorEstadistico izquierdo, AcumuladorEstadistico derecho) {
+        if (derecho.cantidad == 0) {
+            return izquierdo;
+        }
+        if (izquierdo.cantidad == 0) {
+            return derecho;
+        }
+        AcumuladorEstadistico r = new AcumuladorEstadistico();
+        r.cantidad = izquierdo.cantidad + derecho.cantidad;
+        r.suma = izquierdo.suma;
+        r.compensacion = izquierdo.compensacion;
+        r.sumarCompensado(derecho.suma);
+        r.sumarCompensado(derecho.compensacion);
+        // Chan et al.: combinación de medias y M2 de dos particiones
+        double delta = derecho.media - izquierdo.media;
+        double proporcion = (double) derecho.cantidad / r.cantidad;
+        r.media = izquierdo.media + delta * proporcion;
+        r.m2 = izquierdo.m2 + derecho.m2 + delta * delta * izquierdo.cantidad * proporcion;
+        r.minimo = Math.min(izquierdo.minimo, derecho.minimo);
+        r.maximo = Math.max(izquierdo.maximo, derecho.maximo);
+        r.pares = izquierdo.pares + derecho.pares;
+        return r;
+    }
+
+    private void sumarCompensado(double x) {
+        double t = suma + x;
+        if (Math.abs(suma) >= Math.abs(x)) {
+            compensacion += (suma - t) + x;
+        } else {
+            compensacion += (x - t) + suma;
+        }
+        suma = t;
+    }
+
+    /**
+     * @return el resultado público de la acumulación
+     */
+    ResumenEstadistico resumen() {
+        if (cantidad == 0) {
+            return new ResumenEstadistico(0, 0.0, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0);
+        }
+        // Con infinitos la compensación queda en NaN (Inf - Inf): la suma ya es el resultado correcto
+        double total = Double.isFinite(suma) ? suma + compensacion : suma;
+        return new ResumenEstadistico(cantidad, total, total / cantidad, m2, minimo, maximo, pares);
+    }
+}
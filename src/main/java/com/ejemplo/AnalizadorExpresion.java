@@ -0,0 +1,219 @@
+package com.ejemplo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analizador descendente recursivo de expresiones aritméticas
+ *
+ * Gramática (de menor a mayor precedencia):
+ * <pre>
+ * expresion := termino (('+' | '-') termino)*
+ * termino   := unario (('*' | '/') unario)*
+ * unario    := '-' unario | potencia
+ * potencia  := primario ('^' unario)?          (asociativa a derecha: 2^3^2 = 2^9)
+ * primario  := numero | variable | funcion '(' expresion (',' expresion)* ')' | '(' expresion ')'
+ * </pre>
+ * Así -2^2 es -(2^2) y 2^-1 es 0.5, como en la notación matemática.
+ */
+final class AnalizadorExpresion {
+
+    private final String fuente;
+    private int posicion;
+
+    // Variables en orden de primera aparición: ese orden define los índices de evaluación
+    private final Map<String, Integer> variables = new LinkedHashMap<>();
+
+    private AnalizadorExpresion(String fuente) {
+        this.fuente = fuente;
+    }
+
+    /**
+     * Resultado del análisis: el árbol y las variables que usa
+     */
+    static final class Resultado {
+        final NodoExpresion arbol;
+        final List<String> variables;
+
+        Resultado(NodoExpresion arbol, List<String> variables) {
+            this.arbol = arbol;
+            this.variables = variables;
+        }
+    }
+
+    /**
+     * Analiza una expresión completa
+     * @param fuente texto de la expresión
+     * @return árbol sin plegar y variables en orden de aparición
+     * @throws IllegalArgumentException si la expresión no es válida (el mensaje indica la posición)
+     */
+    static Resultado analizar(String fuente) {
+        if (fuente == null) {
+            throw new IllegalArgumentException("La expresión no puede ser nula");
+        }
+        AnalizadorExpresion analizador = new AnalizadorExpresion(fuente);
+        NodoExpresion arbol = analizador.expresion();
+        analizador.saltarEspacios();
+        if (analizador.posicion < fuente.length()) {
+            throw analizador.error("Se esperaba un operador");
+        }
+        return new Resultado(arbol, new ArrayList<>(analizador.variables.keySet()));
+    }
+
+    // ========== REGLAS ==========
+
+    private NodoExpresion expresion() {
+        NodoExpresion nodo = termino();
+        while (true) {
+            if (consumir('+')) {
+                nodo = new NodoExpresion.Binaria('+', nodo, termino());
+            } else if (consumir('-')) {
+                nodo = new NodoExpresion.Binaria('-', nodo, termino());
+            } else {
+                return nodo;
+            }
+        }
+    }
+
+    private NodoExpresion termino() {
+        NodoExpresion nodo = unario();
+        while (true) {
+            if (consumir('*')) {
+                nodo = new NodoExpresion.Binaria('*', nodo, unario());
+            } else if (consumir('/')) {
+                nodo = new NodoExpresion.Binaria('/', nodo, unario());
+            } else {
+                return nodo;
+            }
+        }
+    }
+
+    private NodoExpresion unario() {
+        if (consumir('-')) {
+            return new NodoExpresion.Negacion(unario());
+        }
+        return potencia();
+    }
+
+    private NodoExpresion potencia() {
+        NodoExpresion base = primario();
+        if (consumir('^')) {
+            return new NodoExpresion.Binaria('^', base, unario());
+        }
+        return base;
+    }
+
+    private NodoExpresion primario() {
+        saltarEspacios();
+        if (posicion >= fuente.length()) {
+            throw error("Expresión incompleta");
+        }
+        char c = fuente.charAt(posicion);
+        if (consumir('(')) {
+            NodoExpresion interior = expresion();
+            esperar(')');
+            return interior;
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return numero();
+        }
+        if (Character.isLetter(c) || c == '_') {
+            int inicio = posicion;
+            String nombre = identificador();
+            if (consumir('(')) {
+                return funcion(nombre, inicio);
+            }
+            Integer indice = variables.get(nombre);
+            if (indice == null) {
+                indice = variables.size();
+                variables.put(nombre, indice);
+            }
+            return new NodoExpresion.Variable(nombre, indice);
+        }
+        throw error("Carácter inesperado '" + c + "'");
+    }
+
+    private NodoExpresion funcion(String nombre, int inicio) {
+        int aridad = NodoExpresion.Funcion.aridad(nombre);
+        if (aridad < 0) {
+            posicion = inicio;
+            throw error("Función desconocida '" + nombre + "'");
+        }
+        NodoExpresion[] argumentos = new NodoExpresion[aridad];
+        for (int i = 0; i < aridad; i++) {
+            if (i > 0) {
+                esperar(',');
+            }
+            argumentos[i] = expresion();
+        }
+        esperar(')');
+        return new NodoExpresion.Funcion(nombre, argumentos);
+    }
+
+    private NodoExpresion numero() {
+        int inicio = posicion;
+        while (posicion < fuente.length()
+                && (Character.isDigit(fuente.charAt(posicion)) || fuente.charAt(posicion) == '.')) {
+            posicion++;
+        }
+        // Notación científica: 1e3, 2.5E-4
+        if (posicion < fuente.length() && (fuente.charAt(posicion) == 'e' || fuente.charAt(posicion) == 'E')) {
+            int marca = posicion++;
+            if (posicion < fuente.length() && (fuente.charAt(posicion) == '+' || fuente.charAt(posicion) == '-')) {
+                posicion++;
+            }
+            if (posicion >= fuente.length() || !Character.isDigit(fuente.charAt(posicion))) {
+                posicion = marca;
+                throw error("Exponente incompleto");
+            }
+            while (posicion < fuente.length() && Character.isDigit(fuente.charAt(posicion))) {
+                posicion++;
+            }
+        }
+        String texto = fuente.substring(inicio, posicion);
+        try {
+            return new NodoExpresion.Numero(Double.parseDouble(texto));
+        } catch (NumberFormatException e) {
+            posicion = inicio;
+            throw error("Número inválido '" + texto + "'");
+        }
+    }
+
+    private String identificador() {
+        int inicio = posicion;
+        while (posicion < fuente.length()
+                && (Character.isLetterOrDigit(fuente.charAt(posicion)) || fuente.charAt(posicion) == '_')) {
+            posicion++;
+        }
+        return fuente.substring(inicio, posicion);
+    }
+
+    // ========== AUXILIARES ==========
+
+    private void saltarEspacios() {
+        while (posicion < fuente.length() && Character.isWhitespace(fuente.charAt(posicion))) {
+            posicion++;
+        }
+    }
+
+    private boolean consumir(char esperado) {
+        saltarEspacios();
+        if (posicion < fuente.length() && fuente.charAt(posicion) == esperado) {
+            posicion++;
+            return true;
+        }
+        return false;
+    }
+
+    private void esperar(char esperado) {
+        if (!consumir(esperado)) {
+            throw error("Se esperaba '" + esperado + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String mensaje) {
+        return new IllegalArgumentException(mensaje + " en la posición " + posicion + ": " + fuente);
+    }
+}
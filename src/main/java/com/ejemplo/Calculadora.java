@@ -1,10 +1,45 @@
 package com.ejemplo;
 
+import com.ejemplo.MetricasCalculadora.Operacion;
+import com.proyecto.metricas.RegistroMetricas;
+
+import java.math.BigInteger;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
 /**
  * Clase Calculadora con operaciones básicas
+ *
+ * Además de las operaciones escalares ofrece versiones por lotes sobre arreglos y
+ * DoubleBuffer que escriben en un destino del llamador sin reservar memoria. Los bucles
+ * son simples y sin llamadas para que el JIT los vectorice. En los lotes, la división por
+ * cero y la raíz de un negativo no lanzan excepción: el elemento queda en NaN y se marca
+ * en la máscara de errores, y el resto del lote se calcula igual.
+ *
+ * Creada con un RegistroMetricas cuenta cada operación y los elementos de cada lote (ver
+ * MetricasCalculadora); sin él no mide nada. Los errores emiten además un evento de Java
+ * Flight Recorder (EventoErrorCalculadora).
  */
 public class Calculadora {
 
+    // Null si no se publican métricas
+    private final MetricasCalculadora metricas;
+
+    /**
+     * Calculadora sin métricas
+     */
+    public Calculadora() {
+        this.metricas = null;
+    }
+
+    /**
+     * Calculadora que publica sus métricas en un registro
+     * @param registro registro de métricas
+     */
+    public Calculadora(RegistroMetricas registro) {
+        this.metricas = new MetricasCalculadora(registro);
+    }
+
     /**
      * Suma dos números
      * @param a primer número
@@ -12,6 +47,7 @@ public class Calculadora {
      * @return resultado de la suma
      */
     public double sumar(double a, double b) {
+        contar(Operacion.SUMAR);
         return a + b;
     }
 
@@ -22,6 +58,7 @@ public class Calculadora {
      * @return resultado de la resta
      */
     public double restar(double a, double b) {
+        contar(Operacion.RESTAR);
         return a - b;
     }
 
@@ -32,6 +69,7 @@ public class Calculadora {
      * @return resultado de la multiplicación
      */
     public double multiplicar(double a, double b) {
+        contar(Operacion.MULTIPLICAR);
         return a * b;
     }
 
@@ -44,19 +82,60 @@ public class Calculadora {
      */
     public double dividir(double a, double b) {
         if (b == 0) {
+            contarError(Operacion.DIVIDIR, b);
             throw new IllegalArgumentException("No se puede dividir por cero");
         }
+        contar(Operacion.DIVIDIR);
         return a / b;
     }
 
     /**
-     * Calcula la potencia de un número
+     * Calcula la potencia de un número. El resultado es idéntico al de Math.pow; las bases
+     * enteras con resultado exacto se resuelven sin llamarlo (ver MotorPotencia).
      * @param base base
      * @param exponente exponente
      * @return resultado de base^exponente
      */
     public double potencia(double base, int exponente) {
-        return Math.pow(base, exponente);
+        contar(Operacion.POTENCIA);
+        return MotorPotencia.potencia(base, exponente);
+    }
+
+    /**
+     * Calcula la potencia exacta de un entero
+     * @param base base
+     * @param exponente exponente (no negativo)
+     * @return resultado de base^exponente
+     * @throws IllegalArgumentException si el exponente es negativo
+     * @throws ArithmeticException si el resultado no cabe en un long
+     */
+    public long potenciaExacta(long base, int exponente) {
+        try {
+            long resultado = MotorPotencia.potenciaExacta(base, exponente);
+            contar(Operacion.POTENCIA_EXACTA);
+            return resultado;
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            contarError(Operacion.POTENCIA_EXACTA, base);
+            throw e;
+        }
+    }
+
+    /**
+     * Calcula la potencia exacta de un entero de precisión arbitraria
+     * @param base base
+     * @param exponente exponente (no negativo)
+     * @return resultado de base^exponente
+     * @throws IllegalArgumentException si el exponente es negativo
+     */
+    public BigInteger potenciaExacta(BigInteger base, int exponente) {
+        try {
+            BigInteger resultado = MotorPotencia.potenciaExacta(base, exponente);
+            contar(Operacion.POTENCIA_EXACTA);
+            return resultado;
+        } catch (IllegalArgumentException e) {
+            contarError(Operacion.POTENCIA_EXACTA, base.doubleValue());
+            throw e;
+        }
     }
 
     /**
@@ -67,8 +146,10 @@ public class Calculadora {
      */
     public double raizCuadrada(double numero) {
         if (numero < 0) {
+            contarError(Operacion.RAIZ_CUADRADA, numero);
             throw new IllegalArgumentException("No se puede calcular la raíz cuadrada de un número negativo");
         }
+        contar(Operacion.RAIZ_CUADRADA);
         return Math.sqrt(numero);
     }
 
@@ -78,6 +159,543 @@ public class Calculadora {
      * @return true si es par, false si es impar
      */
     public boolean esPar(int numero) {
+        contar(Operacion.ES_PAR);
         return numero % 2 == 0;
     }
-}
\ No newline at end of file
+
+    // ========== REDUCCIONES ==========
+
+    /**
+     * Suma, media, varianza, mínimo, máximo y cantidad de pares de un arreglo, calculados en
+     * paralelo con suma compensada (ver Estadisticas). El resultado no depende de la cantidad de hilos.
+     * @param datos datos
+     * @return resumen estadístico
+     */
+    public ResumenEstadistico resumir(double[] datos) {
+        if (metricas == null) {
+            return Estadisticas.resumir(datos);
+        }
+        long inicio = System.nanoTime();
+        ResumenEstadistico resumen = Estadisticas.resumir(datos);
+        metricas.resumir(inicio);
+        return resumen;
+    }
+
+    // ========== OPERACIONES POR LOTES: ARREGLOS ==========
+
+    /**
+     * Suma elemento a elemento: resultado[i] = a[i] + b[i]
+     * @param a primeros sumandos
+     * @param b segundos sumandos
+     * @param resultado destino (puede ser a o b)
+     * @throws IllegalArgumentException si los arreglos no tienen la misma longitud
+     */
+    public void sumar(double[] a, double[] b, double[] resultado) {
+        validarLongitudes(a.length, b.length, resultado.length);
+        sumar(a, 0, b, 0, resultado, 0, resultado.length);
+        contarLote(Operacion.SUMAR, resultado.length, 0);
+    }
+
+    /**
+     * Suma un escalar a cada elemento: resultado[i] = a[i] + b
+     * @param a sumandos
+     * @param b escalar a sumar
+     * @param resultado destino (puede ser a)
+     * @throws IllegalArgumentException si los arreglos no tienen la misma longitud
+     */
+    public void sumar(double[] a, double b, double[] resultado) {
+        validarLongitudes(a.length, resultado.length);
+        sumar(a, 0, b, resultado, 0, resultado.length);
+        contarLote(Operacion.SUMAR, resultado.length, 0);
+    }
+
+    /**
+     * Resta elemento a elemento: resultado[i] = a[i] - b[i]
+     * @param a minuendos
+     * @param b sustraendos
+     * @param resultado destino (puede ser a o b)
+     * @throws IllegalArgumentException si los arreglos no tienen la misma longitud
+     */
+    public void restar(double[] a, double[] b, double[] resultado) {
+        validarLongitudes(a.length, b.length, resultado.length);
+        restar(a, 0, b, 0, resultado, 0, resultado.length);
+        contarLote(Operacion.RESTAR, resultado.length, 0);
+    }
+
+    /**
+     * Resta un escalar a cada elemento: resultado[i] = a[i] - b
+     * @param a minuendos
+     * @param b escalar a restar
+     * @param resultado destino (puede ser a)
+     * @throws IllegalArgumentException si los arreglos no tienen la misma longitud
+     */
+    public void restar(double[] a, double b, double[] resultado) {
+        validarLongitudes(a.length, resultado.length);
+        sumar(a, 0, -b, resultado, 0, resultado.length);
+        contarLote(Operacion.RESTAR, resultado.length, 0);
+    }
+
+    /**
+     * Multiplica elemento a elemento: resultado[i] = a[i] * b[i]
+     * @param a primeros factores
+     * @param b segundos factores
+     * @param resultado destino (puede ser a o b)
+     * @throws IllegalArgumentException si los arreglos no tienen la misma longitud
+     */
+    public void multiplicar(double[] a, double[] b, double[] resultado) {
+        validarLongitudes(a.length, b.length, resultado.length);
+        multiplicar(a, 0, b, 0, resultado, 0, resultado.length);
+        contarLote(Operacion.MULTIPLICAR, resultado.length, 0);
+    }
+
+    /**
+     * Multiplica cada elemento por un escalar: resultado[i] = a[i] * b
+     * @param a factores
+     * @param b escalar
+     * @param resultado destino (puede ser a)
+     * @throws IllegalArgumentException si los arreglos no tienen la misma longitud
+     */
+    public void multiplicar(double[] a, double b, double[] resultado) {
+        validarLongitudes(a.length, resultado.length);
+        multiplicar(a, 0, b, resultado, 0, resultado.length);
+        contarLote(Operacion.MULTIPLICAR, resultado.length, 0);
+    }
+
+    /**
+     * Divide elemento a elemento: resultado[i] = a[i] / b[i].
+     * Donde b[i] es cero el resultado es NaN y errores[i] queda en true.
+     * @param a dividendos
+     * @param b divisores
+     * @param resultado destino (puede ser a o b)
+     * @param errores máscara de errores (se sobrescribe completa)
+     * @return cantidad de divisiones por cero
+     * @throws IllegalArgumentException si los arreglos no tienen la misma longitud
+     */
+    public int dividir(double[] a, double[] b, double[] resultado, boolean[] errores) {
+        validarLongitudes(a.length, b.length, resultado.length, errores.length);
+        return contarLote(Operacion.DIVIDIR, resultado.length, dividir(a, 0, b, 0, resultado, 0, errores, resultado.length));
+    }
+
+    /**
+     * Divide cada elemento por un escalar: resultado[i] = a[i] / b.
+     * Si b es cero todo el lote queda en NaN y marcado como error.
+     * @param a dividendos
+     * @param b divisor
+     * @param resultado destino (puede ser a)
+     * @param errores máscara de errores (se sobrescribe completa)
+     * @return cantidad de divisiones por cero
+     * @throws IllegalArgumentException si los arreglos no tienen la misma longitud
+     */
+    public int dividir(double[] a, double b, double[] resultado, boolean[] errores) {
+        validarLongitudes(a.length, resultado.length, errores.length);
+        return contarLote(Operacion.DIVIDIR, resultado.length, dividir(a, 0, b, resultado, 0, errores, resultado.length));
+    }
+
+    /**
+     * Multiplicación y suma fusionadas: resultado[i] = a[i] * b[i] + c[i] con un solo redondeo
+     * (Math.fma, que el JIT traduce a una instrucción FMA en los procesadores que la tienen)
+     * @param a primeros factores
+     * @param b segundos factores
+     * @param c sumandos
+     * @param resultado destino (puede ser cualquiera de las entradas)
+     * @throws IllegalArgumentException si los arreglos no tienen la misma longitud
+     */
+    public void multiplicarSumar(double[] a, double[] b, double[] c, double[] resultado) {
+        validarLongitudes(a.length, b.length, c.length, resultado.length);
+        multiplicarSumar(a, 0, b, 0, c, 0, resultado, 0, resultado.length);
+        contarLote(Operacion.MULTIPLICAR_SUMAR, resultado.length, 0);
+    }
+
+    /**
+     * Raíz cuadrada de cada elemento. Donde a[i] es negativo el resultado es NaN
+     * y errores[i] queda en true.
+     * @param a radicandos
+     * @param resultado destino (puede ser a)
+     * @param errores máscara de errores (se sobrescribe completa)
+     * @return cantidad de radicandos negativos
+     * @throws IllegalArgumentException si los arreglos no tienen la misma longitud
+     */
+    public int raizCuadrada(double[] a, double[] resultado, boolean[] errores) {
+        validarLongitudes(a.length, resultado.length, errores.length);
+        return contarLote(Operacion.RAIZ_CUADRADA, resultado.length, raizCuadrada(a, 0, resultado, 0, errores, resultado.length));
+    }
+
+    // ========== OPERACIONES POR LOTES: DOUBLEBUFFER ==========
+    // Operan sobre los elementos restantes (position..limit) y avanzan la posición de todos
+    // los búferes, como las operaciones masivas de NIO. Los búferes respaldados por un
+    // arreglo usan los mismos bucles que las versiones de arreglos.
+
+    /**
+     * Suma elemento a elemento
+     * @param a primeros sumandos
+     * @param b segundos sumandos
+     * @param resultado destino
+     * @throws IllegalArgumentException si los búferes no tienen la misma cantidad de elementos restantes
+     */
+    public void sumar(DoubleBuffer a, DoubleBuffer b, DoubleBuffer resultado) {
+        int n = validarLongitudes(a.remaining(), b.remaining(), resultado.remaining());
+        if (a.hasArray() && b.hasArray() && resultado.hasArray()) {
+            sumar(a.array(), inicio(a), b.array(), inicio(b), resultado.array(), inicio(resultado), n);
+        } else {
+            int pa = a.position(), pb = b.position(), pr = resultado.position();
+            for (int i = 0; i < n; i++) {
+                resultado.put(pr + i, a.get(pa + i) + b.get(pb + i));
+            }
+        }
+        avanzar(n, a, b, resultado);
+        contarLote(Operacion.SUMAR, n, 0);
+    }
+
+    /**
+     * Suma un escalar a cada elemento
+     * @param a sumandos
+     * @param b escalar a sumar
+     * @param resultado destino
+     * @throws IllegalArgumentException si los búferes no tienen la misma cantidad de elementos restantes
+     */
+    public void sumar(DoubleBuffer a, double b, DoubleBuffer resultado) {
+        contarLote(Operacion.SUMAR, sumarEscalar(a, b, resultado), 0);
+    }
+
+    private static int sumarEscalar(DoubleBuffer a, double b, DoubleBuffer resultado) {
+        int n = validarLongitudes(a.remaining(), resultado.remaining());
+        if (a.hasArray() && resultado.hasArray()) {
+            sumar(a.array(), inicio(a), b, resultado.array(), inicio(resultado), n);
+        } else {
+            int pa = a.position(), pr = resultado.position();
+            for (int i = 0; i < n; i++) {
+                resultado.put(pr + i, a.get(pa + i) + b);
+            }
+        }
+        avanzar(n, a, resultado);
+        return n;
+    }
+
+    /**
+     * Resta elemento a elemento
+     * @param a minuendos
+     * @param b sustraendos
+     * @param resultado destino
+     * @throws IllegalArgumentException si los búferes no tienen la misma cantidad de elementos restantes
+     */
+    public void restar(DoubleBuffer a, DoubleBuffer b, DoubleBuffer resultado) {
+        int n = validarLongitudes(a.remaining(), b.remaining(), resultado.remaining());
+        if (a.hasArray() && b.hasArray() && resultado.hasArray()) {
+            restar(a.array(), inicio(a), b.array(), inicio(b), resultado.array(), inicio(resultado), n);
+        } else {
+            int pa = a.position(), pb = b.position(), pr = resultado.position();
+            for (int i = 0; i < n; i++) {
+                resultado.put(pr + i, a.get(pa + i) - b.get(pb + i));
+            }
+        }
+        avanzar(n, a, b, resultado);
+        contarLote(Operacion.RESTAR, n, 0);
+    }
+
+    /**
+     * Resta un escalar a cada elemento
+     * @param a minuendos
+     * @param b escalar a restar
+     * @param resultado destino
+     * @throws IllegalArgumentException si los búferes no tienen la misma cantidad de elementos restantes
+     */
+    public void restar(DoubleBuffer a, double b, DoubleBuffer resultado) {
+        contarLote(Operacion.RESTAR, sumarEscalar(a, -b, resultado), 0);
+    }
+
+    /**
+     * Multiplica elemento a elemento
+     * @param a primeros factores
+     * @param b segundos factores
+     * @param resultado destino
+     * @throws IllegalArgumentException si los búferes no tienen la misma cantidad de elementos restantes
+     */
+    public void multiplicar(DoubleBuffer a, DoubleBuffer b, DoubleBuffer resultado) {
+        int n = validarLongitudes(a.remaining(), b.remaining(), resultado.remaining());
+        if (a.hasArray() && b.hasArray() && resultado.hasArray()) {
+            multiplicar(a.array(), inicio(a), b.array(), inicio(b), resultado.array(), inicio(resultado), n);
+        } else {
+            int pa = a.position(), pb = b.position(), pr = resultado.position();
+            for (int i = 0; i < n; i++) {
+                resultado.put(pr + i, a.get(pa + i) * b.get(pb + i));
+            }
+        }
+        avanzar(n, a, b, resultado);
+        contarLote(Operacion.MULTIPLICAR, n, 0);
+    }
+
+    /**
+     * Multiplica cada elemento por un escalar
+     * @param a factores
+     * @param b escalar
+     * @param resultado destino
+     * @throws IllegalArgumentException si los búferes no tienen la misma cantidad de elementos restantes
+     */
+    public void multiplicar(DoubleBuffer a, double b, DoubleBuffer resultado) {
+        int n = validarLongitudes(a.remaining(), resultado.remaining());
+        if (a.hasArray() && resultado.hasArray()) {
+            multiplicar(a.array(), inicio(a), b, resultado.array(), inicio(resultado), n);
+        } else {
+            int pa = a.position(), pr = resultado.position();
+            for (int i = 0; i < n; i++) {
+                resultado.put(pr + i, a.get(pa + i) * b);
+            }
+        }
+        avanzar(n, a, resultado);
+        contarLote(Operacion.MULTIPLICAR, n, 0);
+    }
+
+    /**
+     * Divide elemento a elemento; las divisiones por cero quedan en NaN y marcadas en errores
+     * @param a dividendos
+     * @param b divisores
+     * @param resultado destino
+     * @param errores máscara de errores, indexada desde 0 para el primer elemento restante
+     * @return cantidad de divisiones por cero
+     * @throws IllegalArgumentException si las longitudes no coinciden
+     */
+    public int dividir(DoubleBuffer a, DoubleBuffer b, DoubleBuffer resultado, boolean[] errores) {
+        int n = validarLongitudes(a.remaining(), b.remaining(), resultado.remaining(), errores.length);
+        int fallidos = 0;
+        if (a.hasArray() && b.hasArray() && resultado.hasArray()) {
+            fallidos = dividir(a.array(), inicio(a), b.array(), inicio(b), resultado.array(), inicio(resultado),
+                    errores, n);
+        } else {
+            int pa = a.position(), pb = b.position(), pr = resultado.position();
+            for (int i = 0; i < n; i++) {
+                double divisor = b.get(pb + i);
+                boolean cero = divisor == 0;
+                errores[i] = cero;
+                resultado.put(pr + i, cero ? Double.NaN : a.get(pa + i) / divisor);
+                fallidos += cero ? 1 : 0;
+            }
+        }
+        avanzar(n, a, b, resultado);
+        return contarLote(Operacion.DIVIDIR, n, fallidos);
+    }
+
+    /**
+     * Divide cada elemento por un escalar; si es cero todo el lote queda en NaN y marcado en errores
+     * @param a dividendos
+     * @param b divisor
+     * @param resultado destino
+     * @param errores máscara de errores, indexada desde 0 para el primer elemento restante
+     * @return cantidad de divisiones por cero
+     * @throws IllegalArgumentException si las longitudes no coinciden
+     */
+    public int dividir(DoubleBuffer a, double b, DoubleBuffer resultado, boolean[] errores) {
+        int n = validarLongitudes(a.remaining(), resultado.remaining(), errores.length);
+        int fallidos;
+        if (a.hasArray() && resultado.hasArray()) {
+            fallidos = dividir(a.array(), inicio(a), b, resultado.array(), inicio(resultado), errores, n);
+        } else {
+            boolean cero = b == 0;
+            int pa = a.position(), pr = resultado.position();
+            for (int i = 0; i < n; i++) {
+                errores[i] = cero;
+                resultado.put(pr + i, cero ? Double.NaN : a.get(pa + i) / b);
+            }
+            fallidos = cero ? n : 0;
+        }
+        avanzar(n, a, resultado);
+        return contarLote(Operacion.DIVIDIR, n, fallidos);
+    }
+
+    /**
+     * Multiplicación y suma fusionadas: a * b + c con un solo redondeo
+     * @param a primeros factores
+     * @param b segundos factores
+     * @param c sumandos
+     * @param resultado destino
+     * @throws IllegalArgumentException si los búferes no tienen la misma cantidad de elementos restantes
+     */
+    public void multiplicarSumar(DoubleBuffer a, DoubleBuffer b, DoubleBuffer c, DoubleBuffer resultado) {
+        int n = validarLongitudes(a.remaining(), b.remaining(), c.remaining(), resultado.remaining());
+        if (a.hasArray() && b.hasArray() && c.hasArray() && resultado.hasArray()) {
+            multiplicarSumar(a.array(), inicio(a), b.array(), inicio(b), c.array(), inicio(c),
+                    resultado.array(), inicio(resultado), n);
+        } else {
+            int pa = a.position(), pb = b.position(), pc = c.position(), pr = resultado.position();
+            for (int i = 0; i < n; i++) {
+                resultado.put(pr + i, Math.fma(a.get(pa + i), b.get(pb + i), c.get(pc + i)));
+            }
+        }
+        avanzar(n, a, b, c, resultado);
+        contarLote(Operacion.MULTIPLICAR_SUMAR, n, 0);
+    }
+
+    /**
+     * Raíz cuadrada de cada elemento; los negativos quedan en NaN y marcados en errores
+     * @param a radicandos
+     * @param resultado destino
+     * @param errores máscara de errores, indexada desde 0 para el primer elemento restante
+     * @return cantidad de radicandos negativos
+     * @throws IllegalArgumentException si las longitudes no coinciden
+     */
+    public int raizCuadrada(DoubleBuffer a, DoubleBuffer resultado, boolean[] errores) {
+        int n = validarLongitudes(a.remaining(), resultado.remaining(), errores.length);
+        int fallidos = 0;
+        if (a.hasArray() && resultado.hasArray()) {
+            fallidos = raizCuadrada(a.array(), inicio(a), resultado.array(), inicio(resultado), errores, n);
+        } else {
+            int pa = a.position(), pr = resultado.position();
+            for (int i = 0; i < n; i++) {
+                double x = a.get(pa + i);
+                boolean negativo = x < 0;
+                errores[i] = negativo;
+                resultado.put(pr + i, negativo ? Double.NaN : Math.sqrt(x));
+                fallidos += negativo ? 1 : 0;
+            }
+        }
+        avanzar(n, a, resultado);
+        return contarLote(Operacion.RAIZ_CUADRADA, n, fallidos);
+    }
+
+    // ========== BUCLES DE LOS LOTES ==========
+
+    private static void sumar(double[] a, int ia, double[] b, int ib, double[] r, int ir, int n) {
+        for (int i = 0; i < n; i++) {
+            r[ir + i] = a[ia + i] + b[ib + i];
+        }
+    }
+
+    private static void sumar(double[] a, int ia, double b, double[] r, int ir, int n) {
+        for (int i = 0; i < n; i++) {
+            r[ir + i] = a[ia + i] + b;
+        }
+    }
+
+    private static void restar(double[] a, int ia, double[] b, int ib, double[] r, int ir, int n) {
+        for (int i = 0; i < n; i++) {
+            r[ir + i] = a[ia + i] - b[ib + i];
+        }
+    }
+
+    private static void multiplicar(double[] a, int ia, double[] b, int ib, double[] r, int ir, int n) {
+        for (int i = 0; i < n; i++) {
+            r[ir + i] = a[ia + i] * b[ib + i];
+        }
+    }
+
+    private static void multiplicar(double[] a, int ia, double b, double[] r, int ir, int n) {
+        for (int i = 0; i < n; i++) {
+            r[ir + i] = a[ia + i] * b;
+        }
+    }
+
+    private static int dividir(double[] a, int ia, double[] b, int ib, double[] r, int ir, boolean[] errores, int n) {
+        int fallidos = 0;
+        for (int i = 0; i < n; i++) {
+            double divisor = b[ib + i];
+            boolean cero = divisor == 0;
+            errores[i] = cero;
+            r[ir + i] = cero ? Double.NaN : a[ia + i] / divisor;
+            fallidos += cero ? 1 : 0;
+        }
+        return fallidos;
+    }
+
+    private static int dividir(double[] a, int ia, double b, double[] r, int ir, boolean[] errores, int n) {
+        boolean cero = b == 0;
+        if (cero) {
+            Arrays.fill(r, ir, ir + n, Double.NaN);
+        } else {
+            // Multiplicar por el inverso cambiaría el redondeo: se divide elemento a elemento
+            for (int i = 0; i < n; i++) {
+                r[ir + i] = a[ia + i] / b;
+            }
+        }
+        Arrays.fill(errores, 0, n, cero);
+        return cero ? n : 0;
+    }
+
+    private static void multiplicarSumar(double[] a, int ia, double[] b, int ib, double[] c, int ic,
+                                         double[] r, int ir, int n) {
+        for (int i = 0; i < n; i++) {
+            r[ir + i] = Math.fma(a[ia + i], b[ib + i], c[ic + i]);
+        }
+    }
+
+    private static int raizCuadrada(double[] a, int ia, double[] r, int ir, boolean[] errores, int n) {
+        int fallidos = 0;
+        for (int i = 0; i < n; i++) {
+            // Math.sqrt ya devuelve NaN para los negativos: el bucle no necesita ramas
+            double x = a[ia + i];
+            boolean negativo = x < 0;
+            errores[i] = negativo;
+            r[ir + i] = Math.sqrt(x);
+            fallidos += negativo ? 1 : 0;
+        }
+        return fallidos;
+    }
+
+    // ========== MÉTRICAS ==========
+
+    private void contar(Operacion operacion) {
+        if (metricas != null) {
+            metricas.exito(operacion);
+        }
+    }
+
+    private void contarError(Operacion operacion, double operando) {
+        if (metricas != null) {
+            metricas.error(operacion);
+        }
+        EventoErrorCalculadora.emitir(operacion, operando, 1, 1);
+    }
+
+    /**
+     * @return fallidos, para poder retornar el conteo del lote en la misma línea
+     */
+    private int contarLote(Operacion operacion, int elementos, int fallidos) {
+        if (metricas != null) {
+            metricas.lote(operacion, elementos, fallidos);
+        }
+        if (fallidos > 0) {
+            EventoErrorCalculadora.emitir(operacion, Double.NaN, elementos, fallidos);
+        }
+        return fallidos;
+    }
+
+    // ========== AUXILIARES DE LOS LOTES ==========
+
+    // Sobrecargas fijas en lugar de varargs: un lote no debe reservar ni un arreglo de longitudes
+    private static int validarLongitudes(int n, int m) {
+        if (n != m) {
+            throw new IllegalArgumentException("Los operandos del lote deben tener la misma longitud");
+        }
+        return n;
+    }
+
+    private static int validarLongitudes(int n, int m, int o) {
+        return validarLongitudes(validarLongitudes(n, m), o);
+    }
+
+    private static int validarLongitudes(int n, int m, int o, int p) {
+        return validarLongitudes(validarLongitudes(n, m, o), p);
+    }
+
+    private static int inicio(DoubleBuffer b) {
+        return b.arrayOffset() + b.position();
+    }
+
+    // Se leen todas las posiciones antes de moverlas: el destino puede ser el mismo búfer que una entrada
+    private static void avanzar(int n, DoubleBuffer a, DoubleBuffer resultado) {
+        int pa = a.position(), pr = resultado.position();
+        a.position(pa + n);
+        resultado.position(pr + n);
+    }
+
+    private static void avanzar(int n, DoubleBuffer a, DoubleBuffer b, DoubleBuffer resultado) {
+        int pa = a.position(), pb = b.position(), pr = resultado.position();
+        a.position(pa + n);
+        b.position(pb + n);
+        resultado.position(pr + n);
+    }
+
+    private static void avanzar(int n, DoubleBuffer a, DoubleBuffer b, DoubleBuffer c, DoubleBuffer resultado) {
+        int pc = c.position();
+        avanzar(n, a, b, resultado);
+        c.position(pc + n);
+    }
+}
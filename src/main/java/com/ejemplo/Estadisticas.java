@@ -0,0 +1,217 @@
+package com.ejemplo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Reducciones paralelas sobre columnas grandes de doubles: suma, media, varianza,
+ * mínimo, máximo y cantidad de pares
+ *
+ * Los datos se dividen en bloques de tamaño fijo (BLOQUE elementos) y los bloques se
+ * combinan siempre con el mismo árbol, definido sólo por la cantidad de bloques: la mitad
+ * izquierda de un rango de m bloques es la mayor potencia de dos menor que m. El
+ * ForkJoinPool reparte subárboles entre hilos, pero el árbol no cambia, así que el
+ * resultado es idéntico bit a bit con 1 o N hilos. ResumenIncremental arma el mismo árbol
+ * a medida que llegan los datos, por lo que un flujo da el mismo resultado que un arreglo.
+ */
+public final class Estadisticas {
+
+    /** Elementos por bloque: 512 KB, caben en la caché L2 entre las dos pasadas del bloque */
+    static final int BLOQUE = 1 << 16;
+
+    // Bloques por ventana mapeada de un archivo (128 MB)
+    private static final int BLOQUES_POR_VENTANA = 256;
+
+    // Por debajo de esta cantidad de bloques no conviene repartir más el trabajo
+    private static final int BLOQUES_POR_TAREA = 4;
+
+    private Estadisticas() {
+    }
+
+    // ========== ARREGLOS ==========
+
+    /**
+     * Resume un arreglo en el ForkJoinPool común
+     * @param datos datos
+     * @return resumen
+     */
+    public static ResumenEstadistico resumir(double[] datos) {
+        return resumir(datos, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Resume un arreglo en el pool indicado (su paralelismo no cambia el resultado)
+     * @param datos datos
+     * @param pool pool donde se ejecuta la reducción
+     * @return resumen
+     */
+    public static ResumenEstadistico resumir(double[] datos, ForkJoinPool pool) {
+        FuenteBloques fuente = (bloque, copia) -> {
+            int desde = bloque * BLOQUE;
+            return AcumuladorEstadistico.deBloque(datos, desde, Math.min(datos.length, desde + BLOQUE));
+        };
+        return reducir(fuente, cantidadBloques(datos.length), pool);
+    }
+
+    // ========== ARCHIVOS ==========
+
+    /**
+     * Resume un archivo de doubles binarios mediante lecturas mapeadas en memoria
+     * @param archivo archivo con doubles de 8 bytes consecutivos
+     * @param orden orden de bytes del archivo
+     * @return resumen
+     * @throws IOException si no se puede leer o su tamaño no es múltiplo de 8
+     */
+    public static ResumenEstadistico resumir(Path archivo, ByteOrder orden) throws IOException {
+        return resumir(archivo, orden, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Resume un archivo de doubles binarios en el pool indicado
+     * @param archivo archivo con doubles de 8 bytes consecutivos
+     * @param orden orden de bytes del archivo
+     * @param pool pool donde se ejecuta la reducción
+     * @return resumen
+     * @throws IOException si no se puede leer o su tamaño no es múltiplo de 8
+     */
+    public static ResumenEstadistico resumir(Path archivo, ByteOrder orden, ForkJoinPool pool) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano % Double.BYTES != 0) {
+                throw new IOException("El tamaño de " + archivo + " no es múltiplo de " + Double.BYTES + " bytes");
+            }
+            long elementos = tamano / Double.BYTES;
+            long porVentana = (long) BLOQUE * BLOQUES_POR_VENTANA;
+            DoubleBuffer[] ventanas = new DoubleBuffer[(int) ((elementos + porVentana - 1) / porVentana)];
+            for (int v = 0; v < ventanas.length; v++) {
+                long inicio = v * porVentana;
+                long largo = Math.min(porVentana, elementos - inicio);
+                ventanas[v] = canal.map(FileChannel.MapMode.READ_ONLY, inicio * Double.BYTES, largo * Double.BYTES)
+                        .order(orden).asDoubleBuffer();
+            }
+            FuenteBloques fuente = (bloque, copia) -> {
+                // Lectura absoluta sobre un duplicado: las ventanas se comparten entre hilos
+                DoubleBuffer ventana = ventanas[bloque / BLOQUES_POR_VENTANA].duplicate();
+                int desde = (bloque % BLOQUES_POR_VENTANA) * BLOQUE;
+                int largo = Math.min(BLOQUE, ventana.limit() - desde);
+                ventana.position(desde);
+                ventana.get(copia, 0, largo);
+                return AcumuladorEstadistico.deBloque(copia, 0, largo);
+            };
+            // El mapeo sigue siendo válido después de cerrar el canal
+            return reducir(fuente, cantidadBloques(elementos), pool);
+        }
+    }
+
+    // ========== FLUJOS ==========
+
+    /**
+     * Resume un flujo de doubles binarios leyéndolo por bloques (en el hilo que llama)
+     * @param entrada flujo con doubles de 8 bytes consecutivos (no se cierra)
+     * @param orden orden de bytes del flujo
+     * @return resumen
+     * @throws IOException si falla la lectura o el flujo termina a mitad de un double
+     */
+    public static ResumenEstadistico resumir(InputStream entrada, ByteOrder orden) throws IOException {
+        ResumenIncremental incremental = new ResumenIncremental();
+        byte[] bytes = new byte[BLOQUE * Double.BYTES];
+        double[] valores = new double[BLOQUE];
+        DoubleBuffer vista = ByteBuffer.wrap(bytes).order(orden).asDoubleBuffer();
+        while (true) {
+            // Se llena el búfer completo; sólo queda a medias al final del flujo
+            int llenos = 0;
+            int leidos;
+            while (llenos < bytes.length && (leidos = entrada.read(bytes, llenos, bytes.length - llenos)) != -1) {
+                llenos += leidos;
+            }
+            if (llenos % Double.BYTES != 0) {
+                throw new IOException("El flujo terminó a mitad de un double");
+            }
+            int completos = llenos / Double.BYTES;
+            vista.clear();
+            vista.get(valores, 0, completos);
+            incremental.agregar(valores, 0, completos);
+            if (llenos < bytes.length) {
+                break;
+            }
+        }
+        return incremental.resumen();
+    }
+
+    // ========== ÁRBOL DE REDUCCIÓN ==========
+
+    /**
+     * Acceso a un bloque por índice. La copia es un arreglo de BLOQUE elementos del hilo
+     * que ejecuta, para las fuentes que no son arreglos.
+     */
+    interface FuenteBloques {
+        AcumuladorEstadistico bloque(int indice, double[] copia);
+    }
+
+    static int cantidadBloques(long elementos) {
+        long bloques = (elementos + BLOQUE - 1) / BLOQUE;
+        if (bloques > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Demasiados elementos: " + elementos);
+        }
+        return (int) bloques;
+    }
+
+    /**
+     * Tamaño de la mitad izquierda de un rango de m bloques (m mayor que 1)
+     */
+    static int mitadIzquierda(int m) {
+        return Integer.highestOneBit(m - 1);
+    }
+
+    private static ResumenEstadistico reducir(FuenteBloques fuente, int bloques, ForkJoinPool pool) {
+        if (bloques == 0) {
+            return new AcumuladorEstadistico().resumen();
+        }
+        return pool.invoke(new Reduccion(fuente, 0, bloques)).resumen();
+    }
+
+    private static final class Reduccion extends RecursiveTask<AcumuladorEstadistico> {
+        private static final long serialVersionUID = 1L;
+        private static final ThreadLocal<double[]> COPIA = ThreadLocal.withInitial(() -> new double[BLOQUE]);
+
+        private final transient FuenteBloques fuente;
+        private final int desde;
+        private final int hasta;
+
+        Reduccion(FuenteBloques fuente, int desde, int hasta) {
+            this.fuente = fuente;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected AcumuladorEstadistico compute() {
+            int m = hasta - desde;
+            if (m <= BLOQUES_POR_TAREA) {
+                return secuencial(desde, hasta);
+            }
+            int medio = desde + mitadIzquierda(m);
+            Reduccion derecha = new Reduccion(fuente, medio, hasta);
+            derecha.fork();
+            AcumuladorEstadistico izquierda = new Reduccion(fuente, desde, medio).compute();
+            return AcumuladorEstadistico.combinar(izquierda, derecha.join());
+        }
+
+        // Mismo árbol que compute, sin crear tareas
+        private AcumuladorEstadistico secuencial(int inicio, int fin) {
+            if (fin - inicio == 1) {
+                return fuente.bloque(inicio, COPIA.get());
+            }
+            int medio = inicio + mitadIzquierda(fin - inicio);
+            return AcumuladorEstadistico.combinar(secuencial(inicio, medio), secuencial(medio, fin));
+        }
+    }
+}
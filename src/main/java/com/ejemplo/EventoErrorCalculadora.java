@@ -0,0 +1,45 @@
+package com.ejemplo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de Java Flight Recorder para los errores de Calculadora: división por cero, raíz
+ * de un negativo y potencia exacta fuera de rango. En las operaciones escalares hay un evento
+ * por excepción; en los lotes, uno por lote con elementos en error.
+ *
+ * Guarda la traza de pila (la de JFR por defecto) para saber quién hizo la operación. Sólo se
+ * crea en el camino de error, así que no cuesta nada en las operaciones correctas.
+ */
+@Name("com.ejemplo.ErrorCalculadora")
+@Label("Error de Calculadora")
+@Category({"Proyecto", "Calculadora"})
+final class EventoErrorCalculadora extends Event {
+
+    @Label("Operación")
+    String operacion;
+
+    @Label("Operando")
+    @Description("Divisor, radicando o base que causó el error; NaN en los lotes")
+    double operando;
+
+    @Label("Elementos")
+    int elementos;
+
+    @Label("Errores")
+    int errores;
+
+    static void emitir(MetricasCalculadora.Operacion operacion, double operando, int elementos, int errores) {
+        EventoErrorCalculadora evento = new EventoErrorCalculadora();
+        if (evento.shouldCommit()) {
+            evento.operacion = operacion.etiqueta;
+            evento.operando = operando;
+            evento.elementos = elementos;
+            evento.errores = errores;
+            evento.commit();
+        }
+    }
+}
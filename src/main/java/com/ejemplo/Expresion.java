@@ -0,0 +1,152 @@
+package com.ejemplo;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expresión aritmética compilada, reutilizable y segura para usar desde varios hilos
+ *
+ * Se analiza una sola vez, se pliegan sus partes constantes y se compila a un árbol de
+ * clausuras que evalúa con las operaciones de Calculadora: dividir por cero o calcular la
+ * raíz de un negativo lanzan IllegalArgumentException como en Calculadora. Las
+ * expresiones compiladas se guardan en una caché LRU indexada por el texto fuente.
+ *
+ * Operadores: + - * / ^ (exponente entero) y - unario. Funciones: sqrt(x), abs(x),
+ * min(x, y), max(x, y), pow(x, n). Las variables son identificadores y su orden es el
+ * de primera aparición en el texto.
+ *
+ * Ejemplo: Expresion.compilar("sqrt(a*a + b*b) / c").evaluar(3, 4, 2) devuelve 2.5
+ */
+public final class Expresion {
+
+    static final int CAPACIDAD_CACHE = 512;
+
+    private static final Map<String, Expresion> CACHE = new LinkedHashMap<String, Expresion>(64, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Expresion> masAntigua) {
+            return size() > CAPACIDAD_CACHE;
+        }
+    };
+
+    private final String fuente;
+    private final List<String> variables;
+    private final NodoExpresion arbol;
+    private final NodoExpresion.Evaluador evaluador;
+
+    private Expresion(String fuente, List<String> variables, NodoExpresion arbol) {
+        this.fuente = fuente;
+        this.variables = variables;
+        this.arbol = arbol;
+        this.evaluador = arbol.compilar(new Calculadora());
+    }
+
+    /**
+     * Devuelve la expresión compilada para un texto, usando la caché si ya se compiló antes
+     * @param fuente texto de la expresión
+     * @return expresión lista para evaluar
+     * @throws IllegalArgumentException si la expresión no es válida
+     */
+    public static Expresion compilar(String fuente) {
+        synchronized (CACHE) {
+            Expresion cacheada = CACHE.get(fuente);
+            if (cacheada != null) {
+                return cacheada;
+            }
+        }
+        // Se compila fuera del candado: dos hilos pueden compilar la misma expresión, pero son equivalentes
+        Expresion compilada = compilarSinCache(fuente);
+        synchronized (CACHE) {
+            Expresion previa = CACHE.putIfAbsent(fuente, compilada);
+            return previa != null ? previa : compilada;
+        }
+    }
+
+    /**
+     * Compila una expresión sin consultar ni llenar la caché
+     * @param fuente texto de la expresión
+     * @return expresión lista para evaluar
+     * @throws IllegalArgumentException si la expresión no es válida
+     */
+    static Expresion compilarSinCache(String fuente) {
+        AnalizadorExpresion.Resultado resultado = AnalizadorExpresion.analizar(fuente);
+        return new Expresion(fuente, Collections.unmodifiableList(resultado.variables), resultado.arbol.plegar());
+    }
+
+    /**
+     * @return cantidad de expresiones en la caché
+     */
+    static int tamanoCache() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    // ========== EVALUACIÓN ==========
+
+    /**
+     * Evalúa la expresión
+     * @param valores valores de las variables, en el orden de getVariables()
+     * @return resultado
+     * @throws IllegalArgumentException si la cantidad de valores no coincide, o si una
+     *         operación es inválida (división por cero, raíz de un negativo, exponente no entero)
+     */
+    public double evaluar(double... valores) {
+        if (valores.length != variables.size()) {
+            throw new IllegalArgumentException("Se esperaban " + variables.size() + " valores " + variables
+                    + " y se recibieron " + valores.length);
+        }
+        return evaluador.evaluar(valores);
+    }
+
+    /**
+     * Evalúa la expresión con las variables por nombre
+     * @param valores valor de cada variable
+     * @return resultado
+     * @throws IllegalArgumentException si falta alguna variable o una operación es inválida
+     */
+    public double evaluar(Map<String, Double> valores) {
+        double[] ordenados = new double[variables.size()];
+        for (int i = 0; i < ordenados.length; i++) {
+            Double valor = valores.get(variables.get(i));
+            if (valor == null) {
+                throw new IllegalArgumentException("Falta el valor de la variable '" + variables.get(i) + "'");
+            }
+            ordenados[i] = valor;
+        }
+        return evaluador.evaluar(ordenados);
+    }
+
+    /**
+     * Evalúa recorriendo el árbol sin compilar (referencia para pruebas y benchmarks)
+     * @param valores valores de las variables, en el orden de getVariables()
+     * @return resultado
+     */
+    double interpretar(double... valores) {
+        return arbol.interpretar(valores);
+    }
+
+    // ========== GETTERS ==========
+
+    public String getFuente() {
+        return fuente;
+    }
+
+    /**
+     * @return nombres de las variables en el orden en que evaluar espera sus valores
+     */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * @return la expresión plegada con paréntesis explícitos
+     */
+    @Override
+    public String toString() {
+        return arbol.toString();
+    }
+}
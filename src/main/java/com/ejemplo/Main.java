@@ -1,17 +1,113 @@
 package com.ejemplo;
 
-//TIP To <b>Run</b> code, press <shortcut actionId="Run"/> or
-// click the <icon src="AllIcons.Actions.Execute"/> icon in the gutter.
+import com.proyecto.ConfiguracionGestor;
+import com.proyecto.GestorUsuarios;
+import com.proyecto.metricas.RegistroMetricas;
+import com.proyecto.metricas.ServidorMetricas;
+import com.proyecto.servidor.ServidorLogin;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Punto de entrada de la imagen: servicio de autenticación por red (ver ServidorLogin)
+ *
+ * Opciones:
+ * <pre>
+ * --host H              interfaz de escucha (por defecto todas, para el contenedor)
+ * --puerto P            puerto del servicio (7070)
+ * --hilos N             hilos que ejecutan las operaciones (uno por núcleo)
+ * --datos DIR           directorio de persistencia; sin él los usuarios viven sólo en memoria
+ * --metricas P          publica /metrics en formato Prometheus en ese puerto
+ * --iteraciones-kdf N   iteraciones de PBKDF2 (sólo para pruebas de carga: bajarlas debilita las passwords)
+ * </pre>
+ * Para medirlo: com.proyecto.servidor.GeneradorCarga, incluido en el mismo jar.
+ */
 public class Main {
-    public static void main(String[] args) {
-        //TIP Press <shortcut actionId="ShowIntentionActions"/> with your caret at the highlighted text
-        // to see how IntelliJ IDEA suggests fixing it.
-        System.out.printf("Hello and welcome!");
 
-        for (int i = 1; i <= 5; i++) {
-            //TIP Press <shortcut actionId="Debug"/> to start debugging your code. We have set one <icon src="AllIcons.Debugger.Db_set_breakpoint"/> breakpoint
-            // for you, but you can always add more by pressing <shortcut actionId="ToggleLineBreakpoint"/>.
-            System.out.println("i = " + i);
+    private static final String USO = "Uso: java -jar app.jar [--host H] [--puerto P] [--hilos N] [--datos DIR]"
+            + " [--metricas P] [--iteraciones-kdf N]";
+
+    public static void main(String[] args) throws Exception {
+        String host = "0.0.0.0";
+        int puerto = ServidorLogin.PUERTO_POR_DEFECTO;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        Path datos = null;
+        int puertoMetricas = -1;
+        ConfiguracionGestor configuracion = new ConfiguracionGestor().concurrente(true);
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Falta el valor de " + args[i]);
+                }
+                String valor = args[i + 1];
+                switch (args[i]) {
+                    case "--host":
+                        host = valor;
+                        break;
+                    case "--puerto":
+                        puerto = Integer.parseInt(valor);
+                        break;
+                    case "--hilos":
+                        hilos = Integer.parseInt(valor);
+                        break;
+                    case "--datos":
+                        datos = Paths.get(valor);
+                        break;
+                    case "--metricas":
+                        puertoMetricas = Integer.parseInt(valor);
+                        break;
+                    case "--iteraciones-kdf":
+                        configuracion.iteracionesKdf(Integer.parseInt(valor));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException también es IllegalArgumentException
+            System.err.println(e.getMessage());
+            System.err.println(USO);
+            System.exit(2);
+            return;
         }
+
+        RegistroMetricas registro = puertoMetricas >= 0 ? new RegistroMetricas() : null;
+        if (datos != null) {
+            configuracion.persistencia(datos);
+        }
+        GestorUsuarios gestor = new GestorUsuarios(configuracion.metricas(registro));
+        ServidorMetricas metricas = null;
+        ServidorLogin servidor;
+        try {
+            if (registro != null) {
+                metricas = ServidorMetricas.iniciar(registro, new InetSocketAddress(host, puertoMetricas));
+            }
+            servidor = ServidorLogin.iniciar(gestor, new InetSocketAddress(host, puerto),
+                    hilos, hilos * ServidorLogin.COLA_POR_HILO);
+        } catch (IOException | RuntimeException e) {
+            // Por ejemplo, un puerto ocupado: cerrar lo ya abierto (el diario y su hilo de escritura)
+            if (metricas != null) {
+                metricas.close();
+            }
+            gestor.close();
+            throw e;
+        }
+
+        // Al recibir SIGTERM: primero dejar de atender, después cerrar la persistencia
+        ServidorMetricas publicadas = metricas;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.close();
+            if (publicadas != null) {
+                publicadas.close();
+            }
+            gestor.close();
+        }, "cierre"));
+        System.out.println("Servicio de autenticación en " + servidor.getDireccion()
+                + (publicadas == null ? "" : ", métricas en el puerto " + publicadas.getPuerto())
+                + (datos == null ? ", sin persistencia" : ", datos en " + datos));
+        // El hilo del servidor mantiene vivo el proceso
     }
-}
\ No newline at end of file
+}
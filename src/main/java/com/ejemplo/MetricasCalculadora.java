@@ -0,0 +1,99 @@
+package com.ejemplo;
+
+import com.proyecto.metricas.Contador;
+import com.proyecto.metricas.Histograma;
+import com.proyecto.metricas.RegistroMetricas;
+
+/**
+ * Métricas de Calculadora
+ *
+ * Las operaciones escalares se cuentan por resultado (exito o error, que es la excepción por
+ * divisor cero, radicando negativo o desborde). Los lotes no lanzan excepciones, así que se
+ * cuentan los elementos procesados y los que quedaron en NaN por error. resumir además mide
+ * su latencia: dura milisegundos y el costo de System.nanoTime no se nota.
+ *
+ * Series publicadas:
+ * <pre>
+ * calculadora_operaciones_total{operacion="dividir",resultado="error"}
+ * calculadora_lote_elementos_total{operacion="dividir"}
+ * calculadora_lote_errores_total{operacion="dividir"}
+ * calculadora_latencia_segundos{operacion="resumir"}
+ * </pre>
+ */
+final class MetricasCalculadora {
+
+    enum Operacion {
+        SUMAR("sumar", true, true, false),
+        RESTAR("restar", true, true, false),
+        MULTIPLICAR("multiplicar", true, true, false),
+        DIVIDIR("dividir", true, true, true),
+        MULTIPLICAR_SUMAR("multiplicar_sumar", false, true, false),
+        POTENCIA("potencia", true, false, false),
+        POTENCIA_EXACTA("potencia_exacta", true, false, true),
+        RAIZ_CUADRADA("raiz_cuadrada", true, true, true),
+        ES_PAR("es_par", true, false, false);
+
+        final String etiqueta;
+        final boolean escalar;
+        final boolean porLotes;
+        final boolean puedeFallar;
+
+        Operacion(String etiqueta, boolean escalar, boolean porLotes, boolean puedeFallar) {
+            this.etiqueta = etiqueta;
+            this.escalar = escalar;
+            this.porLotes = porLotes;
+            this.puedeFallar = puedeFallar;
+        }
+    }
+
+    // Null en las combinaciones que no existen (p. ej. errores de sumar, lotes de potencia)
+    private final Contador[] exitos = new Contador[Operacion.values().length];
+    private final Contador[] errores = new Contador[Operacion.values().length];
+    private final Contador[] elementosLote = new Contador[Operacion.values().length];
+    private final Contador[] erroresLote = new Contador[Operacion.values().length];
+    private final Histograma resumir;
+
+    MetricasCalculadora(RegistroMetricas registro) {
+        String ayuda = "Operaciones escalares de Calculadora por resultado";
+        for (Operacion operacion : Operacion.values()) {
+            int i = operacion.ordinal();
+            if (operacion.escalar) {
+                exitos[i] = registro.contador("calculadora_operaciones_total", ayuda,
+                        "operacion", operacion.etiqueta, "resultado", "exito");
+                if (operacion.puedeFallar) {
+                    errores[i] = registro.contador("calculadora_operaciones_total", ayuda,
+                            "operacion", operacion.etiqueta, "resultado", "error");
+                }
+            }
+            if (operacion.porLotes) {
+                elementosLote[i] = registro.contador("calculadora_lote_elementos_total",
+                        "Elementos procesados por las operaciones por lotes", "operacion", operacion.etiqueta);
+                if (operacion.puedeFallar) {
+                    erroresLote[i] = registro.contador("calculadora_lote_errores_total",
+                            "Elementos de los lotes que quedaron en NaN por error", "operacion", operacion.etiqueta);
+                }
+            }
+        }
+        resumir = registro.histograma("calculadora_latencia_segundos", "Latencia de Calculadora.resumir",
+                "operacion", "resumir");
+    }
+
+    void exito(Operacion operacion) {
+        exitos[operacion.ordinal()].incrementar();
+    }
+
+    void error(Operacion operacion) {
+        errores[operacion.ordinal()].incrementar();
+    }
+
+    void lote(Operacion operacion, int elementos, int fallidos) {
+        elementosLote[operacion.ordinal()].sumar(elementos);
+        if (fallidos > 0) {
+            erroresLote[operacion.ordinal()].sumar(fallidos);
+        }
+    }
+
+    void resumir(long inicio) {
+        resumir.registrarDesde(inicio);
+    }
+}
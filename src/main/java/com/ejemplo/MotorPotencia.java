@@ -0,0 +1,176 @@
+package com.ejemplo;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Cálculo de potencias con exponente entero
+ *
+ * Math.pow garantiza que, si la base y el exponente son enteros y el resultado exacto es
+ * representable como double, devuelve exactamente ese valor. En esos casos el resultado
+ * se puede obtener por caminos más baratos sin cambiar ni un bit:
+ * una tabla precalculada para bases enteras pequeñas, Math.scalb para potencias de dos
+ * (también con exponente negativo) y exponenciación por cuadrados en long con detección
+ * de desborde. Todo lo demás (bases fraccionarias, NaN, infinitos, ceros, resultados no
+ * exactos) sigue yendo por Math.pow, así que el comportamiento documentado no cambia.
+ *
+ * La exponenciación por cuadrados en double no se usa: acumula un redondeo por producto
+ * y se aparta de Math.pow en algunos ulps.
+ */
+final class MotorPotencia {
+
+    // Mayor entero a partir del cual no todos los enteros son representables como double
+    private static final long LIMITE_EXACTO = 1L << 53;
+
+    static final int BASE_MAXIMA_TABLA = 16;
+    static final int EXPONENTE_MAXIMO_TABLA = 63;
+
+    // TABLA[b][e] = b^e cuando es exacto como double; NaN si no lo es (se resuelve por otro camino)
+    private static final double[][] TABLA = new double[BASE_MAXIMA_TABLA + 1][EXPONENTE_MAXIMO_TABLA + 1];
+
+    static {
+        for (int base = 2; base <= BASE_MAXIMA_TABLA; base++) {
+            BigInteger b = BigInteger.valueOf(base);
+            for (int exponente = 0; exponente <= EXPONENTE_MAXIMO_TABLA; exponente++) {
+                BigInteger exacto = b.pow(exponente);
+                double valor = exacto.doubleValue();
+                boolean representable = !Double.isInfinite(valor)
+                        && new BigDecimal(valor).toBigIntegerExact().equals(exacto);
+                TABLA[base][exponente] = representable ? valor : Double.NaN;
+            }
+        }
+    }
+
+    private MotorPotencia() {
+    }
+
+    /**
+     * Potencia con exponente entero, idéntica bit a bit a Math.pow(base, exponente)
+     * @param base base
+     * @param exponente exponente
+     * @return base elevado a exponente
+     */
+    static double potencia(double base, int exponente) {
+        if (exponente == 0) {
+            // Math.pow(x, 0) es 1.0 para todo x, incluso NaN
+            return 1.0;
+        }
+        // Las comparaciones son falsas para NaN; -0.0 y 0.0 quedan en Math.pow por su signo
+        if (Math.abs(base) < LIMITE_EXACTO && base != 0) {
+            long entera = (long) base;
+            if (entera == base) {
+                double exacta = potenciaEntera(entera, exponente);
+                if (exacta == exacta) {
+                    return exacta;
+                }
+            }
+        }
+        return Math.pow(base, exponente);
+    }
+
+    /**
+     * Potencia de una base entera no nula con |base| menor que 2^53
+     * @return el resultado exacto, o NaN si no es representable o no hay camino rápido
+     */
+    private static double potenciaEntera(long base, int exponente) {
+        long magnitud = Math.abs(base);
+        boolean negativo = base < 0 && (exponente & 1) != 0;
+
+        if (magnitud == 1) {
+            return negativo ? -1.0 : 1.0;
+        }
+        if ((magnitud & (magnitud - 1)) == 0) {
+            // Potencia de dos: 2^(k * exponente) es exacto mientras sea un double normal o subnormal
+            long bits = (long) Long.numberOfTrailingZeros(magnitud) * exponente;
+            if (bits < Double.MIN_EXPONENT - 52 || bits > Double.MAX_EXPONENT) {
+                return Double.NaN;
+            }
+            double resultado = Math.scalb(1.0, (int) bits);
+            return negativo ? -resultado : resultado;
+        }
+        if (exponente < 0) {
+            // 1 / b^n no es representable exactamente cuando b no es potencia de dos
+            return Double.NaN;
+        }
+        if (magnitud <= BASE_MAXIMA_TABLA && exponente <= EXPONENTE_MAXIMO_TABLA) {
+            double resultado = TABLA[(int) magnitud][exponente];
+            return negativo ? -resultado : resultado;
+        }
+        long resultado = potenciaAcotada(magnitud, exponente);
+        if (resultado < 0) {
+            return Double.NaN;
+        }
+        return negativo ? -(double) resultado : (double) resultado;
+    }
+
+    /**
+     * Exponenciación por cuadrados que se detiene al superar 2^53
+     * @return magnitud^exponente, o -1 si supera 2^53
+     */
+    private static long potenciaAcotada(long magnitud, int exponente) {
+        long resultado = 1;
+        long factor = magnitud;
+        int restante = exponente;
+        while (true) {
+            if ((restante & 1) != 0) {
+                // Ambos operandos son menores que 2^53: se compara antes de multiplicar para no desbordar
+                if (resultado > LIMITE_EXACTO / factor) {
+                    return -1;
+                }
+                resultado *= factor;
+            }
+            restante >>>= 1;
+            if (restante == 0) {
+                return resultado;
+            }
+            if (factor > LIMITE_EXACTO / factor) {
+                return -1;
+            }
+            factor *= factor;
+        }
+    }
+
+    /**
+     * Potencia exacta en long por exponenciación por cuadrados
+     * @param base base
+     * @param exponente exponente no negativo
+     * @return base elevado a exponente
+     * @throws IllegalArgumentException si el exponente es negativo
+     * @throws ArithmeticException si el resultado no cabe en un long
+     */
+    static long potenciaExacta(long base, int exponente) {
+        validarExponente(exponente);
+        long resultado = 1;
+        long factor = base;
+        int restante = exponente;
+        while (true) {
+            if ((restante & 1) != 0) {
+                resultado = Math.multiplyExact(resultado, factor);
+            }
+            restante >>>= 1;
+            if (restante == 0) {
+                return resultado;
+            }
+            // El cuadrado sólo se necesita si quedan bits: evita un desborde espurio en el último paso
+            factor = Math.multiplyExact(factor, factor);
+        }
+    }
+
+    /**
+     * Potencia exacta de precisión arbitraria
+     * @param base base
+     * @param exponente exponente no negativo
+     * @return base elevado a exponente
+     * @throws IllegalArgumentException si el exponente es negativo
+     */
+    static BigInteger potenciaExacta(BigInteger base, int exponente) {
+        validarExponente(exponente);
+        return base.pow(exponente);
+    }
+
+    private static void validarExponente(int exponente) {
+        if (exponente < 0) {
+            throw new IllegalArgumentException("La potencia exacta requiere un exponente no negativo");
+        }
+    }
+}
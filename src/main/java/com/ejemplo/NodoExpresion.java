@@ -0,0 +1,374 @@
+package com.ejemplo;
+
+/**
+ * Árbol sintáctico de una expresión aritmética
+ *
+ * Cada nodo sabe plegarse (reemplazar subárboles constantes por su valor), interpretarse
+ * recorriendo el árbol y compilarse a un árbol de clausuras que ya no consulta tipos ni
+ * operadores al evaluar. Las operaciones usan Calculadora, así que dividir por cero o
+ * calcular la raíz de un negativo lanzan la misma IllegalArgumentException.
+ */
+abstract class NodoExpresion {
+
+    // Calculadora no tiene estado: el intérprete comparte una sola instancia
+    private static final Calculadora CALCULADORA = new Calculadora();
+
+    /**
+     * Evaluador compilado: recibe los valores de las variables en el orden de Expresion.getVariables()
+     */
+    interface Evaluador {
+        double evaluar(double[] variables);
+    }
+
+    /**
+     * @return el nodo con sus subárboles constantes ya calculados
+     */
+    abstract NodoExpresion plegar();
+
+    /**
+     * Evalúa recorriendo el árbol (intérprete de referencia)
+     * @param variables valores de las variables
+     * @return resultado
+     */
+    abstract double interpretar(double[] variables);
+
+    /**
+     * @param calculadora calculadora que aplica las operaciones
+     * @return evaluador equivalente a interpretar
+     */
+    abstract Evaluador compilar(Calculadora calculadora);
+
+    boolean esConstante() {
+        return false;
+    }
+
+    // ========== HOJAS ==========
+
+    static final class Numero extends NodoExpresion {
+        final double valor;
+
+        Numero(double valor) {
+            this.valor = valor;
+        }
+
+        @Override
+        NodoExpresion plegar() {
+            return this;
+        }
+
+        @Override
+        double interpretar(double[] variables) {
+            return valor;
+        }
+
+        @Override
+        Evaluador compilar(Calculadora calculadora) {
+            double v = valor;
+            return variables -> v;
+        }
+
+        @Override
+        boolean esConstante() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return Double.toString(valor);
+        }
+    }
+
+    static final class Variable extends NodoExpresion {
+        final String nombre;
+        final int indice;
+
+        Variable(String nombre, int indice) {
+            this.nombre = nombre;
+            this.indice = indice;
+        }
+
+        @Override
+        NodoExpresion plegar() {
+            return this;
+        }
+
+        @Override
+        double interpretar(double[] variables) {
+            return variables[indice];
+        }
+
+        @Override
+        Evaluador compilar(Calculadora calculadora) {
+            int i = indice;
+            return variables -> variables[i];
+        }
+
+        @Override
+        public String toString() {
+            return nombre;
+        }
+    }
+
+    // ========== OPERADORES ==========
+
+    static final class Negacion extends NodoExpresion {
+        final NodoExpresion operando;
+
+        Negacion(NodoExpresion operando) {
+            this.operando = operando;
+        }
+
+        @Override
+        NodoExpresion plegar() {
+            NodoExpresion plegado = operando.plegar();
+            if (plegado.esConstante()) {
+                return new Numero(-((Numero) plegado).valor);
+            }
+            return new Negacion(plegado);
+        }
+
+        @Override
+        double interpretar(double[] variables) {
+            return -operando.interpretar(variables);
+        }
+
+        @Override
+        Evaluador compilar(Calculadora calculadora) {
+            Evaluador o = operando.compilar(calculadora);
+            return variables -> -o.evaluar(variables);
+        }
+
+        @Override
+        public String toString() {
+            return "(-" + operando + ")";
+        }
+    }
+
+    static final class Binaria extends NodoExpresion {
+        final char operador;
+        final NodoExpresion izquierdo;
+        final NodoExpresion derecho;
+
+        Binaria(char operador, NodoExpresion izquierdo, NodoExpresion derecho) {
+            this.operador = operador;
+            this.izquierdo = izquierdo;
+            this.derecho = derecho;
+        }
+
+        @Override
+        NodoExpresion plegar() {
+            NodoExpresion a = izquierdo.plegar();
+            NodoExpresion b = derecho.plegar();
+            Binaria plegada = new Binaria(operador, a, b);
+            if (a.esConstante() && b.esConstante()) {
+                return constanteOMismo(plegada);
+            }
+            // x * 1, 1 * x y x / 1 son exactamente x (también para NaN e infinitos)
+            if ((operador == '*' || operador == '/') && esUno(b)) {
+                return a;
+            }
+            if (operador == '*' && esUno(a)) {
+                return b;
+            }
+            return plegada;
+        }
+
+        private static boolean esUno(NodoExpresion nodo) {
+            return nodo.esConstante() && ((Numero) nodo).valor == 1.0;
+        }
+
+        @Override
+        double interpretar(double[] variables) {
+            return aplicar(CALCULADORA, operador, izquierdo.interpretar(variables), derecho.interpretar(variables));
+        }
+
+        @Override
+        Evaluador compilar(Calculadora c) {
+            Evaluador a = izquierdo.compilar(c);
+            // Operando derecho constante: se evita una llamada por evaluación
+            if (derecho.esConstante()) {
+                double k = ((Numero) derecho).valor;
+                switch (operador) {
+                    case '+':
+                        return v -> c.sumar(a.evaluar(v), k);
+                    case '-':
+                        return v -> c.restar(a.evaluar(v), k);
+                    case '*':
+                        return v -> c.multiplicar(a.evaluar(v), k);
+                    case '/':
+                        return v -> c.dividir(a.evaluar(v), k);
+                    case '^':
+                        if ((int) k == k) {
+                            int n = (int) k;
+                            return v -> c.potencia(a.evaluar(v), n);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            Evaluador b = derecho.compilar(c);
+            switch (operador) {
+                case '+':
+                    return v -> c.sumar(a.evaluar(v), b.evaluar(v));
+                case '-':
+                    return v -> c.restar(a.evaluar(v), b.evaluar(v));
+                case '*':
+                    return v -> c.multiplicar(a.evaluar(v), b.evaluar(v));
+                case '/':
+                    return v -> c.dividir(a.evaluar(v), b.evaluar(v));
+                case '^':
+                    return v -> c.potencia(a.evaluar(v), exponenteEntero(b.evaluar(v)));
+                default:
+                    throw new IllegalStateException("Operador desconocido: " + operador);
+            }
+        }
+
+        static double aplicar(Calculadora c, char operador, double a, double b) {
+            switch (operador) {
+                case '+':
+                    return c.sumar(a, b);
+                case '-':
+                    return c.restar(a, b);
+                case '*':
+                    return c.multiplicar(a, b);
+                case '/':
+                    return c.dividir(a, b);
+                case '^':
+                    return c.potencia(a, exponenteEntero(b));
+                default:
+                    throw new IllegalStateException("Operador desconocido: " + operador);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "(" + izquierdo + " " + operador + " " + derecho + ")";
+        }
+    }
+
+    /**
+     * Llamada a una de las funciones de Expresion: sqrt, abs, min, max y pow
+     */
+    static final class Funcion extends NodoExpresion {
+        final String nombre;
+        final NodoExpresion[] argumentos;
+
+        Funcion(String nombre, NodoExpresion[] argumentos) {
+            this.nombre = nombre;
+            this.argumentos = argumentos;
+        }
+
+        /**
+         * @param nombre nombre de la función
+         * @return cantidad de argumentos, o -1 si la función no existe
+         */
+        static int aridad(String nombre) {
+            switch (nombre) {
+                case "sqrt":
+                case "abs":
+                    return 1;
+                case "min":
+                case "max":
+                case "pow":
+                    return 2;
+                default:
+                    return -1;
+            }
+        }
+
+        @Override
+        NodoExpresion plegar() {
+            NodoExpresion[] plegados = new NodoExpresion[argumentos.length];
+            boolean constantes = true;
+            for (int i = 0; i < argumentos.length; i++) {
+                plegados[i] = argumentos[i].plegar();
+                constantes &= plegados[i].esConstante();
+            }
+            Funcion plegada = new Funcion(nombre, plegados);
+            return constantes ? constanteOMismo(plegada) : plegada;
+        }
+
+        @Override
+        double interpretar(double[] variables) {
+            Calculadora c = CALCULADORA;
+            double x = argumentos[0].interpretar(variables);
+            switch (nombre) {
+                case "sqrt":
+                    return c.raizCuadrada(x);
+                case "abs":
+                    return Math.abs(x);
+                default:
+                    break;
+            }
+            double y = argumentos[1].interpretar(variables);
+            switch (nombre) {
+                case "min":
+                    return Math.min(x, y);
+                case "max":
+                    return Math.max(x, y);
+                default:
+                    return c.potencia(x, exponenteEntero(y));
+            }
+        }
+
+        @Override
+        Evaluador compilar(Calculadora c) {
+            Evaluador x = argumentos[0].compilar(c);
+            switch (nombre) {
+                case "sqrt":
+                    return v -> c.raizCuadrada(x.evaluar(v));
+                case "abs":
+                    return v -> Math.abs(x.evaluar(v));
+                default:
+                    break;
+            }
+            Evaluador y = argumentos[1].compilar(c);
+            switch (nombre) {
+                case "min":
+                    return v -> Math.min(x.evaluar(v), y.evaluar(v));
+                case "max":
+                    return v -> Math.max(x.evaluar(v), y.evaluar(v));
+                default:
+                    return v -> c.potencia(x.evaluar(v), exponenteEntero(y.evaluar(v)));
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder texto = new StringBuilder(nombre).append('(');
+            for (int i = 0; i < argumentos.length; i++) {
+                texto.append(i == 0 ? "" : ", ").append(argumentos[i]);
+            }
+            return texto.append(')').toString();
+        }
+    }
+
+    // ========== AUXILIARES ==========
+
+    /**
+     * Calcula un nodo sin variables. Si la operación lanza (por ejemplo 1 / 0) no se pliega,
+     * para que el error aparezca al evaluar igual que sin plegado.
+     */
+    private static NodoExpresion constanteOMismo(NodoExpresion nodo) {
+        try {
+            return new Numero(nodo.interpretar(new double[0]));
+        } catch (IllegalArgumentException e) {
+            return nodo;
+        }
+    }
+
+    /**
+     * Calculadora.potencia sólo admite exponentes enteros
+     * @param exponente valor calculado del exponente
+     * @return el exponente como int
+     * @throws IllegalArgumentException si no es un entero representable como int
+     */
+    static int exponenteEntero(double exponente) {
+        int entero = (int) exponente;
+        if (entero != exponente) {
+            throw new IllegalArgumentException("El exponente debe ser un número entero: " + exponente);
+        }
+        return entero;
+    }
+}
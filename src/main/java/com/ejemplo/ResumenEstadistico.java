@@ -0,0 +1,128 @@
+package com.ejemplo;
+
+/**
+ * Resultado inmutable de una reducción de Estadisticas
+ *
+ * Dos resúmenes de los mismos datos son iguales bit a bit aunque se hayan calculado con
+ * distinta cantidad de hilos o desde distintas fuentes (arreglo, archivo o flujo).
+ */
+public final class ResumenEstadistico {
+
+    private final long cantidad;
+    private final double suma;
+    private final double media;
+    private final double m2;
+    private final double minimo;
+    private final double maximo;
+    private final long pares;
+
+    ResumenEstadistico(long cantidad, double suma, double media, double m2, double minimo, double maximo,
+                       long pares) {
+        this.cantidad = cantidad;
+        this.suma = suma;
+        this.media = media;
+        this.m2 = m2;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.pares = pares;
+    }
+
+    // ========== GETTERS ==========
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * @return suma compensada (Neumaier) de todos los valores
+     */
+    public double getSuma() {
+        return suma;
+    }
+
+    /**
+     * @return media aritmética, o NaN si no hay datos
+     */
+    public double getMedia() {
+        return media;
+    }
+
+    /**
+     * @return varianza poblacional (divide por n), o NaN si no hay datos
+     */
+    public double getVarianza() {
+        return cantidad == 0 ? Double.NaN : m2 / cantidad;
+    }
+
+    /**
+     * @return varianza muestral (divide por n - 1), o NaN con menos de dos datos
+     */
+    public double getVarianzaMuestral() {
+        return cantidad < 2 ? Double.NaN : m2 / (cantidad - 1);
+    }
+
+    /**
+     * @return desviación estándar poblacional
+     */
+    public double getDesviacionEstandar() {
+        return Math.sqrt(getVarianza());
+    }
+
+    /**
+     * @return mínimo (con la semántica de Math.min: un NaN lo vuelve NaN), o NaN si no hay datos
+     */
+    public double getMinimo() {
+        return minimo;
+    }
+
+    /**
+     * @return máximo (con la semántica de Math.max), o NaN si no hay datos
+     */
+    public double getMaximo() {
+        return maximo;
+    }
+
+    /**
+     * @return cantidad de valores enteros pares (los que cumplen Calculadora.esPar)
+     */
+    public long getPares() {
+        return pares;
+    }
+
+    // ========== MÉTODOS DE OBJECT ==========
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        ResumenEstadistico otro = (ResumenEstadistico) obj;
+        return cantidad == otro.cantidad && pares == otro.pares
+                && Double.compare(suma, otro.suma) == 0
+                && Double.compare(media, otro.media) == 0
+                && Double.compare(m2, otro.m2) == 0
+                && Double.compare(minimo, otro.minimo) == 0
+                && Double.compare(maximo, otro.maximo) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cantidad) * 31 + Double.hashCode(suma);
+    }
+
+    @Override
+    public String toString() {
+        return "ResumenEstadistico{" +
+                "cantidad=" + cantidad +
+                ", suma=" + suma +
+                ", media=" + media +
+                ", varianza=" + getVarianza() +
+                ", minimo=" + minimo +
+                ", maximo=" + maximo +
+                ", pares=" + pares +
+                '}';
+    }
+}
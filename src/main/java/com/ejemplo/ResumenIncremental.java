@@ -0,0 +1,88 @@
+package com.ejemplo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reducción de datos que llegan por partes, en un solo hilo
+ *
+ * Los valores se juntan en bloques de Estadisticas.BLOQUE elementos sin importar el tamaño
+ * de cada parte. Los bloques completos se combinan como un contador binario (dos parciales
+ * del mismo nivel se unen en uno del nivel siguiente), que produce exactamente el árbol de
+ * Estadisticas.resumir: el resultado es idéntico al de resumir un arreglo con los mismos datos.
+ */
+public final class ResumenIncremental {
+
+    private final double[] bloque = new double[Estadisticas.BLOQUE];
+    private int enBloque;
+
+    // Parciales pendientes de izquierda a derecha, con su nivel (cantidad de bloques = 2^nivel)
+    private final List<AcumuladorEstadistico> parciales = new ArrayList<>();
+    private final List<Integer> niveles = new ArrayList<>();
+
+    /**
+     * Agrega un valor
+     * @param valor valor
+     */
+    public void agregar(double valor) {
+        bloque[enBloque++] = valor;
+        if (enBloque == bloque.length) {
+            cerrarBloque();
+        }
+    }
+
+    /**
+     * Agrega una parte de un arreglo
+     * @param datos arreglo
+     * @param desde primer índice (incluido)
+     * @param hasta último índice (excluido)
+     */
+    public void agregar(double[] datos, int desde, int hasta) {
+        int i = desde;
+        while (i < hasta) {
+            int n = Math.min(hasta - i, bloque.length - enBloque);
+            System.arraycopy(datos, i, bloque, enBloque, n);
+            enBloque += n;
+            i += n;
+            if (enBloque == bloque.length) {
+                cerrarBloque();
+            }
+        }
+    }
+
+    /**
+     * Agrega un arreglo completo
+     * @param datos arreglo
+     */
+    public void agregar(double[] datos) {
+        agregar(datos, 0, datos.length);
+    }
+
+    private void cerrarBloque() {
+        AcumuladorEstadistico actual = AcumuladorEstadistico.deBloque(bloque, 0, enBloque);
+        enBloque = 0;
+        int nivel = 0;
+        int ultimo = parciales.size() - 1;
+        while (ultimo >= 0 && niveles.get(ultimo) == nivel) {
+            actual = AcumuladorEstadistico.combinar(parciales.remove(ultimo), actual);
+            niveles.remove(ultimo);
+            nivel++;
+            ultimo--;
+        }
+        parciales.add(actual);
+        niveles.add(nivel);
+    }
+
+    /**
+     * Resume lo agregado hasta ahora; se puede seguir agregando después
+     * @return resumen
+     */
+    public ResumenEstadistico resumen() {
+        // El bloque incompleto es el último; luego se combina de derecha a izquierda
+        AcumuladorEstadistico resultado = AcumuladorEstadistico.deBloque(bloque, 0, enBloque);
+        for (int i = parciales.size() - 1; i >= 0; i--) {
+            resultado = AcumuladorEstadistico.combinar(parciales.get(i), resultado);
+        }
+        return resultado.resumen();
+    }
+}
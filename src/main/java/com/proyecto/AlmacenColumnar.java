@@ -0,0 +1,735 @@
+package com.proyecto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+
+/**
+ * Almacén de usuarios en forma columnar, sin un objeto por usuario
+ *
+ * Cada usuario ocupa una ranura. Por ranura hay tres columnas primitivas (posición del
+ * registro en la arena, fecha de creación en milisegundos y hash del email) más una
+ * generación. El registro en la arena es: largo del email | email UTF-8 | largo del nombre |
+ * nombre UTF-8 | largo de la credencial | Credencial.codificar(), con los largos en varint.
+ * El índice email -> ranura es una tabla de direccionamiento abierto de ints con sondeo
+ * lineal y borrado por desplazamiento hacia atrás (sin lápidas).
+ *
+ * Los Usuario que devuelve son vistas (Vista) que leen y escriben las columnas: se crean al
+ * pedirlas y no se guardan. Cambiar el nombre o la credencial anexa un registro nuevo a la
+ * arena; la arena se compacta cuando lo descartado supera a lo vigente.
+ *
+ * Una vista de un usuario eliminado sigue leyendo sus datos hasta que la ranura se reutiliza
+ * o la arena se compacta; desde entonces lanza IllegalStateException. Las operaciones son
+ * seguras entre hilos con un candado de lectura y escritura; compute y computeIfPresent
+ * ejecutan la función con el candado de escritura tomado.
+ */
+final class AlmacenColumnar extends AbstractMap<String, Usuario> {
+
+    // Tamaño de cada trozo de la arena (un registro más grande recibe un trozo propio)
+    private static final int TROZO = 1 << 20;
+    private static final long SIN_POSICION = -1;
+    private static final int CARGA_MAXIMA_PORCENTAJE = 60;
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    private final Lock lectura = candado.readLock();
+    private final Lock escritura = candado.writeLock();
+
+    // ========== COLUMNAS POR RANURA ==========
+
+    // trozo << 32 | desplazamiento del registro en la arena
+    private long[] posiciones;
+    private long[] fechas;
+    private int[] hashes;
+    // Impar mientras la ranura está ocupada; cambia al eliminar y al reutilizar
+    private int[] generaciones;
+    private int ranurasUsadas;
+    private int[] libres = new int[16];
+    private int cantidadLibres;
+    private int cantidad;
+
+    // Índice: ranura + 1, o 0 si la celda está vacía
+    private int[] tabla;
+
+    // ========== ARENA ==========
+
+    private byte[][] trozos = new byte[16][];
+    private int cantidadTrozos;
+    private int usadoEnTrozo;
+    private long bytesVigentes;
+    private long bytesDescartados;
+
+    /**
+     * @param capacidadInicial cantidad de usuarios esperada
+     */
+    AlmacenColumnar(int capacidadInicial) {
+        int ranuras = Math.max(16, capacidadInicial);
+        posiciones = new long[ranuras];
+        Arrays.fill(posiciones, SIN_POSICION);
+        fechas = new long[ranuras];
+        hashes = new int[ranuras];
+        generaciones = new int[ranuras];
+        tabla = new int[capacidadTabla(ranuras)];
+    }
+
+    /**
+     * Reserva espacio para una cantidad de usuarios, evitando crecimientos sucesivos
+     * @param cantidadEsperada cantidad total de usuarios esperada
+     */
+    void reservar(int cantidadEsperada) {
+        escritura.lock();
+        try {
+            if (cantidadEsperada > posiciones.length) {
+                crecerColumnas(cantidadEsperada);
+            }
+            if (capacidadTabla(cantidadEsperada) > tabla.length) {
+                rehacerTabla(capacidadTabla(cantidadEsperada));
+            }
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Bytes ocupados por las columnas, el índice y la arena (sin contar encabezados de objetos)
+     * @return bytes reservados
+     */
+    long bytesReservados() {
+        lectura.lock();
+        try {
+            long arena = 0;
+            for (int i = 0; i < cantidadTrozos; i++) {
+                arena += trozos[i].length;
+            }
+            return arena + posiciones.length * (long) (Long.BYTES * 2 + Integer.BYTES * 2)
+                    + tabla.length * (long) Integer.BYTES + libres.length * (long) Integer.BYTES;
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    // ========== OPERACIONES DE MAP ==========
+
+    @Override
+    public int size() {
+        lectura.lock();
+        try {
+            return cantidad;
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object clave) {
+        if (!(clave instanceof String)) {
+            return false;
+        }
+        lectura.lock();
+        try {
+            return buscar((String) clave) >= 0;
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    @Override
+    public Usuario get(Object clave) {
+        if (!(clave instanceof String)) {
+            return null;
+        }
+        String email = (String) clave;
+        lectura.lock();
+        try {
+            int ranura = buscar(email);
+            return ranura < 0 ? null : new Vista(email, ranura, generaciones[ranura]);
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Guarda una copia de los datos del usuario
+     * @return copia independiente del usuario reemplazado, o null
+     */
+    @Override
+    public Usuario put(String email, Usuario usuario) {
+        escritura.lock();
+        try {
+            int ranura = buscar(email);
+            Usuario anterior = ranura < 0 ? null : materializar(email, ranura);
+            guardar(email, ranura, usuario);
+            return anterior;
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * @return copia independiente del usuario eliminado, o null
+     */
+    @Override
+    public Usuario remove(Object clave) {
+        if (!(clave instanceof String)) {
+            return null;
+        }
+        String email = (String) clave;
+        escritura.lock();
+        try {
+            int ranura = buscar(email);
+            if (ranura < 0) {
+                return null;
+            }
+            Usuario anterior = materializar(email, ranura);
+            liberar(ranura);
+            return anterior;
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    @Override
+    public Usuario compute(String email,
+                           BiFunction<? super String, ? super Usuario, ? extends Usuario> funcion) {
+        escritura.lock();
+        try {
+            int ranura = buscar(email);
+            Usuario actual = ranura < 0 ? null : new Vista(email, ranura, generaciones[ranura]);
+            return aplicar(email, ranura, actual, funcion.apply(email, actual));
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    @Override
+    public Usuario computeIfPresent(String email,
+                                    BiFunction<? super String, ? super Usuario, ? extends Usuario> funcion) {
+        escritura.lock();
+        try {
+            int ranura = buscar(email);
+            if (ranura < 0) {
+                return null;
+            }
+            Usuario actual = new Vista(email, ranura, generaciones[ranura]);
+            return aplicar(email, ranura, actual, funcion.apply(email, actual));
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    private Usuario aplicar(String email, int ranura, Usuario actual, Usuario nuevo) {
+        if (nuevo == null) {
+            if (ranura >= 0) {
+                liberar(ranura);
+            }
+        } else if (nuevo != actual) {
+            // Si la función devolvió la misma vista, sus cambios ya están en las columnas
+            guardar(email, ranura, nuevo);
+        }
+        return nuevo;
+    }
+
+    @Override
+    public void clear() {
+        escritura.lock();
+        try {
+            Arrays.fill(tabla, 0);
+            Arrays.fill(posiciones, 0, ranurasUsadas, SIN_POSICION);
+            cantidadLibres = 0;
+            for (int i = ranurasUsadas - 1; i >= 0; i--) {
+                // Generación par y posterior a la de cualquier vista existente
+                generaciones[i] = (generaciones[i] | 1) + 1;
+                agregarLibre(i);
+            }
+            cantidad = 0;
+            Arrays.fill(trozos, null);
+            cantidadTrozos = 0;
+            usadoEnTrozo = 0;
+            bytesVigentes = 0;
+            bytesDescartados = 0;
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, Usuario>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Usuario>>() {
+            @Override
+            public Iterator<Map.Entry<String, Usuario>> iterator() {
+                return new Recorrido();
+            }
+
+            @Override
+            public int size() {
+                return AlmacenColumnar.this.size();
+            }
+        };
+    }
+
+    /**
+     * Recorre las ranuras en orden; refleja los cambios concurrentes sin fallar (como ConcurrentHashMap)
+     */
+    private final class Recorrido implements Iterator<Map.Entry<String, Usuario>> {
+        private int siguiente;
+        private String ultimo;
+
+        @Override
+        public boolean hasNext() {
+            lectura.lock();
+            try {
+                while (siguiente < ranurasUsadas && (generaciones[siguiente] & 1) == 0) {
+                    siguiente++;
+                }
+                return siguiente < ranurasUsadas;
+            } finally {
+                lectura.unlock();
+            }
+        }
+
+        @Override
+        public Map.Entry<String, Usuario> next() {
+            lectura.lock();
+            try {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int ranura = siguiente++;
+                ultimo = leerEmail(ranura);
+                return new SimpleImmutableEntry<>(ultimo, new Vista(ultimo, ranura, generaciones[ranura]));
+            } finally {
+                lectura.unlock();
+            }
+        }
+
+        @Override
+        public void remove() {
+            if (ultimo == null) {
+                throw new IllegalStateException();
+            }
+            AlmacenColumnar.this.remove(ultimo);
+            ultimo = null;
+        }
+    }
+
+    // ========== ÍNDICE ==========
+
+    private static int capacidadTabla(int ranuras) {
+        long celdas = ranuras * 100L / CARGA_MAXIMA_PORCENTAJE + 1;
+        return (int) Math.min(1 << 30, Math.max(16, Long.highestOneBit(celdas - 1) << 1));
+    }
+
+    private static int dispersar(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return ranura del email, o -1 si no está
+     */
+    private int buscar(String email) {
+        int hash = dispersar(email.hashCode());
+        int mascara = tabla.length - 1;
+        for (int celda = hash & mascara; ; celda = (celda + 1) & mascara) {
+            int valor = tabla[celda];
+            if (valor == 0) {
+                return -1;
+            }
+            int ranura = valor - 1;
+            if (hashes[ranura] == hash && emailIgual(ranura, email)) {
+                return ranura;
+            }
+        }
+    }
+
+    private void indexar(int ranura) {
+        int mascara = tabla.length - 1;
+        int celda = hashes[ranura] & mascara;
+        while (tabla[celda] != 0) {
+            celda = (celda + 1) & mascara;
+        }
+        tabla[celda] = ranura + 1;
+    }
+
+    private void desindexar(int ranura) {
+        int mascara = tabla.length - 1;
+        int celda = hashes[ranura] & mascara;
+        while (tabla[celda] != ranura + 1) {
+            celda = (celda + 1) & mascara;
+        }
+        // Desplaza hacia atrás los elementos siguientes del grupo que pueden ocupar el hueco
+        int hueco = celda;
+        for (int i = (hueco + 1) & mascara; tabla[i] != 0; i = (i + 1) & mascara) {
+            int ideal = hashes[tabla[i] - 1] & mascara;
+            if (((i - ideal) & mascara) >= ((i - hueco) & mascara)) {
+                tabla[hueco] = tabla[i];
+                hueco = i;
+            }
+        }
+        tabla[hueco] = 0;
+    }
+
+    private void rehacerTabla(int capacidad) {
+        tabla = new int[capacidad];
+        for (int ranura = 0; ranura < ranurasUsadas; ranura++) {
+            if ((generaciones[ranura] & 1) == 1) {
+                indexar(ranura);
+            }
+        }
+    }
+
+    // ========== RANURAS ==========
+
+    private void guardar(String email, int ranura, Usuario usuario) {
+        byte[] nombre = usuario.getNombre().getBytes(StandardCharsets.UTF_8);
+        byte[] credencial = usuario.getCredencial().codificar();
+        long fecha = usuario.getFechaCreacion().getTime();
+        if (ranura >= 0) {
+            descartar(ranura);
+        } else {
+            ranura = ocuparRanura(dispersar(email.hashCode()));
+        }
+        posiciones[ranura] = anexar(email.getBytes(StandardCharsets.UTF_8), nombre, credencial);
+        fechas[ranura] = fecha;
+        compactarSiConviene();
+    }
+
+    private int ocuparRanura(int hash) {
+        int ranura;
+        if (cantidadLibres > 0) {
+            ranura = libres[--cantidadLibres];
+        } else {
+            if (ranurasUsadas == posiciones.length) {
+                crecerColumnas(posiciones.length + (posiciones.length >> 1));
+            }
+            ranura = ranurasUsadas++;
+        }
+        // Las vistas del usuario eliminado que ocupaba la ranura dejan de ser válidas
+        generaciones[ranura]++;
+        hashes[ranura] = hash;
+        cantidad++;
+        if (capacidadTabla(cantidad) > tabla.length) {
+            // Indexa también esta ranura, que ya figura como ocupada
+            rehacerTabla(tabla.length << 1);
+        } else {
+            indexar(ranura);
+        }
+        return ranura;
+    }
+
+    private void liberar(int ranura) {
+        desindexar(ranura);
+        // Los bytes quedan en la arena (legibles por vistas viejas) hasta la compactación
+        descartar(ranura);
+        generaciones[ranura]++;
+        agregarLibre(ranura);
+        cantidad--;
+        compactarSiConviene();
+    }
+
+    private void agregarLibre(int ranura) {
+        if (cantidadLibres == libres.length) {
+            libres = Arrays.copyOf(libres, libres.length << 1);
+        }
+        libres[cantidadLibres++] = ranura;
+    }
+
+    private void crecerColumnas(int ranuras) {
+        int anterior = posiciones.length;
+        posiciones = Arrays.copyOf(posiciones, ranuras);
+        Arrays.fill(posiciones, anterior, ranuras, SIN_POSICION);
+        fechas = Arrays.copyOf(fechas, ranuras);
+        hashes = Arrays.copyOf(hashes, ranuras);
+        generaciones = Arrays.copyOf(generaciones, ranuras);
+    }
+
+    // ========== VISTAS ==========
+
+    /**
+     * Usuario respaldado por una ranura; las lecturas y escrituras van a las columnas
+     */
+    private final class Vista extends Usuario {
+        private final int ranura;
+        private final int generacion;
+
+        Vista(String email, int ranura, int generacion) {
+            super(email, null, null, null);
+            this.ranura = ranura;
+            this.generacion = generacion;
+        }
+
+        @Override
+        public String getNombre() {
+            lectura.lock();
+            try {
+                return leerNombre(posicionVigente(ranura, generacion));
+            } finally {
+                lectura.unlock();
+            }
+        }
+
+        @Override
+        Credencial getCredencial() {
+            lectura.lock();
+            try {
+                return leerCredencial(posicionVigente(ranura, generacion));
+            } finally {
+                lectura.unlock();
+            }
+        }
+
+        @Override
+        public Date getFechaCreacion() {
+            lectura.lock();
+            try {
+                posicionVigente(ranura, generacion);
+                return new Date(fechas[ranura]);
+            } finally {
+                lectura.unlock();
+            }
+        }
+
+        @Override
+        public void setNombre(String nombre) {
+            byte[] bytes = nombre.getBytes(StandardCharsets.UTF_8);
+            escritura.lock();
+            try {
+                reescribir(ranura, generacion, bytes, null);
+            } finally {
+                escritura.unlock();
+            }
+        }
+
+        @Override
+        void setCredencial(Credencial credencial) {
+            byte[] bytes = credencial.codificar();
+            escritura.lock();
+            try {
+                reescribir(ranura, generacion, null, bytes);
+            } finally {
+                escritura.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return posición del registro de la vista
+     * @throws IllegalStateException si la ranura ya pertenece a otro usuario o sus datos se descartaron
+     */
+    private long posicionVigente(int ranura, int generacion) {
+        int actual = generaciones[ranura];
+        long posicion = posiciones[ranura];
+        // Vigente, o eliminado sin que la ranura se haya reutilizado ni la arena compactado
+        if ((actual == generacion || actual == generacion + 1) && posicion != SIN_POSICION) {
+            return posicion;
+        }
+        throw new IllegalStateException("El usuario ya no está en el almacén");
+    }
+
+    private void reescribir(int ranura, int generacion, byte[] nombreNuevo, byte[] credencialNueva) {
+        if (generaciones[ranura] != generacion) {
+            throw new IllegalStateException("El usuario ya no está en el almacén");
+        }
+        long posicion = posiciones[ranura];
+        byte[] trozo = trozos[(int) (posicion >>> 32)];
+        int i = (int) posicion;
+        int largoEmail = leerVarint(trozo, i);
+        int inicioEmail = i + tamanoVarint(largoEmail);
+        int j = inicioEmail + largoEmail;
+        int largoNombre = leerVarint(trozo, j);
+        int inicioNombre = j + tamanoVarint(largoNombre);
+        int k = inicioNombre + largoNombre;
+        int largoCredencial = leerVarint(trozo, k);
+        int inicioCredencial = k + tamanoVarint(largoCredencial);
+
+        // Copias de lo que se conserva: la compactación puede reemplazar el trozo durante anexar
+        byte[] email = Arrays.copyOfRange(trozo, inicioEmail, inicioEmail + largoEmail);
+        byte[] nombre = nombreNuevo != null ? nombreNuevo
+                : Arrays.copyOfRange(trozo, inicioNombre, inicioNombre + largoNombre);
+        byte[] credencial = credencialNueva != null ? credencialNueva
+                : Arrays.copyOfRange(trozo, inicioCredencial, inicioCredencial + largoCredencial);
+        descartar(ranura);
+        posiciones[ranura] = anexar(email, nombre, credencial);
+        compactarSiConviene();
+    }
+
+    private Usuario materializar(String email, int ranura) {
+        long posicion = posiciones[ranura];
+        return new Usuario(email, leerCredencial(posicion), leerNombre(posicion), new Date(fechas[ranura]));
+    }
+
+    // ========== ARENA ==========
+
+    private String leerEmail(int ranura) {
+        long posicion = posiciones[ranura];
+        byte[] trozo = trozos[(int) (posicion >>> 32)];
+        int i = (int) posicion;
+        int largo = leerVarint(trozo, i);
+        return new String(trozo, i + tamanoVarint(largo), largo, StandardCharsets.UTF_8);
+    }
+
+    private String leerNombre(long posicion) {
+        byte[] trozo = trozos[(int) (posicion >>> 32)];
+        int i = (int) posicion;
+        int largoEmail = leerVarint(trozo, i);
+        i += tamanoVarint(largoEmail) + largoEmail;
+        int largo = leerVarint(trozo, i);
+        return new String(trozo, i + tamanoVarint(largo), largo, StandardCharsets.UTF_8);
+    }
+
+    private Credencial leerCredencial(long posicion) {
+        byte[] trozo = trozos[(int) (posicion >>> 32)];
+        int i = (int) posicion;
+        int largoEmail = leerVarint(trozo, i);
+        i += tamanoVarint(largoEmail) + largoEmail;
+        int largoNombre = leerVarint(trozo, i);
+        i += tamanoVarint(largoNombre) + largoNombre;
+        int largo = leerVarint(trozo, i);
+        i += tamanoVarint(largo);
+        return Credencial.decodificar(Arrays.copyOfRange(trozo, i, i + largo));
+    }
+
+    /**
+     * Compara el email de la ranura con uno dado sin decodificarlo
+     */
+    private boolean emailIgual(int ranura, String email) {
+        long posicion = posiciones[ranura];
+        byte[] trozo = trozos[(int) (posicion >>> 32)];
+        int i = (int) posicion;
+        int largo = leerVarint(trozo, i);
+        i += tamanoVarint(largo);
+        if (largo != email.length()) {
+            // Con caracteres no ASCII el largo en bytes difiere del largo en chars
+            return largo > email.length() && emailIgualUtf8(trozo, i, largo, email);
+        }
+        for (int c = 0; c < largo; c++) {
+            char caracter = email.charAt(c);
+            if (caracter >= 0x80) {
+                return emailIgualUtf8(trozo, i, largo, email);
+            }
+            if (trozo[i + c] != (byte) caracter) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean emailIgualUtf8(byte[] trozo, int desde, int largo, String email) {
+        byte[] bytes = email.getBytes(StandardCharsets.UTF_8);
+        return Arrays.equals(trozo, desde, desde + largo, bytes, 0, bytes.length);
+    }
+
+    /**
+     * Anexa un registro a la arena
+     * @return posición del registro
+     */
+    private long anexar(byte[] email, byte[] nombre, byte[] credencial) {
+        int largo = tamanoVarint(email.length) + email.length + tamanoVarint(nombre.length) + nombre.length
+                + tamanoVarint(credencial.length) + credencial.length;
+        long posicion = reservarEnArena(largo);
+        byte[] trozo = trozos[cantidadTrozos - 1];
+        int i = escribirVarint(trozo, (int) posicion, email.length);
+        System.arraycopy(email, 0, trozo, i, email.length);
+        i = escribirVarint(trozo, i + email.length, nombre.length);
+        System.arraycopy(nombre, 0, trozo, i, nombre.length);
+        i = escribirVarint(trozo, i + nombre.length, credencial.length);
+        System.arraycopy(credencial, 0, trozo, i, credencial.length);
+        return posicion;
+    }
+
+    /**
+     * Reserva espacio contiguo al final de la arena
+     * @return posición del espacio reservado
+     */
+    private long reservarEnArena(int largo) {
+        if (cantidadTrozos == 0 || usadoEnTrozo + largo > trozos[cantidadTrozos - 1].length) {
+            if (cantidadTrozos == trozos.length) {
+                trozos = Arrays.copyOf(trozos, cantidadTrozos << 1);
+            }
+            trozos[cantidadTrozos++] = new byte[Math.max(TROZO, largo)];
+            usadoEnTrozo = 0;
+        }
+        long posicion = (long) (cantidadTrozos - 1) << 32 | usadoEnTrozo;
+        usadoEnTrozo += largo;
+        bytesVigentes += largo;
+        return posicion;
+    }
+
+    private void descartar(int ranura) {
+        long posicion = posiciones[ranura];
+        int largo = largoRegistro(trozos[(int) (posicion >>> 32)], (int) posicion);
+        bytesVigentes -= largo;
+        bytesDescartados += largo;
+    }
+
+    /**
+     * Reescribe la arena con sólo los registros vigentes cuando lo descartado la domina
+     */
+    private void compactarSiConviene() {
+        if (bytesDescartados < 4L * TROZO || bytesDescartados < bytesVigentes) {
+            return;
+        }
+        byte[][] anteriores = trozos;
+        trozos = new byte[16][];
+        cantidadTrozos = 0;
+        usadoEnTrozo = 0;
+        bytesVigentes = 0;
+        bytesDescartados = 0;
+        for (int ranura = 0; ranura < ranurasUsadas; ranura++) {
+            long posicion = posiciones[ranura];
+            if ((generaciones[ranura] & 1) == 0) {
+                // Eliminado: sus vistas viejas dejan de ser legibles
+                posiciones[ranura] = SIN_POSICION;
+                continue;
+            }
+            byte[] trozo = anteriores[(int) (posicion >>> 32)];
+            int inicio = (int) posicion;
+            int largo = largoRegistro(trozo, inicio);
+            long nueva = reservarEnArena(largo);
+            System.arraycopy(trozo, inicio, trozos[cantidadTrozos - 1], (int) nueva, largo);
+            posiciones[ranura] = nueva;
+        }
+    }
+
+    private static int largoRegistro(byte[] trozo, int inicio) {
+        int i = inicio;
+        for (int campo = 0; campo < 3; campo++) {
+            int largo = leerVarint(trozo, i);
+            i += tamanoVarint(largo) + largo;
+        }
+        return i - inicio;
+    }
+
+    // ========== VARINTS ==========
+
+    private static int tamanoVarint(int valor) {
+        return valor < 1 << 7 ? 1 : valor < 1 << 14 ? 2 : valor < 1 << 21 ? 3 : valor < 1 << 28 ? 4 : 5;
+    }
+
+    private static int escribirVarint(byte[] destino, int i, int valor) {
+        while ((valor & ~0x7F) != 0) {
+            destino[i++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        destino[i++] = (byte) valor;
+        return i;
+    }
+
+    private static int leerVarint(byte[] origen, int i) {
+        int valor = 0;
+        for (int desplazamiento = 0; ; desplazamiento += 7) {
+            byte b = origen[i++];
+            valor |= (b & 0x7F) << desplazamiento;
+            if (b >= 0) {
+                return valor;
+            }
+        }
+    }
+}
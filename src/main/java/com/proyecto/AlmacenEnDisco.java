@@ -0,0 +1,280 @@
+package com.proyecto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * Almacén de usuarios en dos niveles: todos en disco (ArchivoUsuarios) y los más leídos en
+ * una caché en memoria acotada en bytes (CacheTinyLfu)
+ *
+ * get busca primero en la caché; si falla lee el disco y sube al usuario a la caché, que
+ * decide si se queda según la frecuencia con que se lo pide. Las escrituras pasan al disco
+ * antes de retornar (write-through) y reemplazan o quitan al usuario de la caché, de modo que
+ * el disco está siempre al día y la caché nunca tiene algo que el disco no.
+ *
+ * compute y computeIfPresent toman un candado por franja de emails, como AlmacenVersionado, y
+ * le pasan a la función el usuario de la caché (o el recién leído del disco): los cambios que
+ * le haga con setNombre o setCredencial se ven en la caché y se escriben completos al disco.
+ * Si la función devuelve el mismo usuario sin cambios no se escribe nada. Un fallo de la caché
+ * también toma la franja, para que un usuario leído del disco no pise en la caché a uno que se
+ * escribió entretanto.
+ *
+ * Los recorridos (values, keySet, entrySet) leen el disco en el orden de su índice y son
+ * débilmente consistentes; sus usuarios son copias que no pasan por la caché.
+ */
+final class AlmacenEnDisco extends AbstractMap<String, Usuario> implements Closeable {
+
+    private static final int FRANJAS = 256;
+
+    private final ArchivoUsuarios archivo;
+    private final CacheTinyLfu cache;
+    private final ReentrantLock[] franjas = new ReentrantLock[FRANJAS];
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+
+    private AlmacenEnDisco(ArchivoUsuarios archivo, long memoriaMaxima) {
+        this.archivo = archivo;
+        this.cache = new CacheTinyLfu(memoriaMaxima);
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Abre el almacén del directorio, con la caché vacía
+     * @param directorio directorio de datos (se crea si no existe)
+     * @param sincronizar true para forzar cada escritura al disco antes de retornar
+     * @param capacidadInicial cantidad de usuarios esperada
+     * @param memoriaMaxima bytes estimados que puede ocupar la caché
+     * @return almacén abierto
+     * @throws IOException si no se pueden abrir los archivos
+     */
+    static AlmacenEnDisco abrir(Path directorio, boolean sincronizar, int capacidadInicial, long memoriaMaxima)
+            throws IOException {
+        return new AlmacenEnDisco(ArchivoUsuarios.abrir(directorio, sincronizar, capacidadInicial), memoriaMaxima);
+    }
+
+    /**
+     * @return contadores de la caché en este momento
+     */
+    EstadisticasCache estadisticas() {
+        return new EstadisticasCache(aciertos.sum(), fallos.sum(), cache.getDesalojos(), cache.cantidad(),
+                cache.bytes(), cache.getMaximo());
+    }
+
+    long getAciertos() {
+        return aciertos.sum();
+    }
+
+    long getFallos() {
+        return fallos.sum();
+    }
+
+    long getDesalojos() {
+        return cache.getDesalojos();
+    }
+
+    long getBytesEnMemoria() {
+        return cache.bytes();
+    }
+
+    Exception getFalloCompactacion() {
+        return archivo.getFalloCompactacion();
+    }
+
+    long getFallosCompactacion() {
+        return archivo.getFallosCompactacion();
+    }
+
+    // ========== OPERACIONES DE MAP ==========
+
+    @Override
+    public int size() {
+        return archivo.cantidad();
+    }
+
+    @Override
+    public boolean containsKey(Object clave) {
+        return get(clave) != null;
+    }
+
+    @Override
+    public Usuario get(Object clave) {
+        if (!(clave instanceof String)) {
+            return null;
+        }
+        String email = (String) clave;
+        Usuario usuario = cache.obtener(email);
+        if (usuario != null) {
+            aciertos.increment();
+            return usuario;
+        }
+        fallos.increment();
+        ReentrantLock franja = franja(email);
+        franja.lock();
+        try {
+            // Otro fallo del mismo email pudo subirlo mientras se esperaba la franja
+            usuario = cache.consultar(email);
+            if (usuario == null) {
+                usuario = archivo.leer(email);
+                if (usuario != null) {
+                    cache.poner(usuario);
+                }
+            }
+            return usuario;
+        } finally {
+            franja.unlock();
+        }
+    }
+
+    @Override
+    public Usuario put(String email, Usuario usuario) {
+        Usuario[] anterior = new Usuario[1];
+        aplicar(email, (clave, actual) -> {
+            anterior[0] = actual;
+            return usuario;
+        }, false);
+        return anterior[0];
+    }
+
+    @Override
+    public Usuario remove(Object clave) {
+        if (!(clave instanceof String)) {
+            return null;
+        }
+        Usuario[] anterior = new Usuario[1];
+        aplicar((String) clave, (email, actual) -> {
+            anterior[0] = actual;
+            return null;
+        }, true);
+        return anterior[0];
+    }
+
+    @Override
+    public Usuario compute(String email,
+                           BiFunction<? super String, ? super Usuario, ? extends Usuario> funcion) {
+        return aplicar(email, funcion, false);
+    }
+
+    @Override
+    public Usuario computeIfPresent(String email,
+                                    BiFunction<? super String, ? super Usuario, ? extends Usuario> funcion) {
+        return aplicar(email, funcion, true);
+    }
+
+    private Usuario aplicar(String email, BiFunction<? super String, ? super Usuario, ? extends Usuario> funcion,
+                            boolean siPresente) {
+        ReentrantLock franja = franja(email);
+        franja.lock();
+        try {
+            Usuario actual = cache.consultar(email);
+            if (actual == null) {
+                actual = archivo.leer(email);
+            }
+            if (actual == null && siPresente) {
+                return null;
+            }
+            String nombre = actual == null ? null : actual.getNombre();
+            Credencial credencial = actual == null ? null : actual.getCredencial();
+            Usuario nuevo = funcion.apply(email, actual);
+            if (nuevo == null) {
+                if (actual != null) {
+                    archivo.quitar(email);
+                    cache.quitar(email);
+                }
+            } else if (nuevo != actual || nuevo.getNombre() != nombre || nuevo.getCredencial() != credencial) {
+                archivo.escribir(nuevo);
+                cache.poner(nuevo);
+            }
+            return nuevo;
+        } catch (IOException e) {
+            // El disco no cambió: la caché tampoco debe mostrar lo que la función haya tocado
+            cache.quitar(email);
+            throw new UncheckedIOException("No se pudo escribir el usuario en disco", e);
+        } finally {
+            franja.unlock();
+        }
+    }
+
+    /**
+     * Vacía el disco y la caché con todas las franjas tomadas
+     */
+    @Override
+    public void clear() {
+        for (ReentrantLock franja : franjas) {
+            franja.lock();
+        }
+        try {
+            archivo.vaciar();
+            cache.vaciar();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo vaciar el almacén en disco", e);
+        } finally {
+            for (ReentrantLock franja : franjas) {
+                franja.unlock();
+            }
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, Usuario>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Usuario>>() {
+            @Override
+            public Iterator<Map.Entry<String, Usuario>> iterator() {
+                Iterator<Usuario> usuarios = archivo.recorrer();
+                return new Iterator<Map.Entry<String, Usuario>>() {
+                    private String ultimo;
+
+                    @Override
+                    public boolean hasNext() {
+                        return usuarios.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<String, Usuario> next() {
+                        Usuario usuario = usuarios.next();
+                        ultimo = usuario.getEmail();
+                        return new SimpleImmutableEntry<>(ultimo, usuario);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (ultimo == null) {
+                            throw new IllegalStateException();
+                        }
+                        AlmacenEnDisco.this.remove(ultimo);
+                        ultimo = null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return archivo.cantidad();
+            }
+        };
+    }
+
+    /**
+     * Cierra el archivo; el índice queda marcado como vigente para la próxima apertura
+     */
+    @Override
+    public void close() throws IOException {
+        archivo.close();
+    }
+
+    private ReentrantLock franja(String email) {
+        int h = email.hashCode();
+        return franjas[(h ^ (h >>> 16)) & (FRANJAS - 1)];
+    }
+}
@@ -0,0 +1,595 @@
+package com.proyecto;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Almacén de usuarios versionado: un árbol de hash persistente (HAMT) donde cada cambio
+ * copia sólo la ruta desde la raíz hasta el usuario afectado
+ *
+ * El estado vigente es una Version inmutable (raíz y cantidad) en una AtomicReference. Tomar
+ * una instantánea es leer esa referencia; quien la recorre no toma candados ni ve cambios
+ * posteriores, y los escritores no lo esperan. Las versiones viejas de nodos y usuarios son
+ * basura común: el recolector las libera cuando ninguna Version alcanzable las referencia.
+ *
+ * Cada nodo interno tiene un mapa de 32 bits con los fragmentos de 5 bits del hash presentes
+ * y un arreglo compacto con sólo esos hijos. Un hijo es una Entrada (email, hash, usuario),
+ * otro Nodo o una Colision (emails con el mismo hash de 32 bits).
+ *
+ * Los Usuario guardados no se modifican nunca: al guardarlos se sellan y sus setters lanzan
+ * IllegalStateException, así que quien los recibe no puede reescribir una versión. compute y computeIfPresent toman un candado
+ * por franja de emails (para que la función corra una sola vez, como en ConcurrentHashMap) y
+ * le pasan una copia del usuario vigente: lo que la función le cambie con setNombre o
+ * setCredencial queda en una versión nueva. Instalarla es un compareAndSet de la raíz que,
+ * si otro email ganó entretanto, rehace sólo la copia de la ruta.
+ */
+final class AlmacenVersionado extends AbstractMap<String, Usuario> {
+
+    private static final int BITS = 5;
+    private static final int FRANJAS = 256;
+
+    private static final Version VACIA = new Version(null, 0);
+
+    private final AtomicReference<Version> vigente = new AtomicReference<>(VACIA);
+    private final ReentrantLock[] franjas = new ReentrantLock[FRANJAS];
+
+    AlmacenVersionado() {
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @return estado vigente, inmutable; no cambia aunque el almacén siga cambiando
+     */
+    Version version() {
+        return vigente.get();
+    }
+
+    // ========== OPERACIONES DE MAP ==========
+
+    @Override
+    public int size() {
+        return vigente.get().cantidad;
+    }
+
+    @Override
+    public boolean containsKey(Object clave) {
+        return get(clave) != null;
+    }
+
+    @Override
+    public Usuario get(Object clave) {
+        return clave instanceof String ? vigente.get().buscar((String) clave) : null;
+    }
+
+    @Override
+    public Usuario put(String email, Usuario usuario) {
+        int hash = dispersar(email);
+        ReentrantLock franja = franja(hash);
+        franja.lock();
+        try {
+            Entrada anterior = buscar(vigente.get().raiz, hash, email);
+            instalar(new Entrada(email, hash, usuario), anterior != null);
+            return anterior == null ? null : anterior.usuario;
+        } finally {
+            franja.unlock();
+        }
+    }
+
+    @Override
+    public Usuario remove(Object clave) {
+        if (!(clave instanceof String)) {
+            return null;
+        }
+        String email = (String) clave;
+        int hash = dispersar(email);
+        ReentrantLock franja = franja(hash);
+        franja.lock();
+        try {
+            Entrada anterior = buscar(vigente.get().raiz, hash, email);
+            if (anterior != null) {
+                quitar(hash, email);
+            }
+            return anterior == null ? null : anterior.usuario;
+        } finally {
+            franja.unlock();
+        }
+    }
+
+    @Override
+    public Usuario compute(String email,
+                           BiFunction<? super String, ? super Usuario, ? extends Usuario> funcion) {
+        return aplicar(email, funcion, false);
+    }
+
+    @Override
+    public Usuario computeIfPresent(String email,
+                                    BiFunction<? super String, ? super Usuario, ? extends Usuario> funcion) {
+        return aplicar(email, funcion, true);
+    }
+
+    private Usuario aplicar(String email, BiFunction<? super String, ? super Usuario, ? extends Usuario> funcion,
+                            boolean siPresente) {
+        int hash = dispersar(email);
+        ReentrantLock franja = franja(hash);
+        franja.lock();
+        try {
+            // Con la franja tomada nadie más cambia este email: lo leído sigue vigente al instalar
+            Entrada anterior = buscar(vigente.get().raiz, hash, email);
+            if (anterior == null && siPresente) {
+                return null;
+            }
+            Usuario copia = anterior == null ? null : copiar(anterior.usuario);
+            Usuario nuevo = funcion.apply(email, copia);
+            if (nuevo == null) {
+                if (anterior != null) {
+                    quitar(hash, email);
+                }
+            } else if (nuevo != copia || !igual(copia, anterior.usuario)) {
+                // La copia devuelta sin cambios no merece una versión nueva
+                instalar(new Entrada(email, hash, nuevo), anterior != null);
+            }
+            return nuevo;
+        } finally {
+            franja.unlock();
+        }
+    }
+
+    /**
+     * Vacía el almacén con todas las franjas tomadas, para no pisar un cambio a medio instalar
+     */
+    @Override
+    public void clear() {
+        for (ReentrantLock franja : franjas) {
+            franja.lock();
+        }
+        try {
+            vigente.set(VACIA);
+        } finally {
+            for (ReentrantLock franja : franjas) {
+                franja.unlock();
+            }
+        }
+    }
+
+    // Cada vista se fija a la versión vigente al pedirla: su tamaño y su recorrido coinciden
+    @Override
+    public Set<Map.Entry<String, Usuario>> entrySet() {
+        return new Vista<>(vigente.get(), entrada -> entrada);
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new Vista<>(vigente.get(), entrada -> entrada.email);
+    }
+
+    @Override
+    public Collection<Usuario> values() {
+        return new Vista<>(vigente.get(), entrada -> entrada.usuario);
+    }
+
+    private final class Vista<T> extends AbstractSet<T> {
+        private final Version version;
+        private final Function<Entrada, T> extraer;
+
+        Vista(Version version, Function<Entrada, T> extraer) {
+            this.version = version;
+            this.extraer = extraer;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            Iterator<Entrada> recorrido = version.recorrer();
+            return new Iterator<T>() {
+                private String ultimo;
+
+                @Override
+                public boolean hasNext() {
+                    return recorrido.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    Entrada entrada = recorrido.next();
+                    ultimo = entrada.email;
+                    return extraer.apply(entrada);
+                }
+
+                @Override
+                public void remove() {
+                    if (ultimo == null) {
+                        throw new IllegalStateException();
+                    }
+                    AlmacenVersionado.this.remove(ultimo);
+                    ultimo = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return version.cantidad;
+        }
+    }
+
+    // ========== VERSIONES ==========
+
+    /**
+     * Estado inmutable del almacén en un instante
+     */
+    static final class Version {
+        final Object raiz;
+        final int cantidad;
+
+        Version(Object raiz, int cantidad) {
+            this.raiz = raiz;
+            this.cantidad = cantidad;
+        }
+
+        Usuario buscar(String email) {
+            Entrada entrada = AlmacenVersionado.buscar(raiz, dispersar(email), email);
+            return entrada == null ? null : entrada.usuario;
+        }
+
+        Iterator<Entrada> recorrer() {
+            return new Recorrido(raiz);
+        }
+
+        /**
+         * @return los usuarios de esta versión, en el orden del árbol
+         */
+        Collection<Usuario> usuarios() {
+            return new AbstractCollection<Usuario>() {
+                @Override
+                public Iterator<Usuario> iterator() {
+                    Iterator<Entrada> recorrido = recorrer();
+                    return new Iterator<Usuario>() {
+                        @Override
+                        public boolean hasNext() {
+                            return recorrido.hasNext();
+                        }
+
+                        @Override
+                        public Usuario next() {
+                            return recorrido.next().usuario;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return cantidad;
+                }
+            };
+        }
+    }
+
+    private void instalar(Entrada entrada, boolean reemplaza) {
+        while (true) {
+            Version actual = vigente.get();
+            Version nueva = new Version(poner(actual.raiz, 0, entrada), actual.cantidad + (reemplaza ? 0 : 1));
+            if (vigente.compareAndSet(actual, nueva)) {
+                return;
+            }
+        }
+    }
+
+    private void quitar(int hash, String email) {
+        while (true) {
+            Version actual = vigente.get();
+            Version nueva = new Version(quitar(actual.raiz, 0, hash, email), actual.cantidad - 1);
+            if (vigente.compareAndSet(actual, nueva)) {
+                return;
+            }
+        }
+    }
+
+    private ReentrantLock franja(int hash) {
+        return franjas[hash & (FRANJAS - 1)];
+    }
+
+    private static Usuario copiar(Usuario usuario) {
+        return new Usuario(usuario.getEmail(), usuario.getCredencial(), usuario.getNombre(),
+                usuario.getFechaCreacion());
+    }
+
+    private static boolean igual(Usuario copia, Usuario original) {
+        return copia.getNombre() == original.getNombre() && copia.getCredencial() == original.getCredencial();
+    }
+
+    // ========== ÁRBOL ==========
+
+    /**
+     * Hoja del árbol; como Map.Entry es inmutable (setValue no está soportado)
+     */
+    static final class Entrada implements Map.Entry<String, Usuario> {
+        final String email;
+        final int hash;
+        final Usuario usuario;
+
+        Entrada(String email, int hash, Usuario usuario) {
+            this.email = email;
+            this.hash = hash;
+            this.usuario = usuario;
+            usuario.sellar();
+        }
+
+        @Override
+        public String getKey() {
+            return email;
+        }
+
+        @Override
+        public Usuario getValue() {
+            return usuario;
+        }
+
+        @Override
+        public Usuario setValue(Usuario valor) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object otro) {
+            if (!(otro instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entrada = (Map.Entry<?, ?>) otro;
+            return email.equals(entrada.getKey()) && usuario.equals(entrada.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return email.hashCode() ^ usuario.hashCode();
+        }
+    }
+
+    private static final class Nodo {
+        final int mapa;
+        final Object[] hijos;
+
+        Nodo(int mapa, Object[] hijos) {
+            this.mapa = mapa;
+            this.hijos = hijos;
+        }
+    }
+
+    private static final class Colision {
+        final int hash;
+        final Entrada[] entradas;
+
+        Colision(int hash, Entrada[] entradas) {
+            this.hash = hash;
+            this.entradas = entradas;
+        }
+    }
+
+    private static int dispersar(String email) {
+        int h = email.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int nivel) {
+        return 1 << ((hash >>> nivel) & 31);
+    }
+
+    private static int indice(int mapa, int bit) {
+        return Integer.bitCount(mapa & (bit - 1));
+    }
+
+    private static Entrada buscar(Object nodo, int hash, String email) {
+        int nivel = 0;
+        while (nodo instanceof Nodo) {
+            Nodo interno = (Nodo) nodo;
+            int bit = bit(hash, nivel);
+            if ((interno.mapa & bit) == 0) {
+                return null;
+            }
+            nodo = interno.hijos[indice(interno.mapa, bit)];
+            nivel += BITS;
+        }
+        if (nodo instanceof Entrada) {
+            Entrada entrada = (Entrada) nodo;
+            return entrada.hash == hash && entrada.email.equals(email) ? entrada : null;
+        }
+        if (nodo instanceof Colision && ((Colision) nodo).hash == hash) {
+            for (Entrada entrada : ((Colision) nodo).entradas) {
+                if (entrada.email.equals(email)) {
+                    return entrada;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return copia del subárbol con la entrada agregada o reemplazada
+     */
+    private static Object poner(Object nodo, int nivel, Entrada entrada) {
+        if (nodo == null) {
+            return entrada;
+        }
+        if (nodo instanceof Entrada) {
+            Entrada otra = (Entrada) nodo;
+            return otra.hash == entrada.hash && otra.email.equals(entrada.email)
+                    ? entrada : combinar(otra, entrada, nivel);
+        }
+        if (nodo instanceof Colision) {
+            Colision colision = (Colision) nodo;
+            if (colision.hash != entrada.hash) {
+                // Un hash distinto con el mismo prefijo: la colisión baja un nivel
+                return poner(new Nodo(bit(colision.hash, nivel), new Object[]{colision}), nivel, entrada);
+            }
+            Entrada[] entradas = colision.entradas;
+            for (int i = 0; i < entradas.length; i++) {
+                if (entradas[i].email.equals(entrada.email)) {
+                    Entrada[] copia = entradas.clone();
+                    copia[i] = entrada;
+                    return new Colision(colision.hash, copia);
+                }
+            }
+            Entrada[] copia = Arrays.copyOf(entradas, entradas.length + 1);
+            copia[entradas.length] = entrada;
+            return new Colision(colision.hash, copia);
+        }
+        Nodo interno = (Nodo) nodo;
+        int bit = bit(entrada.hash, nivel);
+        int i = indice(interno.mapa, bit);
+        Object[] hijos = interno.hijos;
+        if ((interno.mapa & bit) == 0) {
+            Object[] copia = new Object[hijos.length + 1];
+            System.arraycopy(hijos, 0, copia, 0, i);
+            copia[i] = entrada;
+            System.arraycopy(hijos, i, copia, i + 1, hijos.length - i);
+            return new Nodo(interno.mapa | bit, copia);
+        }
+        Object[] copia = hijos.clone();
+        copia[i] = poner(hijos[i], nivel + BITS, entrada);
+        return new Nodo(interno.mapa, copia);
+    }
+
+    // Dos entradas que caen en la misma posición: bajan hasta el primer fragmento en que difieren
+    private static Object combinar(Entrada a, Entrada b, int nivel) {
+        if (a.hash == b.hash) {
+            return new Colision(a.hash, new Entrada[]{a, b});
+        }
+        int bitA = bit(a.hash, nivel);
+        int bitB = bit(b.hash, nivel);
+        if (bitA == bitB) {
+            return new Nodo(bitA, new Object[]{combinar(a, b, nivel + BITS)});
+        }
+        // Los hijos van en el orden de sus bits en el mapa
+        return new Nodo(bitA | bitB, Integer.compareUnsigned(bitA, bitB) < 0 ? new Object[]{a, b} : new Object[]{b, a});
+    }
+
+    /**
+     * @return copia del subárbol sin la entrada (que debe existir), o null si quedó vacío
+     */
+    private static Object quitar(Object nodo, int nivel, int hash, String email) {
+        if (nodo instanceof Entrada) {
+            return null;
+        }
+        if (nodo instanceof Colision) {
+            Entrada[] entradas = ((Colision) nodo).entradas;
+            int i = 0;
+            while (!entradas[i].email.equals(email)) {
+                i++;
+            }
+            if (entradas.length == 2) {
+                return entradas[1 - i];
+            }
+            Entrada[] copia = new Entrada[entradas.length - 1];
+            System.arraycopy(entradas, 0, copia, 0, i);
+            System.arraycopy(entradas, i + 1, copia, i, copia.length - i);
+            return new Colision(hash, copia);
+        }
+        Nodo interno = (Nodo) nodo;
+        int bit = bit(hash, nivel);
+        int i = indice(interno.mapa, bit);
+        Object[] hijos = interno.hijos;
+        Object hijo = quitar(hijos[i], nivel + BITS, hash, email);
+        if (hijo != null) {
+            if (hijos.length == 1 && !(hijo instanceof Nodo) && nivel > 0) {
+                // Una hoja sola sube: la búsqueda la encuentra igual y el árbol no queda con cadenas
+                return hijo;
+            }
+            Object[] copia = hijos.clone();
+            copia[i] = hijo;
+            return new Nodo(interno.mapa, copia);
+        }
+        if (hijos.length == 1) {
+            return null;
+        }
+        if (hijos.length == 2 && nivel > 0 && !(hijos[1 - i] instanceof Nodo)) {
+            return hijos[1 - i];
+        }
+        Object[] copia = new Object[hijos.length - 1];
+        System.arraycopy(hijos, 0, copia, 0, i);
+        System.arraycopy(hijos, i + 1, copia, i, copia.length - i);
+        return new Nodo(interno.mapa & ~bit, copia);
+    }
+
+    /**
+     * Recorrido en profundidad de un árbol inmutable, con una pila explícita de a lo sumo 8 niveles
+     */
+    private static final class Recorrido implements Iterator<Entrada> {
+        private final Object[][] pila = new Object[8][];
+        private final int[] posiciones = new int[8];
+        private int profundidad = -1;
+        private Entrada[] colision;
+        private int enColision;
+        private Entrada siguiente;
+
+        Recorrido(Object raiz) {
+            if (raiz instanceof Nodo) {
+                profundidad = 0;
+                pila[0] = ((Nodo) raiz).hijos;
+            } else {
+                visitar(raiz);
+            }
+            if (siguiente == null) {
+                avanzar();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return siguiente != null;
+        }
+
+        @Override
+        public Entrada next() {
+            Entrada entrada = siguiente;
+            if (entrada == null) {
+                throw new NoSuchElementException();
+            }
+            siguiente = null;
+            avanzar();
+            return entrada;
+        }
+
+        private void avanzar() {
+            while (siguiente == null) {
+                if (colision != null && enColision < colision.length) {
+                    siguiente = colision[enColision++];
+                    return;
+                }
+                colision = null;
+                if (profundidad < 0) {
+                    return;
+                }
+                if (posiciones[profundidad] == pila[profundidad].length) {
+                    posiciones[profundidad--] = 0;
+                    continue;
+                }
+                Object hijo = pila[profundidad][posiciones[profundidad]++];
+                if (hijo instanceof Nodo) {
+                    pila[++profundidad] = ((Nodo) hijo).hijos;
+                } else {
+                    visitar(hijo);
+                }
+            }
+        }
+
+        private void visitar(Object hoja) {
+            if (hoja instanceof Entrada) {
+                siguiente = (Entrada) hoja;
+            } else if (hoja instanceof Colision) {
+                colision = ((Colision) hoja).entradas;
+                enColision = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.proyecto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Anillo de hash consistente con nodos virtuales, inmutable
+ *
+ * Cada shard ocupa nodosVirtuales posiciones pseudoaleatorias del anillo de 2^64 valores, y
+ * cada email pertenece al shard de la primera posición igual o siguiente a su hash. Con
+ * 512 nodos virtuales por shard la carga de cada uno queda a unos pocos puntos porcentuales
+ * de la media (con 128 se aparta hasta un 20 %), y al agregar o quitar un shard sólo cambia
+ * de dueño la fracción de emails que le corresponde a ese shard (1/N), que además se reparte
+ * entre todos los demás.
+ *
+ * Las posiciones están en un arreglo ordenado: ubicar un email es su hash más una búsqueda
+ * binaria, sin objetos intermedios.
+ */
+final class AnilloConsistente {
+
+    private final long[] posiciones;
+    private final Shard[] duenos;
+    private final Map<String, Shard> shards;
+
+    /**
+     * @param shards shards por nombre; el nombre determina sus posiciones en el anillo
+     * @param nodosVirtuales posiciones por shard
+     */
+    AnilloConsistente(Map<String, Shard> shards, int nodosVirtuales) {
+        this.shards = Map.copyOf(shards);
+        int total = shards.size() * nodosVirtuales;
+        long[][] pares = new long[total][];
+        List<Shard> porIndice = new ArrayList<>(shards.values());
+        List<String> nombres = new ArrayList<>(shards.keySet());
+        int n = 0;
+        for (int s = 0; s < nombres.size(); s++) {
+            for (int v = 0; v < nodosVirtuales; v++) {
+                pares[n++] = new long[]{hash(nombres.get(s) + '#' + v), s};
+            }
+        }
+        // Los empates (improbables) se resuelven por nombre, para que el anillo no dependa del orden del mapa
+        Arrays.sort(pares, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0])
+                : nombres.get((int) a[1]).compareTo(nombres.get((int) b[1])));
+        this.posiciones = new long[total];
+        this.duenos = new Shard[total];
+        for (int i = 0; i < total; i++) {
+            posiciones[i] = pares[i][0];
+            duenos[i] = porIndice.get((int) pares[i][1]);
+        }
+    }
+
+    /**
+     * Ubica el email en minúsculas: sea cual sea la ClaveEmail de los shards, todas las formas
+     * de escribir un email van al mismo
+     * @param email email (null se ubica como la cadena vacía)
+     * @return shard dueño del email
+     * @throws IllegalStateException si el anillo no tiene shards
+     */
+    Shard dueno(String email) {
+        if (posiciones.length == 0) {
+            throw new IllegalStateException("No hay shards en el coordinador");
+        }
+        int i = Arrays.binarySearch(posiciones, hash(email == null ? "" : ClaveEmail.COMPLETA.canonica(email)));
+        if (i < 0) {
+            i = -i - 1;
+            if (i == posiciones.length) {
+                i = 0;
+            }
+        }
+        return duenos[i];
+    }
+
+    Map<String, Shard> getShards() {
+        return shards;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre los caracteres, seguido de la mezcla final de MurmurHash3 para
+     * que emails casi iguales queden lejos en el anillo
+     */
+    static long hash(String texto) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < texto.length(); i++) {
+            h = (h ^ texto.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
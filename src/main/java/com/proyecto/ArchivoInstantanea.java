@@ -0,0 +1,132 @@
+package com.proyecto;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Instantánea compactada del almacén de usuarios
+ *
+ * Formato: cabecera (magia, versión, primer segmento del diario a reproducir,
+ * cantidad de usuarios) seguida de un registro de alta por usuario, con el mismo
+ * formato que el diario. Se escribe en un archivo temporal y se publica con un
+ * renombrado atómico, así que una instantánea visible siempre está completa; el directorio
+ * se sincroniza después del renombrado para que sobreviva a una caída.
+ */
+final class ArchivoInstantanea {
+
+    private static final int MAGIA = 0x55534E50; // "USNP"
+    private static final int VERSION = 2;
+    private static final int TAMANO_CABECERA = 4 + 4 + 8 + 8;
+    private static final int TAMANO_BLOQUE = 1 << 20;
+
+    private ArchivoInstantanea() {
+    }
+
+    /**
+     * Nombre del archivo de la instantánea asociada a un segmento del diario
+     * @param segmento primer segmento que hay que reproducir encima de la instantánea
+     * @return nombre del archivo
+     */
+    static String nombre(long segmento) {
+        return String.format("instantanea-%019d.snap", segmento);
+    }
+
+    /**
+     * Escribe una instantánea de los usuarios indicados
+     * @param directorio directorio de persistencia
+     * @param segmento primer segmento del diario que no está cubierto por la instantánea
+     * @param usuarios usuarios a guardar (se recorren una sola vez)
+     * @return ruta de la instantánea publicada
+     * @throws IOException si falla la escritura
+     */
+    static Path escribir(Path directorio, long segmento, Iterable<Usuario> usuarios) throws IOException {
+        Path destino = directorio.resolve(nombre(segmento));
+        Path temporal = directorio.resolve(nombre(segmento) + ".tmp");
+        long cantidad = 0;
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bloque = ByteBuffer.allocate(TAMANO_BLOQUE);
+            bloque.position(TAMANO_CABECERA);
+            for (Usuario usuario : usuarios) {
+                bloque = CodecUsuarios.escribirRegistro(bloque, usuario);
+                cantidad++;
+                if (bloque.position() >= TAMANO_BLOQUE) {
+                    escribirTodo(canal, bloque);
+                }
+            }
+            escribirTodo(canal, bloque);
+
+            // La cantidad sólo se conoce al final: se completa la cabecera con una escritura posicional
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+            cabecera.putInt(MAGIA).putInt(VERSION).putLong(segmento).putLong(cantidad).flip();
+            while (cabecera.hasRemaining()) {
+                canal.write(cabecera, cabecera.position());
+            }
+            canal.force(true);
+        }
+        Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // Antes de que la compactación borre lo que la instantánea reemplaza
+        sincronizarDirectorio(directorio);
+        return destino;
+    }
+
+    /**
+     * Fuerza al disco las entradas del directorio (archivos creados, renombrados o borrados).
+     * Sin esto, tras una caída POSIX puede conservar un borrado posterior y perder el renombrado.
+     * @param directorio directorio a sincronizar
+     * @throws IOException si falla la sincronización
+     */
+    static void sincronizarDirectorio(Path directorio) throws IOException {
+        if (File.separatorChar == '\\') {
+            return; // Windows no abre directorios como canal; NTFS registra los renombrados en su diario
+        }
+        try (FileChannel canal = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        }
+    }
+
+    private static void escribirTodo(FileChannel canal, ByteBuffer bloque) throws IOException {
+        bloque.flip();
+        while (bloque.hasRemaining()) {
+            canal.write(bloque);
+        }
+        bloque.clear();
+    }
+
+    /**
+     * Carga una instantánea con lecturas mapeadas en memoria
+     * @param archivo instantánea a leer
+     * @param usuarios mapa donde se insertan los usuarios
+     * @return primer segmento del diario que hay que reproducir
+     * @throws IOException si el archivo no es una instantánea válida o está incompleto
+     */
+    static long cargar(Path archivo, Map<String, Usuario> usuarios) throws IOException {
+        long segmento;
+        long cantidad;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() < TAMANO_CABECERA) {
+                throw new IOException("Instantánea truncada: " + archivo);
+            }
+            MappedByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_ONLY, 0, TAMANO_CABECERA);
+            if (cabecera.getInt() != MAGIA || cabecera.getInt() != VERSION) {
+                throw new IOException("Formato de instantánea desconocido: " + archivo);
+            }
+            segmento = cabecera.getLong();
+            cantidad = cabecera.getLong();
+        }
+        long leidos = CodecUsuarios.recorrer(archivo, TAMANO_CABECERA, operacion -> operacion.aplicar(usuarios));
+        if (leidos != cantidad) {
+            throw new IOException("Instantánea dañada: se esperaban " + cantidad + " usuarios y se leyeron "
+                    + leidos + " en " + archivo);
+        }
+        return segmento;
+    }
+}
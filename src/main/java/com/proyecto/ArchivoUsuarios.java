@@ -0,0 +1,662 @@
+package com.proyecto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Nivel en disco del almacén DISCO: un archivo de datos y un índice hash, ambos mapeados en memoria
+ *
+ * usuarios.dat es una bitácora de registros de CodecUsuarios (altas completas y eliminaciones)
+ * mapeada por ventanas de VENTANA bytes; cada cambio anexa el usuario completo y nunca se
+ * reescribe nada. Un registro no cruza el borde de una ventana: si no entra, el resto de la
+ * ventana queda en ceros.
+ *
+ * usuarios.idx es una tabla de direccionamiento abierto con sondeo lineal y borrado por
+ * desplazamiento hacia atrás (como la de AlmacenColumnar). Cada celda ocupa 12 bytes:
+ * posición del registro vigente + 1 (0 si está vacía) y hash del email. La cabecera guarda
+ * la cantidad, el fin de los datos, los bytes vigentes y una marca de cierre limpio; si al abrir falta la marca,
+ * el índice se rearma recorriendo la bitácora, donde gana el último registro de cada email.
+ *
+ * Cuando lo descartado supera a lo vigente, la bitácora se reescribe con sólo los registros
+ * vigentes. Esa compactación corre dentro de la escritura que cruza el umbral, pero su fallo no
+ * la hace fallar: el cambio ya quedó en la bitácora, y se reintenta cuando crezca otra ventana.
+ * Las lecturas toman el candado de lectura; las escrituras, el de escritura.
+ */
+final class ArchivoUsuarios implements Closeable {
+
+    static final String DATOS = "usuarios.dat";
+    static final String INDICE = "usuarios.idx";
+
+    private static final int MAGICO = 0x55494458;
+    private static final int VERSION = 1;
+
+    // Cabecera del índice
+    private static final int CABECERA = 64;
+    private static final int POS_CAPACIDAD = 8;
+    private static final int POS_CANTIDAD = 12;
+    private static final int POS_LIMPIO = 16;
+    private static final int POS_FIN = 24;
+    private static final int POS_VIGENTES = 32;
+    private static final int CELDA = 12;
+    // La tabla es un único mapeo de menos de 2 GB
+    private static final int CAPACIDAD_MAXIMA = 1 << 27;
+
+    private static final long VENTANA = 64L << 20;
+    private static final int CARGA_MAXIMA_PORCENTAJE = 70;
+    // La bitácora no se compacta por debajo de esto aunque la mitad sea basura
+    private static final long MINIMO_COMPACTACION = VENTANA;
+
+    private final Path directorio;
+    private final boolean sincronizar;
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    private final Lock lectura = candado.readLock();
+    private final Lock escritura = candado.writeLock();
+
+    private FileChannel datos;
+    private MappedByteBuffer[] ventanas = new MappedByteBuffer[4];
+    private int cantidadVentanas;
+    private long fin;
+    private long bytesVigentes;
+
+    private FileChannel canalIndice;
+    private MappedByteBuffer indice;
+    private int capacidad;
+    private int cantidad;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(512);
+
+    // Fin de la bitácora desde el que se reintenta una compactación automática que falló
+    private long reintentoCompactacion;
+    private final LongAdder fallosCompactacion = new LongAdder();
+    private volatile Exception falloCompactacion;
+
+    private ArchivoUsuarios(Path directorio, boolean sincronizar) {
+        this.directorio = directorio;
+        this.sincronizar = sincronizar;
+    }
+
+    /**
+     * Abre (o crea) los archivos del directorio
+     * @param directorio directorio de datos (se crea si no existe)
+     * @param sincronizar true para forzar cada cambio al disco antes de retornar
+     * @param capacidadInicial cantidad de usuarios esperada, para dimensionar el índice nuevo
+     * @return archivo abierto
+     * @throws IOException si no se pueden abrir o leer los archivos
+     */
+    static ArchivoUsuarios abrir(Path directorio, boolean sincronizar, int capacidadInicial) throws IOException {
+        Files.createDirectories(directorio);
+        ArchivoUsuarios archivo = new ArchivoUsuarios(directorio, sincronizar);
+        try {
+            archivo.iniciar(capacidadInicial);
+        } catch (IOException | RuntimeException e) {
+            archivo.cerrarCanales();
+            throw e;
+        }
+        return archivo;
+    }
+
+    private void iniciar(int capacidadInicial) throws IOException {
+        datos = FileChannel.open(directorio.resolve(DATOS), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long tamano = datos.size();
+        for (long posicion = 0; posicion < tamano; posicion += VENTANA) {
+            asegurarVentana((int) (posicion / VENTANA));
+        }
+        Path rutaIndice = directorio.resolve(INDICE);
+        boolean limpio = false;
+        if (Files.exists(rutaIndice)) {
+            canalIndice = FileChannel.open(rutaIndice, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (canalIndice.size() >= CABECERA) {
+                indice = canalIndice.map(FileChannel.MapMode.READ_WRITE, 0, canalIndice.size());
+                capacidad = indice.getInt(POS_CAPACIDAD);
+                limpio = indice.getInt(0) == MAGICO && indice.getInt(4) == VERSION && indice.getInt(POS_LIMPIO) == 1
+                        && Integer.bitCount(capacidad) == 1 && canalIndice.size() == tamanoIndice(capacidad);
+            }
+        }
+        if (limpio) {
+            cantidad = indice.getInt(POS_CANTIDAD);
+            fin = indice.getLong(POS_FIN);
+            bytesVigentes = indice.getLong(POS_VIGENTES);
+        } else {
+            // Sin cierre limpio: el índice puede no reflejar la bitácora, se rearma desde ella
+            if (canalIndice != null) {
+                canalIndice.close();
+            }
+            crearIndice(rutaIndice, capacidadPara(capacidadInicial));
+            reconstruir();
+        }
+        // Abierto: hasta el próximo cierre limpio el índice no vale sin la bitácora
+        indice.putInt(POS_LIMPIO, 0);
+        indice.force();
+    }
+
+    private void crearIndice(Path ruta, int capacidadNueva) throws IOException {
+        canalIndice = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        indice = canalIndice.map(FileChannel.MapMode.READ_WRITE, 0, tamanoIndice(capacidadNueva));
+        indice.putInt(0, MAGICO);
+        indice.putInt(4, VERSION);
+        indice.putInt(POS_CAPACIDAD, capacidadNueva);
+        capacidad = capacidadNueva;
+        cantidad = 0;
+    }
+
+    private static long tamanoIndice(int capacidad) {
+        return CABECERA + (long) capacidad * CELDA;
+    }
+
+    private static int capacidadPara(int usuarios) {
+        long celdas = Math.max(1024, usuarios * 100L / CARGA_MAXIMA_PORCENTAJE + 1);
+        long potencia = Long.highestOneBit(celdas - 1) << 1;
+        if (potencia > CAPACIDAD_MAXIMA) {
+            throw new IllegalStateException("El índice en disco admite hasta "
+                    + CAPACIDAD_MAXIMA / 100 * CARGA_MAXIMA_PORCENTAJE + " usuarios");
+        }
+        return (int) potencia;
+    }
+
+    /**
+     * Rearma el índice recorriendo la bitácora desde el principio
+     */
+    private void reconstruir() throws IOException {
+        fin = 0;
+        bytesVigentes = 0;
+        for (int v = 0; v < cantidadVentanas; v++) {
+            ByteBuffer ventana = ventanas[v].duplicate();
+            ventana.position(0);
+            int leidos = 0;
+            while (true) {
+                int inicio = ventana.position();
+                CodecUsuarios.Operacion operacion = CodecUsuarios.leer(ventana);
+                if (operacion == null) {
+                    break;
+                }
+                leidos++;
+                long posicion = v * VENTANA + inicio;
+                int largo = ventana.position() - inicio;
+                if (operacion.getTipo() == CodecUsuarios.REGISTRO) {
+                    ponerEnIndice(operacion.getEmail(), posicion, largo);
+                } else {
+                    quitarDelIndice(operacion.getEmail());
+                }
+                fin = posicion + largo;
+            }
+            // Una ventana que no empieza con un registro válido marca el fin de la bitácora
+            if (leidos == 0 && v > 0) {
+                break;
+            }
+        }
+        escribirCabecera();
+    }
+
+    // ========== LECTURA ==========
+
+    /**
+     * @return el usuario guardado con ese email, recién decodificado, o null
+     */
+    Usuario leer(String email) {
+        int hash = dispersar(email);
+        lectura.lock();
+        try {
+            for (int celda = hash & (capacidad - 1); ; celda = (celda + 1) & (capacidad - 1)) {
+                long posicion = posicionEn(celda);
+                if (posicion < 0) {
+                    return null;
+                }
+                if (hashEn(celda) == hash) {
+                    CodecUsuarios.Operacion operacion = decodificar(posicion);
+                    if (operacion.getEmail().equals(email)) {
+                        return operacion.crearUsuario();
+                    }
+                }
+            }
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    int cantidad() {
+        lectura.lock();
+        try {
+            return cantidad;
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Recorre los usuarios en el orden del índice, decodificando cada uno. Un usuario que
+     * cambia durante el recorrido puede verse en su versión anterior, omitirse o repetirse.
+     */
+    Iterator<Usuario> recorrer() {
+        return new Iterator<Usuario>() {
+            private int celda;
+            private Usuario siguiente = buscar();
+
+            private Usuario buscar() {
+                lectura.lock();
+                try {
+                    while (celda < capacidad) {
+                        long posicion = posicionEn(celda++);
+                        if (posicion >= 0) {
+                            return decodificar(posicion).crearUsuario();
+                        }
+                    }
+                    return null;
+                } finally {
+                    lectura.unlock();
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return siguiente != null;
+            }
+
+            @Override
+            public Usuario next() {
+                Usuario usuario = siguiente;
+                if (usuario == null) {
+                    throw new NoSuchElementException();
+                }
+                siguiente = buscar();
+                return usuario;
+            }
+        };
+    }
+
+    private CodecUsuarios.Operacion decodificar(long posicion) {
+        ByteBuffer ventana = ventanas[(int) (posicion / VENTANA)].duplicate();
+        ventana.position((int) (posicion % VENTANA));
+        CodecUsuarios.Operacion operacion = CodecUsuarios.leer(ventana);
+        if (operacion == null) {
+            throw new IllegalStateException("Registro dañado en " + DATOS + " en la posición " + posicion);
+        }
+        return operacion;
+    }
+
+    // ========== ESCRITURA ==========
+
+    /**
+     * Guarda el usuario completo, reemplazando al anterior con el mismo email
+     * @throws IOException si no se puede escribir
+     */
+    void escribir(Usuario usuario) throws IOException {
+        escritura.lock();
+        try {
+            buffer.clear();
+            buffer = CodecUsuarios.escribirRegistro(buffer, usuario);
+            buffer.flip();
+            int largo = buffer.remaining();
+            long posicion = anexar(buffer);
+            ponerEnIndice(usuario.getEmail(), posicion, largo);
+            terminarEscritura();
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Elimina el usuario; la eliminación queda en la bitácora para el rearmado del índice
+     * @return true si existía
+     * @throws IOException si no se puede escribir
+     */
+    boolean quitar(String email) throws IOException {
+        escritura.lock();
+        try {
+            if (buscarCelda(email) < 0) {
+                return false;
+            }
+            buffer.clear();
+            buffer = CodecUsuarios.escribirEliminacion(buffer, email);
+            buffer.flip();
+            anexar(buffer);
+            quitarDelIndice(email);
+            terminarEscritura();
+            return true;
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Elimina todos los usuarios y empieza una bitácora vacía
+     * @throws IOException si no se pueden reemplazar los archivos
+     */
+    void vaciar() throws IOException {
+        escritura.lock();
+        try {
+            reemplazarDatos(new MappedByteBuffer[4], 0, 0);
+            bytesVigentes = 0;
+            for (int celda = 0; celda < capacidad; celda++) {
+                escribirCelda(celda, -1, 0);
+            }
+            cantidad = 0;
+            escribirCabecera();
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    private long anexar(ByteBuffer registro) throws IOException {
+        int largo = registro.remaining();
+        if (fin % VENTANA + largo > VENTANA) {
+            // No cruza el borde: el resto de la ventana queda en ceros
+            fin += VENTANA - fin % VENTANA;
+        }
+        ByteBuffer destino = asegurarVentana((int) (fin / VENTANA)).duplicate();
+        destino.position((int) (fin % VENTANA));
+        destino.put(registro);
+        long posicion = fin;
+        fin += largo;
+        return posicion;
+    }
+
+    private MappedByteBuffer asegurarVentana(int v) throws IOException {
+        if (v == cantidadVentanas) {
+            if (v == ventanas.length) {
+                ventanas = Arrays.copyOf(ventanas, v * 2);
+            }
+            ventanas[cantidadVentanas++] = datos.map(FileChannel.MapMode.READ_WRITE, v * VENTANA, VENTANA);
+        }
+        return ventanas[v];
+    }
+
+    private void terminarEscritura() throws IOException {
+        escribirCabecera();
+        if (sincronizar) {
+            ventanas[(int) ((fin - 1) / VENTANA)].force();
+        }
+        if (fin - bytesVigentes > Math.max(bytesVigentes, MINIMO_COMPACTACION) && fin >= reintentoCompactacion) {
+            try {
+                reescribir();
+                falloCompactacion = null;
+            } catch (IOException | RuntimeException e) {
+                // El cambio ya está en la bitácora y en el índice: no se le informa a quien escribió
+                falloCompactacion = e;
+                fallosCompactacion.increment();
+                reintentoCompactacion = fin + VENTANA;
+            }
+        }
+    }
+
+    /**
+     * @return error de la última compactación automática, o null si funcionó o aún no hubo
+     */
+    Exception getFalloCompactacion() {
+        return falloCompactacion;
+    }
+
+    /**
+     * @return compactaciones automáticas que fallaron desde que se abrió
+     */
+    long getFallosCompactacion() {
+        return fallosCompactacion.sum();
+    }
+
+    private void escribirCabecera() {
+        indice.putInt(POS_CANTIDAD, cantidad);
+        indice.putLong(POS_FIN, fin);
+        indice.putLong(POS_VIGENTES, bytesVigentes);
+    }
+
+    /**
+     * Compacta la bitácora ahora, sin esperar a que lo descartado supere a lo vigente
+     * @throws IOException si no se puede reescribir
+     */
+    void compactar() throws IOException {
+        escritura.lock();
+        try {
+            reescribir();
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Reescribe la bitácora con sólo los registros vigentes y actualiza el índice en su lugar.
+     * Las posiciones nuevas se guardan aparte y se vuelcan al índice recién cuando el archivo
+     * nuevo reemplazó al anterior: si algo falla antes, el índice sigue apuntando a la bitácora
+     * vigente. Si se interrumpe, el índice queda sin marca de cierre limpio y se rearma al abrir.
+     */
+    private void reescribir() throws IOException {
+        Path nueva = directorio.resolve(DATOS + ".nuevo");
+        MappedByteBuffer[] copia = new MappedByteBuffer[4];
+        int copiadas = 0;
+        long finNuevo = 0;
+        int[] celdas = new int[cantidad];
+        long[] posiciones = new long[cantidad];
+        int movidos = 0;
+        try {
+            try (FileChannel canal = FileChannel.open(nueva, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                for (int celda = 0; celda < capacidad; celda++) {
+                    long posicion = posicionEn(celda);
+                    if (posicion < 0) {
+                        continue;
+                    }
+                    ByteBuffer origen = ventanas[(int) (posicion / VENTANA)].duplicate();
+                    origen.position((int) (posicion % VENTANA));
+                    int largo = CodecUsuarios.CABECERA_REGISTRO + origen.getInt(origen.position());
+                    origen.limit(origen.position() + largo);
+                    if (finNuevo % VENTANA + largo > VENTANA) {
+                        finNuevo += VENTANA - finNuevo % VENTANA;
+                    }
+                    int v = (int) (finNuevo / VENTANA);
+                    if (v == copiadas) {
+                        if (v == copia.length) {
+                            copia = Arrays.copyOf(copia, v * 2);
+                        }
+                        copia[copiadas++] = canal.map(FileChannel.MapMode.READ_WRITE, v * VENTANA, VENTANA);
+                    }
+                    ByteBuffer destino = copia[v].duplicate();
+                    destino.position((int) (finNuevo % VENTANA));
+                    destino.put(origen);
+                    celdas[movidos] = celda;
+                    posiciones[movidos++] = finNuevo;
+                    finNuevo += largo;
+                }
+                for (int v = 0; v < copiadas; v++) {
+                    copia[v].force();
+                }
+            }
+            Files.move(nueva, directorio.resolve(DATOS), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(nueva);
+            } catch (IOException borrado) {
+                e.addSuppressed(borrado);
+            }
+            throw e;
+        }
+        for (int i = 0; i < movidos; i++) {
+            escribirCelda(celdas[i], posiciones[i], hashEn(celdas[i]));
+        }
+        reemplazarDatos(copia, copiadas, finNuevo);
+        escribirCabecera();
+        ArchivoInstantanea.sincronizarDirectorio(directorio);
+    }
+
+    // Los mapeos anteriores se liberan cuando el recolector los alcanza. Las ventanas se cambian
+    // antes de reabrir el canal: los mapeos nuevos valen aunque la reapertura falle.
+    private void reemplazarDatos(MappedByteBuffer[] nuevas, int cantidadNuevas, long finNuevo) throws IOException {
+        ventanas = nuevas;
+        cantidadVentanas = cantidadNuevas;
+        fin = finNuevo;
+        datos.close();
+        datos = FileChannel.open(directorio.resolve(DATOS), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (cantidadNuevas == 0) {
+            datos.truncate(0);
+        }
+    }
+
+    // ========== ÍNDICE ==========
+
+    private static int dispersar(String email) {
+        int h = email.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private long posicionEn(int celda) {
+        return indice.getLong(CABECERA + celda * CELDA) - 1;
+    }
+
+    private int hashEn(int celda) {
+        return indice.getInt(CABECERA + celda * CELDA + 8);
+    }
+
+    private void escribirCelda(int celda, long posicion, int hash) {
+        int base = CABECERA + celda * CELDA;
+        indice.putLong(base, posicion + 1);
+        indice.putInt(base + 8, hash);
+    }
+
+    private int buscarCelda(String email) {
+        int hash = dispersar(email);
+        for (int celda = hash & (capacidad - 1); ; celda = (celda + 1) & (capacidad - 1)) {
+            long posicion = posicionEn(celda);
+            if (posicion < 0) {
+                return -1;
+            }
+            if (hashEn(celda) == hash && decodificar(posicion).getEmail().equals(email)) {
+                return celda;
+            }
+        }
+    }
+
+    private void ponerEnIndice(String email, long posicion, int largo) throws IOException {
+        int celda = buscarCelda(email);
+        if (celda >= 0) {
+            bytesVigentes -= largoEn(posicionEn(celda));
+        } else {
+            if ((cantidad + 1) * 100L > (long) capacidad * CARGA_MAXIMA_PORCENTAJE) {
+                crecer();
+            }
+            int hash = dispersar(email);
+            celda = hash & (capacidad - 1);
+            while (posicionEn(celda) >= 0) {
+                celda = (celda + 1) & (capacidad - 1);
+            }
+            cantidad++;
+        }
+        escribirCelda(celda, posicion, dispersar(email));
+        bytesVigentes += largo;
+    }
+
+    private void quitarDelIndice(String email) {
+        int celda = buscarCelda(email);
+        if (celda < 0) {
+            return;
+        }
+        bytesVigentes -= largoEn(posicionEn(celda));
+        cantidad--;
+        // Borrado por desplazamiento hacia atrás: ninguna cadena de sondeo queda cortada
+        int mascara = capacidad - 1;
+        int hueco = celda;
+        for (int siguiente = (hueco + 1) & mascara; ; siguiente = (siguiente + 1) & mascara) {
+            long posicion = posicionEn(siguiente);
+            if (posicion < 0) {
+                break;
+            }
+            int hash = hashEn(siguiente);
+            int ideal = hash & mascara;
+            if (((siguiente - ideal) & mascara) >= ((siguiente - hueco) & mascara)) {
+                escribirCelda(hueco, posicion, hash);
+                hueco = siguiente;
+            }
+        }
+        escribirCelda(hueco, -1, 0);
+    }
+
+    private int largoEn(long posicion) {
+        ByteBuffer ventana = ventanas[(int) (posicion / VENTANA)];
+        return CodecUsuarios.CABECERA_REGISTRO + ventana.getInt((int) (posicion % VENTANA));
+    }
+
+    /**
+     * Duplica la tabla en un archivo nuevo y lo pone en lugar del anterior
+     */
+    private void crecer() throws IOException {
+        int nuevaCapacidad = capacidadPara(cantidad * 2);
+        MappedByteBuffer anterior = indice;
+        int capacidadAnterior = capacidad;
+        FileChannel canalAnterior = canalIndice;
+        Path ruta = directorio.resolve(INDICE + ".nuevo");
+        crearIndice(ruta, nuevaCapacidad);
+        int mascara = nuevaCapacidad - 1;
+        int copiados = 0;
+        for (int celda = 0; celda < capacidadAnterior; celda++) {
+            int base = CABECERA + celda * CELDA;
+            long posicion = anterior.getLong(base) - 1;
+            if (posicion >= 0) {
+                int hash = anterior.getInt(base + 8);
+                int destino = hash & mascara;
+                while (posicionEn(destino) >= 0) {
+                    destino = (destino + 1) & mascara;
+                }
+                escribirCelda(destino, posicion, hash);
+                copiados++;
+            }
+        }
+        cantidad = copiados;
+        escribirCabecera();
+        canalAnterior.close();
+        Files.move(ruta, directorio.resolve(INDICE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        ArchivoInstantanea.sincronizarDirectorio(directorio);
+    }
+
+    // ========== CIERRE ==========
+
+    /**
+     * Fuerza los datos y el índice al disco y marca el índice como vigente
+     * @throws IOException si falla la escritura
+     */
+    @Override
+    public void close() throws IOException {
+        escritura.lock();
+        try {
+            if (datos == null || !datos.isOpen()) {
+                return;
+            }
+            for (int v = 0; v < cantidadVentanas; v++) {
+                ventanas[v].force();
+            }
+            escribirCabecera();
+            indice.force();
+            indice.putInt(POS_LIMPIO, 1);
+            indice.force();
+            cerrarCanales();
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    private void cerrarCanales() throws IOException {
+        try {
+            if (datos != null) {
+                datos.close();
+            }
+        } finally {
+            if (canalIndice != null) {
+                canalIndice.close();
+            }
+        }
+    }
+}
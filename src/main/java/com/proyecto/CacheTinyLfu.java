@@ -0,0 +1,303 @@
+package com.proyecto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caché de usuarios acotada en bytes con la política W-TinyLFU, el nivel en memoria del
+ * almacén DISCO
+ *
+ * Las entradas nuevas entran a una ventana LRU pequeña (1% del presupuesto, dos usuarios como
+ * mínimo). Lo que sale de la ventana pide entrar a la región principal, una LRU segmentada:
+ * un tramo de prueba y otro protegido (80% de la principal) al que pasa lo que se vuelve a
+ * leer estando a prueba. Si la principal está llena, el candidato compite con la víctima (lo
+ * más viejo a prueba) por su frecuencia estimada y se queda el más frecuente; en un empate
+ * sale el candidato. Así un recorrido de una sola pasada no desplaza a los usuarios que se
+ * leen seguido.
+ *
+ * Las frecuencias se estiman con un count-min sketch de contadores de 4 bits que cuenta
+ * también los accesos a lo que no está en la caché. Cada 10 accesos por contador se dividen
+ * todos a la mitad, para que la popularidad pasada se olvide.
+ *
+ * El tamaño de cada entrada es una estimación de lo que ocupa en el heap (ver peso). Todos los
+ * métodos son sincronizados: la sección crítica es de unas pocas referencias.
+ */
+final class CacheTinyLfu {
+
+    // Usuario, Credencial, Date, los arreglos de la credencial, el nodo y la entrada del HashMap
+    static final int PESO_BASE = 320;
+
+    private static final byte VENTANA = 0;
+    private static final byte PRUEBA = 1;
+    private static final byte PROTEGIDA = 2;
+
+    private final long maximo;
+    private final long maximoVentana;
+    private final long maximoProtegida;
+
+    private final Map<String, Nodo> nodos = new HashMap<>();
+    private final Lista ventana = new Lista();
+    private final Lista prueba = new Lista();
+    private final Lista protegida = new Lista();
+    private final Frecuencias frecuencias;
+
+    private long desalojos;
+
+    /**
+     * @param maximo bytes estimados que pueden ocupar las entradas
+     */
+    CacheTinyLfu(long maximo) {
+        if (maximo <= 0) {
+            throw new IllegalArgumentException("La memoria de la caché debe ser positiva");
+        }
+        this.maximo = maximo;
+        // Con presupuestos chicos la ventana igual retiene a los dos últimos usuarios
+        this.maximoVentana = Math.min(maximo, Math.max(2 * PESO_BASE, maximo / 100));
+        this.maximoProtegida = (maximo - maximoVentana) * 8 / 10;
+        this.frecuencias = new Frecuencias((int) Math.min(1 << 24, Math.max(64, maximo / PESO_BASE)));
+    }
+
+    /**
+     * Tamaño estimado de un usuario en la caché (emails y nombres en Latin-1 ocupan un byte por carácter)
+     */
+    static int peso(Usuario usuario) {
+        return PESO_BASE + usuario.getEmail().length() + usuario.getNombre().length();
+    }
+
+    /**
+     * Busca y cuenta el acceso, también si no está (para la admisión)
+     * @return el usuario en caché o null
+     */
+    synchronized Usuario obtener(String email) {
+        frecuencias.incrementar(email);
+        Nodo nodo = nodos.get(email);
+        if (nodo == null) {
+            return null;
+        }
+        tocar(nodo);
+        return nodo.usuario;
+    }
+
+    /**
+     * Busca sin contar el acceso ni cambiar el orden
+     */
+    synchronized Usuario consultar(String email) {
+        Nodo nodo = nodos.get(email);
+        return nodo == null ? null : nodo.usuario;
+    }
+
+    /**
+     * Agrega o reemplaza un usuario y desaloja lo necesario para volver al presupuesto
+     */
+    synchronized void poner(Usuario usuario) {
+        Nodo nodo = nodos.get(usuario.getEmail());
+        if (nodo != null) {
+            lista(nodo.region).ajustar(peso(usuario) - nodo.peso);
+            nodo.peso = peso(usuario);
+            nodo.usuario = usuario;
+            tocar(nodo);
+        } else {
+            nodo = new Nodo(usuario);
+            nodos.put(usuario.getEmail(), nodo);
+            ventana.agregar(nodo);
+        }
+        desalojar();
+    }
+
+    synchronized void quitar(String email) {
+        Nodo nodo = nodos.remove(email);
+        if (nodo != null) {
+            lista(nodo.region).quitar(nodo);
+        }
+    }
+
+    synchronized void vaciar() {
+        nodos.clear();
+        ventana.vaciar();
+        prueba.vaciar();
+        protegida.vaciar();
+    }
+
+    synchronized int cantidad() {
+        return nodos.size();
+    }
+
+    synchronized long bytes() {
+        return ventana.bytes + prueba.bytes + protegida.bytes;
+    }
+
+    synchronized long getDesalojos() {
+        return desalojos;
+    }
+
+    long getMaximo() {
+        return maximo;
+    }
+
+    // Un acceso a lo que está a prueba lo protege; lo protegido que sobra vuelve a prueba
+    private void tocar(Nodo nodo) {
+        Lista lista = lista(nodo.region);
+        lista.quitar(nodo);
+        if (nodo.region == PRUEBA) {
+            nodo.region = PROTEGIDA;
+            protegida.agregar(nodo);
+            while (protegida.bytes > maximoProtegida && protegida.primero != nodo) {
+                Nodo degradado = protegida.primero;
+                protegida.quitar(degradado);
+                degradado.region = PRUEBA;
+                prueba.agregar(degradado);
+            }
+        } else {
+            lista.agregar(nodo);
+        }
+    }
+
+    private void desalojar() {
+        // Lo que sobra en la ventana pasa a prueba
+        while (ventana.bytes > maximoVentana && ventana.primero != null) {
+            Nodo candidato = ventana.primero;
+            ventana.quitar(candidato);
+            candidato.region = PRUEBA;
+            prueba.agregar(candidato);
+        }
+        // Mientras sobre, el más nuevo a prueba (el último candidato) compite con el más viejo
+        while (bytes() > maximo) {
+            Nodo victima = prueba.primero != null ? prueba.primero : protegida.primero;
+            Nodo candidato = prueba.ultimo != null ? prueba.ultimo : ventana.primero;
+            if (victima == null) {
+                victima = candidato;
+            } else if (candidato != null && candidato != victima
+                    && frecuencias.estimar(candidato.usuario.getEmail()) <= frecuencias.estimar(victima.usuario.getEmail())) {
+                victima = candidato;
+            }
+            lista(victima.region).quitar(victima);
+            nodos.remove(victima.usuario.getEmail());
+            desalojos++;
+        }
+    }
+
+    private Lista lista(byte region) {
+        return region == VENTANA ? ventana : region == PRUEBA ? prueba : protegida;
+    }
+
+    private static final class Nodo {
+        Usuario usuario;
+        int peso;
+        byte region = VENTANA;
+        Nodo anterior;
+        Nodo siguiente;
+
+        Nodo(Usuario usuario) {
+            this.usuario = usuario;
+            this.peso = peso(usuario);
+        }
+    }
+
+    /**
+     * Lista doblemente enlazada del más viejo (primero) al más reciente (último), con su tamaño
+     */
+    private static final class Lista {
+        Nodo primero;
+        Nodo ultimo;
+        long bytes;
+
+        void agregar(Nodo nodo) {
+            nodo.anterior = ultimo;
+            nodo.siguiente = null;
+            if (ultimo == null) {
+                primero = nodo;
+            } else {
+                ultimo.siguiente = nodo;
+            }
+            ultimo = nodo;
+            bytes += nodo.peso;
+        }
+
+        void quitar(Nodo nodo) {
+            if (nodo.anterior == null) {
+                primero = nodo.siguiente;
+            } else {
+                nodo.anterior.siguiente = nodo.siguiente;
+            }
+            if (nodo.siguiente == null) {
+                ultimo = nodo.anterior;
+            } else {
+                nodo.siguiente.anterior = nodo.anterior;
+            }
+            nodo.anterior = null;
+            nodo.siguiente = null;
+            bytes -= nodo.peso;
+        }
+
+        void ajustar(int diferencia) {
+            bytes += diferencia;
+        }
+
+        void vaciar() {
+            primero = null;
+            ultimo = null;
+            bytes = 0;
+        }
+    }
+
+    /**
+     * Count-min sketch de 4 filas con contadores de 4 bits, 16 por long
+     */
+    private static final class Frecuencias {
+        private static final long[] SEMILLAS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0x27D4EB2F165667C5L
+        };
+
+        private final long[] tabla;
+        private final int mascara;
+        private final int muestra;
+        private int accesos;
+
+        Frecuencias(int entradas) {
+            int contadores = Integer.highestOneBit(entradas - 1) << 1;
+            this.tabla = new long[Math.max(1, contadores / 16)];
+            this.mascara = contadores - 1;
+            this.muestra = 10 * contadores;
+        }
+
+        void incrementar(String clave) {
+            int hash = clave.hashCode();
+            boolean incrementado = false;
+            for (int fila = 0; fila < SEMILLAS.length; fila++) {
+                int contador = indice(hash, fila);
+                long palabra = tabla[contador >>> 4];
+                int desplazamiento = (contador & 15) << 2;
+                if (((palabra >>> desplazamiento) & 0xF) < 15) {
+                    tabla[contador >>> 4] = palabra + (1L << desplazamiento);
+                    incrementado = true;
+                }
+            }
+            if (incrementado && ++accesos >= muestra) {
+                envejecer();
+            }
+        }
+
+        int estimar(String clave) {
+            int hash = clave.hashCode();
+            int minimo = 15;
+            for (int fila = 0; fila < SEMILLAS.length; fila++) {
+                int contador = indice(hash, fila);
+                minimo = Math.min(minimo, (int) (tabla[contador >>> 4] >>> ((contador & 15) << 2)) & 0xF);
+            }
+            return minimo;
+        }
+
+        private int indice(int hash, int fila) {
+            long h = (hash + SEMILLAS[fila]) * SEMILLAS[fila];
+            return (int) (h >>> 32) & mascara;
+        }
+
+        // Divide cada contador a la mitad: descarta el bit bajo de los 16 a la vez
+        private void envejecer() {
+            for (int i = 0; i < tabla.length; i++) {
+                tabla[i] = (tabla[i] >>> 1) & 0x7777777777777777L;
+            }
+            accesos /= 2;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.proyecto;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché acotada de verificaciones de password exitosas, con expiración por tiempo
+ *
+ * Guarda, por email, un HMAC-SHA256 de (email, password) con una clave aleatoria del
+ * proceso, nunca la password. Un login repetido con la misma password coincide con el
+ * HMAC (microsegundos) y evita el KDF (decenas de milisegundos). La entrada también
+ * recuerda la Credencial verificada: si la credencial del usuario cambió, no vale. Se
+ * compara por contenido (cada credencial tiene su propia sal) porque el almacén columnar
+ * decodifica una Credencial nueva en cada lectura.
+ *
+ * Está dividida en segmentos LRU independientes para que los hilos no compitan por un
+ * único candado. Se invalida al cambiar la password o eliminar al usuario.
+ */
+final class CacheVerificaciones implements ObservadorUsuarios {
+
+    private static final int SEGMENTOS = 16;
+    private static final String ALGORITMO_HMAC = "HmacSHA256";
+
+    private final Segmento[] segmentos = new Segmento[SEGMENTOS];
+    private final long duracionNanos;
+    private final byte[] clave = new byte[32];
+    private final ThreadLocal<Mac> hmac;
+
+    /**
+     * @param maximoEntradas cantidad máxima de verificaciones recordadas
+     * @param duracionMs tiempo de vida de cada verificación
+     */
+    CacheVerificaciones(int maximoEntradas, long duracionMs) {
+        int porSegmento = Math.max(1, maximoEntradas / SEGMENTOS);
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento(porSegmento);
+        }
+        this.duracionNanos = duracionMs * 1_000_000L;
+        new SecureRandom().nextBytes(clave);
+        this.hmac = ThreadLocal.withInitial(this::nuevoHmac);
+    }
+
+    private Mac nuevoHmac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO_HMAC);
+            mac.init(new SecretKeySpec(clave, ALGORITMO_HMAC));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 no disponible", e);
+        }
+    }
+
+    /**
+     * Verifica la password contra la credencial, usando la caché si hay una verificación vigente
+     * @param email email del usuario
+     * @param password password en claro
+     * @param credencial credencial actual del usuario
+     * @return true si la password es correcta
+     */
+    boolean verificar(String email, String password, Credencial credencial) {
+        if (password == null) {
+            return false;
+        }
+        byte[] huella = huella(email, password);
+        Segmento segmento = segmento(email);
+        long ahora = System.nanoTime();
+        Entrada entrada;
+        synchronized (segmento) {
+            entrada = segmento.get(email);
+        }
+        if (entrada != null && entrada.credencial.equals(credencial) && ahora - entrada.creada < duracionNanos
+                && MessageDigest.isEqual(entrada.huella, huella)) {
+            return true;
+        }
+        if (!credencial.verificar(password)) {
+            return false;
+        }
+        synchronized (segmento) {
+            segmento.put(email, new Entrada(huella, credencial, ahora));
+        }
+        return true;
+    }
+
+    /**
+     * Olvida la verificación de un email
+     * @param email email a invalidar
+     */
+    void invalidar(String email) {
+        Segmento segmento = segmento(email);
+        synchronized (segmento) {
+            segmento.remove(email);
+        }
+    }
+
+    @Override
+    public void passwordCambiada(Usuario usuario) {
+        invalidar(usuario.getEmail());
+    }
+
+    @Override
+    public void usuarioEliminado(Usuario usuario) {
+        invalidar(usuario.getEmail());
+    }
+
+    private Segmento segmento(String email) {
+        int h = email.hashCode();
+        return segmentos[(h ^ (h >>> 16)) & (SEGMENTOS - 1)];
+    }
+
+    private byte[] huella(String email, String password) {
+        Mac mac = hmac.get();
+        mac.update(email.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class Entrada {
+        private final byte[] huella;
+        private final Credencial credencial;
+        private final long creada;
+
+        Entrada(byte[] huella, Credencial credencial, long creada) {
+            this.huella = huella;
+            this.credencial = credencial;
+            this.creada = creada;
+        }
+    }
+
+    /**
+     * Segmento LRU: LinkedHashMap en orden de acceso que descarta la entrada más antigua al llenarse
+     */
+    private static final class Segmento extends LinkedHashMap<String, Entrada> {
+        private static final long serialVersionUID = 1L;
+        private final int capacidad;
+
+        Segmento(int capacidad) {
+            super(16, 0.75f, true);
+            this.capacidad = capacidad;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entrada> masAntigua) {
+            return size() > capacidad;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.proyecto;
+
+import java.util.Date;
+
+/**
+ * Una mutación de GestorUsuarios tal como la publica el flujo de cambios (ver
+ * GestorUsuarios.suscribirCambios). No incluye la credencial: un cambio de password sólo
+ * dice a quién le cambió.
+ */
+public final class CambioUsuario {
+
+    /**
+     * Qué mutación ocurrió
+     */
+    public enum Tipo {
+        REGISTRO,
+        ELIMINACION,
+        NOMBRE,
+        PASSWORD
+    }
+
+    final long secuencia;
+    private final Tipo tipo;
+    private final String email;
+    private final String nombre;
+    private final long instante;
+
+    CambioUsuario(long secuencia, Tipo tipo, String email, String nombre, long instante) {
+        this.secuencia = secuencia;
+        this.tipo = tipo;
+        this.email = email;
+        this.nombre = nombre;
+        this.instante = instante;
+    }
+
+    /**
+     * @return número de secuencia: creciente y sin huecos dentro de una ejecución del gestor
+     */
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * @return nombre del usuario después del cambio (el que tenía, si se eliminó)
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * @return momento en que se aplicó el cambio
+     */
+    public Date getInstante() {
+        return new Date(instante);
+    }
+
+    @Override
+    public String toString() {
+        return "CambioUsuario{secuencia=" + secuencia + ", tipo=" + tipo + ", email='" + email + "', nombre='"
+                + nombre + "'}";
+    }
+}
@@ -0,0 +1,64 @@
+package com.proyecto;
+
+/**
+ * Cómo se convierte el email recibido en la clave del almacén (ver ConfiguracionGestor.claveEmail)
+ *
+ * Todas las operaciones de GestorUsuarios convierten el email antes de usarlo, así que con
+ * DOMINIO "ana@Test.com" y "ana@test.com" son la misma cuenta, y el email guardado (el que
+ * devuelve Usuario.getEmail) es la clave. Los emails válidos son ASCII, de modo que pasar a
+ * minúsculas es sumar 32 a las letras A-Z; un email que ya está en su forma canónica se
+ * devuelve sin copiarlo.
+ */
+public enum ClaveEmail {
+
+    /**
+     * El email tal como llega: distingue mayúsculas también en el dominio
+     */
+    EXACTA,
+
+    /**
+     * Dominio en minúsculas y parte local intacta, como indica el RFC 5321 (por defecto)
+     */
+    DOMINIO,
+
+    /**
+     * Todo el email en minúsculas: "Ana@test.com" y "ana@test.com" son la misma cuenta.
+     * Es lo que hacen casi todos los proveedores, aunque el RFC permite distinguirlas.
+     */
+    COMPLETA;
+
+    /**
+     * @param email email recibido (puede ser null o inválido)
+     * @return la clave del email: el mismo objeto si ya es canónico, null si email es null
+     */
+    public String canonica(String email) {
+        if (email == null || this == EXACTA) {
+            return email;
+        }
+        int desde = 0;
+        if (this == DOMINIO) {
+            desde = email.indexOf('@') + 1;
+            if (desde == 0) {
+                return email;
+            }
+        }
+        for (int i = desde; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                return aMinusculas(email, i);
+            }
+        }
+        return email;
+    }
+
+    private static String aMinusculas(String email, int primera) {
+        char[] caracteres = email.toCharArray();
+        for (int i = primera; i < caracteres.length; i++) {
+            char c = caracteres[i];
+            if (c >= 'A' && c <= 'Z') {
+                caracteres[i] = (char) (c + ('a' - 'A'));
+            }
+        }
+        return new String(caracteres);
+    }
+}
@@ -0,0 +1,322 @@
+package com.proyecto;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Formato binario compartido por el diario de operaciones y las instantáneas
+ *
+ * Cada registro es: longitud (int) | CRC32C del contenido (int) | contenido.
+ * El contenido empieza con un byte de tipo seguido de los campos de la operación;
+ * las cadenas se guardan como longitud (int) + bytes UTF-8 y las credenciales como
+ * longitud (int) + Credencial.codificar(). Nunca se escribe una password en claro.
+ */
+final class CodecUsuarios {
+
+    static final byte REGISTRO = 1;
+    static final byte ELIMINACION = 2;
+    static final byte NOMBRE = 3;
+    static final byte PASSWORD = 4;
+
+    static final int CABECERA_REGISTRO = 8;
+
+    // Ningún registro legítimo se acerca a este tamaño: si se lee algo mayor el archivo está dañado
+    static final int LONGITUD_MAXIMA = 1 << 20;
+
+    // Tamaño de cada ventana mapeada en memoria al leer archivos grandes
+    private static final long VENTANA = 256L << 20;
+
+    private CodecUsuarios() {
+    }
+
+    // ========== ESCRITURA ==========
+
+    /**
+     * Agrega al búfer el registro completo de un alta de usuario
+     * @param destino búfer de destino (se reemplaza por uno mayor si no cabe)
+     * @param usuario usuario registrado
+     * @return el búfer con el registro agregado
+     */
+    static ByteBuffer escribirRegistro(ByteBuffer destino, Usuario usuario) {
+        byte[] email = bytes(usuario.getEmail());
+        byte[] credencial = usuario.getCredencial().codificar();
+        byte[] nombre = bytes(usuario.getNombre());
+        int contenido = 1 + 12 + email.length + credencial.length + nombre.length + 8;
+        ByteBuffer b = asegurar(destino, CABECERA_REGISTRO + contenido);
+        int inicio = empezar(b);
+        b.put(REGISTRO);
+        escribirBytes(b, email);
+        escribirBytes(b, credencial);
+        escribirBytes(b, nombre);
+        b.putLong(usuario.getFechaCreacion().getTime());
+        terminar(b, inicio);
+        return b;
+    }
+
+    /**
+     * Agrega al búfer un registro de eliminación
+     * @param destino búfer de destino
+     * @param email email eliminado
+     * @return el búfer con el registro agregado
+     */
+    static ByteBuffer escribirEliminacion(ByteBuffer destino, String email) {
+        byte[] e = bytes(email);
+        ByteBuffer b = asegurar(destino, CABECERA_REGISTRO + 1 + 4 + e.length);
+        int inicio = empezar(b);
+        b.put(ELIMINACION);
+        escribirBytes(b, e);
+        terminar(b, inicio);
+        return b;
+    }
+
+    /**
+     * Agrega al búfer un registro de cambio de nombre
+     * @param destino búfer de destino
+     * @param email email del usuario
+     * @param nombre nuevo nombre
+     * @return el búfer con el registro agregado
+     */
+    static ByteBuffer escribirNombre(ByteBuffer destino, String email, String nombre) {
+        return escribirCampo(destino, NOMBRE, email, bytes(nombre));
+    }
+
+    /**
+     * Agrega al búfer un registro de cambio de credencial
+     * @param destino búfer de destino
+     * @param email email del usuario
+     * @param credencial nueva credencial
+     * @return el búfer con el registro agregado
+     */
+    static ByteBuffer escribirCredencial(ByteBuffer destino, String email, Credencial credencial) {
+        return escribirCampo(destino, PASSWORD, email, credencial.codificar());
+    }
+
+    private static ByteBuffer escribirCampo(ByteBuffer destino, byte tipo, String email, byte[] v) {
+        byte[] e = bytes(email);
+        ByteBuffer b = asegurar(destino, CABECERA_REGISTRO + 1 + 8 + e.length + v.length);
+        int inicio = empezar(b);
+        b.put(tipo);
+        escribirBytes(b, e);
+        escribirBytes(b, v);
+        terminar(b, inicio);
+        return b;
+    }
+
+    /**
+     * Garantiza que el búfer tenga espacio para la cantidad de bytes indicada
+     * @param b búfer actual (en modo escritura)
+     * @param necesarios bytes que se van a escribir
+     * @return el mismo búfer o uno mayor con el contenido copiado
+     */
+    static ByteBuffer asegurar(ByteBuffer b, int necesarios) {
+        if (b.remaining() >= necesarios) {
+            return b;
+        }
+        int capacidad = Math.max(b.capacity() * 2, b.position() + necesarios);
+        ByteBuffer mayor = ByteBuffer.allocate(capacidad);
+        b.flip();
+        mayor.put(b);
+        return mayor;
+    }
+
+    private static int empezar(ByteBuffer b) {
+        int inicio = b.position();
+        b.position(inicio + CABECERA_REGISTRO);
+        return inicio;
+    }
+
+    private static void terminar(ByteBuffer b, int inicio) {
+        int longitud = b.position() - inicio - CABECERA_REGISTRO;
+        CRC32C crc = new CRC32C();
+        crc.update(b.array(), b.arrayOffset() + inicio + CABECERA_REGISTRO, longitud);
+        b.putInt(inicio, longitud);
+        b.putInt(inicio + 4, (int) crc.getValue());
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void escribirBytes(ByteBuffer b, byte[] valor) {
+        b.putInt(valor.length);
+        b.put(valor);
+    }
+
+    // ========== LECTURA ==========
+
+    /**
+     * Operación decodificada de un registro
+     */
+    static final class Operacion {
+        private final byte tipo;
+        private final String email;
+        private final Credencial credencial;
+        private final String nombre;
+        private final long fechaCreacion;
+
+        Operacion(byte tipo, String email, Credencial credencial, String nombre, long fechaCreacion) {
+            this.tipo = tipo;
+            this.email = email;
+            this.credencial = credencial;
+            this.nombre = nombre;
+            this.fechaCreacion = fechaCreacion;
+        }
+
+        byte getTipo() {
+            return tipo;
+        }
+
+        String getEmail() {
+            return email;
+        }
+
+        /**
+         * @return el usuario completo de un registro de alta
+         */
+        Usuario crearUsuario() {
+            return new Usuario(email, credencial, nombre, new Date(fechaCreacion));
+        }
+
+        /**
+         * Aplica la operación sobre el mapa de usuarios. Todas las operaciones
+         * reemplazan el estado completo del campo que tocan, por lo que reaplicar
+         * una operación ya reflejada en el mapa no altera el resultado final.
+         * @param usuarios mapa a modificar
+         */
+        void aplicar(Map<String, Usuario> usuarios) {
+            switch (tipo) {
+                case REGISTRO:
+                    usuarios.put(email, new Usuario(email, credencial, nombre, new Date(fechaCreacion)));
+                    break;
+                case ELIMINACION:
+                    usuarios.remove(email);
+                    break;
+                case NOMBRE:
+                    // computeIfPresent: el almacén versionado no deja cambiar los usuarios ya guardados
+                    usuarios.computeIfPresent(email, (clave, renombrado) -> {
+                        renombrado.setNombre(nombre);
+                        return renombrado;
+                    });
+                    break;
+                case PASSWORD:
+                    usuarios.computeIfPresent(email, (clave, usuario) -> {
+                        usuario.setCredencial(credencial);
+                        return usuario;
+                    });
+                    break;
+                default:
+                    throw new IllegalStateException("Tipo de registro desconocido: " + tipo);
+            }
+        }
+    }
+
+    /**
+     * Decodifica el registro que empieza en la posición actual del búfer
+     * @param b búfer de lectura
+     * @return la operación, o null si el registro está incompleto o dañado
+     *         (en ese caso la posición del búfer no cambia)
+     */
+    static Operacion leer(ByteBuffer b) {
+        int inicio = b.position();
+        if (b.remaining() < CABECERA_REGISTRO) {
+            return null;
+        }
+        int longitud = b.getInt(inicio);
+        int esperado = b.getInt(inicio + 4);
+        if (longitud < 1 || longitud > LONGITUD_MAXIMA || b.remaining() < CABECERA_REGISTRO + longitud) {
+            return null;
+        }
+        ByteBuffer contenido = b.duplicate();
+        contenido.position(inicio + CABECERA_REGISTRO).limit(inicio + CABECERA_REGISTRO + longitud);
+        CRC32C crc = new CRC32C();
+        crc.update(contenido.duplicate());
+        if ((int) crc.getValue() != esperado) {
+            return null;
+        }
+        Operacion operacion;
+        try {
+            operacion = decodificar(contenido);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+        b.position(inicio + CABECERA_REGISTRO + longitud);
+        return operacion;
+    }
+
+    private static Operacion decodificar(ByteBuffer c) {
+        byte tipo = c.get();
+        String email = leerCadena(c);
+        switch (tipo) {
+            case REGISTRO:
+                Credencial credencial = Credencial.decodificar(leerBytes(c));
+                String nombre = leerCadena(c);
+                return new Operacion(tipo, email, credencial, nombre, c.getLong());
+            case ELIMINACION:
+                return new Operacion(tipo, email, null, null, 0);
+            case NOMBRE:
+                return new Operacion(tipo, email, null, leerCadena(c), 0);
+            case PASSWORD:
+                return new Operacion(tipo, email, Credencial.decodificar(leerBytes(c)), null, 0);
+            default:
+                throw new IllegalArgumentException("Tipo de registro desconocido: " + tipo);
+        }
+    }
+
+    private static String leerCadena(ByteBuffer c) {
+        return new String(leerBytes(c), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] leerBytes(ByteBuffer c) {
+        int longitud = c.getInt();
+        if (longitud < 0 || longitud > c.remaining()) {
+            throw new IllegalArgumentException("Campo dañado");
+        }
+        byte[] valor = new byte[longitud];
+        c.get(valor);
+        return valor;
+    }
+
+    /**
+     * Recorre con lecturas mapeadas en memoria los registros de un archivo a partir de una posición.
+     * Se detiene en el primer registro incompleto o dañado (cola rota tras una caída).
+     * @param archivo archivo a leer
+     * @param desde posición del primer registro
+     * @param consumidor recibe cada operación en orden
+     * @return cantidad de registros leídos
+     * @throws IOException si no se puede leer el archivo
+     */
+    static long recorrer(Path archivo, long desde, Consumer<Operacion> consumidor) throws IOException {
+        long leidos = 0;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            long posicion = desde;
+            while (posicion < tamano) {
+                long largo = Math.min(VENTANA, tamano - posicion);
+                MappedByteBuffer ventana = canal.map(FileChannel.MapMode.READ_ONLY, posicion, largo);
+                Operacion operacion;
+                while ((operacion = leer(ventana)) != null) {
+                    consumidor.accept(operacion);
+                    leidos++;
+                }
+                boolean finDelArchivo = posicion + largo == tamano;
+                if (finDelArchivo || ventana.position() == 0) {
+                    // Registro dañado, o cola incompleta al final del archivo
+                    break;
+                }
+                // El siguiente registro cruza el borde de la ventana: volver a mapear desde él
+                posicion += ventana.position();
+            }
+        }
+        return leidos;
+    }
+}
@@ -0,0 +1,346 @@
+package com.proyecto;
+
+import com.proyecto.metricas.RegistroMetricas;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opciones de construcción de GestorUsuarios
+ *
+ * Ejemplo:
+ * <pre>
+ * GestorUsuarios gestor = new GestorUsuarios(new ConfiguracionGestor()
+ *         .concurrente(true)
+ *         .persistencia(Paths.get("datos"))
+ *         .compactacionCada(10, TimeUnit.MINUTES));
+ * </pre>
+ */
+public class ConfiguracionGestor {
+
+    private boolean concurrente;
+    private Path directorioPersistencia;
+    private long intervaloCompactacionMs = TimeUnit.MINUTES.toMillis(10);
+    private boolean sincronizarDisco = true;
+    private int capacidadInicial = 16;
+    private int iteracionesKdf = Credencial.ITERACIONES_POR_DEFECTO;
+    private int maximoVerificaciones = 10_000;
+    private long duracionVerificacionesMs = TimeUnit.MINUTES.toMillis(5);
+    // null: según el almacén (ver isIndiceNombres e isListadoPaginado)
+    private Boolean indiceNombres;
+    private Boolean listadoPaginado;
+    private boolean indiceFechas;
+    private double filtroEmails;
+    private ClaveEmail claveEmail = ClaveEmail.DOMINIO;
+    private int flujoCambios;
+    private TipoAlmacen tipoAlmacen = TipoAlmacen.MAPA;
+    private Path directorioDisco;
+    private long memoriaCache;
+    private RegistroMetricas metricas;
+
+    /**
+     * Activa el almacenamiento seguro entre hilos
+     * @param concurrente true para el modo concurrente
+     * @return esta configuración
+     */
+    public ConfiguracionGestor concurrente(boolean concurrente) {
+        this.concurrente = concurrente;
+        return this;
+    }
+
+    /**
+     * Activa el modo durable: las mutaciones se anexan a un diario binario en el directorio
+     * y se compactan periódicamente en instantáneas. Implica el modo concurrente, porque la
+     * compactación recorre el almacén desde un hilo de fondo.
+     * @param directorio directorio de datos (se crea si no existe)
+     * @return esta configuración
+     */
+    public ConfiguracionGestor persistencia(Path directorio) {
+        this.directorioPersistencia = directorio;
+        return this;
+    }
+
+    /**
+     * Intervalo entre compactaciones automáticas del modo durable
+     * @param cantidad cantidad de unidades (0 desactiva la compactación automática)
+     * @param unidad unidad de tiempo
+     * @return esta configuración
+     */
+    public ConfiguracionGestor compactacionCada(long cantidad, TimeUnit unidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("El intervalo de compactación no puede ser negativo");
+        }
+        this.intervaloCompactacionMs = unidad.toMillis(cantidad);
+        return this;
+    }
+
+    /**
+     * Indica si cada confirmación del diario fuerza los datos al disco (fsync).
+     * Desactivarlo acelera las escrituras a cambio de perder lo último escrito si cae el sistema operativo.
+     * @param sincronizar true para hacer fsync en cada confirmación de grupo
+     * @return esta configuración
+     */
+    public ConfiguracionGestor sincronizarDisco(boolean sincronizar) {
+        this.sincronizarDisco = sincronizar;
+        return this;
+    }
+
+    /**
+     * Capacidad inicial del almacén, para evitar redimensionamientos si se conoce el tamaño esperado
+     * @param capacidad cantidad de usuarios esperada
+     * @return esta configuración
+     */
+    public ConfiguracionGestor capacidadInicial(int capacidad) {
+        if (capacidad < 0) {
+            throw new IllegalArgumentException("La capacidad inicial no puede ser negativa");
+        }
+        this.capacidadInicial = capacidad;
+        return this;
+    }
+
+    /**
+     * Iteraciones de PBKDF2 para las passwords nuevas. Más iteraciones encarecen los ataques
+     * de fuerza bruta y también cada registro, login y cambio de password.
+     * @param iteraciones iteraciones (al menos 1)
+     * @return esta configuración
+     */
+    public ConfiguracionGestor iteracionesKdf(int iteraciones) {
+        if (iteraciones < 1) {
+            throw new IllegalArgumentException("Las iteraciones del KDF deben ser al menos 1");
+        }
+        this.iteracionesKdf = iteraciones;
+        return this;
+    }
+
+    /**
+     * Tamaño y vigencia de la caché de logins exitosos que evita repetir el KDF
+     * @param maximoEntradas cantidad máxima de verificaciones recordadas (0 desactiva la caché)
+     * @param duracion tiempo de vida de cada verificación
+     * @param unidad unidad de la duración
+     * @return esta configuración
+     */
+    public ConfiguracionGestor cacheVerificaciones(int maximoEntradas, long duracion, TimeUnit unidad) {
+        if (maximoEntradas < 0 || duracion < 0) {
+            throw new IllegalArgumentException("La caché de verificaciones no admite valores negativos");
+        }
+        this.maximoVerificaciones = maximoEntradas;
+        this.duracionVerificacionesMs = unidad.toMillis(duracion);
+        return this;
+    }
+
+    /**
+     * Mantiene un índice ordenado por nombre para GestorUsuarios.buscarPorNombre. Sin él la
+     * búsqueda recorre todo el almacén; con él cada registro, cambio de nombre y eliminación
+     * actualiza además el índice. Activado por defecto, salvo con los almacenes COLUMNAR y DISCO.
+     * @param activo true para mantener el índice
+     * @return esta configuración
+     */
+    public ConfiguracionGestor indiceNombres(boolean activo) {
+        this.indiceNombres = activo;
+        return this;
+    }
+
+    /**
+     * Mantiene un índice ordenado por email para GestorUsuarios.listarPagina y para que
+     * streamUsuarios recorra en orden de email. Activado por defecto, salvo con los almacenes
+     * COLUMNAR y DISCO.
+     * @param activo true para mantener el índice
+     * @return esta configuración
+     */
+    public ConfiguracionGestor listadoPaginado(boolean activo) {
+        this.listadoPaginado = activo;
+        return this;
+    }
+
+    /**
+     * Mantiene un índice ordenado por fecha de creación para GestorUsuarios.contarAltas,
+     * listarAltas e histogramaAltas. Sin él esas consultas recorren todo el almacén; con él
+     * cuestan O(log n) por rango o por barra y unos 16 bytes por usuario, y cada registro y
+     * eliminación actualiza además el índice. Desactivado por defecto.
+     * @param activo true para mantener el índice
+     * @return esta configuración
+     */
+    public ConfiguracionGestor indiceFechas(boolean activo) {
+        this.indiceFechas = activo;
+        return this;
+    }
+
+    /**
+     * Mantiene un filtro de Bloom de los emails registrados para que buscarUsuario, autenticar
+     * y existeUsuario respondan sin consultar el almacén cuando el email no existe. Ocupa unos
+     * 12 bits por usuario con una tasa de 1 %; cada falso positivo sólo cuesta la consulta al
+     * almacén que se hubiera hecho sin el filtro.
+     *
+     * Conviene cuando fallar en el almacén es caro, como con TipoAlmacen.COLUMNAR (un email
+     * desconocido pasa de ~60 a ~25 ns con dos millones de usuarios), y cuando la mayoría de
+     * las consultas son de emails que no existen. Con MAPA un fallo ya es un acceso a la tabla
+     * y el filtro sólo agrega un acceso a memoria a cada consulta de un email existente, por
+     * eso está desactivado por defecto.
+     * @param tasaFalsosPositivos fracción máxima de emails desconocidos que el filtro deja pasar
+     *                            (0, el valor por defecto, desactiva el filtro)
+     * @return esta configuración
+     * @throws IllegalArgumentException si la tasa no está en [0, 0.5]
+     */
+    public ConfiguracionGestor filtroEmails(double tasaFalsosPositivos) {
+        if (!(tasaFalsosPositivos >= 0 && tasaFalsosPositivos <= 0.5)) {
+            throw new IllegalArgumentException("La tasa de falsos positivos debe estar entre 0 y 0.5");
+        }
+        this.filtroEmails = tasaFalsosPositivos;
+        return this;
+    }
+
+    /**
+     * Cómo se convierte cada email recibido en la clave de su cuenta. Cambiarla en un almacén
+     * durable pasa a la nueva forma los emails recuperados al abrirlo, salvo que dos de ellos
+     * resulten la misma cuenta.
+     * @param clave DOMINIO (por defecto), COMPLETA o EXACTA
+     * @return esta configuración
+     */
+    public ConfiguracionGestor claveEmail(ClaveEmail clave) {
+        this.claveEmail = Objects.requireNonNull(clave, "clave");
+        return this;
+    }
+
+    /**
+     * Publica cada mutación en un anillo en memoria que se lee con GestorUsuarios.suscribirCambios.
+     * Publicar es un incremento atómico y una escritura por mutación y no espera a los lectores;
+     * un lector que se atrasa más que la capacidad pierde cambios y se le informa.
+     * @param capacidad cambios retenidos para los lectores atrasados (0, el valor por defecto,
+     *                  desactiva el flujo)
+     * @return esta configuración
+     * @throws IllegalArgumentException si la capacidad es negativa o mayor que 2^30
+     */
+    public ConfiguracionGestor flujoCambios(int capacidad) {
+        if (capacidad < 0 || capacidad > 1 << 30) {
+            throw new IllegalArgumentException("La capacidad del flujo de cambios debe estar entre 0 y 2^30");
+        }
+        this.flujoCambios = capacidad;
+        return this;
+    }
+
+    /**
+     * Estructura donde se guardan los usuarios. Con COLUMNAR, indiceNombres y listadoPaginado
+     * quedan desactivados salvo que se activen explícitamente: esos índices guardan un objeto
+     * Usuario por usuario y se llevarían el ahorro de memoria del almacén.
+     * @param tipo tipo de almacén
+     * @return esta configuración
+     */
+    public ConfiguracionGestor almacen(TipoAlmacen tipo) {
+        this.tipoAlmacen = Objects.requireNonNull(tipo, "tipo");
+        return this;
+    }
+
+    /**
+     * Guarda los usuarios en disco y mantiene en memoria sólo los más leídos (TipoAlmacen.DISCO).
+     * Cada escritura llega al disco antes de retornar y sincronizarDisco decide si además se
+     * fuerza (fsync). No se combina con persistencia, que guarda un almacén en memoria.
+     * indiceNombres y listadoPaginado quedan desactivados salvo que se activen explícitamente:
+     * como con COLUMNAR, guardan un Usuario por usuario en el heap, que es justo lo que este
+     * almacén evita.
+     * @param directorio directorio de datos (se crea si no existe)
+     * @param memoriaMaxima bytes que pueden ocupar los usuarios en memoria (estimados)
+     * @return esta configuración
+     * @throws IllegalArgumentException si la memoria no es positiva
+     */
+    public ConfiguracionGestor almacenEnDisco(Path directorio, long memoriaMaxima) {
+        if (memoriaMaxima <= 0) {
+            throw new IllegalArgumentException("La memoria de la caché debe ser positiva");
+        }
+        this.directorioDisco = Objects.requireNonNull(directorio, "directorio");
+        this.memoriaCache = memoriaMaxima;
+        this.tipoAlmacen = TipoAlmacen.DISCO;
+        return this;
+    }
+
+    /**
+     * Publica contadores por operación y resultado, latencias y la cantidad de usuarios en un
+     * registro de métricas (ver MetricasGestor). Dos gestores con el mismo registro suman en
+     * las mismas series, y la cantidad de usuarios publicada es la del primero.
+     * @param registro registro donde publicar, o null para no medir (por defecto)
+     * @return esta configuración
+     */
+    public ConfiguracionGestor metricas(RegistroMetricas registro) {
+        this.metricas = registro;
+        return this;
+    }
+
+    // ========== GETTERS ==========
+
+    boolean esConcurrente() {
+        return concurrente || directorioPersistencia != null;
+    }
+
+    Path getDirectorioPersistencia() {
+        return directorioPersistencia;
+    }
+
+    long getIntervaloCompactacionMs() {
+        return intervaloCompactacionMs;
+    }
+
+    boolean isSincronizarDisco() {
+        return sincronizarDisco;
+    }
+
+    int getCapacidadInicial() {
+        return capacidadInicial;
+    }
+
+    int getIteracionesKdf() {
+        return iteracionesKdf;
+    }
+
+    int getMaximoVerificaciones() {
+        return maximoVerificaciones;
+    }
+
+    long getDuracionVerificacionesMs() {
+        return duracionVerificacionesMs;
+    }
+
+    boolean isIndiceNombres() {
+        return indiceNombres != null ? indiceNombres : indicesPorDefecto();
+    }
+
+    boolean isListadoPaginado() {
+        return listadoPaginado != null ? listadoPaginado : indicesPorDefecto();
+    }
+
+    // Los almacenes que no guardan un Usuario por usuario no mantienen índices que sí lo hacen
+    private boolean indicesPorDefecto() {
+        return tipoAlmacen != TipoAlmacen.COLUMNAR && tipoAlmacen != TipoAlmacen.DISCO;
+    }
+
+    boolean isIndiceFechas() {
+        return indiceFechas;
+    }
+
+    double getFiltroEmails() {
+        return filtroEmails;
+    }
+
+    ClaveEmail getClaveEmail() {
+        return claveEmail;
+    }
+
+    int getFlujoCambios() {
+        return flujoCambios;
+    }
+
+    TipoAlmacen getTipoAlmacen() {
+        return tipoAlmacen;
+    }
+
+    Path getDirectorioDisco() {
+        return directorioDisco;
+    }
+
+    long getMemoriaCache() {
+        return memoriaCache;
+    }
+
+    RegistroMetricas getMetricas() {
+        return metricas;
+    }
+}
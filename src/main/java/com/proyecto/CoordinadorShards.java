@@ -0,0 +1,443 @@
+package com.proyecto;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Reparte los usuarios entre varios GestorUsuarios (shards) con un anillo de hash consistente,
+ * y ofrece sobre ellos las mismas OperacionesUsuarios que un gestor
+ *
+ * Cada email vive en un único shard, elegido por AnilloConsistente. Los shards pueden estar en
+ * este proceso (agregarShard) o en otro, publicados con un ServidorShard (agregarShardRemoto).
+ *
+ * Agregar o quitar un shard mueve sólo los usuarios que cambian de dueño, en lotes de
+ * TAMANO_LOTE_MIGRACION: cada lote se mueve con el candado de escritura tomado, y entre lote y
+ * lote las operaciones siguen. Mientras dura la migración una operación busca el email primero
+ * en su dueño nuevo y, si no está, en el anterior. Los usuarios se mueven con su credencial
+ * derivada: la migración no pasa por el KDF.
+ *
+ * Cada lote se copia al destino y recién después se quita del origen. Si la migración falla
+ * (por ejemplo, se cae un shard remoto) en cualquier punto, cada usuario sigue en su origen, en
+ * su destino o en ambos, y el coordinador sigue consultando los dos anillos, así que no se
+ * pierde ningún usuario; reanudarMigracion completa el movimiento cuando el shard vuelve. Hasta
+ * entonces, un usuario que quedó en ambos se cuenta y se lista una sola vez (la copia del dueño
+ * nuevo, que es la que ven las operaciones) y eliminarlo lo quita de los dos.
+ *
+ * Ejemplo:
+ * <pre>
+ * CoordinadorShards coordinador = new CoordinadorShards();
+ * coordinador.agregarShard("local", new GestorUsuarios(true));
+ * coordinador.agregarShardRemoto("remoto", new InetSocketAddress("localhost", 7400));
+ * coordinador.registrarUsuario("ana@test.com", "pass123", "Ana");
+ * </pre>
+ *
+ * Los Usuario de un shard remoto son copias: para cambiar un nombre hay que usar actualizarUsuario.
+ */
+public class CoordinadorShards implements OperacionesUsuarios, AutoCloseable {
+
+    public static final int NODOS_VIRTUALES_POR_DEFECTO = 512;
+
+    static final int TAMANO_LOTE_MIGRACION = 1024;
+
+    private final int nodosVirtuales;
+
+    // Las operaciones lo toman en modo lectura; la migración, en escritura por cada lote movido
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    private volatile AnilloConsistente anillo;
+
+    // Anillo previo mientras hay una migración en curso (o incompleta); null si no hay ninguna
+    private volatile AnilloConsistente anterior;
+
+    // Un lote falló después de importar: puede haber usuarios en su dueño nuevo y en el anterior
+    private volatile boolean duplicados;
+
+    // Agregar, quitar y reanudar se hacen de a uno
+    private final Object reconfiguracion = new Object();
+
+    /**
+     * Coordinador sin shards, con NODOS_VIRTUALES_POR_DEFECTO posiciones por shard
+     */
+    public CoordinadorShards() {
+        this(NODOS_VIRTUALES_POR_DEFECTO);
+    }
+
+    /**
+     * Coordinador sin shards
+     * @param nodosVirtuales posiciones de cada shard en el anillo; más posiciones reparten
+     *                       mejor la carga a cambio de un anillo más grande
+     * @throws IllegalArgumentException si nodosVirtuales es menor que 1
+     */
+    public CoordinadorShards(int nodosVirtuales) {
+        if (nodosVirtuales < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un nodo virtual por shard");
+        }
+        this.nodosVirtuales = nodosVirtuales;
+        this.anillo = new AnilloConsistente(Map.of(), nodosVirtuales);
+    }
+
+    // ========== SHARDS ==========
+
+    /**
+     * Agrega un gestor de este proceso como shard y le mueve los usuarios que le tocan
+     * @param nombre nombre único del shard (determina su lugar en el anillo)
+     * @param gestor gestor concurrente; sigue siendo del llamador, que debe cerrarlo
+     * @return cantidad de usuarios movidos al nuevo shard
+     * @throws IllegalArgumentException si ya hay un shard con ese nombre
+     * @throws IllegalStateException si hay una migración incompleta
+     */
+    public int agregarShard(String nombre, GestorUsuarios gestor) {
+        return agregar(nombre, new ShardLocal(gestor));
+    }
+
+    /**
+     * Agrega como shard un gestor publicado con ServidorShard y le mueve los usuarios que le tocan
+     * @param nombre nombre único del shard (determina su lugar en el anillo)
+     * @param direccion dirección del ServidorShard
+     * @return cantidad de usuarios movidos al nuevo shard
+     * @throws IOException si no se puede conectar con el servidor
+     * @throws IllegalArgumentException si ya hay un shard con ese nombre
+     * @throws IllegalStateException si hay una migración incompleta
+     */
+    public int agregarShardRemoto(String nombre, InetSocketAddress direccion) throws IOException {
+        ShardRemoto shard = new ShardRemoto(direccion);
+        try {
+            return agregar(nombre, shard);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            shard.close();
+            throw e;
+        }
+    }
+
+    int agregar(String nombre, Shard shard) {
+        synchronized (reconfiguracion) {
+            Map<String, Shard> shards = new HashMap<>(anillo.getShards());
+            if (shards.putIfAbsent(nombre, shard) != null) {
+                throw new IllegalArgumentException("Ya hay un shard llamado " + nombre);
+            }
+            return migrar(new AnilloConsistente(shards, nodosVirtuales));
+        }
+    }
+
+    /**
+     * Mueve todos los usuarios de un shard a los demás y lo quita
+     * @param nombre nombre del shard
+     * @return cantidad de usuarios movidos
+     * @throws IllegalArgumentException si no hay un shard con ese nombre
+     * @throws IllegalStateException si es el último shard y tiene usuarios, o si hay una migración incompleta
+     */
+    public int quitarShard(String nombre) {
+        synchronized (reconfiguracion) {
+            Map<String, Shard> shards = new HashMap<>(anillo.getShards());
+            Shard quitado = shards.remove(nombre);
+            if (quitado == null) {
+                throw new IllegalArgumentException("No hay un shard llamado " + nombre);
+            }
+            if (shards.isEmpty() && quitado.obtenerCantidadUsuarios() > 0) {
+                throw new IllegalStateException("No se puede quitar el último shard mientras tenga usuarios");
+            }
+            int movidos = migrar(new AnilloConsistente(shards, nodosVirtuales));
+            quitado.close();
+            return movidos;
+        }
+    }
+
+    /**
+     * Termina una migración que falló a medias
+     * @return cantidad de usuarios movidos, 0 si no había migración pendiente
+     */
+    public int reanudarMigracion() {
+        synchronized (reconfiguracion) {
+            return anterior == null ? 0 : continuarMigracion();
+        }
+    }
+
+    /**
+     * @return nombres de los shards actuales, en orden alfabético
+     */
+    public Set<String> getShards() {
+        return new TreeSet<>(anillo.getShards().keySet());
+    }
+
+    /**
+     * @return nombre del shard dueño del email según el anillo actual
+     */
+    String nombreDueno(String email) {
+        Shard dueno = anillo.dueno(email);
+        for (Map.Entry<String, Shard> shard : anillo.getShards().entrySet()) {
+            if (shard.getValue() == dueno) {
+                return shard.getKey();
+            }
+        }
+        throw new IllegalStateException("El anillo no contiene a su propio dueño");
+    }
+
+    private int migrar(AnilloConsistente destino) {
+        if (anterior != null) {
+            throw new IllegalStateException("Hay una migración incompleta: llamar antes a reanudarMigracion");
+        }
+        candado.writeLock().lock();
+        try {
+            anterior = anillo;
+            anillo = destino;
+        } finally {
+            candado.writeLock().unlock();
+        }
+        return continuarMigracion();
+    }
+
+    private int continuarMigracion() {
+        AnilloConsistente destino = anillo;
+        int movidos = 0;
+        for (Shard origen : anterior.getShards().values()) {
+            // Lo registrado después de listar ya va a su dueño nuevo (ver ubicar)
+            List<String> pendientes = new ArrayList<>();
+            for (String email : origen.listarEmails()) {
+                if (destino.dueno(email) != origen) {
+                    pendientes.add(email);
+                }
+            }
+            for (int i = 0; i < pendientes.size(); i += TAMANO_LOTE_MIGRACION) {
+                movidos += moverLote(origen, pendientes.subList(i, Math.min(pendientes.size(), i + TAMANO_LOTE_MIGRACION)),
+                        destino);
+            }
+        }
+        candado.writeLock().lock();
+        try {
+            anterior = null;
+            duplicados = false;
+        } finally {
+            candado.writeLock().unlock();
+        }
+        return movidos;
+    }
+
+    private int moverLote(Shard origen, List<String> emails, AnilloConsistente destino) {
+        candado.writeLock().lock();
+        try {
+            List<Usuario> copiados = origen.copiar(emails);
+            Map<Shard, List<Usuario>> porDestino = new IdentityHashMap<>();
+            List<String> movidos = new ArrayList<>(copiados.size());
+            for (Usuario usuario : copiados) {
+                porDestino.computeIfAbsent(destino.dueno(usuario.getEmail()), s -> new ArrayList<>()).add(usuario);
+                movidos.add(usuario.getEmail());
+            }
+            try {
+                for (Map.Entry<Shard, List<Usuario>> grupo : porDestino.entrySet()) {
+                    grupo.getKey().importar(grupo.getValue());
+                }
+                // Sólo con todo importado: si esto falla (aun después de quitar), nada queda sin dueño
+                origen.quitar(movidos);
+            } catch (RuntimeException e) {
+                duplicados = true;
+                throw e;
+            }
+            return copiados.size();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega los usuarios de un shard sin repetir emails; si un email está en dos shards, se
+     * queda con la copia de su dueño actual (la que encuentra ubicar)
+     */
+    private void agregarSinDuplicados(Map<String, Usuario> unicos, Shard shard, List<Usuario> usuarios) {
+        for (Usuario usuario : usuarios) {
+            if (anillo.dueno(usuario.getEmail()) == shard) {
+                unicos.put(usuario.getEmail(), usuario);
+            } else {
+                unicos.putIfAbsent(usuario.getEmail(), usuario);
+            }
+        }
+    }
+
+    // ========== OPERACIONES ==========
+
+    /**
+     * Shard donde está (o debe crearse) el email; se llama con el candado de lectura tomado
+     */
+    private Shard ubicar(String email) {
+        Shard dueno = anillo.dueno(email);
+        AnilloConsistente previo = anterior;
+        if (previo == null) {
+            return dueno;
+        }
+        Shard duenoAnterior = previo.dueno(email);
+        if (duenoAnterior == dueno || dueno.existeUsuario(email)) {
+            return dueno;
+        }
+        return duenoAnterior.existeUsuario(email) ? duenoAnterior : dueno;
+    }
+
+    private <T> T enShard(String email, Function<Shard, T> operacion) {
+        candado.readLock().lock();
+        try {
+            return operacion.apply(ubicar(email));
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Shards con usuarios: durante una migración, los del anillo nuevo y los del anterior
+     */
+    private Collection<Shard> todos() {
+        AnilloConsistente previo = anterior;
+        if (previo == null) {
+            return anillo.getShards().values();
+        }
+        Set<Shard> union = new LinkedHashSet<>(anillo.getShards().values());
+        union.addAll(previo.getShards().values());
+        return union;
+    }
+
+    @Override
+    public boolean registrarUsuario(String email, String password, String nombre) {
+        return enShard(email, shard -> shard.registrarUsuario(email, password, nombre));
+    }
+
+    @Override
+    public Usuario autenticar(String email, String password) {
+        return enShard(email, shard -> shard.autenticar(email, password));
+    }
+
+    /**
+     * Durante una migración elimina el email también de su dueño anterior: si un lote quedó a
+     * medio mover, la copia que sigue allí no debe reaparecer
+     */
+    @Override
+    public boolean eliminarUsuario(String email) {
+        candado.readLock().lock();
+        try {
+            Shard dueno = anillo.dueno(email);
+            AnilloConsistente previo = anterior;
+            boolean eliminado = dueno.eliminarUsuario(email);
+            if (previo != null && previo.dueno(email) != dueno) {
+                eliminado |= previo.dueno(email).eliminarUsuario(email);
+            }
+            return eliminado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Usuario buscarUsuario(String email) {
+        return enShard(email, shard -> shard.buscarUsuario(email));
+    }
+
+    @Override
+    public boolean actualizarUsuario(String email, String nuevoNombre) {
+        return enShard(email, shard -> shard.actualizarUsuario(email, nuevoNombre));
+    }
+
+    @Override
+    public boolean cambiarPassword(String email, String passwordActual, String nuevaPassword) {
+        return enShard(email, shard -> shard.cambiarPassword(email, passwordActual, nuevaPassword));
+    }
+
+    @Override
+    public boolean existeUsuario(String email) {
+        return enShard(email, shard -> shard.existeUsuario(email));
+    }
+
+    @Override
+    public int obtenerCantidadUsuarios() {
+        candado.readLock().lock();
+        try {
+            if (duplicados) {
+                Set<String> emails = new HashSet<>();
+                for (Shard shard : todos()) {
+                    emails.addAll(shard.listarEmails());
+                }
+                return emails.size();
+            }
+            int cantidad = 0;
+            for (Shard shard : todos()) {
+                cantidad += shard.obtenerCantidadUsuarios();
+            }
+            return cantidad;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Usuario> listarUsuarios() {
+        candado.readLock().lock();
+        try {
+            if (duplicados) {
+                Map<String, Usuario> unicos = new LinkedHashMap<>();
+                for (Shard shard : todos()) {
+                    agregarSinDuplicados(unicos, shard, shard.listarUsuarios());
+                }
+                return new ArrayList<>(unicos.values());
+            }
+            List<Usuario> usuarios = new ArrayList<>();
+            for (Shard shard : todos()) {
+                usuarios.addAll(shard.listarUsuarios());
+            }
+            return usuarios;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pide a cada shard sus primeros limite resultados y los mezcla
+     */
+    @Override
+    public List<Usuario> buscarPorNombre(String prefijo, int limite) {
+        if (limite < 0) {
+            throw new IllegalArgumentException("El límite no puede ser negativo");
+        }
+        if (prefijo == null || limite == 0) {
+            return new ArrayList<>();
+        }
+        candado.readLock().lock();
+        try {
+            List<Usuario> encontrados = new ArrayList<>();
+            if (duplicados) {
+                Map<String, Usuario> unicos = new HashMap<>();
+                for (Shard shard : todos()) {
+                    agregarSinDuplicados(unicos, shard, shard.buscarPorNombre(prefijo, limite));
+                }
+                encontrados.addAll(unicos.values());
+            } else {
+                for (Shard shard : todos()) {
+                    encontrados.addAll(shard.buscarPorNombre(prefijo, limite));
+                }
+            }
+            encontrados.sort(IndiceNombres.ORDEN);
+            return encontrados.size() > limite ? new ArrayList<>(encontrados.subList(0, limite)) : encontrados;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cierra las conexiones con los shards remotos (los gestores locales son del llamador)
+     */
+    @Override
+    public void close() {
+        synchronized (reconfiguracion) {
+            for (Shard shard : todos()) {
+                shard.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.proyecto;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Password derivada con PBKDF2-HMAC-SHA256 y sal aleatoria por usuario
+ *
+ * Es inmutable: cambiar la password de un usuario reemplaza su Credencial (con otra sal),
+ * lo que permite comparar credenciales para saber si una verificación anterior sigue vigente.
+ */
+final class Credencial {
+
+    static final int ITERACIONES_POR_DEFECTO = 100_000;
+
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+    private static final int BYTES_SAL = 16;
+    private static final int BITS_HASH = 256;
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    private final byte[] sal;
+    private final byte[] hash;
+    private final int iteraciones;
+
+    private Credencial(byte[] sal, byte[] hash, int iteraciones) {
+        this.sal = sal;
+        this.hash = hash;
+        this.iteraciones = iteraciones;
+    }
+
+    /**
+     * Deriva la credencial de una password con una sal nueva (operación lenta a propósito)
+     * @param password password en claro
+     * @param iteraciones iteraciones de PBKDF2
+     * @return credencial derivada
+     */
+    static Credencial crear(String password, int iteraciones) {
+        byte[] sal = new byte[BYTES_SAL];
+        ALEATORIO.nextBytes(sal);
+        return new Credencial(sal, derivar(password, sal, iteraciones), iteraciones);
+    }
+
+    /**
+     * Comprueba una password en tiempo constante respecto del hash (operación lenta a propósito)
+     * @param password password en claro (null nunca coincide)
+     * @return true si la password corresponde a esta credencial
+     */
+    boolean verificar(String password) {
+        return password != null && MessageDigest.isEqual(hash, derivar(password, sal, iteraciones));
+    }
+
+    int getIteraciones() {
+        return iteraciones;
+    }
+
+    private static byte[] derivar(String password, byte[] sal, int iteraciones) {
+        PBEKeySpec especificacion = new PBEKeySpec(password.toCharArray(), sal, iteraciones, BITS_HASH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(especificacion).getEncoded();
+        } catch (GeneralSecurityException e) {
+            // PBKDF2WithHmacSHA256 es obligatorio en toda JVM desde Java 8
+            throw new IllegalStateException("PBKDF2 no disponible", e);
+        } finally {
+            especificacion.clearPassword();
+        }
+    }
+
+    // ========== SERIALIZACIÓN ==========
+
+    /**
+     * @return iteraciones (int) | longitud de la sal (byte) | sal | hash
+     */
+    byte[] codificar() {
+        return ByteBuffer.allocate(4 + 1 + sal.length + hash.length)
+                .putInt(iteraciones).put((byte) sal.length).put(sal).put(hash).array();
+    }
+
+    /**
+     * Reconstruye una credencial codificada con codificar()
+     * @param datos bytes codificados
+     * @return credencial
+     * @throws IllegalArgumentException si los bytes no tienen el formato esperado
+     */
+    static Credencial decodificar(byte[] datos) {
+        if (datos.length < 5) {
+            throw new IllegalArgumentException("Credencial truncada");
+        }
+        ByteBuffer b = ByteBuffer.wrap(datos);
+        int iteraciones = b.getInt();
+        int largoSal = b.get() & 0xFF;
+        if (iteraciones < 1 || largoSal > b.remaining()) {
+            throw new IllegalArgumentException("Credencial dañada");
+        }
+        byte[] sal = new byte[largoSal];
+        b.get(sal);
+        byte[] hash = new byte[b.remaining()];
+        b.get(hash);
+        return new Credencial(sal, hash, iteraciones);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        Credencial otra = (Credencial) obj;
+        return iteraciones == otra.iteraciones && Arrays.equals(sal, otra.sal) && Arrays.equals(hash, otra.hash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+        // Nunca exponer la sal ni el hash en logs
+        return "Credencial{PBKDF2-HMAC-SHA256, iteraciones=" + iteraciones + '}';
+    }
+}
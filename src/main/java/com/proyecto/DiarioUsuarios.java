@@ -0,0 +1,261 @@
+package com.proyecto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Diario de operaciones de solo anexado (write-ahead log) con confirmación en grupo
+ *
+ * Los hilos anexan registros a un búfer en memoria y luego esperan a que sean durables.
+ * El primer hilo que espera se convierte en líder: escribe en el FileChannel todo lo
+ * pendiente (también lo de los demás hilos) y hace un único force(); los demás sólo
+ * esperan. Así, con muchos hilos escribiendo, un fsync confirma muchas operaciones.
+ *
+ * Las posiciones son lógicas y crecen a través de los segmentos, por lo que rotar a un
+ * segmento nuevo no afecta a los hilos que esperan.
+ */
+final class DiarioUsuarios implements Closeable {
+
+    private static final int CAPACIDAD_INICIAL = 64 * 1024;
+
+    private final Object candado = new Object();
+    private final Path directorio;
+    private final boolean sincronizarDisco;
+
+    private FileChannel canal;
+    private long segmento;
+
+    // Registros anexados que ningún líder ha tomado todavía, y el búfer libre para el siguiente intercambio
+    private ByteBuffer pendiente = ByteBuffer.allocate(CAPACIDAD_INICIAL);
+    private ByteBuffer reserva = ByteBuffer.allocate(CAPACIDAD_INICIAL);
+
+    // Invariante: anexado == durable + enVuelo + pendiente.position()
+    private long anexado;
+    private long enVuelo;
+    private long durable;
+
+    private boolean escribiendo;
+    private boolean cerrado;
+    private IOException fallo;
+
+    /**
+     * Abre (o crea) el segmento indicado para anexar al final
+     * @param directorio directorio de persistencia
+     * @param segmento número del segmento
+     * @param sincronizarDisco true para hacer force() en cada confirmación de grupo
+     * @throws IOException si no se puede abrir el archivo
+     */
+    DiarioUsuarios(Path directorio, long segmento, boolean sincronizarDisco) throws IOException {
+        this.directorio = directorio;
+        this.sincronizarDisco = sincronizarDisco;
+        this.segmento = segmento;
+        this.canal = abrir(segmento);
+    }
+
+    /**
+     * Nombre del archivo de un segmento; el número con ceros a la izquierda ordena bien como texto
+     * @param segmento número del segmento
+     * @return nombre del archivo
+     */
+    static String nombreSegmento(long segmento) {
+        return String.format("diario-%019d.log", segmento);
+    }
+
+    private FileChannel abrir(long numero) throws IOException {
+        return FileChannel.open(directorio.resolve(nombreSegmento(numero)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // ========== ANEXAR ==========
+
+    /**
+     * Anexa el alta de un usuario
+     * @param usuario usuario registrado
+     * @return posición lógica que hay que esperar para que el registro sea durable
+     */
+    long anexarRegistro(Usuario usuario) {
+        synchronized (candado) {
+            verificarAbierto();
+            pendiente = CodecUsuarios.escribirRegistro(pendiente, usuario);
+            return avanzar();
+        }
+    }
+
+    /**
+     * Anexa una eliminación
+     * @param email email eliminado
+     * @return posición lógica que hay que esperar para que el registro sea durable
+     */
+    long anexarEliminacion(String email) {
+        synchronized (candado) {
+            verificarAbierto();
+            pendiente = CodecUsuarios.escribirEliminacion(pendiente, email);
+            return avanzar();
+        }
+    }
+
+    /**
+     * Anexa un cambio de nombre
+     * @param email email del usuario
+     * @param nombre nuevo nombre
+     * @return posición lógica que hay que esperar para que el registro sea durable
+     */
+    long anexarNombre(String email, String nombre) {
+        synchronized (candado) {
+            verificarAbierto();
+            pendiente = CodecUsuarios.escribirNombre(pendiente, email, nombre);
+            return avanzar();
+        }
+    }
+
+    /**
+     * Anexa un cambio de credencial
+     * @param email email del usuario
+     * @param credencial nueva credencial
+     * @return posición lógica que hay que esperar para que el registro sea durable
+     */
+    long anexarCredencial(String email, Credencial credencial) {
+        synchronized (candado) {
+            verificarAbierto();
+            pendiente = CodecUsuarios.escribirCredencial(pendiente, email, credencial);
+            return avanzar();
+        }
+    }
+
+    private long avanzar() {
+        anexado = durable + enVuelo + pendiente.position();
+        return anexado;
+    }
+
+    private void verificarAbierto() {
+        if (cerrado) {
+            throw new IllegalStateException("El diario está cerrado");
+        }
+    }
+
+    /**
+     * @return posición lógica del último byte anexado
+     */
+    long posicionAnexada() {
+        synchronized (candado) {
+            return anexado;
+        }
+    }
+
+    // ========== CONFIRMACIÓN EN GRUPO ==========
+
+    /**
+     * Bloquea hasta que todo lo anexado hasta la posición indicada sea durable
+     * @param posicion posición devuelta por algún anexar
+     * @throws IOException si falla la escritura (el diario queda inutilizable)
+     */
+    void esperarDurable(long posicion) throws IOException {
+        while (true) {
+            ByteBuffer lote;
+            FileChannel destino;
+            synchronized (candado) {
+                while (durable < posicion && escribiendo && fallo == null) {
+                    esperar();
+                }
+                if (fallo != null) {
+                    throw new IOException("El diario falló en una escritura anterior", fallo);
+                }
+                if (durable >= posicion) {
+                    return;
+                }
+                // Este hilo pasa a ser el líder del siguiente grupo
+                escribiendo = true;
+                lote = pendiente;
+                pendiente = reserva;
+                reserva = null;
+                enVuelo = lote.position();
+                destino = canal;
+            }
+            escribirLote(lote, destino);
+        }
+    }
+
+    private void escribirLote(ByteBuffer lote, FileChannel destino) throws IOException {
+        IOException error = null;
+        try {
+            lote.flip();
+            while (lote.hasRemaining()) {
+                destino.write(lote);
+            }
+            if (sincronizarDisco) {
+                destino.force(false);
+            }
+        } catch (IOException e) {
+            error = e;
+            throw e;
+        } finally {
+            synchronized (candado) {
+                if (error == null) {
+                    durable += enVuelo;
+                } else {
+                    // No se sabe cuánto llegó al disco: a partir de aquí ninguna escritura es confiable
+                    fallo = error;
+                }
+                lote.clear();
+                reserva = lote;
+                enVuelo = 0;
+                escribiendo = false;
+                candado.notifyAll();
+            }
+        }
+    }
+
+    private void esperar() throws InterruptedIOException {
+        try {
+            candado.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando la confirmación del diario");
+        }
+    }
+
+    // ========== ROTACIÓN ==========
+
+    /**
+     * Vuelca lo pendiente en el segmento actual y continúa en un segmento nuevo.
+     * Todo registro que quede en el segmento anterior fue anexado antes de la rotación.
+     * @return número del segmento nuevo
+     * @throws IOException si falla la escritura o la creación del segmento
+     */
+    long rotar() throws IOException {
+        esperarDurable(posicionAnexada());
+        FileChannel anterior;
+        long nuevo;
+        synchronized (candado) {
+            while (escribiendo) {
+                esperar();
+            }
+            // Lo anexado después de esperarDurable sigue en 'pendiente' y se escribirá en el segmento nuevo
+            anterior = canal;
+            nuevo = segmento + 1;
+            canal = abrir(nuevo);
+            segmento = nuevo;
+        }
+        anterior.force(false);
+        anterior.close();
+        return nuevo;
+    }
+
+    @Override
+    public void close() throws IOException {
+        esperarDurable(posicionAnexada());
+        synchronized (candado) {
+            while (escribiendo) {
+                esperar();
+            }
+            cerrado = true;
+            canal.force(false);
+            canal.close();
+        }
+    }
+}
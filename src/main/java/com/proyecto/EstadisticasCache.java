@@ -0,0 +1,75 @@
+package com.proyecto;
+
+/**
+ * Contadores de la caché en memoria del almacén DISCO, tomados en un momento
+ * (ver GestorUsuarios.obtenerEstadisticasCache)
+ */
+public final class EstadisticasCache {
+
+    private final long aciertos;
+    private final long fallos;
+    private final long desalojos;
+    private final int usuariosEnMemoria;
+    private final long bytesEnMemoria;
+    private final long memoriaMaxima;
+
+    EstadisticasCache(long aciertos, long fallos, long desalojos, int usuariosEnMemoria, long bytesEnMemoria,
+                      long memoriaMaxima) {
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.desalojos = desalojos;
+        this.usuariosEnMemoria = usuariosEnMemoria;
+        this.bytesEnMemoria = bytesEnMemoria;
+        this.memoriaMaxima = memoriaMaxima;
+    }
+
+    /**
+     * @return búsquedas resueltas en memoria
+     */
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    /**
+     * @return búsquedas que fueron al disco (encontraran o no al usuario)
+     */
+    public long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * @return usuarios que salieron de la memoria para respetar el presupuesto
+     */
+    public long getDesalojos() {
+        return desalojos;
+    }
+
+    /**
+     * @return fracción de búsquedas resueltas en memoria (0 si no hubo búsquedas)
+     */
+    public double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0 : (double) aciertos / total;
+    }
+
+    public int getUsuariosEnMemoria() {
+        return usuariosEnMemoria;
+    }
+
+    /**
+     * @return bytes estimados que ocupan los usuarios en memoria
+     */
+    public long getBytesEnMemoria() {
+        return bytesEnMemoria;
+    }
+
+    public long getMemoriaMaxima() {
+        return memoriaMaxima;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EstadisticasCache{aciertos=%d, fallos=%d, tasa=%.3f, desalojos=%d, usuarios=%d, bytes=%d/%d}",
+                aciertos, fallos, getTasaAciertos(), desalojos, usuariosEnMemoria, bytesEnMemoria, memoriaMaxima);
+    }
+}
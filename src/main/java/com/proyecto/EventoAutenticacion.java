@@ -0,0 +1,23 @@
+package com.proyecto;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento de GestorUsuarios.autenticar. Si casi toda la duración es verificación, el login
+ * pasó por el KDF (la caché de verificaciones no tenía la password); si no, el tiempo se fue
+ * en buscar el usuario.
+ */
+@Name("com.proyecto.Autenticacion")
+@Label("Autenticación")
+@Threshold("100 ms")
+final class EventoAutenticacion extends EventoUsuario {
+
+    @Label("Verificación de la password")
+    @Description("Consulta a la caché de verificaciones y, si falla, derivación con el KDF")
+    @Timespan
+    long verificacion;
+}
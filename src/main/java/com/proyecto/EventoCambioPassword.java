@@ -0,0 +1,23 @@
+package com.proyecto;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento de GestorUsuarios.cambiarPassword: verifica la password actual y deriva la nueva
+ */
+@Name("com.proyecto.CambioPassword")
+@Label("Cambio de password")
+@Threshold("100 ms")
+final class EventoCambioPassword extends EventoUsuario {
+
+    @Label("Verificación de la password actual")
+    @Timespan
+    long verificacion;
+
+    @Label("Derivación de la password nueva")
+    @Timespan
+    long derivacion;
+}
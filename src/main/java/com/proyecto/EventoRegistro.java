@@ -0,0 +1,26 @@
+package com.proyecto;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento de GestorUsuarios.registrarUsuario, con el tiempo de derivar la password y el de
+ * insertar (que incluye esperar al candado del email y al diario en modo durable)
+ */
+@Name("com.proyecto.Registro")
+@Label("Registro de usuario")
+@Threshold("100 ms")
+final class EventoRegistro extends EventoUsuario {
+
+    @Label("Derivación de la password")
+    @Timespan
+    long derivacion;
+
+    @Label("Inserción")
+    @Description("Inserción en el almacén, notificación a los observadores y confirmación en el diario")
+    @Timespan
+    long insercion;
+}
@@ -0,0 +1,30 @@
+package com.proyecto;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de GestorUsuarios.registrarLote, una importación masiva completa. Son pocas y largas,
+ * así que por defecto se graban todas.
+ */
+@Name("com.proyecto.RegistroLote")
+@Label("Importación masiva")
+@Category({"Proyecto", "Usuarios"})
+@StackTrace(false)
+final class EventoRegistroLote extends Event {
+
+    @Label("Registros")
+    int registros;
+
+    @Label("Aceptados")
+    int aceptados;
+
+    @Label("Duplicados")
+    int duplicados;
+
+    @Label("Inválidos")
+    int invalidos;
+}
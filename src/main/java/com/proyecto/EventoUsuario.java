@@ -0,0 +1,78 @@
+package com.proyecto;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Base de los eventos de Java Flight Recorder de GestorUsuarios
+ *
+ * Cada operación crea su evento al empezar y lo confirma al terminar. Sin una grabación
+ * activa (o si la duración no supera el umbral del tipo de evento) shouldCommit es falso y no
+ * se calcula nada: el JIT elimina la reserva del evento, y lo único que queda son los begin y
+ * commit, que leen un indicador estático.
+ *
+ * El email no se graba en claro sino como los primeros 8 bytes de su SHA-256, suficiente para
+ * agrupar los eventos de un mismo usuario en JDK Mission Control o en jfr print.
+ */
+@Category({"Proyecto", "Usuarios"})
+@StackTrace(false)
+abstract class EventoUsuario extends Event {
+
+    @Label("Email (hash)")
+    @Description("Primeros 8 bytes del SHA-256 del email, en hexadecimal")
+    String emailHash;
+
+    @Label("Resultado")
+    String resultado;
+
+    /**
+     * Completa y confirma el evento si la grabación lo pide
+     * @param email email de la operación
+     * @param resultado resultado de la operación
+     */
+    void terminar(String email, MetricasGestor.Resultado resultado) {
+        end();
+        if (shouldCommit()) {
+            this.emailHash = hashEmail(email);
+            this.resultado = resultado.etiqueta;
+            commit();
+        }
+    }
+
+    static String hashEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(email.getBytes(StandardCharsets.UTF_8));
+            StringBuilder texto = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                texto.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+            }
+            return texto.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Inicio de una fase medida dentro del evento, o 0 si el evento no se graba
+     */
+    long iniciarFase() {
+        return isEnabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * @return duración de la fase iniciada con iniciarFase, o 0 si el evento no se graba
+     */
+    static long duracionFase(long inicio) {
+        return inicio == 0 ? 0 : System.nanoTime() - inicio;
+    }
+}
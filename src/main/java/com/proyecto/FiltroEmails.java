@@ -0,0 +1,302 @@
+package com.proyecto;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Filtro de Bloom escalable de los emails registrados, para que buscarUsuario, autenticar y
+ * existeUsuario descarten un email desconocido sin consultar el almacén
+ *
+ * Nunca da falsos negativos: cada email se agrega dentro de la sección crítica de su
+ * inserción, antes de que sea visible en el almacén. Da falsos positivos con una tasa
+ * acotada por la configurada; ésos sí consultan el almacén.
+ *
+ * Cada etapa es un filtro por bloques: los k bits de un email caen en el mismo bloque de
+ * 512 bits (una línea de caché), así que una consulta es un hash y un acceso a memoria por
+ * etapa. Cuando una etapa llega a su capacidad se agrega otra del doble de tamaño y la mitad
+ * de tasa de falsos positivos, de modo que la suma de todas no pasa de la configurada
+ * (Almeida et al., "Scalable Bloom Filters").
+ *
+ * Un filtro de Bloom no admite quitar elementos: las eliminaciones sólo se cuentan, y cuando
+ * son muchas (o hay demasiadas etapas) el gestor lo reconstruye a partir del almacén. Al
+ * arrancar también se construye desde el almacén recuperado de la instantánea y el diario.
+ *
+ * El hash parte de String.hashCode, que la String guarda y el mapa reutiliza si el filtro
+ * deja pasar la consulta. Con 32 bits de hash la tasa de falsos positivos tiene un piso de
+ * n / 2^32 (0,2 % con diez millones de emails).
+ */
+final class FiltroEmails implements ObservadorUsuarios {
+
+    static final int BITS_BLOQUE = 512;
+    private static final int LONGS_BLOQUE = BITS_BLOQUE / Long.SIZE;
+    private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int MAXIMO_ETAPAS = 4;
+    private static final int MINIMO_ELIMINADOS = 1024;
+
+    private final double tasaFalsosPositivos;
+    private volatile Etapa[] etapas;
+    private volatile Etapa[] enReconstruccion;
+    private final LongAdder eliminados = new LongAdder();
+    private final AtomicBoolean programada = new AtomicBoolean();
+    // Protege el reemplazo de los arreglos de etapas; aparte del monitor que serializa las reconstrucciones
+    private final Object crecimiento = new Object();
+
+    // Mismo esquema que PersistenciaUsuarios: la reconstrucción espera a los cambios de la época anterior
+    private volatile int epoca;
+    private final LongAdder[] enCurso = {new LongAdder(), new LongAdder()};
+
+    /**
+     * @param capacidad emails esperados en la primera etapa
+     * @param tasaFalsosPositivos tasa máxima de falsos positivos, entre 0 y 1
+     */
+    FiltroEmails(long capacidad, double tasaFalsosPositivos) {
+        this.tasaFalsosPositivos = tasaFalsosPositivos;
+        this.etapas = new Etapa[]{new Etapa(capacidad, tasaFalsosPositivos / 2)};
+    }
+
+    /**
+     * @return false si el email seguro no está registrado; true si puede estarlo
+     */
+    boolean puedeContener(String email) {
+        long hash = hash(email);
+        for (Etapa etapa : etapas) {
+            if (etapa.contiene(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ========== OBSERVADOR ==========
+
+    @Override
+    public void usuarioRegistrado(Usuario usuario) {
+        long hash = hash(usuario.getEmail());
+        agregar(etapas, hash);
+        Etapa[] nuevas = enReconstruccion;
+        if (nuevas != null) {
+            agregar(nuevas, hash);
+        }
+    }
+
+    @Override
+    public void usuarioEliminado(Usuario usuario) {
+        eliminados.increment();
+    }
+
+    @Override
+    public void nombreActualizado(Usuario usuario, String nombreAnterior) {
+        // El filtro sólo depende del email
+    }
+
+    // ========== RECONSTRUCCIÓN ==========
+
+    /**
+     * Marca el comienzo de una mutación del almacén; debe llamarse antes de su sección crítica
+     * @return época a pasar a terminarCambio
+     */
+    int iniciarCambio() {
+        while (true) {
+            int actual = epoca;
+            enCurso[actual].increment();
+            if (epoca == actual) {
+                return actual;
+            }
+            enCurso[actual].decrement();
+        }
+    }
+
+    void terminarCambio(int epocaCambio) {
+        enCurso[epocaCambio].decrement();
+    }
+
+    /**
+     * Decide si las eliminaciones o las etapas agregadas justifican reconstruir; si es así la
+     * deja programada y no vuelve a responder true hasta que termine reconstruir
+     * @return true si quien llama debe invocar reconstruir
+     */
+    boolean programarReconstruccion() {
+        long quitados = eliminados.sum();
+        boolean conviene = etapas.length > MAXIMO_ETAPAS
+                || (quitados >= MINIMO_ELIMINADOS && 2 * quitados > insertados());
+        return conviene && programada.compareAndSet(false, true);
+    }
+
+    /**
+     * Reemplaza el filtro por uno construido a partir de los emails del almacén, sin detener
+     * las mutaciones concurrentes: las inserciones que ocurren mientras tanto se agregan a ambos
+     * @param emails vista de las claves del almacén (se recorre después de que termine todo
+     *               cambio empezado antes de la reconstrucción)
+     * @param cantidad cantidad aproximada de emails, para dimensionar la primera etapa
+     */
+    synchronized void reconstruir(Iterable<String> emails, int cantidad) {
+        long quitados = eliminados.sum();
+        synchronized (crecimiento) {
+            enReconstruccion = new Etapa[]{new Etapa(Math.max(1024L, 2L * cantidad), tasaFalsosPositivos / 2)};
+        }
+
+        // Un cambio de la época anterior pudo agregar su email sólo al filtro viejo: al esperar
+        // a que termine, el email ya es visible en el almacén y el recorrido lo encuentra
+        int anterior = epoca;
+        epoca = 1 - anterior;
+        while (enCurso[anterior].sum() != 0) {
+            LockSupport.parkNanos(10_000);
+        }
+
+        for (String email : emails) {
+            agregar(enReconstruccion, hash(email));
+        }
+        synchronized (crecimiento) {
+            etapas = enReconstruccion;
+            enReconstruccion = null;
+        }
+        eliminados.add(-quitados);
+        programada.set(false);
+    }
+
+    long insertados() {
+        long total = 0;
+        for (Etapa etapa : etapas) {
+            total += etapa.insertados.get();
+        }
+        return total;
+    }
+
+    int cantidadEtapas() {
+        return etapas.length;
+    }
+
+    private void agregar(Etapa[] destino, long hash) {
+        Etapa ultima = destino[destino.length - 1];
+        ultima.agregar(hash);
+        if (ultima.insertados.incrementAndGet() == ultima.capacidad) {
+            crecer(destino, ultima);
+        }
+    }
+
+    private void crecer(Etapa[] destino, Etapa llena) {
+        synchronized (crecimiento) {
+            if (destino != etapas && destino != enReconstruccion) {
+                return;
+            }
+            Etapa[] mayores = new Etapa[destino.length + 1];
+            System.arraycopy(destino, 0, mayores, 0, destino.length);
+            mayores[destino.length] = new Etapa(2 * llena.capacidad, llena.tasa / 2);
+            if (destino == etapas) {
+                etapas = mayores;
+            } else {
+                enReconstruccion = mayores;
+            }
+        }
+    }
+
+    /**
+     * String.hashCode mezclado a 64 bits (finalizador de MurmurHash3)
+     */
+    static long hash(String email) {
+        long h = email.hashCode() * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Un filtro de Bloom por bloques de capacidad y tasa fijas
+     */
+    static final class Etapa {
+        // Constantes de PCG; los 9 bits altos de cada paso son la posición dentro del bloque
+        private static final long MULTIPLICADOR = 0x5851F42D4C957F2DL;
+        private static final long INCREMENTO = 0x14057B7EF767814FL;
+
+        final long capacidad;
+        final double tasa;
+        final AtomicLong insertados = new AtomicLong();
+        private final long[] bits;
+        private final int bloques;
+        private final int k;
+
+        Etapa(long capacidad, double tasa) {
+            this.capacidad = Math.max(1, capacidad);
+            this.tasa = tasa;
+            // Se parte de los bits de un filtro clásico y se agregan hasta que el modelo por bloques alcance la tasa
+            double bitsPorEmail = -Math.log(tasa) / (Math.log(2) * Math.log(2));
+            int mejorK;
+            while (true) {
+                mejorK = 1;
+                for (int prueba = 2; prueba <= 16; prueba++) {
+                    if (tasaPorBloques(bitsPorEmail, prueba) < tasaPorBloques(bitsPorEmail, mejorK)) {
+                        mejorK = prueba;
+                    }
+                }
+                if (tasaPorBloques(bitsPorEmail, mejorK) <= tasa || bitsPorEmail > 64) {
+                    break;
+                }
+                bitsPorEmail *= 1.05;
+            }
+            long bloquesNecesarios = (long) Math.ceil(this.capacidad * bitsPorEmail / BITS_BLOQUE);
+            this.bloques = (int) Math.min(Integer.MAX_VALUE / LONGS_BLOQUE, Math.max(1, bloquesNecesarios));
+            this.bits = new long[bloques * LONGS_BLOQUE];
+            this.k = mejorK;
+        }
+
+        /**
+         * Tasa de falsos positivos de un filtro por bloques: la de un filtro clásico de un bloque,
+         * promediada sobre la cantidad de emails por bloque (Poisson). Con tasas bajas los bloques
+         * más cargados dominan y hacen falta bastantes más bits que en un filtro clásico.
+         */
+        static double tasaPorBloques(double bitsPorEmail, int k) {
+            double media = BITS_BLOQUE / bitsPorEmail;
+            double probabilidad = Math.exp(-media);
+            double total = 0;
+            int hasta = (int) (media + 12 * Math.sqrt(media) + 20);
+            for (int cargados = 0; cargados <= hasta; cargados++) {
+                total += probabilidad * Math.pow(1 - Math.pow(1 - 1.0 / BITS_BLOQUE, (double) k * cargados), k);
+                probabilidad *= media / (cargados + 1);
+            }
+            return total;
+        }
+
+        // Los 32 bits altos del hash eligen el bloque; los k bits dentro de él salen de un generador
+        // congruencial sembrado con el hash. El doble hashing (a + i * b) no sirve en un bloque tan
+        // chico: hay pocos pares distintos y los emails de un mismo bloque comparten casi todos sus bits
+        void agregar(long hash) {
+            int base = bloque(hash);
+            long generador = hash;
+            for (int i = 0; i < k; i++) {
+                generador = generador * MULTIPLICADOR + INCREMENTO;
+                int bit = (int) (generador >>> 55);
+                long mascara = 1L << bit;
+                int indice = base + (bit >>> 6);
+                if (((long) BITS.getAcquire(bits, indice) & mascara) == 0) {
+                    BITS.getAndBitwiseOrRelease(bits, indice, mascara);
+                }
+            }
+        }
+
+        boolean contiene(long hash) {
+            int base = bloque(hash);
+            long generador = hash;
+            for (int i = 0; i < k; i++) {
+                generador = generador * MULTIPLICADOR + INCREMENTO;
+                int bit = (int) (generador >>> 55);
+                if (((long) BITS.getAcquire(bits, base + (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Multiplicación en lugar de módulo: cualquier cantidad de bloques, sin división
+        private int bloque(long hash) {
+            return (int) (((hash >>> 32) * bloques) >>> 32) * LONGS_BLOQUE;
+        }
+    }
+}
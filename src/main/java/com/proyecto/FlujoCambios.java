@@ -0,0 +1,116 @@
+package com.proyecto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Anillo de los últimos cambios de GestorUsuarios, para quienes necesitan seguir las mutaciones
+ * (un índice de búsqueda, auditoría) sin copiar el almacén
+ *
+ * Cada mutación toma su secuencia con un getAndIncrement y se publica en la ranura
+ * secuencia % capacidad, dentro de la sección crítica del email: los cambios de un mismo
+ * usuario quedan en el orden en que se aplicaron. Escribir nunca espera a los lectores. Cuando
+ * el anillo da la vuelta, el cambio nuevo reemplaza al de hace capacidad secuencias, y un
+ * lector que todavía no lo había leído lo ve como perdido en lugar de frenar a nadie.
+ *
+ * Cada lector lleva su propio cursor (SuscripcionCambios). Una secuencia ya tomada pero todavía
+ * no publicada corta la lectura ahí; el cambio aparece en la siguiente.
+ *
+ * Las secuencias parten de la hora de arranque corrida 20 bits: crecen también entre
+ * ejecuciones del gestor, y un cursor de una ejecución anterior queda antes de lo retenido y
+ * se informa como perdido (el anillo vive en memoria).
+ */
+final class FlujoCambios implements ObservadorUsuarios {
+
+    private final AtomicReferenceArray<CambioUsuario> anillo;
+    private final int mascara;
+    private final long primera;
+    private final AtomicLong siguiente;
+
+    /**
+     * @param capacidad cambios retenidos (se redondea a la potencia de dos siguiente)
+     */
+    FlujoCambios(int capacidad) {
+        int potencia = Integer.highestOneBit(Math.max(2, capacidad - 1)) << 1;
+        this.anillo = new AtomicReferenceArray<>(potencia);
+        this.mascara = potencia - 1;
+        this.primera = System.currentTimeMillis() << 20;
+        this.siguiente = new AtomicLong(primera);
+    }
+
+    // ========== PUBLICACIÓN ==========
+
+    @Override
+    public void usuarioRegistrado(Usuario usuario) {
+        publicar(CambioUsuario.Tipo.REGISTRO, usuario);
+    }
+
+    @Override
+    public void usuarioEliminado(Usuario usuario) {
+        publicar(CambioUsuario.Tipo.ELIMINACION, usuario);
+    }
+
+    @Override
+    public void nombreActualizado(Usuario usuario, String nombreAnterior) {
+        publicar(CambioUsuario.Tipo.NOMBRE, usuario);
+    }
+
+    @Override
+    public void passwordCambiada(Usuario usuario) {
+        publicar(CambioUsuario.Tipo.PASSWORD, usuario);
+    }
+
+    private void publicar(CambioUsuario.Tipo tipo, Usuario usuario) {
+        long secuencia = siguiente.getAndIncrement();
+        CambioUsuario cambio = new CambioUsuario(secuencia, tipo, usuario.getEmail(), usuario.getNombre(),
+                System.currentTimeMillis());
+        int ranura = (int) secuencia & mascara;
+        while (true) {
+            CambioUsuario actual = anillo.get(ranura);
+            // Un escritor demorado no pisa a uno que ya dio la vuelta: su cambio ya cuenta como perdido
+            if (actual != null && actual.secuencia > secuencia) {
+                return;
+            }
+            if (anillo.compareAndSet(ranura, actual, cambio)) {
+                return;
+            }
+        }
+    }
+
+    // ========== LECTURA ==========
+
+    /**
+     * @return secuencia que tomará el próximo cambio
+     */
+    long siguienteSecuencia() {
+        return siguiente.get();
+    }
+
+    /**
+     * Lee desde el cursor hasta maximo cambios publicados en orden, salteando los perdidos
+     */
+    LoteCambios leer(long cursor, int maximo) {
+        long limite = siguiente.get();
+        List<CambioUsuario> cambios = new ArrayList<>((int) Math.min(maximo, Math.max(0, limite - cursor)));
+        long perdidos = 0;
+        while (cambios.size() < maximo && cursor < limite) {
+            CambioUsuario cambio = anillo.get((int) cursor & mascara);
+            if (cambio != null && cambio.secuencia == cursor) {
+                cambios.add(cambio);
+                cursor++;
+            } else if (cursor < Math.max(primera, limite - anillo.length())
+                    || (cambio != null && cambio.secuencia > cursor)) {
+                // Ya se descartó: seguir desde lo más viejo que el anillo todavía puede tener
+                long retenida = Math.max(Math.max(cursor + 1, primera), siguiente.get() - anillo.length());
+                perdidos += retenida - cursor;
+                cursor = retenida;
+            } else {
+                // Tomada pero todavía no publicada
+                break;
+            }
+        }
+        return new LoteCambios(cambios, cursor, perdidos, Math.max(0, siguiente.get() - cursor));
+    }
+}
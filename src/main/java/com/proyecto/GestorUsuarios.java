@@ -1,28 +1,224 @@
 package com.proyecto;
 
+import com.proyecto.MetricasGestor.Operacion;
+import com.proyecto.MetricasGestor.Resultado;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
 
 /**
  * Clase GestorUsuarios - Sistema de gestión de usuarios
+ *
+ * Puede crearse en modo concurrente, en cuyo caso los usuarios se guardan en un
+ * ConcurrentHashMap y todas las operaciones son seguras entre hilos sin un candado
+ * global: el registro es atómico (registrar-si-ausente) y las lecturas no bloquean.
+ *
+ * Con ConfiguracionGestor.persistencia(...) el gestor es durable: cada mutación se
+ * confirma en un diario en disco antes de retornar y el estado se recupera al crearlo.
+ * En ese modo el gestor debe cerrarse con close().
+ *
+ * Las passwords se guardan derivadas con PBKDF2 (ver Credencial). Como verificar una
+ * password cuesta decenas de milisegundos, los logins exitosos recientes se recuerdan en
+ * una CacheVerificaciones y un login repetido con la misma password no vuelve a pasar por el KDF.
+ *
+ * Además del email, los usuarios se pueden buscar por prefijo del nombre con un índice
+ * ordenado (IndiceNombres) que se actualiza en cada mutación, y consultar por fecha de alta
+ * (cantidades, páginas e histogramas por ventana de tiempo) con IndiceFechas.
+ *
+ * Con ConfiguracionGestor.almacen(TipoAlmacen.COLUMNAR) los usuarios se guardan en columnas
+ * primitivas (AlmacenColumnar) y los Usuario devueltos son vistas sobre esas columnas. Con
+ * TipoAlmacen.VERSIONADO cada cambio crea una versión nueva del usuario en un árbol persistente
+ * (AlmacenVersionado) e instantanea() da lecturas consistentes sin frenar a los escritores.
+ * Con ConfiguracionGestor.almacenEnDisco(...) los usuarios viven en disco y en memoria sólo
+ * quedan los más leídos (AlmacenEnDisco); el gestor debe cerrarse con close().
+ *
+ * Con ConfiguracionGestor.metricas(...) cada operación se cuenta por resultado y se mide su
+ * latencia en un RegistroMetricas, exportable en formato Prometheus (ver MetricasGestor).
+ * Los registros, logins, cambios de password e importaciones masivas emiten además eventos
+ * de Java Flight Recorder (ver EventoUsuario) que sólo cuestan algo durante una grabación.
+ *
+ * Para pasar del heap de una JVM, varios gestores pueden repartirse los usuarios detrás de
+ * un CoordinadorShards, que ofrece las mismas OperacionesUsuarios.
  */
-public class GestorUsuarios {
+public class GestorUsuarios implements OperacionesUsuarios, AutoCloseable {
 
     // ========== ATRIBUTOS ==========
 
+    // En modo de un solo hilo la importación masiva puede reemplazarlo por uno con más capacidad
     private Map<String, Usuario> usuarios;
+    private final boolean concurrente;
+    private int capacidadReservada;
+
+    // Todas las operaciones buscan por la forma canónica del email que reciben
+    private final ClaveEmail claveEmail;
+
+    // Reciben cada mutación dentro de la sección crítica del email afectado
+    private final List<ObservadorUsuarios> observadores = new ArrayList<>();
+
+    // Sólo en modo durable
+    private final PersistenciaUsuarios persistencia;
+
+    private final int iteracionesKdf;
+
+    // Null si la caché de verificaciones está desactivada
+    private final CacheVerificaciones verificaciones;
+
+    // Null si el índice por nombre está desactivado
+    private final IndiceNombres nombres;
+
+    // Null si el listado paginado está desactivado
+    private final IndiceEmails emails;
 
-    // Expresión regular para validar emails
-    private static final Pattern EMAIL_PATTERN =
-            Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+    // Null si el índice por fecha de creación está desactivado
+    private final IndiceFechas fechas;
+
+    // Null si el filtro de emails está desactivado
+    private final FiltroEmails filtro;
+
+    // Null si el flujo de cambios está desactivado
+    private final FlujoCambios cambios;
+
+    // Null si no se publican métricas
+    private final MetricasGestor metricas;
+
+    // Registros que la importación masiva valida en paralelo antes de insertarlos
+    private static final int TAMANO_BLOQUE_LOTE = 64 * 1024;
+    private static final int UMBRAL_VALIDACION_PARALELA = 1024;
+
+    // Intervalos máximos de histogramaAltas (unos dos años de barras por minuto)
+    private static final int MAXIMO_BARRAS = 1 << 20;
 
     // ========== CONSTRUCTOR ==========
 
     /**
-     * Constructor que inicializa el gestor de usuarios
+     * Constructor que inicializa el gestor de usuarios (modo de un solo hilo)
      */
     public GestorUsuarios() {
-        this.usuarios = new HashMap<>();
+        this(false);
+    }
+
+    /**
+     * Constructor que permite elegir el modo concurrente
+     * @param concurrente true para usar un almacenamiento seguro entre hilos
+     */
+    public GestorUsuarios(boolean concurrente) {
+        this(new ConfiguracionGestor().concurrente(concurrente));
+    }
+
+    /**
+     * Constructor con todas las opciones; en modo durable recupera el estado guardado
+     * @param configuracion opciones del gestor
+     * @throws UncheckedIOException si no se puede recuperar el estado persistido
+     * @throws IllegalArgumentException si el almacén DISCO no tiene directorio o se combina con persistencia
+     */
+    public GestorUsuarios(ConfiguracionGestor configuracion) {
+        this.concurrente = configuracion.esConcurrente();
+        this.capacidadReservada = configuracion.getCapacidadInicial();
+        this.claveEmail = configuracion.getClaveEmail();
+        if (configuracion.getTipoAlmacen() == TipoAlmacen.COLUMNAR) {
+            this.usuarios = new AlmacenColumnar(capacidadReservada);
+        } else if (configuracion.getTipoAlmacen() == TipoAlmacen.VERSIONADO) {
+            this.usuarios = new AlmacenVersionado();
+        } else if (configuracion.getTipoAlmacen() == TipoAlmacen.DISCO) {
+            if (configuracion.getDirectorioDisco() == null) {
+                throw new IllegalArgumentException("El almacén DISCO se configura con almacenEnDisco(directorio, memoria)");
+            }
+            if (configuracion.getDirectorioPersistencia() != null) {
+                throw new IllegalArgumentException("El almacén DISCO ya es durable; no se combina con persistencia");
+            }
+            try {
+                this.usuarios = AlmacenEnDisco.abrir(configuracion.getDirectorioDisco(),
+                        configuracion.isSincronizarDisco(), capacidadReservada, configuracion.getMemoriaCache());
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo abrir el almacén en disco", e);
+            }
+        } else {
+            this.usuarios = concurrente ? new ConcurrentHashMap<>(capacidadReservada) : nuevoMapa(capacidadReservada);
+        }
+        if (configuracion.getDirectorioPersistencia() != null) {
+            try {
+                this.persistencia = PersistenciaUsuarios.abrir(configuracion, usuarios);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo recuperar el almacén de usuarios", e);
+            }
+            observadores.add(persistencia);
+        } else {
+            this.persistencia = null;
+        }
+        this.iteracionesKdf = configuracion.getIteracionesKdf();
+        if (configuracion.getMaximoVerificaciones() > 0) {
+            this.verificaciones = new CacheVerificaciones(configuracion.getMaximoVerificaciones(),
+                    configuracion.getDuracionVerificacionesMs());
+            observadores.add(verificaciones);
+        } else {
+            this.verificaciones = null;
+        }
+        this.nombres = configuracion.isIndiceNombres() ? agregarIndice(new IndiceNombres(concurrente)) : null;
+        this.emails = configuracion.isListadoPaginado() ? agregarIndice(new IndiceEmails(concurrente)) : null;
+        this.fechas = configuracion.isIndiceFechas() ? agregarIndice(new IndiceFechas()) : null;
+        this.filtro = configuracion.getFiltroEmails() > 0
+                ? agregarIndice(new FiltroEmails(Math.max(1024, Math.max(usuarios.size(), capacidadReservada)),
+                        configuracion.getFiltroEmails()))
+                : null;
+        if (configuracion.getFlujoCambios() > 0) {
+            // El último observador: publica cuando los demás ya aceptaron el cambio
+            this.cambios = new FlujoCambios(configuracion.getFlujoCambios());
+            observadores.add(cambios);
+        } else {
+            this.cambios = null;
+        }
+        this.metricas = configuracion.getMetricas() != null ? new MetricasGestor(configuracion.getMetricas(), this) : null;
+        // Tanto el modo durable como el almacén en disco traen usuarios guardados con otra ClaveEmail
+        boolean recuperado = persistencia != null || usuarios instanceof AlmacenEnDisco;
+        if (recuperado && claveEmail != ClaveEmail.EXACTA) {
+            try {
+                canonizarRecuperados();
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Pasa a su forma canónica los emails recuperados del disco que se guardaron con otra
+     * ClaveEmail; cada cambio queda en el diario (o en el almacén en disco) como una
+     * extracción y una importación
+     * @throws IllegalStateException si dos emails recuperados tienen la misma forma canónica
+     */
+    private void canonizarRecuperados() {
+        Map<String, String> cambios = new HashMap<>();
+        for (String email : usuarios.keySet()) {
+            String clave = claveEmail.canonica(email);
+            if (!clave.equals(email)) {
+                String otro = cambios.put(clave, email);
+                if (otro != null || usuarios.containsKey(clave)) {
+                    throw new IllegalStateException("Los emails " + email + " y " + (otro != null ? otro : clave)
+                            + " son la misma cuenta con ClaveEmail." + claveEmail
+                            + "; abrir con ClaveEmail.EXACTA para resolverlo");
+                }
+            }
+        }
+        for (Map.Entry<String, String> cambio : cambios.entrySet()) {
+            Usuario usuario = extraerUsuario(cambio.getValue());
+            importarUsuario(new Usuario(cambio.getKey(), usuario.getCredencial(), usuario.getNombre(),
+                    usuario.getFechaCreacion()));
+        }
+    }
+
+    private <T extends ObservadorUsuarios> T agregarIndice(T indice) {
+        // Los usuarios recuperados del disco no pasaron por los observadores
+        for (Usuario usuario : usuarios.values()) {
+            indice.usuarioRegistrado(usuario);
+        }
+        observadores.add(indice);
+        return indice;
     }
 
     // ========== MÉTODOS PRINCIPALES ==========
@@ -36,30 +232,158 @@ public class GestorUsuarios {
      * @throws IllegalArgumentException si algún parámetro es inválido
      */
     public boolean registrarUsuario(String email, String password, String nombre) {
+        long inicio = iniciarMedicion();
+        email = claveEmail.canonica(email);
+        EventoRegistro evento = new EventoRegistro();
+        evento.begin();
 
-        // Verificar si el usuario ya existe
-        if (usuarios.containsKey(email)) {
-            return false; // Usuario ya existe
+        ResultadoRegistro validacion = validarRegistro(email, password, nombre);
+        if (validacion != ResultadoRegistro.ACEPTADO) {
+            terminar(Operacion.REGISTRO, validacion == ResultadoRegistro.DUPLICADO
+                    ? Resultado.DUPLICADO : Resultado.ERROR_VALIDACION, inicio, evento, email);
         }
-        // Validar email
-        if (!validarEmail(email)) {
-            throw new IllegalArgumentException("Email inválido");
+        switch (validacion) {
+            case DUPLICADO:
+                return false; // Usuario ya existe
+            case EMAIL_INVALIDO:
+                throw new IllegalArgumentException("Email inválido");
+            case PASSWORD_INVALIDA:
+                throw new IllegalArgumentException("Password debe tener al menos 5 caracteres");
+            case NOMBRE_INVALIDO:
+                throw new IllegalArgumentException("Nombre no puede estar vacío");
+            default:
+                break;
         }
 
-        // Validar password
-        if (password == null || password.length() < 5) {
-            throw new IllegalArgumentException("Password debe tener al menos 5 caracteres");
+        // Crear y registrar el usuario (atómico: otro hilo pudo registrarlo mientras validábamos)
+        long fase = evento.iniciarFase();
+        Usuario usuario = crearUsuario(email, password, nombre);
+        evento.derivacion = EventoUsuario.duracionFase(fase);
+        fase = evento.iniciarFase();
+        int epoca = iniciarCambio();
+        boolean registrado = false;
+        try {
+            registrado = insertar(usuario);
+            return registrado;
+        } finally {
+            terminarCambio(epoca, registrado);
+            evento.insercion = EventoUsuario.duracionFase(fase);
+            terminar(Operacion.REGISTRO, registrado ? Resultado.EXITO : Resultado.DUPLICADO, inicio, evento, email);
         }
+    }
 
-        // Validar nombre
-        if (nombre == null || nombre.trim().isEmpty()) {
-            throw new IllegalArgumentException("Nombre no puede estar vacío");
+    /**
+     * Registra muchos usuarios de una vez. Los registros se validan (y sus passwords se
+     * derivan) en paralelo en el ForkJoinPool común y luego se insertan en orden; un registro inválido no detiene
+     * el lote sino que queda anotado en el resultado. Si un email se repite dentro del
+     * lote gana la primera aparición.
+     * @param registros registros a importar
+     * @param cantidadEstimada cantidad aproximada de registros (0 si se desconoce), para reservar capacidad
+     * @return resultado de cada registro, en el orden de entrada
+     */
+    public ResultadoLote registrarLote(Iterator<RegistroUsuario> registros, int cantidadEstimada) {
+        EventoRegistroLote evento = new EventoRegistroLote();
+        evento.begin();
+        if (cantidadEstimada > 0) {
+            reservarCapacidad(usuarios.size() + cantidadEstimada);
+        }
+        ResultadoLote resultado = new ResultadoLote(cantidadEstimada);
+        RegistroUsuario[] bloque = new RegistroUsuario[TAMANO_BLOQUE_LOTE];
+        Usuario[] validados = new Usuario[TAMANO_BLOQUE_LOTE];
+        byte[] codigos = new byte[TAMANO_BLOQUE_LOTE];
+        while (registros.hasNext()) {
+            int cantidad = 0;
+            while (cantidad < bloque.length && registros.hasNext()) {
+                bloque[cantidad++] = registros.next();
+            }
+            ForkJoinPool.commonPool().invoke(new ValidacionLote(bloque, validados, codigos, 0, cantidad));
+            insertarBloque(validados, codigos, cantidad);
+            resultado.agregar(codigos, cantidad);
+            Arrays.fill(bloque, 0, cantidad, null);
+            Arrays.fill(validados, 0, cantidad, null);
+        }
+        if (metricas != null) {
+            metricas.registrarLote(resultado);
         }
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.registros = resultado.getCantidad();
+            evento.aceptados = resultado.contar(ResultadoRegistro.ACEPTADO);
+            evento.duplicados = resultado.contar(ResultadoRegistro.DUPLICADO);
+            evento.invalidos = evento.registros - evento.aceptados - evento.duplicados;
+            evento.commit();
+        }
+        return resultado;
+    }
+
+    /**
+     * Registra muchos usuarios de una vez (ver registrarLote(Iterator, int))
+     * @param registros registros a importar
+     * @return resultado de cada registro, en el orden de entrada
+     */
+    public ResultadoLote registrarLote(Stream<RegistroUsuario> registros) {
+        return registrarLote(registros.iterator(), 0);
+    }
 
-        // Crear y registrar el usuario
-        Usuario usuario = new Usuario(email, password, nombre);
-        usuarios.put(email, usuario);
-        return true;
+    private void insertarBloque(Usuario[] validados, byte[] codigos, int cantidad) {
+        // Una sola sección de cambio por bloque: en modo durable el bloque se confirma con un único fsync
+        int epoca = iniciarCambio();
+        boolean huboCambio = false;
+        try {
+            for (int i = 0; i < cantidad; i++) {
+                if (codigos[i] == ResultadoRegistro.ACEPTADO.codigo()) {
+                    if (insertar(validados[i])) {
+                        huboCambio = true;
+                    } else {
+                        codigos[i] = ResultadoRegistro.DUPLICADO.codigo();
+                    }
+                }
+            }
+        } finally {
+            terminarCambio(epoca, huboCambio);
+        }
+    }
+
+    /**
+     * Valida en paralelo un rango de registros y crea los usuarios aceptados
+     */
+    private final class ValidacionLote extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RegistroUsuario[] registros;
+        private final Usuario[] validados;
+        private final byte[] codigos;
+        private final int desde;
+        private final int hasta;
+
+        ValidacionLote(RegistroUsuario[] registros, Usuario[] validados, byte[] codigos, int desde, int hasta) {
+            this.registros = registros;
+            this.validados = validados;
+            this.codigos = codigos;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > UMBRAL_VALIDACION_PARALELA) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new ValidacionLote(registros, validados, codigos, desde, medio),
+                        new ValidacionLote(registros, validados, codigos, medio, hasta));
+                return;
+            }
+            for (int i = desde; i < hasta; i++) {
+                RegistroUsuario registro = registros[i];
+                String email = registro == null ? null : claveEmail.canonica(registro.getEmail());
+                ResultadoRegistro resultado = registro == null
+                        ? ResultadoRegistro.EMAIL_INVALIDO
+                        : validarRegistro(email, registro.getPassword(), registro.getNombre());
+                if (resultado == ResultadoRegistro.ACEPTADO) {
+                    validados[i] = crearUsuario(email, registro.getPassword(), registro.getNombre());
+                }
+                codigos[i] = resultado.codigo();
+            }
+        }
     }
 
     /**
@@ -69,18 +393,28 @@ public class GestorUsuarios {
      * @return Usuario si la autenticación es exitosa, null si falla
      */
     public Usuario autenticar(String email, String password) {
-        // Verificar si el usuario existe
-        if (!usuarios.containsKey(email)) {
+        long inicio = iniciarMedicion();
+        EventoAutenticacion evento = new EventoAutenticacion();
+        evento.begin();
+        email = claveEmail.canonica(email);
+
+        // Verificar si el usuario existe (una sola búsqueda en el mapa)
+        Usuario usuario = buscarClave(email);
+        if (usuario == null) {
+            terminar(Operacion.LOGIN, Resultado.USUARIO_DESCONOCIDO, inicio, evento, email);
             return null;
         }
 
-        Usuario usuario = usuarios.get(email);
-
         // Verificar contraseña
-        if (usuario.getPassword().equals(password)) {
+        long fase = evento.iniciarFase();
+        boolean correcta = verificarPassword(usuario, password);
+        evento.verificacion = EventoUsuario.duracionFase(fase);
+        if (correcta) {
+            terminar(Operacion.LOGIN, Resultado.EXITO, inicio, evento, email);
             return usuario;
         }
 
+        terminar(Operacion.LOGIN, Resultado.PASSWORD_INCORRECTA, inicio, evento, email);
         return null; // Contraseña incorrecta
     }
 
@@ -90,7 +424,27 @@ public class GestorUsuarios {
      * @return true si el usuario fue eliminado, false si no existía
      */
     public boolean eliminarUsuario(String email) {
-        return usuarios.remove(email) != null;
+        long inicio = iniciarMedicion();
+        email = claveEmail.canonica(email);
+        if (email == null) {
+            medir(Operacion.ELIMINACION, Resultado.USUARIO_DESCONOCIDO, inicio);
+            return false;
+        }
+        Usuario[] eliminado = new Usuario[1];
+        int epoca = iniciarCambio();
+        try {
+            usuarios.computeIfPresent(email, (clave, actual) -> {
+                for (ObservadorUsuarios observador : observadores) {
+                    observador.usuarioEliminado(actual);
+                }
+                eliminado[0] = actual;
+                return null;
+            });
+            return eliminado[0] != null;
+        } finally {
+            terminarCambio(epoca, eliminado[0] != null);
+            medir(Operacion.ELIMINACION, eliminado[0] != null ? Resultado.EXITO : Resultado.USUARIO_DESCONOCIDO, inicio);
+        }
     }
 
     /**
@@ -99,17 +453,271 @@ public class GestorUsuarios {
      * @return Usuario encontrado o null si no existe
      */
     public Usuario buscarUsuario(String email) {
-        return usuarios.get(email);
+        return buscarClave(claveEmail.canonica(email));
+    }
+
+    private Usuario buscarClave(String clave) {
+        return clave == null || (filtro != null && !filtro.puedeContener(clave)) ? null : usuarios.get(clave);
     }
 
     /**
-     * Obtiene una lista de todos los usuarios registrados
+     * Busca usuarios cuyo nombre empieza con un prefijo, sin distinguir mayúsculas ni acentos
+     * ("jose" encuentra a "José Álvarez"). Los resultados se ordenan por nombre y, entre
+     * homónimos, por email. Con el índice por nombre activo (por defecto) el costo depende del
+     * límite y no de la cantidad de usuarios.
+     * @param prefijo comienzo del nombre (vacío para listar desde el primero en orden alfabético)
+     * @param limite cantidad máxima de resultados
+     * @return usuarios encontrados, como mucho limite
+     * @throws IllegalArgumentException si el límite es negativo
+     */
+    public List<Usuario> buscarPorNombre(String prefijo, int limite) {
+        if (limite < 0) {
+            throw new IllegalArgumentException("El límite no puede ser negativo");
+        }
+        if (prefijo == null || limite == 0) {
+            return new ArrayList<>();
+        }
+        if (nombres != null) {
+            return nombres.buscar(prefijo, limite);
+        }
+        // Sin índice: recorrido completo con el mismo plegado y el mismo orden
+        String buscado = IndiceNombres.plegar(prefijo);
+        List<Usuario> encontrados = new ArrayList<>();
+        for (Usuario usuario : usuarios.values()) {
+            if (IndiceNombres.plegar(usuario.getNombre()).startsWith(buscado)) {
+                encontrados.add(usuario);
+            }
+        }
+        encontrados.sort(IndiceNombres.ORDEN);
+        return encontrados.size() > limite ? new ArrayList<>(encontrados.subList(0, limite)) : encontrados;
+    }
+
+    /**
+     * Obtiene una lista de todos los usuarios registrados. Copia el almacén completo: para
+     * exportar muchos usuarios conviene listarPagina o streamUsuarios. Con
+     * TipoAlmacen.VERSIONADO la lista sale de una sola instantánea.
      * @return Lista de todos los usuarios
      */
     public List<Usuario> listarUsuarios() {
         return new ArrayList<>(usuarios.values());
     }
 
+    /**
+     * Lista los usuarios por páginas en orden de email, sin copiar el almacén. Para recorrerlo
+     * completo se pide la primera página con cursor null y luego cada página con el cursor de
+     * la anterior, hasta que hayMas() sea false. Cada email aparece como mucho una vez aunque
+     * el almacén cambie entre páginas; los usuarios registrados detrás del cursor no aparecen.
+     * @param cursor getSiguienteCursor() de la página anterior, o null para la primera
+     * @param tamano cantidad máxima de usuarios por página
+     * @return página de usuarios
+     * @throws IllegalArgumentException si el tamaño no es positivo o el cursor no es válido
+     * @throws IllegalStateException si el listado paginado está desactivado en la configuración
+     */
+    public PaginaUsuarios listarPagina(String cursor, int tamano) {
+        if (tamano < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser al menos 1");
+        }
+        if (emails == null) {
+            throw new IllegalStateException("El listado paginado está desactivado");
+        }
+        return emails.pagina(cursor, tamano);
+    }
+
+    /**
+     * Vista perezosa de todos los usuarios, sin copiarlos: en orden de email si el listado
+     * paginado está activo, o en el orden del almacén si no. Admite recorrido paralelo
+     * (parallel()). En modo concurrente refleja las mutaciones que ocurren durante el recorrido
+     * sin fallar; en modo de un solo hilo el almacén no debe modificarse mientras se recorre.
+     * Para un recorrido que no vea los cambios posteriores ver instantanea().
+     * @return flujo de usuarios
+     */
+    public Stream<Usuario> streamUsuarios() {
+        return emails != null ? emails.stream() : usuarios.values().stream();
+    }
+
+    /**
+     * Toma en O(1) una instantánea del almacén: sus consultas ven todas el estado de este
+     * momento aunque los escritores sigan, y recorrerla no toma candados ni los frena
+     * @return instantánea del almacén
+     * @throws IllegalStateException si el almacén no es TipoAlmacen.VERSIONADO
+     */
+    public InstantaneaUsuarios instantanea() {
+        if (!(usuarios instanceof AlmacenVersionado)) {
+            throw new IllegalStateException("Las instantáneas requieren el almacén VERSIONADO");
+        }
+        return new InstantaneaUsuarios(((AlmacenVersionado) usuarios).version(), claveEmail);
+    }
+
+    /**
+     * Aciertos, fallos y desalojos de la caché en memoria del almacén en disco
+     * @return contadores de este momento
+     * @throws IllegalStateException si el almacén no es TipoAlmacen.DISCO
+     */
+    public EstadisticasCache obtenerEstadisticasCache() {
+        if (!(usuarios instanceof AlmacenEnDisco)) {
+            throw new IllegalStateException("Las estadísticas de caché requieren el almacén DISCO");
+        }
+        return ((AlmacenEnDisco) usuarios).estadisticas();
+    }
+
+    /**
+     * @return el almacén en disco, o null si el almacén es otro
+     */
+    AlmacenEnDisco almacenEnDisco() {
+        return usuarios instanceof AlmacenEnDisco ? (AlmacenEnDisco) usuarios : null;
+    }
+
+    // ========== CONSULTAS POR FECHA DE ALTA ==========
+
+    /**
+     * Cuenta los usuarios creados en [desde, hasta). Con el índice por fechas activo cuesta
+     * O(log n); sin él recorre todo el almacén.
+     * @param desde inicio del rango (incluido)
+     * @param hasta fin del rango (excluido)
+     * @return cantidad de altas en el rango
+     * @throws IllegalArgumentException si alguna fecha es null o hasta es anterior a desde
+     */
+    public int contarAltas(Date desde, Date hasta) {
+        validarRango(desde, hasta);
+        long inicio = desde.getTime();
+        long fin = hasta.getTime();
+        if (fechas != null) {
+            return fechas.contar(inicio, fin);
+        }
+        int cantidad = 0;
+        for (Usuario usuario : usuarios.values()) {
+            long fecha = usuario.getFechaCreacion().getTime();
+            if (fecha >= inicio && fecha < fin) {
+                cantidad++;
+            }
+        }
+        return cantidad;
+    }
+
+    /**
+     * Lista por páginas los usuarios creados en [desde, hasta), en orden de fecha de creación
+     * y, entre los del mismo milisegundo, de email. Se retoma igual que listarPagina: con el
+     * cursor de la página anterior y las mismas fechas.
+     * @param desde inicio del rango (incluido)
+     * @param hasta fin del rango (excluido)
+     * @param cursor getSiguienteCursor() de la página anterior, o null para la primera
+     * @param tamano cantidad máxima de usuarios por página
+     * @return página de usuarios
+     * @throws IllegalArgumentException si alguna fecha es null, hasta es anterior a desde, el
+     *         tamaño no es positivo o el cursor no es válido
+     */
+    public PaginaUsuarios listarAltas(Date desde, Date hasta, String cursor, int tamano) {
+        validarRango(desde, hasta);
+        if (tamano < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser al menos 1");
+        }
+        long inicio = desde.getTime();
+        long fin = hasta.getTime();
+        if (fechas != null) {
+            return fechas.pagina(inicio, fin, cursor, tamano, usuarios::get);
+        }
+        // Sin índice: recorrido completo con el mismo orden y el mismo cursor
+        Object[] clave = cursor == null ? null : IndiceFechas.decodificar(cursor);
+        List<Usuario> encontrados = new ArrayList<>();
+        for (Usuario usuario : usuarios.values()) {
+            long fecha = usuario.getFechaCreacion().getTime();
+            if (fecha >= inicio && fecha < fin && (clave == null
+                    || IndiceFechas.comparar(fecha, usuario.getEmail(), (long) clave[0], (String) clave[1]) > 0)) {
+                encontrados.add(usuario);
+            }
+        }
+        encontrados.sort((a, b) -> IndiceFechas.comparar(a.getFechaCreacion().getTime(), a.getEmail(),
+                b.getFechaCreacion().getTime(), b.getEmail()));
+        if (encontrados.size() <= tamano) {
+            return new PaginaUsuarios(encontrados, null);
+        }
+        Usuario ultimo = encontrados.get(tamano - 1);
+        return new PaginaUsuarios(new ArrayList<>(encontrados.subList(0, tamano)),
+                IndiceFechas.codificar(ultimo.getFechaCreacion().getTime(), ultimo.getEmail()));
+    }
+
+    /**
+     * Cuenta las altas por intervalos consecutivos de igual duración a partir de desde, sin
+     * crear listas de usuarios: Duration.ofHours(1) da altas por hora y Duration.ofDays(1),
+     * por día (para días de calendario, desde debe ser una medianoche de la zona horaria que
+     * interese; los días con cambio de hora no duran 24 horas). El último intervalo se corta
+     * en hasta. Con el índice por fechas activo cada barra cuesta O(log n).
+     * @param desde inicio del primer intervalo (incluido)
+     * @param hasta fin del último intervalo (excluido)
+     * @param intervalo duración de cada intervalo
+     * @return cantidad de altas por intervalo, en orden
+     * @throws IllegalArgumentException si alguna fecha es null, hasta es anterior a desde, el
+     *         intervalo no es de al menos un milisegundo o resultarían más de 2^20 intervalos
+     */
+    public int[] histogramaAltas(Date desde, Date hasta, Duration intervalo) {
+        validarRango(desde, hasta);
+        if (intervalo == null || intervalo.toMillis() < 1) {
+            throw new IllegalArgumentException("El intervalo debe ser de al menos un milisegundo");
+        }
+        long inicio = desde.getTime();
+        long fin = hasta.getTime();
+        long paso = intervalo.toMillis();
+        long barras = (fin - inicio + paso - 1) / paso;
+        if (barras > MAXIMO_BARRAS) {
+            throw new IllegalArgumentException("El histograma tendría " + barras + " intervalos; el máximo es "
+                    + MAXIMO_BARRAS);
+        }
+        if (fechas != null) {
+            return fechas.histograma(inicio, fin, paso, (int) barras);
+        }
+        int[] cantidades = new int[(int) barras];
+        for (Usuario usuario : usuarios.values()) {
+            long fecha = usuario.getFechaCreacion().getTime();
+            if (fecha >= inicio && fecha < fin) {
+                cantidades[(int) ((fecha - inicio) / paso)]++;
+            }
+        }
+        return cantidades;
+    }
+
+    private static void validarRango(Date desde, Date hasta) {
+        if (desde == null || hasta == null) {
+            throw new IllegalArgumentException("Las fechas del rango no pueden ser null");
+        }
+        if (hasta.before(desde)) {
+            throw new IllegalArgumentException("El fin del rango es anterior a su inicio");
+        }
+    }
+
+    /**
+     * Sigue las mutaciones a partir de ahora: cada registro, eliminación, cambio de nombre y
+     * cambio de password llega a la suscripción con su número de secuencia (ver FlujoCambios)
+     * @return suscripción que lee desde el próximo cambio
+     * @throws IllegalStateException si el flujo de cambios está desactivado en la configuración
+     */
+    public SuscripcionCambios suscribirCambios() {
+        return suscribirCambios(flujoCambios().siguienteSecuencia());
+    }
+
+    /**
+     * Retoma el seguimiento de las mutaciones desde una secuencia ya conocida, como
+     * LoteCambios.getSiguienteSecuencia de la última lectura procesada
+     * @param desde secuencia del primer cambio a leer
+     * @return suscripción que lee desde esa secuencia; si el anillo ya la descartó, la primera
+     *         lectura lo informa en LoteCambios.getPerdidos
+     * @throws IllegalArgumentException si la secuencia todavía no se asignó
+     * @throws IllegalStateException si el flujo de cambios está desactivado en la configuración
+     */
+    public SuscripcionCambios suscribirCambios(long desde) {
+        FlujoCambios flujo = flujoCambios();
+        if (desde > flujo.siguienteSecuencia()) {
+            throw new IllegalArgumentException("La secuencia " + desde + " todavía no se asignó");
+        }
+        return new SuscripcionCambios(flujo, desde);
+    }
+
+    private FlujoCambios flujoCambios() {
+        if (cambios == null) {
+            throw new IllegalStateException("El flujo de cambios está desactivado");
+        }
+        return cambios;
+    }
+
     /**
      * Actualiza el nombre de un usuario existente
      * @param email Email del usuario a actualizar
@@ -118,21 +726,38 @@ public class GestorUsuarios {
      * @throws IllegalArgumentException si el nuevo nombre es inválido
      */
     public boolean actualizarUsuario(String email, String nuevoNombre) {
-        Usuario usuario = usuarios.get(email);
+        long inicio = iniciarMedicion();
+        email = claveEmail.canonica(email);
 
         // Verificar que el usuario existe
-        if (usuario == null) {
+        if (buscarClave(email) == null) {
+            medir(Operacion.ACTUALIZACION, Resultado.USUARIO_DESCONOCIDO, inicio);
             return false;
         }
 
         // Validar nuevo nombre
         if (nuevoNombre == null || nuevoNombre.trim().isEmpty()) {
+            medir(Operacion.ACTUALIZACION, Resultado.ERROR_VALIDACION, inicio);
             throw new IllegalArgumentException("Nuevo nombre no puede estar vacío");
         }
 
-        // Actualizar nombre
-        usuario.setNombre(nuevoNombre);
-        return true;
+        // Actualizar nombre (el usuario pudo eliminarse entretanto)
+        int epoca = iniciarCambio();
+        boolean actualizado = false;
+        try {
+            actualizado = usuarios.computeIfPresent(email, (clave, actual) -> {
+                String anterior = actual.getNombre();
+                actual.setNombre(nuevoNombre);
+                for (ObservadorUsuarios observador : observadores) {
+                    observador.nombreActualizado(actual, anterior);
+                }
+                return actual;
+            }) != null;
+            return actualizado;
+        } finally {
+            terminarCambio(epoca, actualizado);
+            medir(Operacion.ACTUALIZACION, actualizado ? Resultado.EXITO : Resultado.USUARIO_DESCONOCIDO, inicio);
+        }
     }
 
     /**
@@ -144,32 +769,325 @@ public class GestorUsuarios {
      * @throws IllegalArgumentException si la nueva contraseña es inválida
      */
     public boolean cambiarPassword(String email, String passwordActual, String nuevaPassword) {
-        Usuario usuario = usuarios.get(email);
-
-        // Verificar que el usuario existe y la contraseña actual es correcta
-        if (usuario == null || !usuario.getPassword().equals(passwordActual)) {
+        long inicio = iniciarMedicion();
+        EventoCambioPassword evento = new EventoCambioPassword();
+        evento.begin();
+        email = claveEmail.canonica(email);
+        Usuario usuario = buscarClave(email);
+        if (usuario == null) {
+            terminar(Operacion.CAMBIO_PASSWORD, Resultado.USUARIO_DESCONOCIDO, inicio, evento, email);
             return false;
         }
 
-        // Validar nueva contraseña
-        if (nuevaPassword == null || nuevaPassword.length() < 5) {
-            throw new IllegalArgumentException("Nueva password debe tener al menos 6 caracteres");
+        // Candado por usuario: dos cambios simultáneos con la misma password actual no pueden ganar ambos
+        // (con el almacén columnar cada búsqueda da otra vista; ahí lo garantiza la comparación de credenciales)
+        synchronized (usuario) {
+            // Verificar que la contraseña actual es correcta
+            Credencial verificada = usuario.getCredencial();
+            long fase = evento.iniciarFase();
+            boolean correcta = verificarPassword(email, verificada, passwordActual);
+            evento.verificacion = EventoUsuario.duracionFase(fase);
+            if (!correcta) {
+                terminar(Operacion.CAMBIO_PASSWORD, Resultado.PASSWORD_INCORRECTA, inicio, evento, email);
+                return false;
+            }
+
+            // Validar nueva contraseña
+            if (nuevaPassword == null || nuevaPassword.length() < 5) {
+                terminar(Operacion.CAMBIO_PASSWORD, Resultado.ERROR_VALIDACION, inicio, evento, email);
+                throw new IllegalArgumentException("Nueva password debe tener al menos 6 caracteres");
+            }
+            fase = evento.iniciarFase();
+            Credencial nueva = Credencial.crear(nuevaPassword, iteracionesKdf);
+            evento.derivacion = EventoUsuario.duracionFase(fase);
+
+            // Cambiar contraseña, sólo si el usuario no fue eliminado, reemplazado ni cambió de password entretanto
+            boolean[] cambiada = new boolean[1];
+            int epoca = iniciarCambio();
+            try {
+                usuarios.computeIfPresent(email, (clave, actual) -> {
+                    if (actual.getCredencial().equals(verificada)) {
+                        actual.setCredencial(nueva);
+                        for (ObservadorUsuarios observador : observadores) {
+                            observador.passwordCambiada(actual);
+                        }
+                        cambiada[0] = true;
+                    }
+                    return actual;
+                });
+                return cambiada[0];
+            } finally {
+                terminarCambio(epoca, cambiada[0]);
+                // Si no se cambió, la password verificada dejó de ser la actual entretanto
+                terminar(Operacion.CAMBIO_PASSWORD, cambiada[0] ? Resultado.EXITO : Resultado.PASSWORD_INCORRECTA,
+                        inicio, evento, email);
+            }
+        }
+    }
+
+    // ========== CREDENCIALES ==========
+
+    private Usuario crearUsuario(String email, String password, String nombre) {
+        return new Usuario(email, Credencial.crear(password, iteracionesKdf), nombre, new Date());
+    }
+
+    private boolean verificarPassword(Usuario usuario, String password) {
+        return verificarPassword(usuario.getEmail(), usuario.getCredencial(), password);
+    }
+
+    private boolean verificarPassword(String email, Credencial credencial, String password) {
+        if (verificaciones == null) {
+            return credencial.verificar(password);
+        }
+        return verificaciones.verificar(email, password, credencial);
+    }
+
+    // ========== ALMACENAMIENTO ==========
+
+    /**
+     * Inserta el usuario si su email no existe, notificando a los observadores
+     * dentro de la sección crítica del email
+     * @param usuario usuario ya validado
+     * @return true si se insertó, false si el email ya existía
+     */
+    private boolean insertar(Usuario usuario) {
+        return usuarios.compute(usuario.getEmail(), (clave, actual) -> {
+            if (actual != null) {
+                return actual;
+            }
+            for (ObservadorUsuarios observador : observadores) {
+                observador.usuarioRegistrado(usuario);
+            }
+            return usuario;
+        }) == usuario;
+    }
+
+    /**
+     * Evita los redimensionamientos sucesivos durante una importación grande. Sólo el modo de un
+     * solo hilo puede reemplazar el mapa; ConcurrentHashMap redimensiona de forma cooperativa
+     * y para él la capacidad se fija con ConfiguracionGestor.capacidadInicial. El almacén
+     * columnar crece en su lugar en ambos modos; los demás almacenes no se reemplazan.
+     * @param cantidadTotal cantidad de usuarios esperada al terminar
+     */
+    private void reservarCapacidad(int cantidadTotal) {
+        if (usuarios instanceof AlmacenColumnar) {
+            ((AlmacenColumnar) usuarios).reservar(cantidadTotal);
+        } else if (usuarios instanceof HashMap && cantidadTotal > capacidadReservada) {
+            Map<String, Usuario> mayor = nuevoMapa(cantidadTotal);
+            mayor.putAll(usuarios);
+            usuarios = mayor;
+            capacidadReservada = cantidadTotal;
         }
+    }
 
-        // Cambiar contraseña
-        usuario.setPassword(nuevaPassword);
-        return true;
+    // HashMap recibe la capacidad de la tabla, no la cantidad de elementos (factor de carga 0.75)
+    private static Map<String, Usuario> nuevoMapa(int cantidadEsperada) {
+        return new HashMap<>((int) Math.min(1 << 30, cantidadEsperada * 4L / 3 + 1));
+    }
+
+    // ========== REPARTO ENTRE SHARDS ==========
+
+    /**
+     * @return emails de todos los usuarios, para que CoordinadorShards decida cuáles mover
+     */
+    List<String> listarEmails() {
+        return new ArrayList<>(usuarios.keySet());
+    }
+
+    /**
+     * Lee un usuario para copiarlo a otro gestor, sin quitarlo de este
+     * @param email email del usuario, en su forma canónica
+     * @return copia completa del usuario (con su credencial), o null si no existe
+     */
+    Usuario copiarUsuario(String email) {
+        Usuario actual = usuarios.get(email);
+        // Copia: con el almacén columnar la vista deja de valer cuando el usuario se quita
+        return actual == null ? null
+                : new Usuario(actual.getEmail(), actual.getCredencial(), actual.getNombre(), actual.getFechaCreacion());
+    }
+
+    /**
+     * Quita un usuario para moverlo a otro gestor; los observadores lo ven como una eliminación
+     * @param email email del usuario
+     * @return copia completa del usuario (con su credencial), o null si no existía
+     */
+    Usuario extraerUsuario(String email) {
+        Usuario[] extraido = new Usuario[1];
+        int epoca = iniciarCambio();
+        try {
+            usuarios.computeIfPresent(email, (clave, actual) -> {
+                for (ObservadorUsuarios observador : observadores) {
+                    observador.usuarioEliminado(actual);
+                }
+                // Copia: con el almacén columnar la vista deja de valer al quitar el usuario
+                extraido[0] = new Usuario(actual.getEmail(), actual.getCredencial(), actual.getNombre(),
+                        actual.getFechaCreacion());
+                return null;
+            });
+            return extraido[0];
+        } finally {
+            terminarCambio(epoca, extraido[0] != null);
+        }
+    }
+
+    /**
+     * Inserta un usuario traído de otro gestor, sin validarlo ni volver a derivar su password
+     * @param usuario usuario devuelto por copiarUsuario o extraerUsuario
+     * @return true si se insertó, false si el email ya existía
+     */
+    boolean importarUsuario(Usuario usuario) {
+        int epoca = iniciarCambio();
+        boolean importado = false;
+        try {
+            importado = insertar(usuario);
+            return importado;
+        } finally {
+            terminarCambio(epoca, importado);
+        }
+    }
+
+    // ========== PERSISTENCIA ==========
+
+    /**
+     * Escribe una instantánea del almacén y descarta la parte del diario que ya cubre
+     * @throws IllegalStateException si el gestor no está en modo durable
+     * @throws UncheckedIOException si falla la escritura
+     */
+    public void compactar() {
+        if (persistencia == null) {
+            throw new IllegalStateException("El gestor no está en modo durable");
+        }
+        try {
+            persistencia.compactar();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo compactar el almacén de usuarios", e);
+        }
+    }
+
+    /**
+     * Las compactaciones automáticas del modo durable corren en segundo plano y las del almacén
+     * DISCO, dentro de la escritura que las dispara; si fallan se reintentan más adelante, mientras
+     * el diario o la bitácora siguen creciendo, sin que falle ningún cambio
+     * @return error de la última compactación automática, o null si funcionó o aún no hubo ninguna
+     * @throws IllegalStateException si el gestor no está en modo durable ni usa el almacén DISCO
+     */
+    public Exception obtenerFalloCompactacion() {
+        if (persistencia != null) {
+            return persistencia.getFalloCompactacion();
+        }
+        if (usuarios instanceof AlmacenEnDisco) {
+            return ((AlmacenEnDisco) usuarios).getFalloCompactacion();
+        }
+        throw new IllegalStateException("El gestor no está en modo durable ni usa el almacén en disco");
+    }
+
+    /**
+     * @return la persistencia del modo durable, o null si el gestor no es durable
+     */
+    PersistenciaUsuarios persistencia() {
+        return persistencia;
+    }
+
+    /**
+     * Cierra el diario del modo durable o los archivos del almacén en disco (no hace nada en
+     * los demás modos)
+     * @throws UncheckedIOException si falla el vaciado final al disco
+     */
+    @Override
+    public void close() {
+        try {
+            if (persistencia != null) {
+                persistencia.close();
+            }
+            if (usuarios instanceof AlmacenEnDisco) {
+                ((AlmacenEnDisco) usuarios).close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo cerrar el almacén de usuarios", e);
+        }
+    }
+
+    // El bit 0 es la época de la persistencia y el bit 1, la del filtro de emails
+    private int iniciarCambio() {
+        int epoca = persistencia == null ? 0 : persistencia.iniciarCambio();
+        return filtro == null ? epoca : epoca | filtro.iniciarCambio() << 1;
+    }
+
+    private void terminarCambio(int epoca, boolean huboCambio) {
+        if (filtro != null) {
+            filtro.terminarCambio(epoca >>> 1);
+        }
+        if (persistencia != null) {
+            persistencia.terminarCambio(epoca & 1, huboCambio);
+        }
+        if (huboCambio && filtro != null && filtro.programarReconstruccion()) {
+            reconstruirFiltro();
+        }
+    }
+
+    /**
+     * Reconstruye el filtro de emails desde el almacén: en modo concurrente en el ForkJoinPool
+     * común, sin detener a nadie; en modo de un solo hilo aquí mismo, porque el mapa no admite
+     * recorrerse mientras otro lo modifica
+     */
+    private void reconstruirFiltro() {
+        if (concurrente) {
+            ForkJoinPool.commonPool().execute(() -> filtro.reconstruir(usuarios.keySet(), usuarios.size()));
+        } else {
+            filtro.reconstruir(usuarios.keySet(), usuarios.size());
+        }
+    }
+
+    // ========== MÉTRICAS Y EVENTOS ==========
+
+    private long iniciarMedicion() {
+        return metricas == null ? MetricasGestor.SIN_MEDICION : metricas.iniciar();
+    }
+
+    private void medir(Operacion operacion, Resultado resultado, long inicio) {
+        if (metricas != null) {
+            metricas.registrar(operacion, resultado, inicio);
+        }
+    }
+
+    private void terminar(Operacion operacion, Resultado resultado, long inicio, EventoUsuario evento, String email) {
+        medir(operacion, resultado, inicio);
+        evento.terminar(email, resultado);
     }
 
     // ========== MÉTODOS DE UTILIDAD ==========
 
     /**
-     * Valida el formato del email usando expresión regular
+     * Aplica las reglas de registro en el mismo orden que registrarUsuario
+     * @return ACEPTADO si el usuario puede registrarse, o el motivo del rechazo
+     */
+    private ResultadoRegistro validarRegistro(String email, String password, String nombre) {
+        // Verificar si el usuario ya existe
+        if (email != null && usuarios.containsKey(email)) {
+            return ResultadoRegistro.DUPLICADO;
+        }
+        // Validar email
+        if (!validarEmail(email)) {
+            return ResultadoRegistro.EMAIL_INVALIDO;
+        }
+        // Validar password
+        if (password == null || password.length() < 5) {
+            return ResultadoRegistro.PASSWORD_INVALIDA;
+        }
+        // Validar nombre
+        if (nombre == null || nombre.trim().isEmpty()) {
+            return ResultadoRegistro.NOMBRE_INVALIDO;
+        }
+        return ResultadoRegistro.ACEPTADO;
+    }
+
+    /**
+     * Valida el formato del email (mismo lenguaje que ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$)
      * @param email Email a validar
      * @return true si el formato es válido, false en caso contrario
      */
     private boolean validarEmail(String email) {
-        return email != null && EMAIL_PATTERN.matcher(email).matches();
+        return ValidadorEmail.esValido(email);
     }
 
     /**
@@ -186,18 +1104,28 @@ public class GestorUsuarios {
      * @return true si el email existe, false en caso contrario
      */
     public boolean existeUsuario(String email) {
-        return usuarios.containsKey(email);
+        String clave = claveEmail.canonica(email);
+        return clave != null && (filtro == null || filtro.puedeContener(clave)) && usuarios.containsKey(clave);
     }
 
     /**
      * Limpia todos los usuarios del sistema (útil para testing)
      */
     public void limpiarTodos() {
-        usuarios.clear();
+        if (observadores.isEmpty()) {
+            usuarios.clear();
+            return;
+        }
+        // Eliminar uno a uno para que cada eliminación se notifique (y quede en el diario)
+        for (String email : new ArrayList<>(usuarios.keySet())) {
+            eliminarUsuario(email);
+        }
     }
 
     /**
-     * Obtiene estadísticas básicas del sistema
+     * Obtiene estadísticas básicas del sistema, como texto para una persona. Para contadores
+     * y latencias legibles por un sistema de monitoreo ver ConfiguracionGestor.metricas.
+     * Para varias cifras de un mismo instante ver instantanea().
      * @return String con información del estado del sistema
      */
     public String obtenerEstadisticas() {
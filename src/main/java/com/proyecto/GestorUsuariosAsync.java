@@ -0,0 +1,270 @@
+package com.proyecto;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Fachada asíncrona de un GestorUsuarios (o CoordinadorShards) para quien no puede bloquear
+ * su hilo, como el bucle de eventos de un gateway
+ *
+ * Cada operación corre en un grupo propio de hilos con una cola acotada; si la cola está
+ * llena el futuro falla de inmediato con RejectedExecutionException en lugar de acumular
+ * espera. Los errores de validación del gestor llegan como causa de la excepción del futuro.
+ *
+ * Las consultas de sólo lectura idénticas (autenticar con el mismo email y password,
+ * buscarUsuario y existeUsuario con el mismo email) se agrupan mientras esperan en la cola:
+ * la segunda se suma a la primera y ambas reciben el mismo resultado con un solo KDF. Una
+ * consulta que ya empezó a ejecutarse no admite más interesados, así que cada resultado
+ * refleja un estado posterior a la llamada de todos los que lo reciben. Las modificaciones
+ * nunca se agrupan.
+ *
+ * Las continuaciones no asíncronas que se encadenen a los futuros corren en los hilos de
+ * esta fachada: deben ser breves.
+ */
+public final class GestorUsuariosAsync implements AutoCloseable {
+
+    /** Pedidos por hilo que pueden esperar en la cola antes de rechazar */
+    public static final int COLA_POR_HILO = 256;
+
+    private final OperacionesUsuarios operaciones;
+    private final ThreadPoolExecutor hilos;
+    private final ConcurrentHashMap<Consulta, CompletableFuture<Object>> enCola = new ConcurrentHashMap<>();
+    private final LongAdder agrupadas = new LongAdder();
+
+    /**
+     * Fachada con un hilo por núcleo
+     * @param operaciones gestor (en modo concurrente) o coordinador a envolver
+     */
+    public GestorUsuariosAsync(OperacionesUsuarios operaciones) {
+        this(operaciones, Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().availableProcessors() * COLA_POR_HILO);
+    }
+
+    /**
+     * @param operaciones gestor (en modo concurrente) o coordinador a envolver
+     * @param hilos hilos que ejecutan las operaciones
+     * @param capacidadCola operaciones que pueden esperar un hilo antes de rechazar
+     */
+    public GestorUsuariosAsync(OperacionesUsuarios operaciones, int hilos, int capacidadCola) {
+        this(operaciones, nuevoGrupo(hilos, capacidadCola));
+    }
+
+    GestorUsuariosAsync(OperacionesUsuarios operaciones, ThreadPoolExecutor hilos) {
+        this.operaciones = Objects.requireNonNull(operaciones);
+        this.hilos = hilos;
+    }
+
+    private static ThreadPoolExecutor nuevoGrupo(int hilos, int capacidadCola) {
+        if (hilos < 1 || capacidadCola < 1) {
+            throw new IllegalArgumentException("Hilos y capacidad de cola deben ser positivos");
+        }
+        AtomicInteger numero = new AtomicInteger();
+        return new ThreadPoolExecutor(hilos, hilos, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "gestor-usuarios-async-" + numero.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+    }
+
+    // ========== CONSULTAS (SE AGRUPAN) ==========
+
+    /**
+     * Autentica un usuario con email y contraseña. Si ya hay en la cola una autenticación con
+     * el mismo email y password, se suma a ella: comparten resultado y un solo KDF.
+     * @param email Email del usuario
+     * @param password Contraseña del usuario
+     * @return futuro con el Usuario si la autenticación es exitosa, o null si falla; falla con
+     *         RejectedExecutionException si la cola está llena o la fachada está cerrada
+     */
+    public CompletableFuture<Usuario> autenticarAsync(String email, String password) {
+        return agrupar(new Consulta(Consulta.AUTENTICAR, email, password),
+                () -> operaciones.autenticar(email, password));
+    }
+
+    /**
+     * Busca un usuario por su email; se agrupa con otra búsqueda del mismo email en la cola
+     * @param email Email del usuario a buscar
+     * @return futuro con el Usuario encontrado o null si no existe; falla con
+     *         RejectedExecutionException si la cola está llena
+     */
+    public CompletableFuture<Usuario> buscarUsuarioAsync(String email) {
+        return agrupar(new Consulta(Consulta.BUSCAR, email, null), () -> operaciones.buscarUsuario(email));
+    }
+
+    /**
+     * Verifica si un email ya está registrado; se agrupa con otra verificación del mismo email
+     * en la cola
+     * @param email Email a verificar
+     * @return futuro con true si el email existe; falla con RejectedExecutionException si la
+     *         cola está llena
+     */
+    public CompletableFuture<Boolean> existeUsuarioAsync(String email) {
+        return agrupar(new Consulta(Consulta.EXISTE, email, null), () -> operaciones.existeUsuario(email));
+    }
+
+    /**
+     * Busca usuarios cuyo nombre empieza con un prefijo (ver GestorUsuarios.buscarPorNombre).
+     * No se agrupa: cada llamada ejecuta su propia búsqueda.
+     * @param prefijo comienzo del nombre
+     * @param limite cantidad máxima de resultados
+     * @return futuro con los usuarios encontrados; falla con IllegalArgumentException si el
+     *         límite es negativo, o con RejectedExecutionException si la cola está llena
+     */
+    public CompletableFuture<List<Usuario>> buscarPorNombreAsync(String prefijo, int limite) {
+        return ejecutar(() -> operaciones.buscarPorNombre(prefijo, limite));
+    }
+
+    // ========== MODIFICACIONES ==========
+
+    /**
+     * Registra un nuevo usuario
+     * @param email Email del usuario (debe ser único y válido)
+     * @param password Contraseña
+     * @param nombre Nombre del usuario
+     * @return futuro con true si el registro fue exitoso, false si el usuario ya existe; falla
+     *         con IllegalArgumentException si algún parámetro es inválido, o con
+     *         RejectedExecutionException si la cola está llena
+     */
+    public CompletableFuture<Boolean> registrarUsuarioAsync(String email, String password, String nombre) {
+        return ejecutar(() -> operaciones.registrarUsuario(email, password, nombre));
+    }
+
+    /**
+     * Actualiza el nombre de un usuario existente
+     * @param email Email del usuario a actualizar
+     * @param nuevoNombre Nuevo nombre del usuario
+     * @return futuro con true si la actualización fue exitosa, false si el usuario no existe;
+     *         falla con IllegalArgumentException si el nombre es inválido, o con
+     *         RejectedExecutionException si la cola está llena
+     */
+    public CompletableFuture<Boolean> actualizarUsuarioAsync(String email, String nuevoNombre) {
+        return ejecutar(() -> operaciones.actualizarUsuario(email, nuevoNombre));
+    }
+
+    /**
+     * Cambia la contraseña de un usuario
+     * @param email Email del usuario
+     * @param passwordActual Contraseña actual (para verificación)
+     * @param nuevaPassword Nueva contraseña
+     * @return futuro con true si el cambio fue exitoso, false si falla la verificación; falla
+     *         con IllegalArgumentException si la nueva contraseña es inválida, o con
+     *         RejectedExecutionException si la cola está llena
+     */
+    public CompletableFuture<Boolean> cambiarPasswordAsync(String email, String passwordActual, String nuevaPassword) {
+        return ejecutar(() -> operaciones.cambiarPassword(email, passwordActual, nuevaPassword));
+    }
+
+    /**
+     * Elimina un usuario
+     * @param email Email del usuario a eliminar
+     * @return futuro con true si el usuario fue eliminado, false si no existía; falla con
+     *         RejectedExecutionException si la cola está llena
+     */
+    public CompletableFuture<Boolean> eliminarUsuarioAsync(String email) {
+        return ejecutar(() -> operaciones.eliminarUsuario(email));
+    }
+
+    /**
+     * @return consultas que se resolvieron sumándose a otra idéntica en la cola
+     */
+    public long getConsultasAgrupadas() {
+        return agrupadas.sum();
+    }
+
+    /**
+     * Deja de aceptar operaciones y espera a que terminen las encoladas; no cierra el gestor
+     */
+    @Override
+    public void close() {
+        // Sin shutdownNow: interrumpir una escritura cerraría el FileChannel de la persistencia
+        hilos.shutdown();
+        try {
+            hilos.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<T> ejecutar(Supplier<T> operacion) {
+        CompletableFuture<T> futuro = new CompletableFuture<>();
+        try {
+            hilos.execute(() -> completar(futuro, operacion));
+        } catch (RejectedExecutionException e) {
+            futuro.completeExceptionally(e);
+        }
+        return futuro;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> agrupar(Consulta consulta, Supplier<T> operacion) {
+        CompletableFuture<Object> nuevo = new CompletableFuture<>();
+        CompletableFuture<Object> existente = enCola.putIfAbsent(consulta, nuevo);
+        if (existente != null) {
+            agrupadas.increment();
+            // Una copia: si quien llamó la cancela o completa, no afecta a los demás
+            return (CompletableFuture<T>) existente.copy();
+        }
+        try {
+            hilos.execute(() -> {
+                // Desde aquí la consulta ya no suma interesados: el resultado es posterior a todos ellos
+                enCola.remove(consulta, nuevo);
+                completar(nuevo, (Supplier<Object>) operacion);
+            });
+        } catch (RejectedExecutionException e) {
+            enCola.remove(consulta, nuevo);
+            nuevo.completeExceptionally(e);
+        }
+        return (CompletableFuture<T>) nuevo.copy();
+    }
+
+    private static <T> void completar(CompletableFuture<T> futuro, Supplier<T> operacion) {
+        try {
+            futuro.complete(operacion.get());
+        } catch (RuntimeException | Error e) {
+            futuro.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Clave de agrupación: operación y argumentos
+     */
+    private static final class Consulta {
+        static final byte AUTENTICAR = 0;
+        static final byte BUSCAR = 1;
+        static final byte EXISTE = 2;
+
+        final byte tipo;
+        final String email;
+        final String password;
+
+        Consulta(byte tipo, String email, String password) {
+            this.tipo = tipo;
+            this.email = email;
+            this.password = password;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Consulta)) {
+                return false;
+            }
+            Consulta otra = (Consulta) obj;
+            return tipo == otra.tipo && Objects.equals(email, otra.email) && Objects.equals(password, otra.password);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * tipo + Objects.hashCode(email)) + Objects.hashCode(password);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.proyecto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Índice de los usuarios ordenado por email, para listar el almacén por páginas
+ *
+ * Guarda referencias a los mismos Usuario y a los mismos String de email que el almacén,
+ * así que su costo es sólo el de los nodos del mapa ordenado. Como el orden depende sólo
+ * del email, una página se retoma desde el último email entregado aunque entretanto se
+ * hayan registrado o eliminado otros usuarios.
+ */
+final class IndiceEmails implements ObservadorUsuarios {
+
+    private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+
+    private final NavigableMap<String, Usuario> porEmail;
+
+    /**
+     * @param concurrente true si el índice se modifica y se recorre desde varios hilos
+     */
+    IndiceEmails(boolean concurrente) {
+        this.porEmail = concurrente ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+    }
+
+    /**
+     * Página que sigue al cursor
+     * @param cursor cursor de la página anterior, o null para empezar por el principio
+     * @param tamano cantidad máxima de usuarios de la página
+     * @return página
+     */
+    PaginaUsuarios pagina(String cursor, int tamano) {
+        NavigableMap<String, Usuario> resto = cursor == null ? porEmail : porEmail.tailMap(decodificar(cursor), false);
+        // Sin redimensionar en páginas de tamaño razonable, sin reservar de más en las enormes
+        List<Usuario> usuarios = new ArrayList<>(Math.min(tamano, 1 << 16));
+        String ultimo = null;
+        for (Usuario usuario : resto.values()) {
+            if (usuarios.size() == tamano) {
+                // Hay al menos uno más: la página siguiente empieza después del último entregado
+                return new PaginaUsuarios(usuarios, codificar(ultimo));
+            }
+            usuarios.add(usuario);
+            ultimo = usuario.getEmail();
+        }
+        return new PaginaUsuarios(usuarios, null);
+    }
+
+    /**
+     * @return los usuarios en orden de email, sin copiarlos
+     */
+    Stream<Usuario> stream() {
+        return porEmail.values().stream();
+    }
+
+    @Override
+    public void usuarioRegistrado(Usuario usuario) {
+        porEmail.put(usuario.getEmail(), usuario);
+    }
+
+    @Override
+    public void usuarioEliminado(Usuario usuario) {
+        porEmail.remove(usuario.getEmail());
+    }
+
+    // Con el almacén columnar el usuario notificado es la vista vigente, no el objeto registrado
+    @Override
+    public void nombreActualizado(Usuario usuario, String nombreAnterior) {
+        porEmail.put(usuario.getEmail(), usuario);
+    }
+
+    @Override
+    public void passwordCambiada(Usuario usuario) {
+        porEmail.put(usuario.getEmail(), usuario);
+    }
+
+    private static String codificar(String email) {
+        return CODIFICADOR.encodeToString(email.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodificar(String cursor) {
+        try {
+            return new String(DECODIFICADOR.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+        }
+    }
+}
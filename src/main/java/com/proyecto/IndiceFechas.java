@@ -0,0 +1,387 @@
+package com.proyecto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Índice de los usuarios ordenado por fecha de creación, para consultar altas por ventana de tiempo
+ *
+ * Las claves son (milisegundos de la fecha, email) y se guardan en bloques de hasta
+ * CAPACIDAD_BLOQUE claves ordenadas, en dos arreglos paralelos long[] y String[] (los String
+ * son los mismos emails del almacén): unos 16 bytes por usuario en lugar de un nodo de mapa
+ * ordenado. Los bloques están ordenados entre sí, como las hojas de un árbol B; un árbol de
+ * Fenwick sobre la cantidad de cada bloque da en O(log n) cuántas claves hay antes de una
+ * fecha, así que contar un rango o cada barra de un histograma no recorre los usuarios.
+ *
+ * Los registros llegan casi siempre con la fecha más nueva: insertar al final del último
+ * bloque lleno abre un bloque nuevo en lugar de partirlo, y los bloques quedan llenos.
+ *
+ * Sólo cambia con registros y eliminaciones (la fecha de creación no cambia). Las
+ * operaciones son seguras entre hilos con un candado de lectura y escritura; las lecturas
+ * nunca llaman al almacén con el candado tomado.
+ */
+final class IndiceFechas implements ObservadorUsuarios {
+
+    private static final int CAPACIDAD_BLOQUE = 512;
+    // Claves que pagina lee por vez antes de buscar sus usuarios en el almacén
+    private static final int LECTURA_PAGINA = 1024;
+    // Menor que cualquier email: (fecha, MINIMO) es la primera clave posible de esa fecha
+    private static final String MINIMO = "";
+
+    private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    private final Lock lectura = candado.readLock();
+    private final Lock escritura = candado.writeLock();
+
+    private Bloque[] bloques = new Bloque[16];
+    private int cantidadBloques;
+    // Árbol de Fenwick (base 1) sobre bloques[i].cantidad
+    private int[] fenwick = new int[17];
+
+    private static final class Bloque {
+        final long[] fechas = new long[CAPACIDAD_BLOQUE];
+        final String[] emails = new String[CAPACIDAD_BLOQUE];
+        int cantidad;
+
+        /**
+         * @return primera posición cuya clave es mayor (posterior) o mayor o igual (si no) que (fecha, email)
+         */
+        int posicion(long fecha, String email, boolean posterior) {
+            int desde = 0;
+            int hasta = cantidad;
+            while (desde < hasta) {
+                int medio = (desde + hasta) >>> 1;
+                int comparacion = comparar(fechas[medio], emails[medio], fecha, email);
+                if (comparacion < 0 || (posterior && comparacion == 0)) {
+                    desde = medio + 1;
+                } else {
+                    hasta = medio;
+                }
+            }
+            return desde;
+        }
+
+        void insertar(int posicion, long fecha, String email) {
+            System.arraycopy(fechas, posicion, fechas, posicion + 1, cantidad - posicion);
+            System.arraycopy(emails, posicion, emails, posicion + 1, cantidad - posicion);
+            fechas[posicion] = fecha;
+            emails[posicion] = email;
+            cantidad++;
+        }
+
+        void quitar(int posicion) {
+            cantidad--;
+            System.arraycopy(fechas, posicion + 1, fechas, posicion, cantidad - posicion);
+            System.arraycopy(emails, posicion + 1, emails, posicion, cantidad - posicion);
+            emails[cantidad] = null;
+        }
+
+        /**
+         * @return bloque nuevo con la segunda mitad de éste
+         */
+        Bloque partir() {
+            Bloque segunda = new Bloque();
+            int mitad = cantidad / 2;
+            segunda.cantidad = cantidad - mitad;
+            System.arraycopy(fechas, mitad, segunda.fechas, 0, segunda.cantidad);
+            System.arraycopy(emails, mitad, segunda.emails, 0, segunda.cantidad);
+            Arrays.fill(emails, mitad, cantidad, null);
+            cantidad = mitad;
+            return segunda;
+        }
+    }
+
+    // ========== MANTENIMIENTO ==========
+
+    @Override
+    public void usuarioRegistrado(Usuario usuario) {
+        agregar(usuario.getFechaCreacion().getTime(), usuario.getEmail());
+    }
+
+    @Override
+    public void usuarioEliminado(Usuario usuario) {
+        quitar(usuario.getFechaCreacion().getTime(), usuario.getEmail());
+    }
+
+    @Override
+    public void nombreActualizado(Usuario usuario, String nombreAnterior) {
+    }
+
+    @Override
+    public void passwordCambiada(Usuario usuario) {
+    }
+
+    private void agregar(long fecha, String email) {
+        escritura.lock();
+        try {
+            if (cantidadBloques == 0) {
+                insertarBloque(0, new Bloque());
+            }
+            int b = bloque(fecha, email);
+            Bloque bloque = bloques[b];
+            int posicion = bloque.posicion(fecha, email, false);
+            if (bloque.cantidad == CAPACIDAD_BLOQUE) {
+                Bloque nuevo;
+                if (b == cantidadBloques - 1 && posicion == bloque.cantidad) {
+                    // Alta con la fecha más nueva: bloque nuevo, el anterior queda lleno
+                    nuevo = new Bloque();
+                    bloque = nuevo;
+                    posicion = 0;
+                } else {
+                    nuevo = bloque.partir();
+                    if (posicion > bloque.cantidad) {
+                        posicion -= bloque.cantidad;
+                        bloque = nuevo;
+                    }
+                }
+                insertarBloque(b + 1, nuevo);
+                bloque.insertar(posicion, fecha, email);
+                reconstruirFenwick();
+                return;
+            }
+            bloque.insertar(posicion, fecha, email);
+            sumarFenwick(b, 1);
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    private void quitar(long fecha, String email) {
+        escritura.lock();
+        try {
+            if (cantidadBloques == 0) {
+                return;
+            }
+            int b = bloque(fecha, email);
+            Bloque bloque = bloques[b];
+            int posicion = bloque.posicion(fecha, email, false);
+            if (posicion == bloque.cantidad || comparar(bloque.fechas[posicion], bloque.emails[posicion], fecha, email) != 0) {
+                return;
+            }
+            bloque.quitar(posicion);
+            if (bloque.cantidad == 0) {
+                System.arraycopy(bloques, b + 1, bloques, b, cantidadBloques - b - 1);
+                bloques[--cantidadBloques] = null;
+                reconstruirFenwick();
+            } else {
+                sumarFenwick(b, -1);
+            }
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    private void insertarBloque(int b, Bloque bloque) {
+        if (cantidadBloques == bloques.length) {
+            bloques = Arrays.copyOf(bloques, bloques.length * 2);
+        }
+        System.arraycopy(bloques, b, bloques, b + 1, cantidadBloques - b);
+        bloques[b] = bloque;
+        cantidadBloques++;
+    }
+
+    // ========== CONSULTAS ==========
+
+    /**
+     * @return cantidad de altas con fecha en [desde, hasta)
+     */
+    int contar(long desde, long hasta) {
+        lectura.lock();
+        try {
+            return anteriores(hasta) - anteriores(desde);
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Altas por intervalos consecutivos de igual duración desde desde; el último termina en hasta
+     */
+    int[] histograma(long desde, long hasta, long intervalo, int barras) {
+        int[] cantidades = new int[barras];
+        lectura.lock();
+        try {
+            int previas = anteriores(desde);
+            for (int i = 0; i < barras; i++) {
+                int hastaBarra = anteriores(i == barras - 1 ? hasta : desde + (i + 1) * intervalo);
+                cantidades[i] = hastaBarra - previas;
+                previas = hastaBarra;
+            }
+        } finally {
+            lectura.unlock();
+        }
+        return cantidades;
+    }
+
+    /**
+     * Página de altas en [desde, hasta) en orden de (fecha, email) que sigue al cursor
+     * @param resolver busca el usuario vigente de un email en el almacén (fuera del candado)
+     */
+    PaginaUsuarios pagina(long desde, long hasta, String cursor, int tamano, Function<String, Usuario> resolver) {
+        long fecha = desde;
+        String email = MINIMO;
+        boolean posterior = false;
+        if (cursor != null) {
+            Object[] clave = decodificar(cursor);
+            if ((long) clave[0] >= desde) {
+                fecha = (long) clave[0];
+                email = (String) clave[1];
+                posterior = true;
+            }
+        }
+        List<Usuario> usuarios = new ArrayList<>(Math.min(tamano, 1 << 16));
+        long[] fechas = new long[Math.min(tamano + 1, LECTURA_PAGINA)];
+        String[] emails = new String[fechas.length];
+        long fechaUltimo = 0;
+        String emailUltimo = null;
+        while (true) {
+            int leidas = leer(fecha, email, posterior, hasta, fechas, emails);
+            for (int i = 0; i < leidas; i++) {
+                if (usuarios.size() == tamano) {
+                    // Hay al menos una clave más: la página siguiente empieza después del último entregado
+                    return new PaginaUsuarios(usuarios, codificar(fechaUltimo, emailUltimo));
+                }
+                Usuario usuario = resolver.apply(emails[i]);
+                // Eliminado (o eliminado y vuelto a registrar) después de leer la clave
+                if (usuario != null && usuario.getFechaCreacion().getTime() == fechas[i]) {
+                    usuarios.add(usuario);
+                    fechaUltimo = fechas[i];
+                    emailUltimo = emails[i];
+                }
+            }
+            if (leidas < fechas.length) {
+                return new PaginaUsuarios(usuarios, null);
+            }
+            fecha = fechas[leidas - 1];
+            email = emails[leidas - 1];
+            posterior = true;
+        }
+    }
+
+    /**
+     * Copia las claves que siguen a (fecha, email) y son anteriores a hasta, como mucho fechas.length
+     * @return cantidad de claves copiadas
+     */
+    private int leer(long fecha, String email, boolean posterior, long hasta, long[] fechas, String[] emails) {
+        lectura.lock();
+        try {
+            if (cantidadBloques == 0) {
+                return 0;
+            }
+            int b = bloque(fecha, email);
+            int posicion = bloques[b].posicion(fecha, email, posterior);
+            int leidas = 0;
+            while (leidas < fechas.length) {
+                Bloque bloque = bloques[b];
+                if (posicion == bloque.cantidad) {
+                    if (++b == cantidadBloques) {
+                        break;
+                    }
+                    posicion = 0;
+                    continue;
+                }
+                if (bloque.fechas[posicion] >= hasta) {
+                    break;
+                }
+                fechas[leidas] = bloque.fechas[posicion];
+                emails[leidas++] = bloque.emails[posicion++];
+            }
+            return leidas;
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    // ========== ÁRBOL DE FENWICK Y BÚSQUEDA ==========
+
+    /**
+     * @return cantidad de claves con fecha anterior a la dada
+     */
+    private int anteriores(long fecha) {
+        if (cantidadBloques == 0) {
+            return 0;
+        }
+        int b = bloque(fecha, MINIMO);
+        return prefijo(b) + bloques[b].posicion(fecha, MINIMO, false);
+    }
+
+    /**
+     * @return el último bloque cuya primera clave no es mayor que (fecha, email), o 0
+     */
+    private int bloque(long fecha, String email) {
+        int desde = 1;
+        int hasta = cantidadBloques;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            Bloque bloque = bloques[medio];
+            if (comparar(bloque.fechas[0], bloque.emails[0], fecha, email) <= 0) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde - 1;
+    }
+
+    // Suma de las cantidades de los bloques 0 .. b - 1
+    private int prefijo(int b) {
+        int suma = 0;
+        for (int i = b; i > 0; i -= i & -i) {
+            suma += fenwick[i];
+        }
+        return suma;
+    }
+
+    private void sumarFenwick(int b, int delta) {
+        for (int i = b + 1; i <= cantidadBloques; i += i & -i) {
+            fenwick[i] += delta;
+        }
+    }
+
+    private void reconstruirFenwick() {
+        if (fenwick.length <= cantidadBloques) {
+            fenwick = new int[bloques.length + 1];
+        }
+        Arrays.fill(fenwick, 0);
+        for (int i = 1; i <= cantidadBloques; i++) {
+            fenwick[i] += bloques[i - 1].cantidad;
+            int padre = i + (i & -i);
+            if (padre <= cantidadBloques) {
+                fenwick[padre] += fenwick[i];
+            }
+        }
+    }
+
+    static int comparar(long fechaA, String emailA, long fechaB, String emailB) {
+        int comparacion = Long.compare(fechaA, fechaB);
+        return comparacion != 0 ? comparacion : emailA.compareTo(emailB);
+    }
+
+    // ========== CURSORES ==========
+
+    static String codificar(long fecha, String email) {
+        return CODIFICADOR.encodeToString((fecha + " " + email).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return {Long fecha, String email}
+     * @throws IllegalArgumentException si el cursor no salió de codificar
+     */
+    static Object[] decodificar(String cursor) {
+        try {
+            String clave = new String(DECODIFICADOR.decode(cursor), StandardCharsets.UTF_8);
+            int separador = clave.indexOf(' ');
+            return new Object[]{Long.parseLong(clave.substring(0, separador)), clave.substring(separador + 1)};
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.proyecto;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice secundario ordenado por nombre, para buscar usuarios por prefijo
+ *
+ * La clave de cada usuario es su nombre plegado (sin acentos, en minúsculas y sin espacios
+ * en los extremos) seguido de un separador y el email, de modo que los homónimos no chocan y
+ * quedan ordenados por email. Una búsqueda por prefijo es un descenso en el mapa ordenado
+ * más un recorrido de los primeros resultados: O(log n + límite), sin copiar el almacén.
+ *
+ * Se mantiene como observador de GestorUsuarios. Un cambio hecho directamente con
+ * Usuario.setNombre no pasa por el gestor y deja al usuario indexado con el nombre anterior.
+ */
+final class IndiceNombres implements ObservadorUsuarios {
+
+    // Menor que cualquier carácter de un nombre: "ana" + SEPARADOR ordena antes que "ana b"
+    private static final char SEPARADOR = '\u0000';
+
+    /**
+     * Orden de los resultados de buscar: nombre plegado y, entre homónimos, email
+     */
+    static final Comparator<Usuario> ORDEN = Comparator
+            .comparing((Usuario usuario) -> plegar(usuario.getNombre()))
+            .thenComparing(Usuario::getEmail);
+
+    private final NavigableMap<String, Usuario> porNombre;
+
+    /**
+     * @param concurrente true si el índice se modifica y se consulta desde varios hilos
+     */
+    IndiceNombres(boolean concurrente) {
+        this.porNombre = concurrente ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+    }
+
+    /**
+     * Usuarios cuyo nombre plegado empieza con el prefijo plegado, ordenados por nombre y email
+     * @param prefijo prefijo a buscar (se pliega igual que los nombres)
+     * @param limite cantidad máxima de resultados
+     * @return usuarios encontrados
+     */
+    List<Usuario> buscar(String prefijo, int limite) {
+        String buscado = plegar(prefijo);
+        List<Usuario> encontrados = new ArrayList<>(Math.min(limite, 64));
+        for (Map.Entry<String, Usuario> entrada : porNombre.tailMap(buscado, true).entrySet()) {
+            if (encontrados.size() == limite || !entrada.getKey().startsWith(buscado)) {
+                break;
+            }
+            encontrados.add(entrada.getValue());
+        }
+        return encontrados;
+    }
+
+    int tamano() {
+        return porNombre.size();
+    }
+
+    @Override
+    public void usuarioRegistrado(Usuario usuario) {
+        porNombre.put(clave(usuario.getNombre(), usuario.getEmail()), usuario);
+    }
+
+    @Override
+    public void usuarioEliminado(Usuario usuario) {
+        porNombre.remove(clave(usuario.getNombre(), usuario.getEmail()));
+    }
+
+    @Override
+    public void nombreActualizado(Usuario usuario, String nombreAnterior) {
+        porNombre.remove(clave(nombreAnterior, usuario.getEmail()));
+        porNombre.put(clave(usuario.getNombre(), usuario.getEmail()), usuario);
+    }
+
+    // Con el almacén columnar el usuario notificado es la vista vigente, no el objeto registrado
+    @Override
+    public void passwordCambiada(Usuario usuario) {
+        porNombre.put(clave(usuario.getNombre(), usuario.getEmail()), usuario);
+    }
+
+    private static String clave(String nombre, String email) {
+        return plegar(nombre) + SEPARADOR + email;
+    }
+
+    /**
+     * Forma de comparación de un nombre: "  José ÁLVAREZ" y "jose alvarez" se pliegan igual
+     * @param texto nombre o prefijo
+     * @return texto sin marcas diacríticas, en minúsculas y sin espacios en los extremos
+     */
+    static String plegar(String texto) {
+        String recortado = texto.strip();
+        for (int i = 0; i < recortado.length(); i++) {
+            if (recortado.charAt(i) >= 0x80) {
+                // Minúsculas antes de descomponer: la İ turca pasa a "i" más un punto combinante
+                return quitarMarcas(Normalizer.normalize(recortado.toLowerCase(Locale.ROOT), Normalizer.Form.NFD));
+            }
+        }
+        // Caso común: ASCII, no hay nada que descomponer
+        return recortado.toLowerCase(Locale.ROOT);
+    }
+
+    private static String quitarMarcas(String descompuesto) {
+        StringBuilder sinMarcas = new StringBuilder(descompuesto.length());
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sinMarcas.append(c);
+            }
+        }
+        return sinMarcas.toString();
+    }
+}
@@ -0,0 +1,70 @@
+package com.proyecto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Estado del almacén de usuarios en un instante (ver GestorUsuarios.instantanea)
+ *
+ * Es una lectura consistente en memoria, no la instantánea en disco del modo durable: todas
+ * sus consultas ven el mismo estado aunque el gestor siga cambiando, sin detener a los
+ * escritores. Mientras una instantánea sea alcanzable retiene las versiones de los usuarios
+ * que cambiaron después; conviene soltarla al terminar el recorrido. Los Usuario que devuelve
+ * son las versiones guardadas y no deben modificarse.
+ */
+public final class InstantaneaUsuarios {
+
+    private final AlmacenVersionado.Version version;
+    private final ClaveEmail claveEmail;
+
+    InstantaneaUsuarios(AlmacenVersionado.Version version, ClaveEmail claveEmail) {
+        this.version = version;
+        this.claveEmail = claveEmail;
+    }
+
+    /**
+     * @return cantidad de usuarios en el instante de la instantánea
+     */
+    public int getCantidad() {
+        return version.cantidad;
+    }
+
+    /**
+     * Busca un usuario por su email, con la misma ClaveEmail que el gestor
+     * @param email Email del usuario a buscar
+     * @return Usuario tal como estaba, o null si no existía
+     */
+    public Usuario buscarUsuario(String email) {
+        String clave = claveEmail.canonica(email);
+        return clave == null ? null : version.buscar(clave);
+    }
+
+    /**
+     * @param email Email a verificar
+     * @return true si el email estaba registrado
+     */
+    public boolean existeUsuario(String email) {
+        return buscarUsuario(email) != null;
+    }
+
+    /**
+     * @return copia de la lista de usuarios, en el orden del almacén
+     */
+    public List<Usuario> listarUsuarios() {
+        return new ArrayList<>(version.usuarios());
+    }
+
+    /**
+     * Recorrido sin copiar ni tomar candados; admite parallel() y puede durar lo que haga falta
+     * @return flujo de usuarios, en el orden del almacén
+     */
+    public Stream<Usuario> streamUsuarios() {
+        return version.usuarios().stream();
+    }
+
+    @Override
+    public String toString() {
+        return "InstantaneaUsuarios{cantidad=" + version.cantidad + '}';
+    }
+}
@@ -0,0 +1,61 @@
+package com.proyecto;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Los cambios que devolvió una lectura de SuscripcionCambios, con la secuencia para seguir
+ */
+public final class LoteCambios {
+
+    private final List<CambioUsuario> cambios;
+    private final long siguienteSecuencia;
+    private final long perdidos;
+    private final long retraso;
+
+    LoteCambios(List<CambioUsuario> cambios, long siguienteSecuencia, long perdidos, long retraso) {
+        this.cambios = Collections.unmodifiableList(cambios);
+        this.siguienteSecuencia = siguienteSecuencia;
+        this.perdidos = perdidos;
+        this.retraso = retraso;
+    }
+
+    /**
+     * @return cambios en orden de secuencia (vacía si no había nuevos)
+     */
+    public List<CambioUsuario> getCambios() {
+        return cambios;
+    }
+
+    /**
+     * Secuencia del próximo cambio a leer: para retomar con GestorUsuarios.suscribirCambios(long)
+     * @return secuencia siguiente a la del último cambio del lote
+     */
+    public long getSiguienteSecuencia() {
+        return siguienteSecuencia;
+    }
+
+    /**
+     * Cambios que el anillo ya había descartado cuando esta lectura llegó a ellos. Si es
+     * mayor que cero quien consume perdió cambios y debe volver a sincronizarse desde el
+     * estado completo (GestorUsuarios.listarPagina o streamUsuarios); una secuencia de una
+     * ejecución anterior del gestor cuenta como perdida.
+     * @return cantidad de secuencias salteadas antes de los cambios del lote
+     */
+    public long getPerdidos() {
+        return perdidos;
+    }
+
+    /**
+     * @return cambios publicados después del lote que quedan por leer
+     */
+    public long getRetraso() {
+        return retraso;
+    }
+
+    @Override
+    public String toString() {
+        return "LoteCambios{cambios=" + cambios.size() + ", siguienteSecuencia=" + siguienteSecuencia + ", perdidos="
+                + perdidos + ", retraso=" + retraso + '}';
+    }
+}
@@ -0,0 +1,137 @@
+package com.proyecto;
+
+import com.proyecto.metricas.Contador;
+import com.proyecto.metricas.Histograma;
+import com.proyecto.metricas.RegistroMetricas;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Métricas de GestorUsuarios: cantidad de operaciones por resultado y latencia por operación
+ *
+ * Contar cuesta un incremento de LongAdder. Medir la latencia cuesta dos llamadas a
+ * System.nanoTime (unos 20-25 ns cada una), demasiado para operaciones de decenas de
+ * nanosegundos, así que sólo se mide una de cada MUESTREO_LATENCIA llamadas, elegida al azar:
+ * los percentiles no cambian y la cantidad exacta está en los contadores.
+ *
+ * Series publicadas:
+ * <pre>
+ * usuarios_operaciones_total{operacion="login",resultado="password_incorrecta"}
+ * usuarios_latencia_segundos{operacion="login"}   (histograma, muestreado)
+ * usuarios_registrados
+ * usuarios_cache_aciertos, usuarios_cache_fallos, usuarios_cache_desalojos, usuarios_cache_bytes
+ *     (sólo con el almacén DISCO)
+ * usuarios_compactacion_fallos   (sólo en modo durable o con el almacén DISCO)
+ * </pre>
+ */
+final class MetricasGestor {
+
+    static final int MUESTREO_LATENCIA = 32;
+
+    // Valor de iniciar() cuando la llamada no se mide
+    static final long SIN_MEDICION = Long.MIN_VALUE;
+
+    enum Resultado {
+        EXITO("exito"),
+        DUPLICADO("duplicado"),
+        ERROR_VALIDACION("error_validacion"),
+        USUARIO_DESCONOCIDO("usuario_desconocido"),
+        PASSWORD_INCORRECTA("password_incorrecta");
+
+        final String etiqueta;
+
+        Resultado(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+    }
+
+    enum Operacion {
+        REGISTRO("registro", Resultado.EXITO, Resultado.DUPLICADO, Resultado.ERROR_VALIDACION),
+        LOGIN("login", Resultado.EXITO, Resultado.USUARIO_DESCONOCIDO, Resultado.PASSWORD_INCORRECTA),
+        ACTUALIZACION("actualizacion", Resultado.EXITO, Resultado.USUARIO_DESCONOCIDO, Resultado.ERROR_VALIDACION),
+        CAMBIO_PASSWORD("cambio_password", Resultado.EXITO, Resultado.USUARIO_DESCONOCIDO,
+                Resultado.PASSWORD_INCORRECTA, Resultado.ERROR_VALIDACION),
+        ELIMINACION("eliminacion", Resultado.EXITO, Resultado.USUARIO_DESCONOCIDO);
+
+        final String etiqueta;
+        final Resultado[] posibles;
+
+        Operacion(String etiqueta, Resultado... posibles) {
+            this.etiqueta = etiqueta;
+            this.posibles = posibles;
+        }
+    }
+
+    // [operación][resultado]; null en las combinaciones que no ocurren
+    private final Contador[][] operaciones = new Contador[Operacion.values().length][Resultado.values().length];
+    private final Histograma[] latencias = new Histograma[Operacion.values().length];
+
+    /**
+     * Registra las series; la cantidad de usuarios se lee del almacén al exportar
+     * @param registro registro donde publicar
+     * @param gestor gestor medido
+     */
+    MetricasGestor(RegistroMetricas registro, GestorUsuarios gestor) {
+        for (Operacion operacion : Operacion.values()) {
+            for (Resultado resultado : operacion.posibles) {
+                operaciones[operacion.ordinal()][resultado.ordinal()] = registro.contador(
+                        "usuarios_operaciones_total", "Operaciones de GestorUsuarios por resultado",
+                        "operacion", operacion.etiqueta, "resultado", resultado.etiqueta);
+            }
+            latencias[operacion.ordinal()] = registro.histograma("usuarios_latencia_segundos",
+                    "Latencia de GestorUsuarios, muestreada 1 de cada " + MUESTREO_LATENCIA,
+                    "operacion", operacion.etiqueta);
+        }
+        registro.indicador("usuarios_registrados", "Usuarios en el almacén", gestor::obtenerCantidadUsuarios);
+        AlmacenEnDisco disco = gestor.almacenEnDisco();
+        if (disco != null) {
+            registro.indicador("usuarios_cache_aciertos", "Búsquedas resueltas en la caché del almacén en disco",
+                    disco::getAciertos);
+            registro.indicador("usuarios_cache_fallos", "Búsquedas que leyeron el disco", disco::getFallos);
+            registro.indicador("usuarios_cache_desalojos", "Usuarios desalojados de la caché", disco::getDesalojos);
+            registro.indicador("usuarios_cache_bytes", "Bytes estimados de los usuarios en la caché",
+                    disco::getBytesEnMemoria);
+            registro.indicador("usuarios_compactacion_fallos", "Compactaciones de la bitácora en disco que fallaron",
+                    disco::getFallosCompactacion);
+        }
+        PersistenciaUsuarios persistencia = gestor.persistencia();
+        if (persistencia != null) {
+            registro.indicador("usuarios_compactacion_fallos", "Compactaciones en segundo plano que fallaron",
+                    persistencia::getFallosCompactacion);
+        }
+    }
+
+    /**
+     * @return instante de inicio si esta llamada se mide, o SIN_MEDICION
+     */
+    long iniciar() {
+        return (ThreadLocalRandom.current().nextInt() & (MUESTREO_LATENCIA - 1)) == 0
+                ? System.nanoTime() : SIN_MEDICION;
+    }
+
+    /**
+     * Cuenta una operación terminada y, si se estaba midiendo, registra su latencia
+     * @param operacion operación
+     * @param resultado resultado (uno de operacion.posibles)
+     * @param inicio valor devuelto por iniciar()
+     */
+    void registrar(Operacion operacion, Resultado resultado, long inicio) {
+        if (inicio != SIN_MEDICION) {
+            latencias[operacion.ordinal()].registrarDesde(inicio);
+        }
+        operaciones[operacion.ordinal()][resultado.ordinal()].incrementar();
+    }
+
+    /**
+     * Cuenta los registros de una importación masiva, sin latencia
+     * @param lote resultado del lote
+     */
+    void registrarLote(ResultadoLote lote) {
+        Contador[] registro = operaciones[Operacion.REGISTRO.ordinal()];
+        int aceptados = lote.contar(ResultadoRegistro.ACEPTADO);
+        int duplicados = lote.contar(ResultadoRegistro.DUPLICADO);
+        registro[Resultado.EXITO.ordinal()].sumar(aceptados);
+        registro[Resultado.DUPLICADO.ordinal()].sumar(duplicados);
+        registro[Resultado.ERROR_VALIDACION.ordinal()].sumar(lote.getCantidad() - aceptados - duplicados);
+    }
+}
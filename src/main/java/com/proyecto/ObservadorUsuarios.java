@@ -0,0 +1,40 @@
+package com.proyecto;
+
+/**
+ * Recibe las mutaciones de GestorUsuarios
+ *
+ * GestorUsuarios invoca estos métodos dentro de la sección crítica de cada email,
+ * por lo que las notificaciones de un mismo usuario llegan en el mismo orden en que
+ * se aplicaron. Las implementaciones deben ser rápidas y no bloquear.
+ */
+interface ObservadorUsuarios {
+
+    /**
+     * Un usuario nuevo fue registrado
+     * @param usuario usuario registrado
+     */
+    default void usuarioRegistrado(Usuario usuario) {
+    }
+
+    /**
+     * Un usuario fue eliminado
+     * @param usuario usuario eliminado
+     */
+    default void usuarioEliminado(Usuario usuario) {
+    }
+
+    /**
+     * El nombre de un usuario cambió (el usuario ya tiene el nombre nuevo)
+     * @param usuario usuario actualizado
+     * @param nombreAnterior nombre que tenía antes del cambio
+     */
+    default void nombreActualizado(Usuario usuario, String nombreAnterior) {
+    }
+
+    /**
+     * La password de un usuario cambió (el usuario ya tiene la password nueva)
+     * @param usuario usuario actualizado
+     */
+    default void passwordCambiada(Usuario usuario) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.proyecto;
+
+import java.util.List;
+
+/**
+ * Operaciones sobre un almacén de usuarios, comunes a un GestorUsuarios y a un
+ * CoordinadorShards que reparte los usuarios entre varios gestores
+ */
+public interface OperacionesUsuarios {
+
+    /**
+     * Registra un nuevo usuario
+     * @param email email del usuario (debe ser único y válido)
+     * @param password contraseña
+     * @param nombre nombre del usuario (no puede estar vacío)
+     * @return true si el registro fue exitoso, false si el usuario ya existe
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     */
+    boolean registrarUsuario(String email, String password, String nombre);
+
+    /**
+     * Autentica un usuario con email y contraseña
+     * @param email email del usuario
+     * @param password contraseña del usuario
+     * @return el usuario si la autenticación es exitosa, null si falla
+     */
+    Usuario autenticar(String email, String password);
+
+    /**
+     * Elimina un usuario
+     * @param email email del usuario a eliminar
+     * @return true si el usuario fue eliminado, false si no existía
+     */
+    boolean eliminarUsuario(String email);
+
+    /**
+     * Busca un usuario por email
+     * @param email email a buscar
+     * @return usuario encontrado o null si no existe
+     */
+    Usuario buscarUsuario(String email);
+
+    /**
+     * Actualiza el nombre de un usuario existente
+     * @param email email del usuario
+     * @param nuevoNombre nuevo nombre
+     * @return true si la actualización fue exitosa, false si el usuario no existe
+     * @throws IllegalArgumentException si el nuevo nombre es inválido
+     */
+    boolean actualizarUsuario(String email, String nuevoNombre);
+
+    /**
+     * Cambia la contraseña de un usuario
+     * @param email email del usuario
+     * @param passwordActual contraseña actual (para verificación)
+     * @param nuevaPassword nueva contraseña
+     * @return true si el cambio fue exitoso, false si falla la verificación
+     * @throws IllegalArgumentException si la nueva contraseña es inválida
+     */
+    boolean cambiarPassword(String email, String passwordActual, String nuevaPassword);
+
+    /**
+     * @param email email a verificar
+     * @return true si existe un usuario con ese email
+     */
+    boolean existeUsuario(String email);
+
+    /**
+     * @return cantidad de usuarios
+     */
+    int obtenerCantidadUsuarios();
+
+    /**
+     * @return lista con todos los usuarios
+     */
+    List<Usuario> listarUsuarios();
+
+    /**
+     * Busca usuarios por prefijo del nombre, sin distinguir mayúsculas ni acentos
+     * @param prefijo comienzo del nombre buscado
+     * @param limite cantidad máxima de resultados (no negativa)
+     * @return usuarios encontrados, ordenados por nombre y email
+     * @throws IllegalArgumentException si el límite es negativo
+     */
+    List<Usuario> buscarPorNombre(String prefijo, int limite);
+}
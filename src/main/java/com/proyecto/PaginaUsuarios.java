@@ -0,0 +1,46 @@
+package com.proyecto;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Una página del listado de usuarios en orden de email, con el cursor para pedir la siguiente
+ */
+public final class PaginaUsuarios {
+
+    private final List<Usuario> usuarios;
+    private final String siguienteCursor;
+
+    PaginaUsuarios(List<Usuario> usuarios, String siguienteCursor) {
+        this.usuarios = Collections.unmodifiableList(usuarios);
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    /**
+     * @return usuarios de la página, en orden de email
+     */
+    public List<Usuario> getUsuarios() {
+        return usuarios;
+    }
+
+    /**
+     * Cursor opaco para GestorUsuarios.listarPagina; sigue siendo válido aunque el usuario
+     * en el que terminó la página se elimine
+     * @return cursor de la página siguiente, o null si ésta es la última
+     */
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    /**
+     * @return true si hay más usuarios después de esta página
+     */
+    public boolean hayMas() {
+        return siguienteCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "PaginaUsuarios{usuarios=" + usuarios.size() + ", hayMas=" + hayMas() + '}';
+    }
+}
@@ -0,0 +1,238 @@
+package com.proyecto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Modo durable de GestorUsuarios: diario de operaciones más instantáneas compactadas
+ *
+ * Al abrir se carga la última instantánea y se reproducen sólo los segmentos del diario
+ * posteriores a ella. Compactar rota el diario a un segmento nuevo S, escribe una
+ * instantánea del almacén vivo marcada con S y borra los segmentos anteriores a S.
+ *
+ * La instantánea se toma mientras los escritores siguen trabajando, así que puede
+ * reflejar parcialmente operaciones posteriores a S. Como toda operación del diario
+ * reemplaza el estado completo de lo que toca, reproducir desde S sobre ese estado
+ * converge al mismo resultado final.
+ */
+final class PersistenciaUsuarios implements ObservadorUsuarios, Closeable {
+
+    private static final String PREFIJO_DIARIO = "diario-";
+    private static final String PREFIJO_INSTANTANEA = "instantanea-";
+
+    private final Path directorio;
+    private final Map<String, Usuario> usuarios;
+    private final DiarioUsuarios diario;
+    private final ScheduledExecutorService programador;
+
+    // Cambios en curso por época: la compactación espera a que terminen los de la época anterior
+    private final LongAdder[] enCurso = {new LongAdder(), new LongAdder()};
+    private volatile int epoca;
+
+    // Compactaciones en segundo plano que fallaron, y el error de la última si falló
+    private final LongAdder fallosCompactacion = new LongAdder();
+    private volatile Exception falloCompactacion;
+
+    private PersistenciaUsuarios(Path directorio, Map<String, Usuario> usuarios, DiarioUsuarios diario,
+                                 long intervaloCompactacionMs) {
+        this.directorio = directorio;
+        this.usuarios = usuarios;
+        this.diario = diario;
+        if (intervaloCompactacionMs > 0) {
+            this.programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "compactacion-usuarios");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            programador.scheduleWithFixedDelay(this::compactarEnFondo,
+                    intervaloCompactacionMs, intervaloCompactacionMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.programador = null;
+        }
+    }
+
+    /**
+     * Recupera el estado del directorio en el mapa y abre un segmento nuevo del diario
+     * @param configuracion configuración con el directorio de persistencia
+     * @param usuarios mapa (vacío) donde se carga el estado recuperado
+     * @return persistencia lista para registrar mutaciones
+     * @throws IOException si no se puede leer o crear el directorio
+     */
+    static PersistenciaUsuarios abrir(ConfiguracionGestor configuracion, Map<String, Usuario> usuarios)
+            throws IOException {
+        Path directorio = configuracion.getDirectorioPersistencia();
+        Files.createDirectories(directorio);
+
+        long desde = 0;
+        List<Long> instantaneas = numeros(directorio, PREFIJO_INSTANTANEA, ".snap");
+        if (!instantaneas.isEmpty()) {
+            long ultima = instantaneas.get(instantaneas.size() - 1);
+            desde = ArchivoInstantanea.cargar(directorio.resolve(ArchivoInstantanea.nombre(ultima)), usuarios);
+        }
+
+        long ultimoSegmento = desde;
+        for (long segmento : numeros(directorio, PREFIJO_DIARIO, ".log")) {
+            if (segmento >= desde) {
+                CodecUsuarios.recorrer(directorio.resolve(DiarioUsuarios.nombreSegmento(segmento)), 0,
+                        operacion -> operacion.aplicar(usuarios));
+                ultimoSegmento = Math.max(ultimoSegmento, segmento);
+            }
+        }
+
+        // Nunca se anexa a un segmento existente: su cola podría estar rota por una caída
+        DiarioUsuarios diario = new DiarioUsuarios(directorio, ultimoSegmento + 1,
+                configuracion.isSincronizarDisco());
+        return new PersistenciaUsuarios(directorio, usuarios, diario, configuracion.getIntervaloCompactacionMs());
+    }
+
+    private static List<Long> numeros(Path directorio, String prefijo, String sufijo) throws IOException {
+        List<Long> numeros = new ArrayList<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, prefijo + "*" + sufijo)) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                try {
+                    numeros.add(Long.parseLong(nombre.substring(prefijo.length(), nombre.length() - sufijo.length())));
+                } catch (NumberFormatException e) {
+                    // Archivo ajeno con un nombre parecido: se ignora
+                }
+            }
+        }
+        numeros.sort(null);
+        return numeros;
+    }
+
+    // ========== SECCIÓN DE CAMBIO ==========
+
+    /**
+     * Marca el comienzo de una mutación; debe llamarse antes de entrar en la sección crítica
+     * @return época a pasar a terminarCambio
+     */
+    int iniciarCambio() {
+        while (true) {
+            int actual = epoca;
+            enCurso[actual].increment();
+            if (epoca == actual) {
+                return actual;
+            }
+            enCurso[actual].decrement();
+        }
+    }
+
+    /**
+     * Marca el fin de una mutación y, si hubo cambio, espera a que sea durable
+     * @param epocaCambio época devuelta por iniciarCambio
+     * @param huboCambio true si la mutación anexó algo al diario
+     */
+    void terminarCambio(int epocaCambio, boolean huboCambio) {
+        enCurso[epocaCambio].decrement();
+        if (huboCambio) {
+            try {
+                diario.esperarDurable(diario.posicionAnexada());
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo confirmar la operación en el diario", e);
+            }
+        }
+    }
+
+    // ========== OBSERVADOR ==========
+
+    @Override
+    public void usuarioRegistrado(Usuario usuario) {
+        diario.anexarRegistro(usuario);
+    }
+
+    @Override
+    public void usuarioEliminado(Usuario usuario) {
+        diario.anexarEliminacion(usuario.getEmail());
+    }
+
+    @Override
+    public void nombreActualizado(Usuario usuario, String nombreAnterior) {
+        diario.anexarNombre(usuario.getEmail(), usuario.getNombre());
+    }
+
+    @Override
+    public void passwordCambiada(Usuario usuario) {
+        diario.anexarCredencial(usuario.getEmail(), usuario.getCredencial());
+    }
+
+    // ========== COMPACTACIÓN ==========
+
+    /**
+     * Escribe una instantánea del almacén y borra los segmentos y las instantáneas que cubre
+     * @throws IOException si falla la escritura
+     */
+    synchronized void compactar() throws IOException {
+        long segmento = diario.rotar();
+
+        // Todo registro del segmento anterior fue anexado dentro de un cambio de la época actual:
+        // al esperar a que terminen, el almacén ya refleja todo lo que se va a borrar del diario
+        int anterior = epoca;
+        epoca = 1 - anterior;
+        while (enCurso[anterior].sum() != 0) {
+            LockSupport.parkNanos(10_000);
+        }
+
+        ArchivoInstantanea.escribir(directorio, segmento, usuarios.values());
+        for (long viejo : numeros(directorio, PREFIJO_DIARIO, ".log")) {
+            if (viejo < segmento) {
+                Files.deleteIfExists(directorio.resolve(DiarioUsuarios.nombreSegmento(viejo)));
+            }
+        }
+        for (long vieja : numeros(directorio, PREFIJO_INSTANTANEA, ".snap")) {
+            if (vieja < segmento) {
+                Files.deleteIfExists(directorio.resolve(ArchivoInstantanea.nombre(vieja)));
+            }
+        }
+    }
+
+    private void compactarEnFondo() {
+        try {
+            compactar();
+            falloCompactacion = null;
+        } catch (IOException | RuntimeException e) {
+            // Se reintenta en la próxima ejecución; el diario sigue siendo la fuente de verdad
+            falloCompactacion = e;
+            fallosCompactacion.increment();
+        }
+    }
+
+    /**
+     * @return error de la última compactación en segundo plano, o null si funcionó o aún no hubo
+     */
+    Exception getFalloCompactacion() {
+        return falloCompactacion;
+    }
+
+    /**
+     * @return compactaciones en segundo plano que fallaron desde que se abrió
+     */
+    long getFallosCompactacion() {
+        return fallosCompactacion.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (programador != null) {
+            programador.shutdown();
+            try {
+                programador.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        diario.close();
+    }
+}
@@ -0,0 +1,124 @@
+package com.proyecto;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Protocolo binario entre ShardRemoto y ServidorShard
+ *
+ * Pedido: código de operación (byte) seguido de sus argumentos. Respuesta: estado (byte)
+ * seguido del resultado, o de un mensaje si el estado es un error. Las cadenas que pueden
+ * ser nulas van precedidas de un boolean; los usuarios se envían completos (email, nombre,
+ * fecha y Credencial.codificar()), igual que en el diario: nunca una password en claro
+ * salvo los argumentos de registrar, autenticar y cambiar password. Pensado para la interfaz
+ * de loopback o una red de confianza: no cifra ni autentica la conexión.
+ */
+final class ProtocoloShard {
+
+    static final byte REGISTRAR = 1;
+    static final byte AUTENTICAR = 2;
+    static final byte ELIMINAR = 3;
+    static final byte BUSCAR = 4;
+    static final byte ACTUALIZAR = 5;
+    static final byte CAMBIAR_PASSWORD = 6;
+    static final byte EXISTE = 7;
+    static final byte CANTIDAD = 8;
+    static final byte LISTAR = 9;
+    static final byte BUSCAR_POR_NOMBRE = 10;
+    static final byte LISTAR_EMAILS = 11;
+    static final byte COPIAR = 12;
+    static final byte IMPORTAR = 13;
+    static final byte QUITAR = 14;
+
+    static final byte OK = 0;
+    // El gestor lanzó IllegalArgumentException; el cliente la vuelve a lanzar con el mismo mensaje
+    static final byte ARGUMENTO_INVALIDO = 1;
+    static final byte ERROR = 2;
+
+    private ProtocoloShard() {
+    }
+
+    static void escribirTexto(DataOutputStream salida, String texto) throws IOException {
+        salida.writeBoolean(texto != null);
+        if (texto != null) {
+            salida.writeUTF(texto);
+        }
+    }
+
+    static String leerTexto(DataInputStream entrada) throws IOException {
+        return entrada.readBoolean() ? entrada.readUTF() : null;
+    }
+
+    static void escribirUsuario(DataOutputStream salida, Usuario usuario) throws IOException {
+        salida.writeBoolean(usuario != null);
+        if (usuario == null) {
+            return;
+        }
+        salida.writeUTF(usuario.getEmail());
+        salida.writeUTF(usuario.getNombre());
+        salida.writeLong(usuario.getFechaCreacion().getTime());
+        byte[] credencial = usuario.getCredencial().codificar();
+        salida.writeInt(credencial.length);
+        salida.write(credencial);
+    }
+
+    static Usuario leerUsuario(DataInputStream entrada) throws IOException {
+        if (!entrada.readBoolean()) {
+            return null;
+        }
+        String email = entrada.readUTF();
+        String nombre = entrada.readUTF();
+        Date fecha = new Date(entrada.readLong());
+        int largo = entrada.readInt();
+        if (largo < 0 || largo > CodecUsuarios.LONGITUD_MAXIMA) {
+            throw new IOException("Credencial de longitud inválida: " + largo);
+        }
+        byte[] credencial = new byte[largo];
+        entrada.readFully(credencial);
+        return new Usuario(email, Credencial.decodificar(credencial), nombre, fecha);
+    }
+
+    static void escribirUsuarios(DataOutputStream salida, List<Usuario> usuarios) throws IOException {
+        salida.writeInt(usuarios.size());
+        for (Usuario usuario : usuarios) {
+            escribirUsuario(salida, usuario);
+        }
+    }
+
+    static List<Usuario> leerUsuarios(DataInputStream entrada) throws IOException {
+        int cantidad = leerCantidad(entrada);
+        List<Usuario> usuarios = new ArrayList<>(Math.min(cantidad, 1 << 16));
+        for (int i = 0; i < cantidad; i++) {
+            usuarios.add(leerUsuario(entrada));
+        }
+        return usuarios;
+    }
+
+    static void escribirTextos(DataOutputStream salida, List<String> textos) throws IOException {
+        salida.writeInt(textos.size());
+        for (String texto : textos) {
+            salida.writeUTF(texto);
+        }
+    }
+
+    static List<String> leerTextos(DataInputStream entrada) throws IOException {
+        int cantidad = leerCantidad(entrada);
+        List<String> textos = new ArrayList<>(Math.min(cantidad, 1 << 16));
+        for (int i = 0; i < cantidad; i++) {
+            textos.add(entrada.readUTF());
+        }
+        return textos;
+    }
+
+    private static int leerCantidad(DataInputStream entrada) throws IOException {
+        int cantidad = entrada.readInt();
+        if (cantidad < 0) {
+            throw new IOException("Cantidad inválida: " + cantidad);
+        }
+        return cantidad;
+    }
+}
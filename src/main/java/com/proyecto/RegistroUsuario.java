@@ -0,0 +1,36 @@
+package com.proyecto;
+
+/**
+ * Datos de entrada de un registro (email, password, nombre) para la importación masiva
+ */
+public final class RegistroUsuario {
+
+    private final String email;
+    private final String password;
+    private final String nombre;
+
+    /**
+     * Constructor de RegistroUsuario
+     *
+     * @param email    Email del usuario
+     * @param password Contraseña del usuario
+     * @param nombre   Nombre completo del usuario
+     */
+    public RegistroUsuario(String email, String password, String nombre) {
+        this.email = email;
+        this.password = password;
+        this.nombre = nombre;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+}
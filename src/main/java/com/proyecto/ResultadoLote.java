@@ -0,0 +1,66 @@
+package com.proyecto;
+
+import java.util.Arrays;
+
+/**
+ * Resultado compacto de una importación masiva: un byte por registro, en el orden de entrada
+ */
+public final class ResultadoLote {
+
+    private byte[] codigos;
+    private int cantidad;
+    private final int[] conteos = new int[ResultadoRegistro.values().length];
+
+    ResultadoLote(int capacidadInicial) {
+        this.codigos = new byte[Math.max(16, capacidadInicial)];
+    }
+
+    void agregar(byte[] bloque, int longitud) {
+        if (cantidad + longitud > codigos.length) {
+            codigos = Arrays.copyOf(codigos, Math.max(codigos.length * 2, cantidad + longitud));
+        }
+        System.arraycopy(bloque, 0, codigos, cantidad, longitud);
+        cantidad += longitud;
+        for (int i = 0; i < longitud; i++) {
+            conteos[bloque[i]]++;
+        }
+    }
+
+    /**
+     * @return cantidad de registros procesados
+     */
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene el resultado de un registro
+     * @param indice posición del registro en la entrada (desde 0)
+     * @return resultado de ese registro
+     * @throws IndexOutOfBoundsException si el índice no corresponde a un registro procesado
+     */
+    public ResultadoRegistro getResultado(int indice) {
+        if (indice < 0 || indice >= cantidad) {
+            throw new IndexOutOfBoundsException("Índice fuera del lote: " + indice);
+        }
+        return ResultadoRegistro.desdeCodigo(codigos[indice]);
+    }
+
+    /**
+     * Cuenta los registros con un resultado dado
+     * @param resultado resultado a contar
+     * @return cantidad de registros con ese resultado
+     */
+    public int contar(ResultadoRegistro resultado) {
+        return conteos[resultado.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder("ResultadoLote{cantidad=").append(cantidad);
+        for (ResultadoRegistro resultado : ResultadoRegistro.values()) {
+            texto.append(", ").append(resultado).append('=').append(contar(resultado));
+        }
+        return texto.append('}').toString();
+    }
+}
@@ -0,0 +1,27 @@
+package com.proyecto;
+
+/**
+ * Resultado del registro de un usuario dentro de una importación masiva
+ */
+public enum ResultadoRegistro {
+    /** El usuario fue registrado */
+    ACEPTADO,
+    /** Ya existía un usuario con ese email (o apareció antes en el mismo lote) */
+    DUPLICADO,
+    /** El email es nulo o no tiene un formato válido */
+    EMAIL_INVALIDO,
+    /** La password es nula o demasiado corta */
+    PASSWORD_INVALIDA,
+    /** El nombre es nulo o vacío */
+    NOMBRE_INVALIDO;
+
+    private static final ResultadoRegistro[] VALORES = values();
+
+    static ResultadoRegistro desdeCodigo(byte codigo) {
+        return VALORES[codigo];
+    }
+
+    byte codigo() {
+        return (byte) ordinal();
+    }
+}
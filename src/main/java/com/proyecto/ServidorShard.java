@@ -0,0 +1,247 @@
+package com.proyecto;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Publica un GestorUsuarios por un socket para que un CoordinadorShards de otro proceso lo
+ * use como shard (ver ProtocoloShard)
+ *
+ * Atiende cada conexión en su propio hilo: el coordinador abre una por cada hilo que la
+ * usa a la vez, así que los pedidos de una conexión llegan de a uno. Escucha sólo en la
+ * interfaz de loopback salvo que se indique otra dirección.
+ *
+ * Ejemplo:
+ * <pre>
+ * try (GestorUsuarios gestor = new GestorUsuarios(true);
+ *      ServidorShard servidor = ServidorShard.iniciar(gestor, 7400)) {
+ *     ...
+ * }
+ * </pre>
+ */
+public final class ServidorShard implements AutoCloseable {
+
+    private final ShardLocal shard;
+    private final ServerSocket socket;
+    private final ExecutorService hilos;
+    private final Set<Socket> conexiones = ConcurrentHashMap.newKeySet();
+
+    private ServidorShard(GestorUsuarios gestor, ServerSocket socket) {
+        this.shard = new ShardLocal(gestor);
+        this.socket = socket;
+        this.hilos = Executors.newCachedThreadPool(tarea -> {
+            Thread hilo = new Thread(tarea, "servidor-shard-" + socket.getLocalPort());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        hilos.execute(this::aceptar);
+    }
+
+    /**
+     * Empieza a atender en localhost
+     * @param gestor gestor a publicar (debe ser concurrente: cada conexión tiene su hilo)
+     * @param puerto puerto (0 elige uno libre)
+     * @return servidor iniciado
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public static ServidorShard iniciar(GestorUsuarios gestor, int puerto) throws IOException {
+        return iniciar(gestor, new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto));
+    }
+
+    /**
+     * Empieza a atender en una dirección dada
+     * @param gestor gestor a publicar (debe ser concurrente: cada conexión tiene su hilo)
+     * @param direccion dirección y puerto de escucha
+     * @return servidor iniciado
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public static ServidorShard iniciar(GestorUsuarios gestor, InetSocketAddress direccion) throws IOException {
+        ServerSocket socket = new ServerSocket();
+        socket.bind(direccion);
+        return new ServidorShard(gestor, socket);
+    }
+
+    /**
+     * @return dirección en la que escucha, para pasarla a CoordinadorShards.agregarShardRemoto
+     */
+    public InetSocketAddress getDireccion() {
+        return (InetSocketAddress) socket.getLocalSocketAddress();
+    }
+
+    private void aceptar() {
+        while (!socket.isClosed()) {
+            try {
+                Socket conexion = socket.accept();
+                conexion.setTcpNoDelay(true);
+                conexiones.add(conexion);
+                hilos.execute(() -> atender(conexion));
+            } catch (IOException e) {
+                // El socket se cerró (close) o falló una aceptación: se sigue si sigue abierto
+            }
+        }
+    }
+
+    private void atender(Socket conexion) {
+        try (conexion;
+             DataInputStream entrada = new DataInputStream(new BufferedInputStream(conexion.getInputStream()));
+             DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(conexion.getOutputStream()))) {
+            while (true) {
+                byte operacion;
+                try {
+                    operacion = entrada.readByte();
+                } catch (EOFException e) {
+                    return; // El cliente cerró la conexión
+                }
+                responder(operacion, entrada, salida);
+                salida.flush();
+            }
+        } catch (SocketException e) {
+            // Conexión cortada por el cliente o por close()
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            conexiones.remove(conexion);
+        }
+    }
+
+    private void responder(byte operacion, DataInputStream entrada, DataOutputStream salida) throws IOException {
+        // En cada caso se leen todos los argumentos antes de llamar al gestor: una excepción
+        // del gestor no deja bytes sin leer en la conexión
+        try {
+            switch (operacion) {
+                case ProtocoloShard.REGISTRAR: {
+                    String email = leerTexto(entrada), password = leerTexto(entrada), nombre = leerTexto(entrada);
+                    boolean registrado = shard.registrarUsuario(email, password, nombre);
+                    salida.writeByte(ProtocoloShard.OK);
+                    salida.writeBoolean(registrado);
+                    break;
+                }
+                case ProtocoloShard.AUTENTICAR: {
+                    String email = leerTexto(entrada), password = leerTexto(entrada);
+                    Usuario usuario = shard.autenticar(email, password);
+                    salida.writeByte(ProtocoloShard.OK);
+                    ProtocoloShard.escribirUsuario(salida, usuario);
+                    break;
+                }
+                case ProtocoloShard.ELIMINAR: {
+                    boolean eliminado = shard.eliminarUsuario(leerTexto(entrada));
+                    salida.writeByte(ProtocoloShard.OK);
+                    salida.writeBoolean(eliminado);
+                    break;
+                }
+                case ProtocoloShard.BUSCAR: {
+                    Usuario usuario = shard.buscarUsuario(leerTexto(entrada));
+                    salida.writeByte(ProtocoloShard.OK);
+                    ProtocoloShard.escribirUsuario(salida, usuario);
+                    break;
+                }
+                case ProtocoloShard.ACTUALIZAR: {
+                    String email = leerTexto(entrada), nombre = leerTexto(entrada);
+                    boolean actualizado = shard.actualizarUsuario(email, nombre);
+                    salida.writeByte(ProtocoloShard.OK);
+                    salida.writeBoolean(actualizado);
+                    break;
+                }
+                case ProtocoloShard.CAMBIAR_PASSWORD: {
+                    String email = leerTexto(entrada), actual = leerTexto(entrada), nueva = leerTexto(entrada);
+                    boolean cambiada = shard.cambiarPassword(email, actual, nueva);
+                    salida.writeByte(ProtocoloShard.OK);
+                    salida.writeBoolean(cambiada);
+                    break;
+                }
+                case ProtocoloShard.EXISTE: {
+                    boolean existe = shard.existeUsuario(leerTexto(entrada));
+                    salida.writeByte(ProtocoloShard.OK);
+                    salida.writeBoolean(existe);
+                    break;
+                }
+                case ProtocoloShard.CANTIDAD: {
+                    int cantidad = shard.obtenerCantidadUsuarios();
+                    salida.writeByte(ProtocoloShard.OK);
+                    salida.writeInt(cantidad);
+                    break;
+                }
+                case ProtocoloShard.LISTAR: {
+                    List<Usuario> usuarios = shard.listarUsuarios();
+                    salida.writeByte(ProtocoloShard.OK);
+                    ProtocoloShard.escribirUsuarios(salida, usuarios);
+                    break;
+                }
+                case ProtocoloShard.BUSCAR_POR_NOMBRE: {
+                    String prefijo = leerTexto(entrada);
+                    List<Usuario> usuarios = shard.buscarPorNombre(prefijo, entrada.readInt());
+                    salida.writeByte(ProtocoloShard.OK);
+                    ProtocoloShard.escribirUsuarios(salida, usuarios);
+                    break;
+                }
+                case ProtocoloShard.LISTAR_EMAILS: {
+                    List<String> emails = shard.listarEmails();
+                    salida.writeByte(ProtocoloShard.OK);
+                    ProtocoloShard.escribirTextos(salida, emails);
+                    break;
+                }
+                case ProtocoloShard.COPIAR: {
+                    List<Usuario> usuarios = shard.copiar(ProtocoloShard.leerTextos(entrada));
+                    salida.writeByte(ProtocoloShard.OK);
+                    ProtocoloShard.escribirUsuarios(salida, usuarios);
+                    break;
+                }
+                case ProtocoloShard.IMPORTAR:
+                    shard.importar(ProtocoloShard.leerUsuarios(entrada));
+                    salida.writeByte(ProtocoloShard.OK);
+                    break;
+                case ProtocoloShard.QUITAR:
+                    shard.quitar(ProtocoloShard.leerTextos(entrada));
+                    salida.writeByte(ProtocoloShard.OK);
+                    break;
+                default:
+                    throw new IOException("Operación desconocida: " + operacion);
+            }
+        } catch (IllegalArgumentException e) {
+            salida.writeByte(ProtocoloShard.ARGUMENTO_INVALIDO);
+            salida.writeUTF(String.valueOf(e.getMessage()));
+        } catch (RuntimeException e) {
+            salida.writeByte(ProtocoloShard.ERROR);
+            salida.writeUTF(e.toString());
+        }
+    }
+
+    private static String leerTexto(DataInputStream entrada) throws IOException {
+        return ProtocoloShard.leerTexto(entrada);
+    }
+
+    /**
+     * Deja de atender y corta las conexiones abiertas (no cierra el gestor)
+     */
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Ya estaba cerrado
+        }
+        for (Socket conexion : conexiones) {
+            try {
+                conexion.close();
+            } catch (IOException e) {
+                // Se cierra igual
+            }
+        }
+        hilos.shutdown();
+    }
+}
@@ -0,0 +1,44 @@
+package com.proyecto;
+
+import java.util.List;
+
+/**
+ * Una parte del almacén repartido por CoordinadorShards: un GestorUsuarios en el mismo
+ * proceso (ShardLocal) o en otro, detrás de un ServidorShard (ShardRemoto)
+ *
+ * Además de las operaciones normales ofrece las que usa el coordinador para mover usuarios
+ * de un shard a otro sin pasar por el KDF: se mueve la credencial derivada, no la password.
+ */
+interface Shard extends OperacionesUsuarios, AutoCloseable {
+
+    /**
+     * @return emails de todos los usuarios del shard, en un orden cualquiera
+     */
+    List<String> listarEmails();
+
+    /**
+     * Lee usuarios completos (con credencial y fecha de creación) sin quitarlos del shard
+     * @param emails emails a leer; los que no existen se ignoran
+     * @return copias de los usuarios encontrados
+     */
+    List<Usuario> copiar(List<String> emails);
+
+    /**
+     * Inserta usuarios tal como vienen de copiar; si un email ya existe se conserva el existente,
+     * así que repetir una importación no cambia nada
+     * @param usuarios usuarios a insertar
+     */
+    void importar(List<Usuario> usuarios);
+
+    /**
+     * Quita usuarios del shard una vez que ya están en su destino
+     * @param emails emails a quitar; los que no existen se ignoran
+     */
+    void quitar(List<String> emails);
+
+    /**
+     * Libera las conexiones del shard (no cierra el gestor de un shard local)
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,102 @@
+package com.proyecto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shard en el mismo proceso: delega en un GestorUsuarios
+ */
+class ShardLocal implements Shard {
+
+    private final GestorUsuarios gestor;
+
+    ShardLocal(GestorUsuarios gestor) {
+        this.gestor = gestor;
+    }
+
+    @Override
+    public boolean registrarUsuario(String email, String password, String nombre) {
+        return gestor.registrarUsuario(email, password, nombre);
+    }
+
+    @Override
+    public Usuario autenticar(String email, String password) {
+        return gestor.autenticar(email, password);
+    }
+
+    @Override
+    public boolean eliminarUsuario(String email) {
+        return gestor.eliminarUsuario(email);
+    }
+
+    @Override
+    public Usuario buscarUsuario(String email) {
+        return gestor.buscarUsuario(email);
+    }
+
+    @Override
+    public boolean actualizarUsuario(String email, String nuevoNombre) {
+        return gestor.actualizarUsuario(email, nuevoNombre);
+    }
+
+    @Override
+    public boolean cambiarPassword(String email, String passwordActual, String nuevaPassword) {
+        return gestor.cambiarPassword(email, passwordActual, nuevaPassword);
+    }
+
+    @Override
+    public boolean existeUsuario(String email) {
+        return gestor.existeUsuario(email);
+    }
+
+    @Override
+    public int obtenerCantidadUsuarios() {
+        return gestor.obtenerCantidadUsuarios();
+    }
+
+    @Override
+    public List<Usuario> listarUsuarios() {
+        return gestor.listarUsuarios();
+    }
+
+    @Override
+    public List<Usuario> buscarPorNombre(String prefijo, int limite) {
+        return gestor.buscarPorNombre(prefijo, limite);
+    }
+
+    @Override
+    public List<String> listarEmails() {
+        return gestor.listarEmails();
+    }
+
+    @Override
+    public List<Usuario> copiar(List<String> emails) {
+        List<Usuario> copiados = new ArrayList<>(emails.size());
+        for (String email : emails) {
+            Usuario usuario = gestor.copiarUsuario(email);
+            if (usuario != null) {
+                copiados.add(usuario);
+            }
+        }
+        return copiados;
+    }
+
+    @Override
+    public void importar(List<Usuario> usuarios) {
+        for (Usuario usuario : usuarios) {
+            gestor.importarUsuario(usuario);
+        }
+    }
+
+    @Override
+    public void quitar(List<String> emails) {
+        for (String email : emails) {
+            gestor.extraerUsuario(email);
+        }
+    }
+
+    @Override
+    public void close() {
+        // El gestor es del llamador
+    }
+}
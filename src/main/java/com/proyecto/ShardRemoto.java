@@ -0,0 +1,243 @@
+package com.proyecto;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Shard en otro proceso, atendido por un ServidorShard
+ *
+ * Cada pedido toma una conexión libre (o abre una) y la devuelve al terminar, así que hay
+ * tantas conexiones como hilos usando el shard a la vez. Una conexión que falla se descarta y
+ * el error llega al llamador como UncheckedIOException; el siguiente pedido abre otra. Lo
+ * mismo pasa con un shard colgado: conectar y esperar cada respuesta tienen un tiempo máximo,
+ * para que una migración (que llama al shard con el candado de escritura del coordinador) no
+ * bloquee para siempre al resto de las operaciones.
+ * Los Usuario devueltos son copias: setNombre sobre ellos no llega al shard.
+ */
+final class ShardRemoto implements Shard {
+
+    @FunctionalInterface
+    private interface Argumentos {
+        void escribir(DataOutputStream salida) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Respuesta<T> {
+        T leer(DataInputStream entrada) throws IOException;
+    }
+
+    private static final class Conexion {
+        final Socket socket;
+        final DataInputStream entrada;
+        final DataOutputStream salida;
+
+        Conexion(Socket socket) throws IOException {
+            this.socket = socket;
+            this.entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.salida = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+    }
+
+    private static final Argumentos SIN_ARGUMENTOS = salida -> { };
+
+    static final int TIEMPO_CONEXION_MS = 5_000;
+    // Holgado: un lote de migración o un autenticar con muchas iteraciones tardan
+    static final int TIEMPO_RESPUESTA_MS = 30_000;
+
+    private final InetSocketAddress direccion;
+    private final int tiempoRespuestaMs;
+    private final ConcurrentLinkedDeque<Conexion> libres = new ConcurrentLinkedDeque<>();
+    private volatile boolean cerrado;
+
+    /**
+     * Se conecta una vez para fallar enseguida si el servidor no está
+     * @param direccion dirección del ServidorShard
+     * @throws IOException si no se puede conectar
+     */
+    ShardRemoto(InetSocketAddress direccion) throws IOException {
+        this(direccion, TIEMPO_RESPUESTA_MS);
+    }
+
+    /**
+     * @param direccion dirección del ServidorShard
+     * @param tiempoRespuestaMs espera máxima por cada respuesta
+     * @throws IOException si no se puede conectar
+     */
+    ShardRemoto(InetSocketAddress direccion, int tiempoRespuestaMs) throws IOException {
+        this.direccion = direccion;
+        this.tiempoRespuestaMs = tiempoRespuestaMs;
+        libres.push(conectar());
+    }
+
+    private Conexion conectar() throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(tiempoRespuestaMs);
+            socket.connect(direccion, Math.min(TIEMPO_CONEXION_MS, tiempoRespuestaMs));
+            return new Conexion(socket);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private <T> T pedir(byte operacion, Argumentos argumentos, Respuesta<T> respuesta) {
+        if (cerrado) {
+            throw new IllegalStateException("El shard remoto " + direccion + " está cerrado");
+        }
+        Conexion conexion = null;
+        boolean reutilizable = false;
+        try {
+            conexion = libres.poll();
+            if (conexion == null) {
+                conexion = conectar();
+            }
+            conexion.salida.writeByte(operacion);
+            argumentos.escribir(conexion.salida);
+            conexion.salida.flush();
+            byte estado = conexion.entrada.readByte();
+            if (estado == ProtocoloShard.OK) {
+                T resultado = respuesta.leer(conexion.entrada);
+                reutilizable = true;
+                return resultado;
+            }
+            String mensaje = conexion.entrada.readUTF();
+            reutilizable = true;
+            if (estado == ProtocoloShard.ARGUMENTO_INVALIDO) {
+                throw new IllegalArgumentException(mensaje);
+            }
+            throw new IllegalStateException("Error en el shard remoto " + direccion + ": " + mensaje);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falló la conexión con el shard remoto " + direccion, e);
+        } finally {
+            if (conexion != null) {
+                if (reutilizable && !cerrado) {
+                    libres.push(conexion);
+                } else {
+                    cerrar(conexion);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean registrarUsuario(String email, String password, String nombre) {
+        return pedir(ProtocoloShard.REGISTRAR, salida -> {
+            ProtocoloShard.escribirTexto(salida, email);
+            ProtocoloShard.escribirTexto(salida, password);
+            ProtocoloShard.escribirTexto(salida, nombre);
+        }, DataInputStream::readBoolean);
+    }
+
+    @Override
+    public Usuario autenticar(String email, String password) {
+        return pedir(ProtocoloShard.AUTENTICAR, salida -> {
+            ProtocoloShard.escribirTexto(salida, email);
+            ProtocoloShard.escribirTexto(salida, password);
+        }, ProtocoloShard::leerUsuario);
+    }
+
+    @Override
+    public boolean eliminarUsuario(String email) {
+        return pedir(ProtocoloShard.ELIMINAR, salida -> ProtocoloShard.escribirTexto(salida, email),
+                DataInputStream::readBoolean);
+    }
+
+    @Override
+    public Usuario buscarUsuario(String email) {
+        return pedir(ProtocoloShard.BUSCAR, salida -> ProtocoloShard.escribirTexto(salida, email),
+                ProtocoloShard::leerUsuario);
+    }
+
+    @Override
+    public boolean actualizarUsuario(String email, String nuevoNombre) {
+        return pedir(ProtocoloShard.ACTUALIZAR, salida -> {
+            ProtocoloShard.escribirTexto(salida, email);
+            ProtocoloShard.escribirTexto(salida, nuevoNombre);
+        }, DataInputStream::readBoolean);
+    }
+
+    @Override
+    public boolean cambiarPassword(String email, String passwordActual, String nuevaPassword) {
+        return pedir(ProtocoloShard.CAMBIAR_PASSWORD, salida -> {
+            ProtocoloShard.escribirTexto(salida, email);
+            ProtocoloShard.escribirTexto(salida, passwordActual);
+            ProtocoloShard.escribirTexto(salida, nuevaPassword);
+        }, DataInputStream::readBoolean);
+    }
+
+    @Override
+    public boolean existeUsuario(String email) {
+        return pedir(ProtocoloShard.EXISTE, salida -> ProtocoloShard.escribirTexto(salida, email),
+                DataInputStream::readBoolean);
+    }
+
+    @Override
+    public int obtenerCantidadUsuarios() {
+        return pedir(ProtocoloShard.CANTIDAD, SIN_ARGUMENTOS, DataInputStream::readInt);
+    }
+
+    @Override
+    public List<Usuario> listarUsuarios() {
+        return pedir(ProtocoloShard.LISTAR, SIN_ARGUMENTOS, ProtocoloShard::leerUsuarios);
+    }
+
+    @Override
+    public List<Usuario> buscarPorNombre(String prefijo, int limite) {
+        return pedir(ProtocoloShard.BUSCAR_POR_NOMBRE, salida -> {
+            ProtocoloShard.escribirTexto(salida, prefijo);
+            salida.writeInt(limite);
+        }, ProtocoloShard::leerUsuarios);
+    }
+
+    @Override
+    public List<String> listarEmails() {
+        return pedir(ProtocoloShard.LISTAR_EMAILS, SIN_ARGUMENTOS, ProtocoloShard::leerTextos);
+    }
+
+    @Override
+    public List<Usuario> copiar(List<String> emails) {
+        return pedir(ProtocoloShard.COPIAR, salida -> ProtocoloShard.escribirTextos(salida, emails),
+                ProtocoloShard::leerUsuarios);
+    }
+
+    @Override
+    public void importar(List<Usuario> usuarios) {
+        pedir(ProtocoloShard.IMPORTAR, salida -> ProtocoloShard.escribirUsuarios(salida, usuarios), entrada -> null);
+    }
+
+    @Override
+    public void quitar(List<String> emails) {
+        pedir(ProtocoloShard.QUITAR, salida -> ProtocoloShard.escribirTextos(salida, emails), entrada -> null);
+    }
+
+    @Override
+    public void close() {
+        cerrado = true;
+        for (Conexion conexion = libres.poll(); conexion != null; conexion = libres.poll()) {
+            cerrar(conexion);
+        }
+    }
+
+    private static void cerrar(Conexion conexion) {
+        try {
+            conexion.socket.close();
+        } catch (IOException e) {
+            // Se descarta igual
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ShardRemoto[" + direccion + "]";
+    }
+}
@@ -0,0 +1,80 @@
+package com.proyecto;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cursor de un lector del flujo de cambios de GestorUsuarios (ver GestorUsuarios.suscribirCambios)
+ *
+ * Leer no frena a los escritores: quien se atrasa más que la capacidad del anillo pierde
+ * cambios y se entera por LoteCambios.getPerdidos; getRetraso permite ver venir ese momento.
+ * Cada suscripción es de un solo lector; varias suscripciones leen de forma independiente.
+ */
+public final class SuscripcionCambios {
+
+    // Espera máxima entre dos consultas del anillo cuando no hay cambios nuevos
+    private static final long PAUSA_MAXIMA_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final FlujoCambios flujo;
+    private long cursor;
+
+    SuscripcionCambios(FlujoCambios flujo, long desde) {
+        this.flujo = flujo;
+        this.cursor = desde;
+    }
+
+    /**
+     * Lee los cambios disponibles sin esperar
+     * @param maximo cantidad máxima de cambios del lote
+     * @return lote, vacío si no hay cambios nuevos
+     * @throws IllegalArgumentException si el máximo no es positivo
+     */
+    public LoteCambios leer(int maximo) {
+        if (maximo < 1) {
+            throw new IllegalArgumentException("El máximo debe ser al menos 1");
+        }
+        LoteCambios lote = flujo.leer(cursor, maximo);
+        cursor = lote.getSiguienteSecuencia();
+        return lote;
+    }
+
+    /**
+     * Lee los cambios disponibles; si no hay, espera a que llegue alguno o se cumpla el plazo
+     * @param maximo cantidad máxima de cambios del lote
+     * @param espera plazo máximo
+     * @param unidad unidad del plazo
+     * @return lote, vacío si no llegaron cambios en el plazo
+     * @throws InterruptedException si se interrumpe el hilo mientras espera
+     */
+    public LoteCambios leer(int maximo, long espera, TimeUnit unidad) throws InterruptedException {
+        long limite = System.nanoTime() + unidad.toNanos(espera);
+        long pausa = 1_000;
+        while (true) {
+            LoteCambios lote = leer(maximo);
+            long restante = limite - System.nanoTime();
+            if (!lote.getCambios().isEmpty() || lote.getPerdidos() > 0 || restante <= 0) {
+                return lote;
+            }
+            // Sondeo con pausas crecientes: los escritores no avisan, así nunca esperan a nadie
+            LockSupport.parkNanos(Math.min(pausa, restante));
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            pausa = Math.min(2 * pausa, PAUSA_MAXIMA_NANOS);
+        }
+    }
+
+    /**
+     * @return secuencia del próximo cambio que leerá esta suscripción
+     */
+    public long getSecuencia() {
+        return cursor;
+    }
+
+    /**
+     * @return cambios publicados que esta suscripción todavía no leyó
+     */
+    public long getRetraso() {
+        return Math.max(0, flujo.siguienteSecuencia() - cursor);
+    }
+}
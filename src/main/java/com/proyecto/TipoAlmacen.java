@@ -0,0 +1,35 @@
+package com.proyecto;
+
+/**
+ * Estructura donde GestorUsuarios guarda los usuarios (ver ConfiguracionGestor.almacen)
+ */
+public enum TipoAlmacen {
+
+    /**
+     * Un objeto Usuario por usuario en un HashMap (o un ConcurrentHashMap en modo concurrente).
+     * Es la opción más rápida para tamaños moderados.
+     */
+    MAPA,
+
+    /**
+     * Registros en columnas de tipos primitivos y una arena de bytes, con un índice hash
+     * propio. Ocupa una fracción de la memoria de MAPA con decenas de millones de usuarios;
+     * los Usuario que devuelve el gestor son vistas creadas al pedirlas (ver AlmacenColumnar).
+     */
+    COLUMNAR,
+
+    /**
+     * Árbol de hash persistente con versiones inmutables de cada usuario (ver
+     * AlmacenVersionado). Habilita GestorUsuarios.instantanea: lecturas consistentes de todo
+     * el almacén en O(1), sin candados y sin frenar a los escritores. Cada cambio copia la
+     * ruta del árbol y el usuario, por lo que escribir cuesta más que con MAPA.
+     */
+    VERSIONADO,
+
+    /**
+     * Todos los usuarios en archivos mapeados en memoria y los más leídos en una caché acotada
+     * en bytes (ver AlmacenEnDisco). Para más usuarios de los que entran en el heap; se elige
+     * con ConfiguracionGestor.almacenEnDisco, que da el directorio y la memoria de la caché.
+     */
+    DISCO
+}
@@ -4,13 +4,23 @@ import java.util.*;
 
 /**
  * Clase Usuario - Representa un usuario del sistema
+ *
+ * La password nunca se guarda en claro: sólo su Credencial derivada con PBKDF2.
+ *
+ * Con TipoAlmacen.COLUMNAR el gestor devuelve subclases que leen los datos del almacén en
+ * lugar de estos campos; por eso los métodos de esta clase acceden a los datos con los getters.
+ * Con TipoAlmacen.VERSIONADO cada Usuario devuelto es una versión sellada, compartida con las
+ * instantáneas que la ven: sus setters lanzan IllegalStateException y los cambios se hacen con
+ * el gestor, que los aplica sobre una copia.
  */
 public class Usuario {
 
-    private String email;
-    private String password;
-    private String nombre;
-    private Date fechaCreacion;
+    private final String email;
+    private volatile Credencial credencial;
+    private volatile String nombre;
+    private final Date fechaCreacion;
+    // Lo marca el almacén versionado al guardar esta versión; desde entonces no cambia
+    private boolean sellado;
 
     /**
      * Constructor de Usuario
@@ -20,10 +30,18 @@ public class Usuario {
      * @param nombre   Nombre completo del usuario
      */
     public Usuario(String email, String password, String nombre) {
+        this(email, Credencial.crear(password, Credencial.ITERACIONES_POR_DEFECTO), nombre, new Date());
+    }
+
+    /**
+     * Constructor con la credencial ya derivada y fecha de creación explícita
+     * (al registrar desde GestorUsuarios o al recuperar usuarios persistidos)
+     */
+    Usuario(String email, Credencial credencial, String nombre, Date fechaCreacion) {
         this.email = email;
-        this.password = password;
+        this.credencial = credencial;
         this.nombre = nombre;
-        this.fechaCreacion = new Date();
+        this.fechaCreacion = fechaCreacion;
     }
 
     // ========== GETTERS ==========
@@ -32,8 +50,8 @@ public class Usuario {
         return email;
     }
 
-    public String getPassword() {
-        return password;
+    Credencial getCredencial() {
+        return credencial;
     }
 
     public String getNombre() {
@@ -46,12 +64,53 @@ public class Usuario {
 
     // ========== SETTERS ==========
 
+    /**
+     * Cambia el nombre en este objeto, sin pasar por el gestor
+     * @param nombre nuevo nombre
+     * @throws IllegalStateException si es una versión sellada del almacén versionado
+     */
     public void setNombre(String nombre) {
+        comprobarModificable();
         this.nombre = nombre;
     }
 
+    /**
+     * Reemplaza la password (deriva una credencial nueva con las iteraciones por defecto)
+     * @param password nueva password en claro
+     * @throws IllegalStateException si es una versión sellada del almacén versionado
+     */
     public void setPassword(String password) {
-        this.password = password;
+        setCredencial(Credencial.crear(password, Credencial.ITERACIONES_POR_DEFECTO));
+    }
+
+    void setCredencial(Credencial credencial) {
+        comprobarModificable();
+        this.credencial = credencial;
+    }
+
+    /**
+     * Impide cualquier cambio posterior (las versiones del almacén versionado no se modifican)
+     */
+    void sellar() {
+        sellado = true;
+    }
+
+    private void comprobarModificable() {
+        if (sellado) {
+            throw new IllegalStateException("El usuario " + email
+                    + " es una versión guardada e inmutable: los cambios se hacen con el gestor");
+        }
+    }
+
+    // ========== VERIFICACIÓN ==========
+
+    /**
+     * Comprueba si una password corresponde a este usuario (ejecuta el KDF: es lento a propósito)
+     * @param password password en claro
+     * @return true si la password es correcta
+     */
+    public boolean verificarPassword(String password) {
+        return getCredencial().verificar(password);
     }
 
     // ========== MÉTODOS DE OBJECT ==========
@@ -60,7 +119,7 @@ public class Usuario {
     public boolean equals(Object obj) {
         if (this == obj)
             return true;
-        if (obj == null || getClass() != obj.getClass())
+        if (!(obj instanceof Usuario))
             return false;
         Usuario usuario = (Usuario) obj;
         return Objects.equals(email, usuario.email);
@@ -74,9 +133,9 @@ public class Usuario {
     @Override
     public String toString() {
         return "Usuario{" +
-                "email='" + email + '\'' +
-                ", nombre='" + nombre + '\'' +
-                ", fechaCreacion=" + fechaCreacion +
+                "email='" + getEmail() + '\'' +
+                ", nombre='" + getNombre() + '\'' +
+                ", fechaCreacion=" + getFechaCreacion() +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.proyecto;
+
+/**
+ * Validador de emails de una sola pasada y sin asignaciones
+ *
+ * Acepta exactamente el mismo lenguaje que la expresión regular que usaba GestorUsuarios:
+ * <pre>^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$</pre>
+ * Como la parte final sólo admite letras, el punto que la separa es necesariamente
+ * el último punto del dominio; no hace falta retroceder como hace el motor de regex.
+ */
+final class ValidadorEmail {
+
+    private ValidadorEmail() {
+    }
+
+    /**
+     * Valida el formato del email
+     * @param email Email a validar
+     * @return true si el formato es válido, false en caso contrario (también si es null)
+     */
+    static boolean esValido(String email) {
+        if (email == null) {
+            return false;
+        }
+        int longitud = email.length();
+
+        // Parte local: uno o más caracteres de [A-Za-z0-9+_.-] hasta la arroba
+        int i = 0;
+        while (i < longitud) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                break;
+            }
+            if (!esAlfanumerico(c) && c != '+' && c != '_' && c != '.' && c != '-') {
+                return false;
+            }
+            i++;
+        }
+        int arroba = i;
+        if (arroba == 0 || arroba == longitud) {
+            return false;
+        }
+
+        // Dominio: [A-Za-z0-9.-] recordando el último punto
+        int ultimoPunto = -1;
+        for (i = arroba + 1; i < longitud; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                ultimoPunto = i;
+            } else if (!esAlfanumerico(c) && c != '-') {
+                return false;
+            }
+        }
+
+        // Al menos un carácter antes del último punto y al menos dos después
+        if (ultimoPunto < arroba + 2 || longitud - ultimoPunto - 1 < 2) {
+            return false;
+        }
+        // Después del último punto sólo letras
+        for (i = ultimoPunto + 1; i < longitud; i++) {
+            if (!esLetra(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean esLetra(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean esAlfanumerico(char c) {
+        return esLetra(c) || (c >= '0' && c <= '9');
+    }
+}
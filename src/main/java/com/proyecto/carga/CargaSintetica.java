@@ -0,0 +1,280 @@
+package com.proyecto.carga;
+
+import com.proyecto.ConfiguracionGestor;
+import com.proyecto.GestorUsuarios;
+import com.proyecto.OperacionesUsuarios;
+import com.proyecto.RegistroUsuario;
+import com.proyecto.ResultadoLote;
+import com.proyecto.ResultadoRegistro;
+import com.proyecto.TipoAlmacen;
+import com.proyecto.metricas.Histograma;
+import com.proyecto.metricas.InstantaneaHistograma;
+import com.proyecto.metricas.RegistroMetricas;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+/**
+ * Carga sintética reproducible contra un GestorUsuarios en el mismo proceso: genera (o lee)
+ * una TrazaCarga, crea los usuarios iniciales y ejecuta la traza con un hilo por secuencia,
+ * midiendo el rendimiento y la latencia de cada operación
+ *
+ * A diferencia de GeneradorCarga (que mide ServidorLogin por la red), aquí no hay protocolo
+ * ni conexiones: lo que se ve es la contención y el sesgo de claves dentro del gestor. La
+ * traza grabada con --grabar se vuelve a ejecutar idéntica con --reproducir, por ejemplo para
+ * comparar dos versiones o dos configuraciones con exactamente las mismas operaciones. Lo que
+ * no se reproduce es cómo el planificador intercala los hilos.
+ *
+ * Uso:
+ * <pre>
+ * java -cp app.jar com.proyecto.carga.CargaSintetica --semilla 42 --usuarios 100000 --hilos 8 \
+ *     --operaciones 200000 --zipf 0.99 --mezcla autenticar=70,buscar=20,cambiar=4,eliminar=4,registrar=2 \
+ *     --lecturas 0.9 --iteraciones-kdf 1000 --almacen MAPA --grabar carga.trz
+ * java -cp app.jar com.proyecto.carga.CargaSintetica --reproducir carga.trz
+ * </pre>
+ */
+public final class CargaSintetica {
+
+    static final String PASSWORD = "password123";
+
+    private CargaSintetica() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Parametros parametros;
+        try {
+            parametros = Parametros.leer(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(Parametros.USO);
+            System.exit(2);
+            return;
+        }
+        ejecutar(parametros, System.out);
+    }
+
+    static InformeCarga ejecutar(Parametros parametros, PrintStream salida) throws IOException, InterruptedException {
+        TrazaCarga traza;
+        if (parametros.reproducir != null) {
+            traza = TrazaCarga.leer(parametros.reproducir);
+            salida.printf(Locale.ROOT, "Traza %s: semilla %d, %d usuarios, %d hilos%n", parametros.reproducir,
+                    traza.getSemilla(), traza.getUsuarios(), traza.getHilos());
+        } else {
+            traza = TrazaCarga.generar(parametros.carga);
+            salida.println(parametros.carga);
+        }
+        if (parametros.grabar != null) {
+            traza.escribir(parametros.grabar);
+            salida.printf(Locale.ROOT, "Traza grabada en %s (%d bytes)%n", parametros.grabar,
+                    Files.size(parametros.grabar));
+        }
+        try (GestorUsuarios gestor = new GestorUsuarios(new ConfiguracionGestor().concurrente(true)
+                .iteracionesKdf(parametros.iteracionesKdf).almacen(parametros.almacen))) {
+            long inicio = System.nanoTime();
+            int creados = poblar(gestor, traza);
+            salida.printf(Locale.ROOT, "Población: %d usuarios en %.1f s%n", creados, (System.nanoTime() - inicio) / 1e9);
+            InformeCarga informe = ejecutar(gestor, traza);
+            salida.print(informe);
+            return informe;
+        }
+    }
+
+    /**
+     * Crea los usuarios que la traza espera encontrar (claves 0 a getUsuarios() - 1), con la
+     * importación masiva
+     * @param gestor gestor a poblar
+     * @param traza traza a ejecutar después
+     * @return usuarios creados (los que ya existían no cuentan)
+     */
+    public static int poblar(GestorUsuarios gestor, TrazaCarga traza) {
+        ResultadoLote resultado = gestor.registrarLote(IntStream.range(0, traza.getUsuarios())
+                .mapToObj(clave -> new RegistroUsuario(TrazaCarga.email(clave), PASSWORD, "Usuario de carga " + clave)));
+        return resultado.contar(ResultadoRegistro.ACEPTADO);
+    }
+
+    /**
+     * Ejecuta la traza: un hilo por secuencia, todos arrancan juntos. Cada operación se mide
+     * con System.nanoTime.
+     * @param destino gestor (o coordinador de shards) ya poblado
+     * @param traza traza a ejecutar
+     * @return rendimiento y latencias por operación
+     * @throws InterruptedException si se interrumpe la espera de los hilos
+     * @throws IllegalStateException si alguna operación lanzó una excepción
+     */
+    public static InformeCarga ejecutar(OperacionesUsuarios destino, TrazaCarga traza) throws InterruptedException {
+        int tipos = OperacionCarga.values().length;
+        RegistroMetricas registro = new RegistroMetricas();
+        Histograma[] latencias = new Histograma[tipos];
+        for (OperacionCarga operacion : OperacionCarga.values()) {
+            latencias[operacion.ordinal()] = registro.histograma("carga_latencia_segundos",
+                    "Latencia de las operaciones de la carga sintética", "operacion", operacion.getEtiqueta());
+        }
+        long[][] cantidades = new long[traza.getHilos()][tipos];
+        long[][] exitos = new long[traza.getHilos()][tipos];
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < traza.getHilos(); h++) {
+            int hilo = h;
+            Thread ejecutor = new Thread(() -> {
+                try {
+                    largada.await();
+                    for (int i = 0; i < traza.getCantidad(hilo); i++) {
+                        OperacionCarga operacion = traza.getOperacion(hilo, i);
+                        String email = TrazaCarga.email(traza.getClave(hilo, i));
+                        long inicio = System.nanoTime();
+                        boolean exito = aplicar(destino, operacion, email, traza.getClave(hilo, i));
+                        latencias[operacion.ordinal()].registrarDesde(inicio);
+                        cantidades[hilo][operacion.ordinal()]++;
+                        if (exito) {
+                            exitos[hilo][operacion.ordinal()]++;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    error.compareAndSet(null, e);
+                }
+            }, "carga-sintetica-" + hilo);
+            hilos.add(ejecutor);
+            ejecutor.start();
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Thread ejecutor : hilos) {
+            ejecutor.join();
+        }
+        long duracion = System.nanoTime() - inicio;
+        if (error.get() != null) {
+            throw new IllegalStateException("La carga falló", error.get());
+        }
+
+        long[] totales = new long[tipos];
+        long[] exitosTotales = new long[tipos];
+        InstantaneaHistograma[] instantaneas = new InstantaneaHistograma[tipos];
+        for (int t = 0; t < tipos; t++) {
+            for (int hilo = 0; hilo < traza.getHilos(); hilo++) {
+                totales[t] += cantidades[hilo][t];
+                exitosTotales[t] += exitos[hilo][t];
+            }
+            instantaneas[t] = latencias[t].instantanea();
+        }
+        return new InformeCarga(traza.getHilos(), duracion, totales, exitosTotales, instantaneas);
+    }
+
+    private static boolean aplicar(OperacionesUsuarios destino, OperacionCarga operacion, String email, int clave) {
+        switch (operacion) {
+            case REGISTRAR:
+                return destino.registrarUsuario(email, PASSWORD, "Usuario de carga " + clave);
+            case AUTENTICAR:
+                return destino.autenticar(email, PASSWORD) != null;
+            case BUSCAR:
+                return destino.buscarUsuario(email) != null;
+            case CAMBIAR_PASSWORD:
+                // La misma password: el usuario sigue pudiendo autenticarse, pero se deriva y escribe otra credencial
+                return destino.cambiarPassword(email, PASSWORD, PASSWORD);
+            case ELIMINAR:
+                return destino.eliminarUsuario(email);
+            default:
+                throw new IllegalArgumentException("Operación desconocida: " + operacion);
+        }
+    }
+
+    /**
+     * Opciones de línea de comandos, con sus valores por defecto
+     */
+    static final class Parametros {
+        static final String USO = "Uso: CargaSintetica [--semilla N] [--usuarios N] [--hilos N] [--operaciones N]"
+                + " [--zipf S] [--mezcla autenticar=70,buscar=20,...] [--lecturas F] [--iteraciones-kdf N]"
+                + " [--almacen MAPA|COLUMNAR|VERSIONADO] [--grabar ARCHIVO] [--reproducir ARCHIVO]";
+
+        final ConfiguracionCarga carga = new ConfiguracionCarga();
+        int iteracionesKdf = 1000;
+        TipoAlmacen almacen = TipoAlmacen.MAPA;
+        Path grabar;
+        Path reproducir;
+
+        static Parametros leer(String[] args) {
+            Parametros parametros = new Parametros();
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Falta el valor de " + args[i]);
+                }
+                String valor = args[i + 1];
+                try {
+                    switch (args[i]) {
+                        case "--semilla":
+                            parametros.carga.semilla(Long.parseLong(valor));
+                            break;
+                        case "--usuarios":
+                            parametros.carga.usuarios(Integer.parseInt(valor));
+                            break;
+                        case "--hilos":
+                            parametros.carga.hilos(Integer.parseInt(valor));
+                            break;
+                        case "--operaciones":
+                            parametros.carga.operacionesPorHilo(Integer.parseInt(valor));
+                            break;
+                        case "--zipf":
+                            parametros.carga.zipf(Double.parseDouble(valor));
+                            break;
+                        case "--mezcla":
+                            leerMezcla(parametros.carga, valor);
+                            break;
+                        case "--lecturas":
+                            parametros.carga.lecturas(Double.parseDouble(valor));
+                            break;
+                        case "--iteraciones-kdf":
+                            parametros.iteracionesKdf = Integer.parseInt(valor);
+                            if (parametros.iteracionesKdf < 1) {
+                                throw new IllegalArgumentException("--iteraciones-kdf debe ser positivo");
+                            }
+                            break;
+                        case "--almacen":
+                            parametros.almacen = TipoAlmacen.valueOf(valor.toUpperCase(Locale.ROOT));
+                            if (parametros.almacen == TipoAlmacen.DISCO) {
+                                throw new IllegalArgumentException("El almacén DISCO no está disponible en la carga sintética");
+                            }
+                            break;
+                        case "--grabar":
+                            parametros.grabar = Paths.get(valor);
+                            break;
+                        case "--reproducir":
+                            parametros.reproducir = Paths.get(valor);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Valor inválido para " + args[i] + ": " + valor, e);
+                }
+            }
+            // Valida la mezcla antes de generar
+            parametros.carga.getProbabilidadesAcumuladas();
+            return parametros;
+        }
+
+        // Las operaciones que no se nombran quedan con peso 0
+        private static void leerMezcla(ConfiguracionCarga carga, String texto) {
+            for (OperacionCarga operacion : OperacionCarga.values()) {
+                carga.peso(operacion, 0);
+            }
+            for (String parte : texto.split(",")) {
+                String[] claveValor = parte.split("=", 2);
+                if (claveValor.length != 2) {
+                    throw new IllegalArgumentException("Mezcla inválida: " + texto);
+                }
+                carga.peso(OperacionCarga.desdeEtiqueta(claveValor[0].trim()), Integer.parseInt(claveValor[1].trim()));
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.proyecto.carga;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Parámetros de una carga sintética (ver TrazaCarga.generar)
+ *
+ * Ejemplo:
+ * <pre>
+ * TrazaCarga traza = TrazaCarga.generar(new ConfiguracionCarga()
+ *         .semilla(42)
+ *         .usuarios(100_000)
+ *         .hilos(8)
+ *         .operacionesPorHilo(200_000)
+ *         .peso(OperacionCarga.ELIMINAR, 0)
+ *         .lecturas(0.95));
+ * </pre>
+ */
+public class ConfiguracionCarga {
+
+    private long semilla = 1;
+    private int usuarios = 10_000;
+    private int hilos = 4;
+    private int operacionesPorHilo = 100_000;
+    private double exponenteZipf = 0.99;
+    private final int[] pesos = {2, 70, 20, 4, 4};
+    private double lecturas = Double.NaN;
+
+    /**
+     * Semilla de la que sale toda la traza: dos trazas con la misma configuración son iguales
+     * @param semilla semilla
+     * @return esta configuración
+     */
+    public ConfiguracionCarga semilla(long semilla) {
+        this.semilla = semilla;
+        return this;
+    }
+
+    /**
+     * Usuarios que existen antes de empezar; las lecturas y cambios de password se reparten
+     * entre ellos con popularidad Zipf
+     * @param usuarios cantidad de usuarios iniciales
+     * @return esta configuración
+     */
+    public ConfiguracionCarga usuarios(int usuarios) {
+        this.usuarios = positivo("usuarios", usuarios);
+        return this;
+    }
+
+    /**
+     * @param hilos hilos que ejecutan la carga a la vez, cada uno con su propia secuencia
+     * @return esta configuración
+     */
+    public ConfiguracionCarga hilos(int hilos) {
+        this.hilos = positivo("hilos", hilos);
+        return this;
+    }
+
+    /**
+     * @param operaciones operaciones que ejecuta cada hilo
+     * @return esta configuración
+     */
+    public ConfiguracionCarga operacionesPorHilo(int operaciones) {
+        this.operacionesPorHilo = positivo("operaciones por hilo", operaciones);
+        return this;
+    }
+
+    /**
+     * Exponente de la popularidad de las claves: 0 es uniforme y cuanto más alto, más se
+     * concentran los accesos en pocos usuarios (por defecto 0.99)
+     * @param exponente exponente de Zipf
+     * @return esta configuración
+     */
+    public ConfiguracionCarga zipf(double exponente) {
+        if (!(exponente >= 0)) {
+            throw new IllegalArgumentException("El exponente de Zipf no puede ser negativo");
+        }
+        this.exponenteZipf = exponente;
+        return this;
+    }
+
+    /**
+     * Peso relativo de una operación en la mezcla. Por defecto: autenticar 70, buscar 20,
+     * cambiar 4, eliminar 4 y registrar 2.
+     * @param operacion operación
+     * @param peso peso (0 la excluye)
+     * @return esta configuración
+     */
+    public ConfiguracionCarga peso(OperacionCarga operacion, int peso) {
+        if (peso < 0) {
+            throw new IllegalArgumentException("El peso de " + operacion.getEtiqueta() + " no puede ser negativo");
+        }
+        pesos[Objects.requireNonNull(operacion, "operacion").ordinal()] = peso;
+        return this;
+    }
+
+    /**
+     * Fija la fracción de lecturas (autenticar y buscar) sin cambiar las proporciones dentro
+     * de las lecturas ni dentro de las escrituras
+     * @param fraccion de 0 a 1
+     * @return esta configuración
+     */
+    public ConfiguracionCarga lecturas(double fraccion) {
+        if (!(fraccion >= 0 && fraccion <= 1)) {
+            throw new IllegalArgumentException("La fracción de lecturas debe estar entre 0 y 1");
+        }
+        this.lecturas = fraccion;
+        return this;
+    }
+
+    private static int positivo(String nombre, int valor) {
+        if (valor < 1) {
+            throw new IllegalArgumentException("La cantidad de " + nombre + " debe ser positiva");
+        }
+        return valor;
+    }
+
+    // ========== GETTERS ==========
+
+    long getSemilla() {
+        return semilla;
+    }
+
+    int getUsuarios() {
+        return usuarios;
+    }
+
+    int getHilos() {
+        return hilos;
+    }
+
+    int getOperacionesPorHilo() {
+        return operacionesPorHilo;
+    }
+
+    double getExponenteZipf() {
+        return exponenteZipf;
+    }
+
+    /**
+     * @return probabilidad acumulada de cada operación, en el orden de OperacionCarga
+     * @throws IllegalArgumentException si la mezcla no tiene operaciones, o si se fijó una
+     *         fracción de lecturas y falta el grupo que la recibe
+     */
+    double[] getProbabilidadesAcumuladas() {
+        double[] probabilidades = new double[pesos.length];
+        double totalLecturas = 0;
+        double totalEscrituras = 0;
+        for (OperacionCarga operacion : OperacionCarga.values()) {
+            if (operacion.esLectura()) {
+                totalLecturas += pesos[operacion.ordinal()];
+            } else {
+                totalEscrituras += pesos[operacion.ordinal()];
+            }
+        }
+        if (totalLecturas + totalEscrituras == 0) {
+            throw new IllegalArgumentException("La mezcla no tiene ninguna operación");
+        }
+        double fraccion = Double.isNaN(lecturas) ? totalLecturas / (totalLecturas + totalEscrituras) : lecturas;
+        if ((fraccion > 0 && totalLecturas == 0) || (fraccion < 1 && totalEscrituras == 0)) {
+            throw new IllegalArgumentException("La mezcla no tiene operaciones para la fracción de lecturas pedida");
+        }
+        double acumulada = 0;
+        for (OperacionCarga operacion : OperacionCarga.values()) {
+            int peso = pesos[operacion.ordinal()];
+            if (peso > 0) {
+                acumulada += operacion.esLectura() ? fraccion * peso / totalLecturas
+                        : (1 - fraccion) * peso / totalEscrituras;
+            }
+            probabilidades[operacion.ordinal()] = acumulada;
+        }
+        // El redondeo no debe dejar fuera a la última operación con peso
+        for (int i = probabilidades.length - 1; i >= 0 && probabilidades[i] == acumulada; i--) {
+            probabilidades[i] = 1;
+        }
+        return probabilidades;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfiguracionCarga{semilla=" + semilla + ", usuarios=" + usuarios + ", hilos=" + hilos
+                + ", operacionesPorHilo=" + operacionesPorHilo + ", zipf=" + exponenteZipf
+                + ", pesos=" + Arrays.toString(pesos) + (Double.isNaN(lecturas) ? "" : ", lecturas=" + lecturas) + '}';
+    }
+}
@@ -0,0 +1,103 @@
+package com.proyecto.carga;
+
+import com.proyecto.metricas.InstantaneaHistograma;
+
+import java.util.Locale;
+
+/**
+ * Resultado de ejecutar una traza: rendimiento y percentiles de latencia por operación
+ */
+public final class InformeCarga {
+
+    private final int hilos;
+    private final long duracionNanos;
+    private final long[] cantidades;
+    private final long[] exitos;
+    private final InstantaneaHistograma[] latencias;
+
+    InformeCarga(int hilos, long duracionNanos, long[] cantidades, long[] exitos, InstantaneaHistograma[] latencias) {
+        this.hilos = hilos;
+        this.duracionNanos = duracionNanos;
+        this.cantidades = cantidades;
+        this.exitos = exitos;
+        this.latencias = latencias;
+    }
+
+    /**
+     * @return tiempo desde que arrancan los hilos hasta que termina el último
+     */
+    public long getDuracionNanos() {
+        return duracionNanos;
+    }
+
+    /**
+     * @return operaciones ejecutadas en total
+     */
+    public long getCantidad() {
+        long total = 0;
+        for (long cantidad : cantidades) {
+            total += cantidad;
+        }
+        return total;
+    }
+
+    public long getCantidad(OperacionCarga operacion) {
+        return cantidades[operacion.ordinal()];
+    }
+
+    /**
+     * Operaciones que dieron el resultado esperado: registro o eliminación hechos, login o
+     * búsqueda que encontraron al usuario, password cambiada
+     * @param operacion operación
+     * @return cantidad de éxitos
+     */
+    public long getExitos(OperacionCarga operacion) {
+        return exitos[operacion.ordinal()];
+    }
+
+    /**
+     * @return operaciones por segundo, todas juntas
+     */
+    public double getRendimiento() {
+        return getCantidad() * 1e9 / duracionNanos;
+    }
+
+    public double getRendimiento(OperacionCarga operacion) {
+        return cantidades[operacion.ordinal()] * 1e9 / duracionNanos;
+    }
+
+    /**
+     * @param operacion operación
+     * @param percentil de 0 a 100
+     * @return latencia en nanosegundos (error relativo de hasta 6,25 %)
+     */
+    public long getPercentil(OperacionCarga operacion, double percentil) {
+        return latencias[operacion.ordinal()].percentil(percentil);
+    }
+
+    public long getMaximo(OperacionCarga operacion) {
+        return latencias[operacion.ordinal()].getMaximo();
+    }
+
+    /**
+     * @return tabla con una fila por operación ejecutada, para una persona
+     */
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format(Locale.ROOT, "%d operaciones con %d hilos en %.2f s: %.0f ops/s%n",
+                getCantidad(), hilos, duracionNanos / 1e9, getRendimiento()));
+        texto.append(String.format(Locale.ROOT, "  %-12s %10s %10s %12s %10s %10s %10s %10s%n",
+                "operación", "cantidad", "éxitos", "ops/s", "p50 µs", "p99 µs", "p999 µs", "máx µs"));
+        for (OperacionCarga operacion : OperacionCarga.values()) {
+            if (getCantidad(operacion) == 0) {
+                continue;
+            }
+            texto.append(String.format(Locale.ROOT, "  %-12s %10d %10d %12.0f %10.1f %10.1f %10.1f %10.1f%n",
+                    operacion.getEtiqueta(), getCantidad(operacion), getExitos(operacion),
+                    getRendimiento(operacion), getPercentil(operacion, 50) / 1e3, getPercentil(operacion, 99) / 1e3,
+                    getPercentil(operacion, 99.9) / 1e3, getMaximo(operacion) / 1e3));
+        }
+        return texto.toString();
+    }
+}
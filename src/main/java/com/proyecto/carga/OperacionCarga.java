@@ -0,0 +1,53 @@
+package com.proyecto.carga;
+
+/**
+ * Operaciones de GestorUsuarios que genera una carga sintética
+ */
+public enum OperacionCarga {
+
+    REGISTRAR("registrar", false),
+    AUTENTICAR("autenticar", true),
+    BUSCAR("buscar", true),
+    CAMBIAR_PASSWORD("cambiar", false),
+    ELIMINAR("eliminar", false);
+
+    private static final OperacionCarga[] VALORES = values();
+
+    private final String etiqueta;
+    private final boolean lectura;
+
+    OperacionCarga(String etiqueta, boolean lectura) {
+        this.etiqueta = etiqueta;
+        this.lectura = lectura;
+    }
+
+    /**
+     * @return nombre corto, el de las opciones de línea de comandos y del informe
+     */
+    public String getEtiqueta() {
+        return etiqueta;
+    }
+
+    /**
+     * @return true si la operación no cambia el almacén
+     */
+    public boolean esLectura() {
+        return lectura;
+    }
+
+    static OperacionCarga desdeCodigo(int codigo) {
+        if (codigo < 0 || codigo >= VALORES.length) {
+            throw new IllegalArgumentException("Código de operación desconocido: " + codigo);
+        }
+        return VALORES[codigo];
+    }
+
+    static OperacionCarga desdeEtiqueta(String etiqueta) {
+        for (OperacionCarga operacion : VALORES) {
+            if (operacion.etiqueta.equals(etiqueta)) {
+                return operacion;
+            }
+        }
+        throw new IllegalArgumentException("Operación desconocida: " + etiqueta);
+    }
+}
@@ -0,0 +1,279 @@
+package com.proyecto.carga;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Secuencia de operaciones de una carga sintética, una por hilo, generada a partir de una
+ * semilla y grabable en un archivo binario para reproducirla exactamente
+ *
+ * Cada hilo tiene su propio generador (derivado de la semilla), así que agregar hilos no
+ * cambia la secuencia de los demás. Las claves son índices de usuario: las de 0 a usuarios - 1
+ * existen desde el principio y se eligen con popularidad Zipf; cada registro usa una clave
+ * nueva propia del hilo y cada eliminación quita el registro más viejo del mismo hilo (si el
+ * hilo aún no registró a nadie, la eliminación se convierte en un registro). Así ningún hilo
+ * elimina un usuario que otro lee, y el resultado de cada operación no depende del orden en
+ * que se intercalen los hilos, salvo los cambios de password simultáneos sobre un mismo usuario.
+ *
+ * Formato del archivo (enteros big-endian):
+ * <pre>
+ * "TRZC" | versión (int) | semilla (long) | usuarios (int) | hilos (int)
+ * por hilo: cantidad (int) | operaciones: varint (clave << 3 | código de OperacionCarga)
+ * CRC32C de todo lo anterior (int)
+ * </pre>
+ * Con unos cientos de miles de usuarios cada operación ocupa 3 o 4 bytes.
+ */
+public final class TrazaCarga {
+
+    private static final int MAGICO = 0x5452_5A43;
+    private static final int VERSION = 1;
+    private static final int BITS_OPERACION = 3;
+    // Las claves con el código de operación entran en un int
+    private static final int CLAVE_MAXIMA = (1 << (31 - BITS_OPERACION)) - 1;
+
+    private final long semilla;
+    private final int usuarios;
+    // [hilo][i] = clave << BITS_OPERACION | código
+    private final int[][] operaciones;
+
+    private TrazaCarga(long semilla, int usuarios, int[][] operaciones) {
+        this.semilla = semilla;
+        this.usuarios = usuarios;
+        this.operaciones = operaciones;
+    }
+
+    /**
+     * Genera la traza de una configuración; la misma configuración da siempre la misma traza
+     * @param configuracion parámetros de la carga
+     * @return traza generada
+     * @throws IllegalArgumentException si la mezcla no es válida o las claves no entran en el formato
+     */
+    public static TrazaCarga generar(ConfiguracionCarga configuracion) {
+        int hilos = configuracion.getHilos();
+        int cantidad = configuracion.getOperacionesPorHilo();
+        int usuarios = configuracion.getUsuarios();
+        if ((long) usuarios + (long) hilos * cantidad > CLAVE_MAXIMA) {
+            throw new IllegalArgumentException("Demasiados usuarios y registros para una traza: como mucho "
+                    + CLAVE_MAXIMA + " claves");
+        }
+        double[] acumuladas = configuracion.getProbabilidadesAcumuladas();
+        Zipf zipf = new Zipf(usuarios, configuracion.getExponenteZipf());
+        SplittableRandom raiz = new SplittableRandom(configuracion.getSemilla());
+        int[][] operaciones = new int[hilos][];
+        for (int hilo = 0; hilo < hilos; hilo++) {
+            SplittableRandom aleatorio = raiz.split();
+            ArrayDeque<Integer> registrados = new ArrayDeque<>();
+            int[] propias = new int[cantidad];
+            int nuevos = 0;
+            for (int i = 0; i < cantidad; i++) {
+                OperacionCarga operacion = elegir(acumuladas, aleatorio.nextDouble());
+                if (operacion == OperacionCarga.ELIMINAR && registrados.isEmpty()) {
+                    operacion = OperacionCarga.REGISTRAR;
+                }
+                int clave;
+                if (operacion == OperacionCarga.REGISTRAR) {
+                    // Claves nuevas intercaladas entre hilos: nunca coinciden
+                    clave = usuarios + nuevos++ * hilos + hilo;
+                    registrados.addLast(clave);
+                } else if (operacion == OperacionCarga.ELIMINAR) {
+                    clave = registrados.removeFirst();
+                } else {
+                    clave = zipf.siguiente(aleatorio);
+                }
+                propias[i] = clave << BITS_OPERACION | operacion.ordinal();
+            }
+            operaciones[hilo] = propias;
+        }
+        return new TrazaCarga(configuracion.getSemilla(), usuarios, operaciones);
+    }
+
+    private static OperacionCarga elegir(double[] acumuladas, double tirada) {
+        for (int i = 0; i < acumuladas.length - 1; i++) {
+            if (tirada < acumuladas[i]) {
+                return OperacionCarga.desdeCodigo(i);
+            }
+        }
+        return OperacionCarga.desdeCodigo(acumuladas.length - 1);
+    }
+
+    // ========== CONSULTAS ==========
+
+    /**
+     * Email del usuario con esa clave
+     * @param clave índice del usuario
+     * @return email válido y único para la clave
+     */
+    public static String email(int clave) {
+        return "carga" + clave + "@ejemplo.com";
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /**
+     * @return usuarios que deben existir antes de ejecutar la traza (claves 0 a usuarios - 1)
+     */
+    public int getUsuarios() {
+        return usuarios;
+    }
+
+    public int getHilos() {
+        return operaciones.length;
+    }
+
+    /**
+     * @return operaciones del hilo
+     */
+    public int getCantidad(int hilo) {
+        return operaciones[hilo].length;
+    }
+
+    public OperacionCarga getOperacion(int hilo, int i) {
+        return OperacionCarga.desdeCodigo(operaciones[hilo][i] & ((1 << BITS_OPERACION) - 1));
+    }
+
+    public int getClave(int hilo, int i) {
+        return operaciones[hilo][i] >>> BITS_OPERACION;
+    }
+
+    /**
+     * Cuenta las operaciones de un tipo en todos los hilos
+     * @param operacion operación a contar
+     * @return cantidad
+     */
+    public long contar(OperacionCarga operacion) {
+        long total = 0;
+        for (int[] propias : operaciones) {
+            for (int codigo : propias) {
+                if ((codigo & ((1 << BITS_OPERACION) - 1)) == operacion.ordinal()) {
+                    total++;
+                }
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+        if (this == otro) {
+            return true;
+        }
+        if (!(otro instanceof TrazaCarga)) {
+            return false;
+        }
+        TrazaCarga traza = (TrazaCarga) otro;
+        return semilla == traza.semilla && usuarios == traza.usuarios
+                && Arrays.deepEquals(operaciones, traza.operaciones);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(semilla) + Arrays.deepHashCode(operaciones);
+    }
+
+    // ========== ARCHIVO ==========
+
+    /**
+     * Graba la traza en un archivo, reemplazándolo si existe
+     * @param archivo archivo de destino
+     * @throws IOException si no se puede escribir
+     */
+    public void escribir(Path archivo) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(archivo), 1 << 16)) {
+            DataOutputStream datos = new DataOutputStream(new CheckedOutputStream(salida, crc));
+            datos.writeInt(MAGICO);
+            datos.writeInt(VERSION);
+            datos.writeLong(semilla);
+            datos.writeInt(usuarios);
+            datos.writeInt(operaciones.length);
+            for (int[] propias : operaciones) {
+                datos.writeInt(propias.length);
+                for (int codigo : propias) {
+                    while ((codigo & ~0x7F) != 0) {
+                        datos.write(codigo & 0x7F | 0x80);
+                        codigo >>>= 7;
+                    }
+                    datos.write(codigo);
+                }
+            }
+            datos.flush();
+            new DataOutputStream(salida).writeInt((int) crc.getValue());
+        }
+    }
+
+    /**
+     * Lee una traza grabada con escribir
+     * @param archivo archivo de origen
+     * @return traza leída, igual a la grabada
+     * @throws IOException si no se puede leer, no es una traza o está dañada
+     */
+    public static TrazaCarga leer(Path archivo) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (InputStream entrada = new BufferedInputStream(Files.newInputStream(archivo), 1 << 16)) {
+            DataInputStream datos = new DataInputStream(new CheckedInputStream(entrada, crc));
+            if (datos.readInt() != MAGICO) {
+                throw new IOException(archivo + " no es una traza de carga");
+            }
+            int version = datos.readInt();
+            if (version != VERSION) {
+                throw new IOException("Versión de traza no soportada: " + version);
+            }
+            long semilla = datos.readLong();
+            int usuarios = datos.readInt();
+            int hilos = datos.readInt();
+            if (usuarios < 1 || hilos < 1 || hilos > 1 << 16) {
+                throw new IOException("Cabecera de traza dañada");
+            }
+            int[][] operaciones = new int[hilos][];
+            for (int hilo = 0; hilo < hilos; hilo++) {
+                int cantidad = datos.readInt();
+                if (cantidad < 0) {
+                    throw new IOException("Cabecera de hilo dañada");
+                }
+                int[] propias = new int[cantidad];
+                for (int i = 0; i < cantidad; i++) {
+                    propias[i] = leerVarint(datos);
+                }
+                operaciones[hilo] = propias;
+            }
+            int esperado = (int) crc.getValue();
+            if (new DataInputStream(entrada).readInt() != esperado) {
+                throw new IOException("La traza " + archivo + " está dañada (CRC incorrecto)");
+            }
+            return new TrazaCarga(semilla, usuarios, operaciones);
+        } catch (EOFException e) {
+            throw new IOException("La traza " + archivo + " está incompleta", e);
+        }
+    }
+
+    private static int leerVarint(DataInputStream datos) throws IOException {
+        int valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 32; desplazamiento += 7) {
+            int b = datos.readUnsignedByte();
+            valor |= (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                if (valor < 0 || (valor & ((1 << BITS_OPERACION) - 1)) >= OperacionCarga.values().length) {
+                    throw new IOException("Operación dañada en la traza");
+                }
+                return valor;
+            }
+        }
+        throw new IOException("Operación dañada en la traza");
+    }
+}
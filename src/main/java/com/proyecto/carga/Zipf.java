@@ -0,0 +1,98 @@
+package com.proyecto.carga;
+
+import java.util.SplittableRandom;
+
+/**
+ * Sorteo de claves de 0 a n - 1 con popularidad Zipf: la de rango r (desde 1) sale con
+ * probabilidad proporcional a 1 / r^s
+ *
+ * Usa el método de rechazo por inversión de Hörmann y Derflinger: O(1) por sorteo y sin
+ * tablas, para cualquier n. Los rangos se reparten entre las claves con una permutación fija
+ * (multiplicar por un número coprimo con n), para que las claves populares no sean las
+ * primeras creadas. Con la misma fuente aleatoria la secuencia es siempre la misma.
+ */
+public final class Zipf {
+
+    private final int n;
+    private final double s;
+    private final long mezcla;
+    private final double integralX1;
+    private final double integralN;
+    private final double umbral;
+
+    /**
+     * @param n cantidad de claves
+     * @param s exponente (0 es uniforme; 0.99 es lo habitual en cargas con claves calientes)
+     * @throws IllegalArgumentException si n no es positivo o s es negativo
+     */
+    public Zipf(int n, double s) {
+        if (n < 1) {
+            throw new IllegalArgumentException("La cantidad de claves debe ser positiva");
+        }
+        if (!(s >= 0)) {
+            throw new IllegalArgumentException("El exponente de Zipf no puede ser negativo");
+        }
+        this.n = n;
+        this.s = s;
+        this.integralX1 = integral(1.5) - 1;
+        this.integralN = integral(n + 0.5);
+        this.umbral = 2 - integralInversa(integral(2.5) - h(2));
+        long m = 7919;
+        while (mcd(m, n) != 1) {
+            m += 2;
+        }
+        this.mezcla = m;
+    }
+
+    /**
+     * @param aleatorio fuente de números aleatorios
+     * @return clave sorteada, de 0 a n - 1
+     */
+    public int siguiente(SplittableRandom aleatorio) {
+        return (int) ((rango(aleatorio) - 1) * mezcla % n);
+    }
+
+    public int getCantidad() {
+        return n;
+    }
+
+    private long rango(SplittableRandom aleatorio) {
+        while (true) {
+            double u = integralN + aleatorio.nextDouble() * (integralX1 - integralN);
+            double x = integralInversa(u);
+            long k = Math.max(1, Math.min(n, (long) (x + 0.5)));
+            if (k - x <= umbral || u >= integral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    private double h(double x) {
+        return Math.exp(-s * Math.log(x));
+    }
+
+    // Integral de h desde 1 (salvo una constante), estable cerca de s = 1
+    private double integral(double x) {
+        double logX = Math.log(x);
+        return auxiliar2((1 - s) * logX) * logX;
+    }
+
+    private double integralInversa(double x) {
+        double t = Math.max(-1, x * (1 - s));
+        return Math.exp(auxiliar1(t) * x);
+    }
+
+    // log(1 + x) / x
+    private static double auxiliar1(double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+
+    // (exp(x) - 1) / x
+    private static double auxiliar2(double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+
+    private static long mcd(long a, long b) {
+        return b == 0 ? a : mcd(b, a % b);
+    }
+}
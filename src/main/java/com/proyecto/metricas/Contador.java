@@ -0,0 +1,39 @@
+package com.proyecto.metricas;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador monótono seguro entre hilos
+ *
+ * Usa un LongAdder: sin contención es un único CAS, y con varios hilos cada uno suma en su
+ * propia celda, por lo que incrementar no se degrada con la cantidad de hilos.
+ */
+public final class Contador {
+
+    private final LongAdder valor = new LongAdder();
+
+    Contador() {
+    }
+
+    /**
+     * Suma uno
+     */
+    public void incrementar() {
+        valor.increment();
+    }
+
+    /**
+     * Suma una cantidad
+     * @param cantidad cantidad a sumar (no negativa)
+     */
+    public void sumar(long cantidad) {
+        valor.add(cantidad);
+    }
+
+    /**
+     * @return valor actual
+     */
+    public long valor() {
+        return valor.sum();
+    }
+}
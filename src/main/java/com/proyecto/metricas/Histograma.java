@@ -0,0 +1,97 @@
+package com.proyecto.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en nanosegundos, sin candados, al estilo de HdrHistogram
+ *
+ * Las cubetas son log-lineales: cada potencia de dos se divide en 2^BITS_SUBCUBETA cubetas
+ * iguales, así que el error relativo de un percentil es como mucho 1/16 (6,25 %) en todo
+ * el rango, de 1 ns a 2^62 ns, con 960 cubetas. Registrar un valor es calcular su cubeta
+ * con un par de desplazamientos e incrementarla. Los contadores están repartidos en franjas
+ * (una por procesador, hasta 16) elegidas por el hilo, para que hilos distintos no
+ * compitan por la misma línea de caché.
+ */
+public final class Histograma {
+
+    static final int BITS_SUBCUBETA = 4;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    static final int CUBETAS = (64 - BITS_SUBCUBETA) * SUBCUBETAS;
+    private static final int FRANJAS = Math.min(16,
+            Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    private final AtomicLongArray[] franjas = new AtomicLongArray[FRANJAS];
+    private final LongAdder suma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    Histograma() {
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new AtomicLongArray(CUBETAS);
+        }
+    }
+
+    /**
+     * Registra una medición
+     * @param nanos duración en nanosegundos (los negativos cuentan como 0)
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        franjas[(int) Thread.currentThread().getId() & (FRANJAS - 1)].incrementAndGet(cubeta(valor));
+        suma.add(valor);
+        maximo.accumulate(valor);
+    }
+
+    /**
+     * Registra el tiempo transcurrido desde un instante de System.nanoTime()
+     * @param inicio instante inicial
+     */
+    public void registrarDesde(long inicio) {
+        registrar(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Copia del estado actual, para calcular percentiles o exportar
+     * @return instantánea
+     */
+    public InstantaneaHistograma instantanea() {
+        long[] cuentas = new long[CUBETAS];
+        for (AtomicLongArray franja : franjas) {
+            for (int i = 0; i < CUBETAS; i++) {
+                cuentas[i] += franja.get(i);
+            }
+        }
+        return new InstantaneaHistograma(cuentas, suma.sum(), maximo.get());
+    }
+
+    // ========== CUBETAS ==========
+
+    static int cubeta(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int sub = (int) (valor >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return (exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + sub;
+    }
+
+    /**
+     * @return menor valor que cae en la cubeta
+     */
+    static long inicioCubeta(int cubeta) {
+        if (cubeta < SUBCUBETAS) {
+            return cubeta;
+        }
+        int exponente = cubeta / SUBCUBETAS + BITS_SUBCUBETA - 1;
+        long sub = cubeta % SUBCUBETAS;
+        return (SUBCUBETAS + sub) << (exponente - BITS_SUBCUBETA);
+    }
+
+    /**
+     * @return mayor valor que cae en la cubeta
+     */
+    static long finCubeta(int cubeta) {
+        return cubeta == CUBETAS - 1 ? Long.MAX_VALUE : inicioCubeta(cubeta + 1) - 1;
+    }
+}
@@ -0,0 +1,83 @@
+package com.proyecto.metricas;
+
+/**
+ * Estado de un Histograma en un momento dado
+ *
+ * Como las franjas se leen una tras otra mientras otros hilos registran, la cantidad y la
+ * suma pueden diferir en las mediciones que llegaron durante la copia.
+ */
+public final class InstantaneaHistograma {
+
+    private final long[] cuentas;
+    private final long cantidad;
+    private final long suma;
+    private final long maximo;
+
+    InstantaneaHistograma(long[] cuentas, long suma, long maximo) {
+        this.cuentas = cuentas;
+        long total = 0;
+        for (long cuenta : cuentas) {
+            total += cuenta;
+        }
+        this.cantidad = total;
+        this.suma = suma;
+        this.maximo = maximo;
+    }
+
+    /**
+     * @return cantidad de mediciones
+     */
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * @return suma de las mediciones en nanosegundos
+     */
+    public long getSuma() {
+        return suma;
+    }
+
+    /**
+     * @return mayor medición en nanosegundos
+     */
+    public long getMaximo() {
+        return maximo;
+    }
+
+    /**
+     * Percentil con el error de la cubeta (a lo sumo 6,25 % por encima del valor real)
+     * @param percentil entre 0 y 100
+     * @return límite superior de la cubeta que contiene el percentil, o 0 sin mediciones
+     */
+    public long percentil(double percentil) {
+        if (percentil < 0 || percentil > 100) {
+            throw new IllegalArgumentException("El percentil debe estar entre 0 y 100: " + percentil);
+        }
+        if (cantidad == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(cantidad * percentil / 100));
+        long acumulado = 0;
+        for (int i = 0; i < cuentas.length; i++) {
+            acumulado += cuentas[i];
+            if (acumulado >= objetivo) {
+                return Math.min(Histograma.finCubeta(i), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    /**
+     * Mediciones menores o iguales a un valor, contando cubetas completas
+     * @param nanos límite en nanosegundos
+     * @return cantidad de mediciones de las cubetas que terminan en el límite o antes
+     */
+    public long contarHasta(long nanos) {
+        long acumulado = 0;
+        for (int i = 0; i < cuentas.length && Histograma.finCubeta(i) <= nanos; i++) {
+            acumulado += cuentas[i];
+        }
+        return acumulado;
+    }
+}
@@ -0,0 +1,259 @@
+package com.proyecto.metricas;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Conjunto de métricas con nombre, exportable en el formato de texto de Prometheus
+ *
+ * Registrar una métrica es lento (sincronizado) y se hace una vez, al construir el
+ * componente instrumentado; actualizarla no toca el registro. Pedir dos veces la misma
+ * métrica (mismo nombre y etiquetas) devuelve la misma instancia.
+ *
+ * Ejemplo:
+ * <pre>
+ * RegistroMetricas metricas = new RegistroMetricas();
+ * GestorUsuarios gestor = new GestorUsuarios(new ConfiguracionGestor().metricas(metricas));
+ * try (ServidorMetricas servidor = ServidorMetricas.iniciar(metricas, 9400)) {
+ *     ...
+ * }
+ * </pre>
+ */
+public final class RegistroMetricas {
+
+    private static final Pattern NOMBRE = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+    private static final Pattern ETIQUETA = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+
+    // Límites de las cubetas exportadas: cada potencia de dos de 1 µs (2^10 ns) a 68 s (2^36 ns)
+    private static final int PRIMER_LIMITE = 10;
+    private static final int ULTIMO_LIMITE = 36;
+
+    private enum Tipo {
+        COUNTER, GAUGE, HISTOGRAM;
+
+        String texto() {
+            return name().toLowerCase();
+        }
+    }
+
+    private static final class Familia {
+        final Tipo tipo;
+        final String ayuda;
+        // Etiquetas ya formateadas -> métrica
+        final Map<String, Object> series = new TreeMap<>();
+
+        Familia(Tipo tipo, String ayuda) {
+            this.tipo = tipo;
+            this.ayuda = ayuda;
+        }
+    }
+
+    private final Map<String, Familia> familias = new TreeMap<>();
+
+    /**
+     * Obtiene o crea un contador
+     * @param nombre nombre de la familia (por convención termina en _total)
+     * @param ayuda descripción
+     * @param etiquetas pares nombre, valor
+     * @return contador
+     * @throws IllegalArgumentException si el nombre o las etiquetas no son válidos, o si el
+     *         nombre ya se registró con otro tipo
+     */
+    public Contador contador(String nombre, String ayuda, String... etiquetas) {
+        return (Contador) registrar(nombre, ayuda, Tipo.COUNTER, etiquetas, Contador::new);
+    }
+
+    /**
+     * Obtiene o crea un histograma de latencias (se exporta en segundos)
+     * @param nombre nombre de la familia (por convención termina en _segundos)
+     * @param ayuda descripción
+     * @param etiquetas pares nombre, valor
+     * @return histograma
+     */
+    public Histograma histograma(String nombre, String ayuda, String... etiquetas) {
+        return (Histograma) registrar(nombre, ayuda, Tipo.HISTOGRAM, etiquetas, Histograma::new);
+    }
+
+    /**
+     * Registra un indicador cuyo valor se lee al exportar
+     * @param nombre nombre de la familia
+     * @param ayuda descripción
+     * @param valor función que da el valor actual (debe ser rápida y segura entre hilos)
+     * @param etiquetas pares nombre, valor
+     */
+    public void indicador(String nombre, String ayuda, LongSupplier valor, String... etiquetas) {
+        registrar(nombre, ayuda, Tipo.GAUGE, etiquetas, () -> valor);
+    }
+
+    private synchronized Object registrar(String nombre, String ayuda, Tipo tipo, String[] etiquetas,
+                                          java.util.function.Supplier<Object> crear) {
+        if (!NOMBRE.matcher(nombre).matches()) {
+            throw new IllegalArgumentException("Nombre de métrica inválido: " + nombre);
+        }
+        Familia familia = familias.computeIfAbsent(nombre, n -> new Familia(tipo, ayuda));
+        if (familia.tipo != tipo) {
+            throw new IllegalArgumentException("La métrica " + nombre + " ya existe como " + familia.tipo.texto());
+        }
+        return familia.series.computeIfAbsent(formatearEtiquetas(etiquetas), e -> crear.get());
+    }
+
+    private static String formatearEtiquetas(String[] etiquetas) {
+        if (etiquetas.length % 2 != 0) {
+            throw new IllegalArgumentException("Las etiquetas van de a pares nombre, valor");
+        }
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < etiquetas.length; i += 2) {
+            if (!ETIQUETA.matcher(etiquetas[i]).matches() || etiquetas[i].equals("le")) {
+                throw new IllegalArgumentException("Nombre de etiqueta inválido: " + etiquetas[i]);
+            }
+            if (texto.length() > 0) {
+                texto.append(',');
+            }
+            texto.append(etiquetas[i]).append("=\"");
+            escapar(etiquetas[i + 1], texto);
+            texto.append('"');
+        }
+        return texto.toString();
+    }
+
+    private static void escapar(String valor, StringBuilder destino) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '\\' || c == '"') {
+                destino.append('\\').append(c);
+            } else if (c == '\n') {
+                destino.append("\\n");
+            } else {
+                destino.append(c);
+            }
+        }
+    }
+
+    // ========== EXPORTACIÓN ==========
+
+    /**
+     * Escribe todas las métricas en el formato de texto de Prometheus (versión 0.0.4)
+     * @param destino destino del texto
+     * @throws IOException si falla la escritura
+     */
+    public void escribirPrometheus(Writer destino) throws IOException {
+        List<Map.Entry<String, Familia>> copia;
+        List<List<Map.Entry<String, Object>>> series = new ArrayList<>();
+        synchronized (this) {
+            copia = new ArrayList<>(familias.entrySet());
+            for (Map.Entry<String, Familia> familia : copia) {
+                series.add(new ArrayList<>(familia.getValue().series.entrySet()));
+            }
+        }
+        StringBuilder texto = new StringBuilder();
+        for (int f = 0; f < copia.size(); f++) {
+            String nombre = copia.get(f).getKey();
+            Familia familia = copia.get(f).getValue();
+            texto.append("# HELP ").append(nombre).append(' ');
+            escaparAyuda(familia.ayuda, texto);
+            texto.append("\n# TYPE ").append(nombre).append(' ').append(familia.tipo.texto()).append('\n');
+            for (Map.Entry<String, Object> serie : series.get(f)) {
+                String etiquetas = serie.getKey();
+                switch (familia.tipo) {
+                    case COUNTER:
+                        linea(texto, nombre, etiquetas, ((Contador) serie.getValue()).valor());
+                        break;
+                    case GAUGE:
+                        linea(texto, nombre, etiquetas, ((LongSupplier) serie.getValue()).getAsLong());
+                        break;
+                    default:
+                        escribirHistograma(texto, nombre, etiquetas, ((Histograma) serie.getValue()).instantanea());
+                        break;
+                }
+            }
+            destino.append(texto);
+            texto.setLength(0);
+        }
+        destino.flush();
+    }
+
+    /**
+     * @return todas las métricas en el formato de texto de Prometheus
+     */
+    public String aTextoPrometheus() {
+        java.io.StringWriter texto = new java.io.StringWriter();
+        try {
+            escribirPrometheus(texto);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Escribe las métricas en un archivo de forma atómica (archivo temporal y renombrado),
+     * apto para el textfile collector de node_exporter
+     * @param archivo archivo destino
+     * @throws IOException si falla la escritura
+     */
+    public void exportar(Path archivo) throws IOException {
+        Path absoluto = archivo.toAbsolutePath();
+        Path temporal = Files.createTempFile(absoluto.getParent(), absoluto.getFileName().toString(), ".tmp");
+        try {
+            try (Writer escritor = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+                escribirPrometheus(escritor);
+            }
+            Files.move(temporal, absoluto, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private static void escribirHistograma(StringBuilder texto, String nombre, String etiquetas,
+                                           InstantaneaHistograma instantanea) {
+        String separador = etiquetas.isEmpty() ? "" : ",";
+        for (int exponente = PRIMER_LIMITE; exponente <= ULTIMO_LIMITE; exponente++) {
+            long limite = 1L << exponente;
+            // Los límites son potencias de dos: caen exactamente en un borde de cubeta
+            linea(texto, nombre + "_bucket", etiquetas + separador + "le=\"" + segundos(limite) + '"',
+                    instantanea.contarHasta(limite - 1));
+        }
+        linea(texto, nombre + "_bucket", etiquetas + separador + "le=\"+Inf\"", instantanea.getCantidad());
+        texto.append(nombre).append("_sum");
+        if (!etiquetas.isEmpty()) {
+            texto.append('{').append(etiquetas).append('}');
+        }
+        texto.append(' ').append(segundos(instantanea.getSuma())).append('\n');
+        linea(texto, nombre + "_count", etiquetas, instantanea.getCantidad());
+    }
+
+    private static void linea(StringBuilder texto, String nombre, String etiquetas, long valor) {
+        texto.append(nombre);
+        if (!etiquetas.isEmpty()) {
+            texto.append('{').append(etiquetas).append('}');
+        }
+        texto.append(' ').append(valor).append('\n');
+    }
+
+    private static String segundos(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    private static void escaparAyuda(String ayuda, StringBuilder destino) {
+        for (int i = 0; i < ayuda.length(); i++) {
+            char c = ayuda.charAt(i);
+            if (c == '\\') {
+                destino.append("\\\\");
+            } else if (c == '\n') {
+                destino.append("\\n");
+            } else {
+                destino.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.proyecto.metricas;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Endpoint HTTP local que publica un RegistroMetricas en /metrics para que Prometheus lo lea
+ *
+ * Usa el servidor HTTP del JDK con un solo hilo: cada lectura arma el texto en el momento,
+ * sin afectar a los hilos que actualizan las métricas. Escucha sólo en la interfaz de loopback
+ * salvo que se indique otra dirección.
+ */
+public final class ServidorMetricas implements AutoCloseable {
+
+    static final String TIPO_CONTENIDO = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer servidor;
+
+    private ServidorMetricas(HttpServer servidor) {
+        this.servidor = servidor;
+    }
+
+    /**
+     * Inicia el endpoint en localhost
+     * @param registro métricas a publicar
+     * @param puerto puerto (0 elige uno libre)
+     * @return servidor iniciado
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public static ServidorMetricas iniciar(RegistroMetricas registro, int puerto) throws IOException {
+        return iniciar(registro, new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto));
+    }
+
+    /**
+     * Inicia el endpoint en una dirección dada
+     * @param registro métricas a publicar
+     * @param direccion dirección y puerto de escucha
+     * @return servidor iniciado
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public static ServidorMetricas iniciar(RegistroMetricas registro, InetSocketAddress direccion) throws IOException {
+        HttpServer servidor = HttpServer.create(direccion, 0);
+        servidor.createContext("/metrics", intercambio -> responder(registro, intercambio));
+        servidor.start();
+        return new ServidorMetricas(servidor);
+    }
+
+    private static void responder(RegistroMetricas registro, HttpExchange intercambio) throws IOException {
+        // HttpExchange es AutoCloseable recién desde Java 14
+        try {
+            if (!"GET".equals(intercambio.getRequestMethod())) {
+                intercambio.sendResponseHeaders(405, -1);
+                return;
+            }
+            ByteArrayOutputStream cuerpo = new ByteArrayOutputStream();
+            try (Writer escritor = new OutputStreamWriter(cuerpo, StandardCharsets.UTF_8)) {
+                registro.escribirPrometheus(escritor);
+            }
+            intercambio.getResponseHeaders().set("Content-Type", TIPO_CONTENIDO);
+            intercambio.sendResponseHeaders(200, cuerpo.size());
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                cuerpo.writeTo(salida);
+            }
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    /**
+     * @return puerto en el que escucha
+     */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Detiene el endpoint sin esperar a las lecturas en curso
+     */
+    @Override
+    public void close() {
+        servidor.stop(0);
+    }
+}
@@ -0,0 +1,225 @@
+package com.proyecto.servidor;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cliente de ServidorLogin que envía pedidos sin esperar las respuestas
+ *
+ * Cada operación devuelve un CompletableFuture que se completa en el hilo lector del
+ * cliente, así que lo que se encadene a él debe ser breve. Con maximoEnVuelo pedidos sin
+ * responder, la siguiente operación bloquea hasta que llegue una respuesta.
+ *
+ * Los futuros fallan con:
+ * <ul>
+ *   <li>IllegalArgumentException si el servidor rechazó los argumentos (como el gestor)</li>
+ *   <li>RejectedExecutionException si el servidor estaba saturado; se puede reintentar</li>
+ *   <li>IllegalStateException ante otro error del servidor</li>
+ *   <li>UncheckedIOException si se cortó la conexión</li>
+ * </ul>
+ */
+public final class ClienteLogin implements AutoCloseable {
+
+    private final Socket socket;
+    private final OutputStream salida;
+    private final Semaphore lugares;
+    private final Map<Long, Pendiente<?>> pendientes = new ConcurrentHashMap<>();
+    private final AtomicLong siguienteId = new AtomicLong();
+    private final Thread lector;
+    private volatile IOException falla;
+
+    private ClienteLogin(Socket socket, int maximoEnVuelo) throws IOException {
+        this.socket = socket;
+        this.salida = socket.getOutputStream();
+        this.lugares = new Semaphore(maximoEnVuelo);
+        this.lector = new Thread(this::leer, "cliente-login-" + socket.getLocalPort());
+        lector.setDaemon(true);
+        lector.start();
+    }
+
+    /**
+     * @param direccion dirección del servidor
+     * @param maximoEnVuelo pedidos sin responder antes de que enviar bloquee
+     * @return cliente conectado
+     * @throws IOException si no se puede conectar
+     */
+    public static ClienteLogin conectar(InetSocketAddress direccion, int maximoEnVuelo) throws IOException {
+        if (maximoEnVuelo < 1) {
+            throw new IllegalArgumentException("maximoEnVuelo debe ser positivo");
+        }
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.connect(direccion);
+            return new ClienteLogin(socket, maximoEnVuelo);
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    public CompletableFuture<Boolean> registrarUsuario(String email, String password, String nombre) {
+        return enviar(ProtocoloLogin.REGISTRAR, ClienteLogin::leerBooleano, email, password, nombre);
+    }
+
+    public CompletableFuture<PerfilUsuario> autenticar(String email, String password) {
+        return enviar(ProtocoloLogin.AUTENTICAR, ProtocoloLogin::leerPerfil, email, password);
+    }
+
+    public CompletableFuture<Boolean> cambiarPassword(String email, String passwordActual, String nuevaPassword) {
+        return enviar(ProtocoloLogin.CAMBIAR_PASSWORD, ClienteLogin::leerBooleano, email, passwordActual,
+                nuevaPassword);
+    }
+
+    public CompletableFuture<PerfilUsuario> buscarUsuario(String email) {
+        return enviar(ProtocoloLogin.BUSCAR, ProtocoloLogin::leerPerfil, email);
+    }
+
+    /**
+     * Cierra la conexión; los pedidos sin respuesta fallan con UncheckedIOException
+     */
+    @Override
+    public void close() throws IOException {
+        socket.close();
+        try {
+            lector.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<T> enviar(byte operacion, Lector<T> lector, String... argumentos) {
+        ByteBuffer trama;
+        long id = siguienteId.getAndIncrement();
+        try {
+            trama = ProtocoloLogin.iniciar(ProtocoloLogin.capacidad(argumentos), id, operacion);
+            for (String argumento : argumentos) {
+                ProtocoloLogin.escribirTexto(trama, argumento);
+            }
+            ProtocoloLogin.terminar(trama);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (trama.remaining() - Integer.BYTES > ProtocoloLogin.MAXIMO_TRAMA) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Pedido demasiado largo"));
+        }
+
+        lugares.acquireUninterruptibly();
+        Pendiente<T> pendiente = new Pendiente<>(lector);
+        pendientes.put(id, pendiente);
+        try {
+            synchronized (salida) {
+                if (falla != null) {
+                    throw falla;
+                }
+                salida.write(trama.array(), 0, trama.limit());
+            }
+        } catch (IOException e) {
+            if (pendientes.remove(id) != null) {
+                lugares.release();
+                pendiente.futuro.completeExceptionally(new UncheckedIOException(e));
+            }
+        }
+        return pendiente.futuro;
+    }
+
+    private void leer() {
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (true) {
+                int largo = entrada.readInt();
+                if (largo < Long.BYTES + 1 || largo > ProtocoloLogin.MAXIMO_TRAMA) {
+                    throw new IOException("Trama de longitud inválida: " + largo);
+                }
+                byte[] bytes = new byte[largo];
+                entrada.readFully(bytes);
+                completar(ByteBuffer.wrap(bytes));
+            }
+        } catch (EOFException e) {
+            falla = new IOException("El servidor cerró la conexión");
+        } catch (IOException e) {
+            falla = e;
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ya está cerrado
+            }
+            if (falla == null) {
+                falla = new IOException("Conexión cerrada");
+            }
+            // Un enviar concurrente puede agregar un pendiente después de este recorrido; ese
+            // falla al escribir en el socket cerrado
+            for (Long id : pendientes.keySet()) {
+                Pendiente<?> pendiente = pendientes.remove(id);
+                if (pendiente != null) {
+                    lugares.release();
+                    pendiente.futuro.completeExceptionally(new UncheckedIOException(falla));
+                }
+            }
+        }
+    }
+
+    private void completar(ByteBuffer trama) throws IOException {
+        long id = trama.getLong();
+        byte estado = trama.get();
+        Pendiente<?> pendiente = pendientes.remove(id);
+        if (pendiente == null) {
+            throw new IOException("Respuesta a un pedido desconocido: " + id);
+        }
+        lugares.release();
+        try {
+            switch (estado) {
+                case ProtocoloLogin.OK:
+                    pendiente.completar(trama);
+                    break;
+                case ProtocoloLogin.ARGUMENTO_INVALIDO:
+                    pendiente.futuro.completeExceptionally(
+                            new IllegalArgumentException(ProtocoloLogin.leerTexto(trama)));
+                    break;
+                case ProtocoloLogin.SATURADO:
+                    pendiente.futuro.completeExceptionally(new RejectedExecutionException("Servidor saturado"));
+                    break;
+                default:
+                    pendiente.futuro.completeExceptionally(new IllegalStateException(ProtocoloLogin.leerTexto(trama)));
+            }
+        } catch (BufferUnderflowException e) {
+            pendiente.futuro.completeExceptionally(new UncheckedIOException(new IOException("Respuesta truncada")));
+            throw new IOException("Respuesta truncada", e);
+        }
+    }
+
+    private static Boolean leerBooleano(ByteBuffer trama) {
+        return trama.get() != 0;
+    }
+
+    private interface Lector<T> {
+        T leer(ByteBuffer trama);
+    }
+
+    private static final class Pendiente<T> {
+        final CompletableFuture<T> futuro = new CompletableFuture<>();
+        final Lector<T> lector;
+
+        Pendiente(Lector<T> lector) {
+            this.lector = lector;
+        }
+
+        void completar(ByteBuffer trama) {
+            futuro.complete(lector.leer(trama));
+        }
+    }
+}
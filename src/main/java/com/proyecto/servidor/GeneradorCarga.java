@@ -0,0 +1,381 @@
+package com.proyecto.servidor;
+
+import com.proyecto.metricas.Histograma;
+import com.proyecto.metricas.InstantaneaHistograma;
+import com.proyecto.metricas.RegistroMetricas;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga para ServidorLogin: latencia p50/p99/p999 y máximo RPS sostenible
+ *
+ * Tres fases, todas con conexiones clientes que envían sin esperar respuesta:
+ * <ol>
+ *   <li>registra los usuarios de prueba (cada registro cuesta una derivación PBKDF2 en el servidor)</li>
+ *   <li>lazo cerrado: cada conexión mantiene enVuelo pedidos sin responder; mide la capacidad
+ *       (tras una ronda igual de calentamiento)</li>
+ *   <li>lazo abierto: pedidos a ritmo fijo en escalones desde el 50 % de esa capacidad, y
+ *       por encima del 100 % hasta que uno no se sostenga. La latencia se mide desde el
+ *       instante en que el pedido debía salir, no desde que salió: si el servidor se atrasa,
+ *       la espera cuenta (sin "omisión coordinada")</li>
+ * </ol>
+ * El máximo sostenible es el mayor escalón que logra el 95 % del ritmo pedido, sin
+ * rechazos y con p99 dentro del objetivo.
+ *
+ * Uso:
+ * <pre>
+ * java -cp app.jar com.proyecto.servidor.GeneradorCarga --host localhost --puerto 7070 \
+ *     --conexiones 4 --en-vuelo 64 --usuarios 1000 --duracion 5 --p99-ms 10 \
+ *     --mezcla autenticar=90,buscar=9,registrar=1,cambiar=0
+ * </pre>
+ */
+public final class GeneradorCarga {
+
+    static final String PASSWORD = "password123";
+
+    // Fracciones de la capacidad medida en lazo cerrado; desde 1.0 se sigue subiendo mientras se sostenga
+    private static final double[] ESCALONES = {0.5, 0.7, 0.8, 0.9, 1.0, 1.1, 1.25, 1.5, 2.0};
+    private static final double LOGRO_MINIMO = 0.95;
+
+    private final Parametros parametros;
+    private final InetSocketAddress direccion;
+    private final String corrida = Long.toString(System.nanoTime(), 36);
+    private final AtomicLong nuevos = new AtomicLong();
+
+    GeneradorCarga(Parametros parametros) {
+        this.parametros = parametros;
+        this.direccion = new InetSocketAddress(parametros.host, parametros.puerto);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Parametros parametros;
+        try {
+            parametros = Parametros.leer(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(Parametros.USO);
+            System.exit(2);
+            return;
+        }
+        new GeneradorCarga(parametros).ejecutar(System.out);
+    }
+
+    /**
+     * Corre las tres fases e imprime el informe
+     * @return máximo RPS sostenible (0 si ningún escalón cumple)
+     */
+    long ejecutar(PrintStream informe) throws IOException, InterruptedException {
+        List<ClienteLogin> clientes = new ArrayList<>();
+        try {
+            for (int i = 0; i < parametros.conexiones; i++) {
+                clientes.add(ClienteLogin.conectar(direccion, parametros.enVuelo));
+            }
+            long inicio = System.nanoTime();
+            poblar(clientes);
+            informe.printf(Locale.ROOT, "Población: %d usuarios en %.1f s%n", parametros.usuarios,
+                    (System.nanoTime() - inicio) / 1e9);
+
+            medir(clientes, 0);
+            Medicion saturacion = medir(clientes, 0);
+            double capacidad = saturacion.rps();
+            informe.printf(Locale.ROOT, "Lazo cerrado (%d conexiones x %d en vuelo): %.0f RPS  %s  saturados %d%n",
+                    parametros.conexiones, parametros.enVuelo, capacidad, saturacion.percentiles(),
+                    saturacion.saturados.sum());
+
+            informe.println("Lazo abierto, latencia desde el instante previsto:");
+            informe.printf(Locale.ROOT, "  %12s %12s %10s %10s %10s %10s%n",
+                    "objetivo", "logrado", "p50 ms", "p99 ms", "p999 ms", "saturados");
+            long sostenible = 0;
+            for (double escalon : ESCALONES) {
+                long objetivo = Math.max(1, Math.round(capacidad * escalon));
+                Medicion medicion = medir(clientes, objetivo);
+                InstantaneaHistograma latencias = medicion.latencias.instantanea();
+                informe.printf(Locale.ROOT, "  %12d %12.0f %10.2f %10.2f %10.2f %10d%n", objetivo, medicion.rps(),
+                        ms(latencias.percentil(50)), ms(latencias.percentil(99)), ms(latencias.percentil(99.9)),
+                        medicion.saturados.sum());
+                if (medicion.rps() >= LOGRO_MINIMO * objetivo && medicion.saturados.sum() == 0
+                        && latencias.percentil(99) <= TimeUnit.MILLISECONDS.toNanos(parametros.p99Ms)) {
+                    sostenible = Math.max(sostenible, objetivo);
+                } else if (escalon >= 1) {
+                    break;
+                }
+            }
+            informe.printf(Locale.ROOT, "Máximo sostenible con p99 <= %d ms: %d RPS%n", parametros.p99Ms, sostenible);
+            return sostenible;
+        } finally {
+            for (ClienteLogin cliente : clientes) {
+                cliente.close();
+            }
+        }
+    }
+
+    private void poblar(List<ClienteLogin> clientes) {
+        List<CompletableFuture<Boolean>> registros = new ArrayList<>(parametros.usuarios);
+        for (int i = 0; i < parametros.usuarios; i++) {
+            registros.add(clientes.get(i % clientes.size())
+                    .registrarUsuario(email(i), PASSWORD, "Usuario de carga " + i));
+        }
+        // Si los usuarios ya existían de una corrida anterior el registro da false, y está bien
+        CompletableFuture.allOf(registros.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Una fase de duración fija
+     * @param rps ritmo total en lazo abierto, o 0 para lazo cerrado
+     */
+    private Medicion medir(List<ClienteLogin> clientes, long rps) throws InterruptedException {
+        Medicion medicion = new Medicion();
+        long duracion = (long) (parametros.duracionSegundos * 1e9);
+        long inicio = System.nanoTime();
+        long fin = inicio + duracion;
+        List<Thread> hilos = new ArrayList<>();
+        for (int c = 0; c < clientes.size(); c++) {
+            ClienteLogin cliente = clientes.get(c);
+            long semilla = c;
+            Thread hilo = new Thread(() -> enviarHasta(cliente, medicion, rps, inicio, fin, semilla),
+                    "generador-carga-" + c);
+            hilos.add(hilo);
+            hilo.start();
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        medicion.esperarRespuestas();
+        medicion.duracion = duracion;
+        return medicion;
+    }
+
+    private void enviarHasta(ClienteLogin cliente, Medicion medicion, long rps, long inicio, long fin, long semilla) {
+        SplittableRandom aleatorio = new SplittableRandom(semilla ^ inicio);
+        // Lazo abierto: cada conexión lleva su parte del ritmo, desfasada para no salir todas juntas
+        long intervalo = rps == 0 ? 0 : Math.max(1, parametros.conexiones * 1_000_000_000L / rps);
+        long previsto = inicio + (intervalo == 0 ? 0 : aleatorio.nextLong(intervalo));
+        while (true) {
+            if (intervalo > 0) {
+                long espera;
+                while ((espera = previsto - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+            } else {
+                previsto = System.nanoTime();
+            }
+            if (previsto - fin >= 0) {
+                return;
+            }
+            long desde = previsto;
+            medicion.enCurso.increment();
+            operacionAleatoria(cliente, aleatorio).whenComplete((resultado, error) -> {
+                long llegada = System.nanoTime();
+                medicion.registrar(llegada - desde, llegada - fin <= 0, error);
+            });
+            previsto += intervalo;
+        }
+    }
+
+    private CompletableFuture<?> operacionAleatoria(ClienteLogin cliente, SplittableRandom aleatorio) {
+        String email = email(aleatorio.nextInt(Math.max(1, parametros.usuarios)));
+        int tirada = aleatorio.nextInt(parametros.mezcla.total());
+        if ((tirada -= parametros.mezcla.autenticar) < 0) {
+            return cliente.autenticar(email, PASSWORD);
+        }
+        if ((tirada -= parametros.mezcla.buscar) < 0) {
+            return cliente.buscarUsuario(email);
+        }
+        if ((tirada -= parametros.mezcla.registrar) < 0) {
+            return cliente.registrarUsuario("carga-" + corrida + "-" + nuevos.getAndIncrement() + "@ejemplo.com",
+                    PASSWORD, "Usuario nuevo");
+        }
+        return cliente.cambiarPassword(email, PASSWORD, PASSWORD);
+    }
+
+    private static String email(int i) {
+        return "carga" + i + "@ejemplo.com";
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * Resultados de una fase; la actualizan los hilos lectores de los clientes
+     */
+    private static final class Medicion {
+        final Histograma latencias = new RegistroMetricas().histograma("generador_latencia_segundos",
+                "Latencia de los pedidos del generador");
+        final LongAdder completadas = new LongAdder();
+        final LongAdder saturados = new LongAdder();
+        final LongAdder errores = new LongAdder();
+        final LongAdder enCurso = new LongAdder();
+        volatile Throwable primerError;
+        long duracion;
+
+        void registrar(long latencia, boolean aTiempo, Throwable error) {
+            Throwable causa = error instanceof CompletionException ? error.getCause() : error;
+            if (causa == null) {
+                latencias.registrar(latencia);
+                if (aTiempo) {
+                    completadas.increment();
+                }
+            } else if (causa instanceof RejectedExecutionException) {
+                saturados.increment();
+            } else {
+                errores.increment();
+                primerError = causa;
+            }
+            enCurso.decrement();
+        }
+
+        void esperarRespuestas() {
+            while (enCurso.sum() > 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            if (primerError != null) {
+                throw new IllegalStateException(errores.sum() + " pedidos fallaron", primerError);
+            }
+        }
+
+        double rps() {
+            return completadas.sum() * 1e9 / duracion;
+        }
+
+        String percentiles() {
+            InstantaneaHistograma instantanea = latencias.instantanea();
+            return String.format(Locale.ROOT, "p50 %.2f ms  p99 %.2f ms  p999 %.2f ms", ms(instantanea.percentil(50)),
+                    ms(instantanea.percentil(99)), ms(instantanea.percentil(99.9)));
+        }
+    }
+
+    /**
+     * Proporciones de cada operación
+     */
+    static final class Mezcla {
+        int autenticar = 90;
+        int buscar = 9;
+        int registrar = 1;
+        int cambiar;
+
+        int total() {
+            return autenticar + buscar + registrar + cambiar;
+        }
+
+        static Mezcla leer(String texto) {
+            Mezcla mezcla = new Mezcla();
+            mezcla.autenticar = 0;
+            mezcla.buscar = 0;
+            mezcla.registrar = 0;
+            for (String parte : texto.split(",")) {
+                String[] claveValor = parte.split("=", 2);
+                if (claveValor.length != 2) {
+                    throw new IllegalArgumentException("Mezcla inválida: " + texto);
+                }
+                int peso = Integer.parseInt(claveValor[1].trim());
+                if (peso < 0) {
+                    throw new IllegalArgumentException("Peso negativo en la mezcla: " + parte);
+                }
+                switch (claveValor[0].trim()) {
+                    case "autenticar":
+                        mezcla.autenticar = peso;
+                        break;
+                    case "buscar":
+                        mezcla.buscar = peso;
+                        break;
+                    case "registrar":
+                        mezcla.registrar = peso;
+                        break;
+                    case "cambiar":
+                        mezcla.cambiar = peso;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Operación desconocida en la mezcla: " + claveValor[0]);
+                }
+            }
+            if (mezcla.total() == 0) {
+                throw new IllegalArgumentException("La mezcla no tiene ninguna operación");
+            }
+            return mezcla;
+        }
+    }
+
+    /**
+     * Opciones de línea de comandos, con sus valores por defecto
+     */
+    static final class Parametros {
+        static final String USO = "Uso: GeneradorCarga [--host H] [--puerto P] [--conexiones N] [--en-vuelo N]"
+                + " [--usuarios N] [--duracion SEGUNDOS] [--p99-ms MS] [--mezcla autenticar=90,buscar=9,...]";
+
+        String host = "localhost";
+        int puerto = ServidorLogin.PUERTO_POR_DEFECTO;
+        int conexiones = 4;
+        int enVuelo = 64;
+        int usuarios = 1000;
+        double duracionSegundos = 5;
+        int p99Ms = 10;
+        Mezcla mezcla = new Mezcla();
+
+        static Parametros leer(String[] args) {
+            Parametros parametros = new Parametros();
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Falta el valor de " + args[i]);
+                }
+                String valor = args[i + 1];
+                try {
+                    switch (args[i]) {
+                        case "--host":
+                            parametros.host = valor;
+                            break;
+                        case "--puerto":
+                            parametros.puerto = Integer.parseInt(valor);
+                            break;
+                        case "--conexiones":
+                            parametros.conexiones = positivo(args[i], Integer.parseInt(valor));
+                            break;
+                        case "--en-vuelo":
+                            parametros.enVuelo = positivo(args[i], Integer.parseInt(valor));
+                            break;
+                        case "--usuarios":
+                            parametros.usuarios = positivo(args[i], Integer.parseInt(valor));
+                            break;
+                        case "--duracion":
+                            parametros.duracionSegundos = Double.parseDouble(valor);
+                            if (!(parametros.duracionSegundos > 0)) {
+                                throw new IllegalArgumentException("--duracion debe ser positiva");
+                            }
+                            break;
+                        case "--p99-ms":
+                            parametros.p99Ms = positivo(args[i], Integer.parseInt(valor));
+                            break;
+                        case "--mezcla":
+                            parametros.mezcla = Mezcla.leer(valor);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Valor inválido para " + args[i] + ": " + valor, e);
+                }
+            }
+            return parametros;
+        }
+
+        private static int positivo(String opcion, int valor) {
+            if (valor < 1) {
+                throw new IllegalArgumentException(opcion + " debe ser positivo");
+            }
+            return valor;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.proyecto.servidor;
+
+import com.proyecto.Usuario;
+
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Datos públicos de un usuario tal como los devuelve ServidorLogin: sin la credencial
+ */
+public final class PerfilUsuario {
+
+    private final String email;
+    private final String nombre;
+    private final long fechaCreacion;
+
+    PerfilUsuario(String email, String nombre, Date fechaCreacion) {
+        this.email = email;
+        this.nombre = nombre;
+        this.fechaCreacion = fechaCreacion.getTime();
+    }
+
+    static PerfilUsuario de(Usuario usuario) {
+        return usuario == null ? null
+                : new PerfilUsuario(usuario.getEmail(), usuario.getNombre(), usuario.getFechaCreacion());
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public Date getFechaCreacion() {
+        return new Date(fechaCreacion);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PerfilUsuario)) {
+            return false;
+        }
+        PerfilUsuario otro = (PerfilUsuario) obj;
+        return email.equals(otro.email) && Objects.equals(nombre, otro.nombre) && fechaCreacion == otro.fechaCreacion;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(email, nombre, fechaCreacion);
+    }
+
+    @Override
+    public String toString() {
+        return "PerfilUsuario{email='" + email + "', nombre='" + nombre + "', fechaCreacion=" + getFechaCreacion()
+                + "}";
+    }
+}
@@ -0,0 +1,117 @@
+package com.proyecto.servidor;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Formato binario de ServidorLogin y ClienteLogin
+ *
+ * Cada trama es un int con la longitud del resto seguido de:
+ * <pre>
+ * pedido:    long id, byte operacion, argumentos
+ * respuesta: long id, byte estado, resultado (OK) o mensaje (ARGUMENTO_INVALIDO, ERROR)
+ * </pre>
+ * El id lo elige el cliente y el servidor lo devuelve tal cual: un cliente puede enviar
+ * varios pedidos sin esperar las respuestas. Los pedidos de una conexión se ejecutan en
+ * paralelo y las respuestas pueden llegar en otro orden; si un pedido depende de otro, el
+ * cliente espera la respuesta del primero antes de enviarlo.
+ *
+ * Los textos son un short sin signo con la longitud en bytes UTF-8 y los bytes; 0xFFFF es
+ * null. Un perfil es un byte de presencia y, si está, email, nombre y fecha de creación
+ * en milisegundos.
+ */
+final class ProtocoloLogin {
+
+    static final byte REGISTRAR = 1;
+    static final byte AUTENTICAR = 2;
+    static final byte CAMBIAR_PASSWORD = 3;
+    static final byte BUSCAR = 4;
+
+    static final byte OK = 0;
+    static final byte ARGUMENTO_INVALIDO = 1;
+    static final byte ERROR = 2;
+    /** El servidor tiene la cola llena: el pedido no se ejecutó y se puede reintentar */
+    static final byte SATURADO = 3;
+
+    /** Longitud máxima de una trama sin contar el int de longitud */
+    static final int MAXIMO_TRAMA = 16 * 1024;
+
+    private static final int TEXTO_NULO = 0xFFFF;
+    private static final int MAXIMO_TEXTO = 0xFFFE;
+
+    private ProtocoloLogin() {
+    }
+
+    /**
+     * Reserva la longitud y escribe id y código; terminar completa la longitud
+     */
+    static ByteBuffer iniciar(int capacidad, long id, byte codigo) {
+        ByteBuffer trama = ByteBuffer.allocate(Integer.BYTES + capacidad);
+        trama.putInt(0).putLong(id).put(codigo);
+        return trama;
+    }
+
+    static ByteBuffer terminar(ByteBuffer trama) {
+        trama.putInt(0, trama.position() - Integer.BYTES);
+        return trama.flip();
+    }
+
+    /**
+     * Capacidad para una trama con estos textos (acotada: UTF-8 usa hasta 3 bytes por char)
+     */
+    static int capacidad(String... textos) {
+        int capacidad = Long.BYTES + 1 + 1 + Long.BYTES;
+        for (String texto : textos) {
+            capacidad += 2 + (texto == null ? 0 : 3 * texto.length());
+        }
+        return capacidad;
+    }
+
+    static void escribirTexto(ByteBuffer trama, String texto) {
+        if (texto == null) {
+            trama.putShort((short) TEXTO_NULO);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAXIMO_TEXTO) {
+            throw new IllegalArgumentException("Texto demasiado largo: " + bytes.length + " bytes");
+        }
+        trama.putShort((short) bytes.length).put(bytes);
+    }
+
+    /**
+     * @throws BufferUnderflowException si la trama termina antes que el texto
+     */
+    static String leerTexto(ByteBuffer trama) {
+        int largo = Short.toUnsignedInt(trama.getShort());
+        if (largo == TEXTO_NULO) {
+            return null;
+        }
+        if (largo > trama.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String texto = new String(trama.array(), trama.arrayOffset() + trama.position(), largo, StandardCharsets.UTF_8);
+        trama.position(trama.position() + largo);
+        return texto;
+    }
+
+    static void escribirPerfil(ByteBuffer trama, PerfilUsuario perfil) {
+        trama.put((byte) (perfil == null ? 0 : 1));
+        if (perfil != null) {
+            escribirTexto(trama, perfil.getEmail());
+            escribirTexto(trama, perfil.getNombre());
+            trama.putLong(perfil.getFechaCreacion().getTime());
+        }
+    }
+
+    static PerfilUsuario leerPerfil(ByteBuffer trama) {
+        if (trama.get() == 0) {
+            return null;
+        }
+        String email = leerTexto(trama);
+        String nombre = leerTexto(trama);
+        return new PerfilUsuario(email, nombre, new Date(trama.getLong()));
+    }
+}
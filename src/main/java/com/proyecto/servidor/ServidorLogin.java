@@ -0,0 +1,444 @@
+package com.proyecto.servidor;
+
+import com.proyecto.OperacionesUsuarios;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Servicio de autenticación por red: registrarUsuario, autenticar, cambiarPassword y
+ * buscarUsuario con el formato de ProtocoloLogin
+ *
+ * Un solo hilo atiende todas las conexiones con un Selector: lee las tramas, decodifica
+ * los pedidos y los pasa a un grupo fijo de hilos, porque autenticar o registrar puede
+ * costar milisegundos de PBKDF2. Las respuestas vuelven al hilo del selector, que las
+ * escribe de a varias por llamada.
+ *
+ * Contrapresión en dos niveles:
+ * <ul>
+ *   <li>cada conexión tiene a lo sumo MAXIMO_EN_VUELO pedidos sin responder; al llegar al
+ *       límite se deja de leer de ella y TCP frena al cliente</li>
+ *   <li>la cola de los hilos es acotada; si está llena el pedido se responde SATURADO de
+ *       inmediato, sin ejecutarse, en lugar de acumular latencia</li>
+ * </ul>
+ *
+ * Ejemplo:
+ * <pre>
+ * try (GestorUsuarios gestor = new GestorUsuarios(true);
+ *      ServidorLogin servidor = ServidorLogin.iniciar(gestor, ServidorLogin.PUERTO_POR_DEFECTO)) {
+ *     ...
+ * }
+ * </pre>
+ */
+public final class ServidorLogin implements AutoCloseable {
+
+    public static final int PUERTO_POR_DEFECTO = 7070;
+
+    /** Pedidos por hilo que puede haber en cola antes de responder SATURADO */
+    public static final int COLA_POR_HILO = 256;
+
+    static final int MAXIMO_EN_VUELO = 256;
+
+    // Respuestas que se escriben en una sola llamada
+    private static final int LOTE_ESCRITURA = 64;
+
+    private final OperacionesUsuarios operaciones;
+    private final ServerSocketChannel canal;
+    private final Selector selector;
+    private final ThreadPoolExecutor trabajadores;
+    private final Thread bucle;
+    private final Queue<Conexion> conRespuestas = new ConcurrentLinkedQueue<>();
+    private volatile boolean abierto = true;
+
+    private ServidorLogin(OperacionesUsuarios operaciones, ServerSocketChannel canal, int hilos, int capacidadCola)
+            throws IOException {
+        this.operaciones = operaciones;
+        this.canal = canal;
+        this.selector = Selector.open();
+        int puerto = canal.socket().getLocalPort();
+        this.trabajadores = new ThreadPoolExecutor(hilos, hilos, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), tarea -> {
+                    Thread hilo = new Thread(tarea, "servidor-login-" + puerto + "-trabajador");
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+        canal.configureBlocking(false);
+        canal.register(selector, SelectionKey.OP_ACCEPT);
+        // No es daemon: mantiene vivo el proceso hasta close
+        this.bucle = new Thread(this::atender, "servidor-login-" + puerto);
+        bucle.start();
+    }
+
+    /**
+     * Empieza a atender en localhost con un hilo por núcleo
+     * @param operaciones gestor o coordinador a publicar (debe admitir varios hilos)
+     * @param puerto puerto (0 elige uno libre)
+     * @return servidor iniciado
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public static ServidorLogin iniciar(OperacionesUsuarios operaciones, int puerto) throws IOException {
+        int hilos = Runtime.getRuntime().availableProcessors();
+        return iniciar(operaciones, new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto),
+                hilos, hilos * COLA_POR_HILO);
+    }
+
+    /**
+     * Empieza a atender en una dirección dada
+     * @param operaciones gestor o coordinador a publicar (debe admitir varios hilos)
+     * @param direccion dirección y puerto de escucha
+     * @param hilos hilos que ejecutan las operaciones
+     * @param capacidadCola pedidos que pueden esperar un hilo antes de responder SATURADO
+     * @return servidor iniciado
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public static ServidorLogin iniciar(OperacionesUsuarios operaciones, InetSocketAddress direccion,
+                                        int hilos, int capacidadCola) throws IOException {
+        if (hilos < 1 || capacidadCola < 1) {
+            throw new IllegalArgumentException("Hilos y capacidad de cola deben ser positivos");
+        }
+        ServerSocketChannel canal = ServerSocketChannel.open();
+        try {
+            canal.bind(direccion, 1024);
+            return new ServidorLogin(operaciones, canal, hilos, capacidadCola);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return dirección en la que escucha (con el puerto elegido si se pidió el 0)
+     */
+    public InetSocketAddress getDireccion() {
+        try {
+            return (InetSocketAddress) canal.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deja de aceptar pedidos, cierra las conexiones y espera a que terminen las operaciones
+     * ya empezadas; no cierra el gestor publicado
+     */
+    @Override
+    public void close() {
+        abierto = false;
+        selector.wakeup();
+        // Sin interrumpir a los trabajadores: una interrupción cierra el FileChannel de la persistencia
+        trabajadores.shutdown();
+        try {
+            bucle.join();
+            trabajadores.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== BUCLE DEL SELECTOR ==========
+
+    private void atender() {
+        try {
+            while (abierto) {
+                selector.select();
+                Conexion conexion;
+                while ((conexion = conRespuestas.poll()) != null) {
+                    conexion.avisada.set(false);
+                    escribir(conexion);
+                }
+                Iterator<SelectionKey> listas = selector.selectedKeys().iterator();
+                while (listas.hasNext()) {
+                    SelectionKey clave = listas.next();
+                    listas.remove();
+                    if (!clave.isValid()) {
+                        continue;
+                    }
+                    if (clave.isAcceptable()) {
+                        aceptar();
+                        continue;
+                    }
+                    conexion = (Conexion) clave.attachment();
+                    if (clave.isWritable()) {
+                        escribir(conexion);
+                    }
+                    if (clave.isValid() && clave.isReadable()) {
+                        leer(conexion);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Error del selector o del canal de escucha: no hay forma de seguir atendiendo
+            throw new UncheckedIOException(e);
+        } finally {
+            for (SelectionKey clave : selector.keys()) {
+                cerrarSilencioso(clave);
+            }
+            cerrarSilencioso(selector);
+            cerrarSilencioso(canal);
+        }
+    }
+
+    private void aceptar() throws IOException {
+        SocketChannel cliente;
+        while ((cliente = canal.accept()) != null) {
+            cliente.configureBlocking(false);
+            cliente.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey clave = cliente.register(selector, SelectionKey.OP_READ);
+            clave.attach(new Conexion(cliente, clave));
+        }
+    }
+
+    private void leer(Conexion conexion) {
+        try {
+            if (conexion.canal.read(conexion.entrada) < 0) {
+                cerrar(conexion);
+                return;
+            }
+        } catch (IOException e) {
+            cerrar(conexion);
+            return;
+        }
+        despachar(conexion);
+    }
+
+    /**
+     * Pasa a los hilos las tramas completas del buffer de entrada, hasta el límite de pedidos en vuelo
+     */
+    private void despachar(Conexion conexion) {
+        ByteBuffer entrada = conexion.entrada.flip();
+        while (conexion.enVuelo < MAXIMO_EN_VUELO && entrada.remaining() >= Integer.BYTES) {
+            int largo = entrada.getInt(entrada.position());
+            if (largo < Long.BYTES + 1 || largo > ProtocoloLogin.MAXIMO_TRAMA) {
+                cerrar(conexion);
+                return;
+            }
+            if (entrada.remaining() < Integer.BYTES + largo) {
+                break;
+            }
+            entrada.position(entrada.position() + Integer.BYTES);
+            ByteBuffer trama = entrada.slice();
+            trama.limit(largo);
+            entrada.position(entrada.position() + largo);
+
+            Pedido pedido;
+            try {
+                pedido = Pedido.leer(trama);
+            } catch (BufferUnderflowException e) {
+                cerrar(conexion);
+                return;
+            }
+            conexion.enVuelo++;
+            try {
+                trabajadores.execute(() -> responder(conexion, pedido));
+            } catch (RejectedExecutionException e) {
+                encolar(conexion, ProtocoloLogin.terminar(
+                        ProtocoloLogin.iniciar(Long.BYTES + 1, pedido.id, ProtocoloLogin.SATURADO)));
+            }
+        }
+        entrada.compact();
+        if (conexion.enVuelo >= MAXIMO_EN_VUELO && !conexion.lecturaPausada) {
+            conexion.lecturaPausada = true;
+            conexion.clave.interestOps(conexion.clave.interestOps() & ~SelectionKey.OP_READ);
+        }
+    }
+
+    private void escribir(Conexion conexion) {
+        if (!conexion.clave.isValid()) {
+            return;
+        }
+        try {
+            while (true) {
+                if (conexion.primero == conexion.cantidad) {
+                    conexion.primero = 0;
+                    conexion.cantidad = 0;
+                    ByteBuffer respuesta;
+                    while (conexion.cantidad < LOTE_ESCRITURA && (respuesta = conexion.salida.poll()) != null) {
+                        conexion.lote[conexion.cantidad++] = respuesta;
+                    }
+                    if (conexion.cantidad == 0) {
+                        break;
+                    }
+                }
+                conexion.canal.write(conexion.lote, conexion.primero, conexion.cantidad - conexion.primero);
+                while (conexion.primero < conexion.cantidad && !conexion.lote[conexion.primero].hasRemaining()) {
+                    conexion.lote[conexion.primero++] = null;
+                    conexion.enVuelo--;
+                }
+                if (conexion.primero < conexion.cantidad) {
+                    // El socket no acepta más: seguir cuando el selector avise
+                    conexion.clave.interestOps(conexion.clave.interestOps() | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            cerrar(conexion);
+            return;
+        }
+        int intereses = conexion.clave.interestOps() & ~SelectionKey.OP_WRITE;
+        if (conexion.lecturaPausada && conexion.enVuelo < MAXIMO_EN_VUELO) {
+            conexion.lecturaPausada = false;
+            intereses |= SelectionKey.OP_READ;
+            conexion.clave.interestOps(intereses);
+            // Puede haber pedidos completos esperando en el buffer
+            despachar(conexion);
+            return;
+        }
+        conexion.clave.interestOps(intereses);
+    }
+
+    /**
+     * Deja una respuesta para que la escriba el hilo del selector (desde cualquier hilo)
+     */
+    private void encolar(Conexion conexion, ByteBuffer respuesta) {
+        conexion.salida.add(respuesta);
+        if (conexion.avisada.compareAndSet(false, true)) {
+            conRespuestas.add(conexion);
+            selector.wakeup();
+        }
+    }
+
+    private void cerrar(Conexion conexion) {
+        cerrarSilencioso(conexion.clave);
+    }
+
+    private static void cerrarSilencioso(SelectionKey clave) {
+        clave.cancel();
+        cerrarSilencioso(clave.channel());
+    }
+
+    private static void cerrarSilencioso(AutoCloseable recurso) {
+        try {
+            recurso.close();
+        } catch (Exception e) {
+            // Se está cerrando: no hay a quién avisar
+        }
+    }
+
+    // ========== OPERACIONES ==========
+
+    /**
+     * Ejecuta un pedido en un hilo trabajador y encola la respuesta
+     */
+    private void responder(Conexion conexion, Pedido pedido) {
+        ByteBuffer respuesta;
+        try {
+            switch (pedido.operacion) {
+                case ProtocoloLogin.REGISTRAR:
+                    respuesta = booleano(pedido.id,
+                            operaciones.registrarUsuario(pedido.primero, pedido.segundo, pedido.tercero));
+                    break;
+                case ProtocoloLogin.AUTENTICAR:
+                    respuesta = perfil(pedido.id,
+                            PerfilUsuario.de(operaciones.autenticar(pedido.primero, pedido.segundo)));
+                    break;
+                case ProtocoloLogin.CAMBIAR_PASSWORD:
+                    respuesta = booleano(pedido.id,
+                            operaciones.cambiarPassword(pedido.primero, pedido.segundo, pedido.tercero));
+                    break;
+                case ProtocoloLogin.BUSCAR:
+                    respuesta = perfil(pedido.id, PerfilUsuario.de(operaciones.buscarUsuario(pedido.primero)));
+                    break;
+                default:
+                    respuesta = mensaje(pedido.id, ProtocoloLogin.ARGUMENTO_INVALIDO,
+                            "Operación desconocida: " + pedido.operacion);
+            }
+        } catch (IllegalArgumentException e) {
+            respuesta = mensaje(pedido.id, ProtocoloLogin.ARGUMENTO_INVALIDO, e.getMessage());
+        } catch (RuntimeException e) {
+            respuesta = mensaje(pedido.id, ProtocoloLogin.ERROR, String.valueOf(e));
+        }
+        encolar(conexion, respuesta);
+    }
+
+    private static ByteBuffer booleano(long id, boolean valor) {
+        ByteBuffer trama = ProtocoloLogin.iniciar(Long.BYTES + 2, id, ProtocoloLogin.OK);
+        trama.put((byte) (valor ? 1 : 0));
+        return ProtocoloLogin.terminar(trama);
+    }
+
+    private static ByteBuffer perfil(long id, PerfilUsuario perfil) {
+        ByteBuffer trama = perfil == null
+                ? ProtocoloLogin.iniciar(Long.BYTES + 2, id, ProtocoloLogin.OK)
+                : ProtocoloLogin.iniciar(ProtocoloLogin.capacidad(perfil.getEmail(), perfil.getNombre()),
+                        id, ProtocoloLogin.OK);
+        ProtocoloLogin.escribirPerfil(trama, perfil);
+        return ProtocoloLogin.terminar(trama);
+    }
+
+    private static ByteBuffer mensaje(long id, byte estado, String mensaje) {
+        // Un mensaje enorme (p. ej. con el email recibido) se recorta para que entre en la trama
+        String recortado = mensaje != null && mensaje.length() > 1024 ? mensaje.substring(0, 1024) : mensaje;
+        ByteBuffer trama = ProtocoloLogin.iniciar(ProtocoloLogin.capacidad(recortado), id, estado);
+        ProtocoloLogin.escribirTexto(trama, recortado);
+        return ProtocoloLogin.terminar(trama);
+    }
+
+    // ========== ESTADO POR CONEXIÓN ==========
+
+    /**
+     * Pedido ya decodificado: los textos se copian del buffer de entrada, que se reutiliza
+     */
+    private static final class Pedido {
+        final long id;
+        final byte operacion;
+        final String primero;
+        final String segundo;
+        final String tercero;
+
+        private Pedido(long id, byte operacion, String primero, String segundo, String tercero) {
+            this.id = id;
+            this.operacion = operacion;
+            this.primero = primero;
+            this.segundo = segundo;
+            this.tercero = tercero;
+        }
+
+        static Pedido leer(ByteBuffer trama) {
+            long id = trama.getLong();
+            byte operacion = trama.get();
+            String[] textos = new String[3];
+            for (int i = 0; i < textos.length && trama.hasRemaining(); i++) {
+                textos[i] = ProtocoloLogin.leerTexto(trama);
+            }
+            return new Pedido(id, operacion, textos[0], textos[1], textos[2]);
+        }
+    }
+
+    /**
+     * Buffers de una conexión. Salvo salida y avisada, sólo los usa el hilo del selector.
+     */
+    private static final class Conexion {
+        final SocketChannel canal;
+        final SelectionKey clave;
+        final ByteBuffer entrada = ByteBuffer.allocate(Integer.BYTES + ProtocoloLogin.MAXIMO_TRAMA);
+        final Queue<ByteBuffer> salida = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean avisada = new AtomicBoolean();
+        final ByteBuffer[] lote = new ByteBuffer[LOTE_ESCRITURA];
+        int primero;
+        int cantidad;
+        int enVuelo;
+        boolean lecturaPausada;
+
+        Conexion(SocketChannel canal, SelectionKey clave) {
+            this.canal = canal;
+            this.clave = clave;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.ejemplo;
 
+import com.proyecto.metricas.RegistroMetricas;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -214,6 +218,145 @@ class CalculadoraTest {
         }
     }
 
+    @Nested
+    @DisplayName("Pruebas de operaciones por lotes")
+    class OperacionesPorLotes {
+
+        private final double[] a = {1.5, -2.0, 0.0, 9.0, 1e308};
+        private final double[] b = {2.0, 0.0, -0.0, 3.0, 10.0};
+
+        @Test
+        @DisplayName("Los lotes coinciden con las operaciones escalares")
+        void testLotesIgualesAEscalares() {
+            double[] r = new double[a.length];
+
+            calculadora.sumar(a, b, r);
+            for (int i = 0; i < a.length; i++) {
+                assertEquals(calculadora.sumar(a[i], b[i]), r[i]);
+            }
+            calculadora.restar(a, b, r);
+            for (int i = 0; i < a.length; i++) {
+                assertEquals(calculadora.restar(a[i], b[i]), r[i]);
+            }
+            calculadora.multiplicar(a, 3.0, r);
+            for (int i = 0; i < a.length; i++) {
+                assertEquals(calculadora.multiplicar(a[i], 3.0), r[i]);
+            }
+            calculadora.restar(a, 0.5, r);
+            for (int i = 0; i < a.length; i++) {
+                assertEquals(calculadora.restar(a[i], 0.5), r[i]);
+            }
+            calculadora.multiplicarSumar(a, b, a, r);
+            for (int i = 0; i < a.length; i++) {
+                assertEquals(Math.fma(a[i], b[i], a[i]), r[i]);
+            }
+        }
+
+        @Test
+        @DisplayName("División por cero se informa en la máscara sin abortar el lote")
+        void testDividirConMascara() {
+            double[] r = new double[a.length];
+            boolean[] errores = new boolean[a.length];
+
+            int fallidos = calculadora.dividir(a, b, r, errores);
+
+            assertEquals(2, fallidos, "0.0 y -0.0 son divisores inválidos");
+            assertArrayEquals(new boolean[]{false, true, true, false, false}, errores);
+            assertEquals(0.75, r[0]);
+            assertTrue(Double.isNaN(r[1]) && Double.isNaN(r[2]));
+            assertEquals(3.0, r[3]);
+
+            assertEquals(a.length, calculadora.dividir(a, 0.0, r, errores));
+            for (int i = 0; i < a.length; i++) {
+                assertTrue(errores[i] && Double.isNaN(r[i]));
+            }
+            assertEquals(0, calculadora.dividir(a, 2.0, r, errores), "La máscara se sobrescribe completa");
+            assertFalse(errores[0]);
+        }
+
+        @Test
+        @DisplayName("Raíz cuadrada de negativos se informa en la máscara")
+        void testRaizConMascara() {
+            double[] r = new double[a.length];
+            boolean[] errores = new boolean[a.length];
+
+            assertEquals(1, calculadora.raizCuadrada(a, r, errores));
+            assertArrayEquals(new boolean[]{false, true, false, false, false}, errores);
+            assertEquals(3.0, r[3]);
+            assertTrue(Double.isNaN(r[1]));
+        }
+
+        @Test
+        @DisplayName("Los lotes rechazan longitudes distintas")
+        void testLongitudesDistintas() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> calculadora.sumar(a, new double[2], new double[a.length]));
+            assertThrows(IllegalArgumentException.class,
+                    () -> calculadora.dividir(a, b, new double[a.length], new boolean[1]));
+        }
+
+        @Test
+        @DisplayName("DoubleBuffer respaldados por arreglo y directos dan el mismo resultado")
+        void testDoubleBuffer() {
+            DoubleBuffer directo = ByteBuffer.allocateDirect(a.length * Double.BYTES).asDoubleBuffer();
+            directo.put(b).flip();
+            DoubleBuffer heap = DoubleBuffer.wrap(new double[a.length + 1], 1, a.length).slice();
+            DoubleBuffer entrada = DoubleBuffer.wrap(a);
+            boolean[] errores = new boolean[a.length];
+
+            assertEquals(2, calculadora.dividir(entrada, directo, heap, errores));
+            assertFalse(entrada.hasRemaining() || directo.hasRemaining() || heap.hasRemaining(),
+                    "Las posiciones deben avanzar");
+            heap.flip();
+            assertEquals(0.75, heap.get(0));
+            assertTrue(Double.isNaN(heap.get(1)));
+
+            // Destino igual a la entrada: la posición avanza una sola vez
+            DoubleBuffer mismo = DoubleBuffer.wrap(new double[]{1, 2, 3});
+            calculadora.multiplicar(mismo, 2.0, mismo);
+            assertEquals(3, mismo.position());
+            assertArrayEquals(new double[]{2, 4, 6}, mismo.array());
+
+            DoubleBuffer directoEntrada = ByteBuffer.allocateDirect(3 * Double.BYTES).asDoubleBuffer();
+            directoEntrada.put(new double[]{4, -1, 9}).flip();
+            double[] raices = new double[3];
+            assertEquals(1, calculadora.raizCuadrada(directoEntrada, DoubleBuffer.wrap(raices), new boolean[3]));
+            assertEquals(2.0, raices[0]);
+            assertEquals(3.0, raices[2]);
+        }
+    }
+
+    // ========== PRUEBAS DE MÉTRICAS ==========
+
+    @Test
+    @DisplayName("Las métricas cuentan operaciones, errores y elementos de los lotes")
+    void testMetricas() {
+        RegistroMetricas registro = new RegistroMetricas();
+        Calculadora medida = new Calculadora(registro);
+
+        medida.dividir(6, 3);
+        assertThrows(IllegalArgumentException.class, () -> medida.dividir(1, 0));
+        assertThrows(ArithmeticException.class, () -> medida.potenciaExacta(10L, 19));
+        medida.restar(DoubleBuffer.wrap(new double[4]), 1.0, DoubleBuffer.allocate(4));
+        medida.raizCuadrada(new double[]{4, -1, -9}, new double[3], new boolean[3]);
+        medida.resumir(new double[]{1, 2, 3});
+
+        String texto = registro.aTextoPrometheus();
+        String[] esperadas = {
+                "calculadora_operaciones_total{operacion=\"dividir\",resultado=\"exito\"} 1\n",
+                "calculadora_operaciones_total{operacion=\"dividir\",resultado=\"error\"} 1\n",
+                "calculadora_operaciones_total{operacion=\"potencia_exacta\",resultado=\"error\"} 1\n",
+                "calculadora_lote_elementos_total{operacion=\"restar\"} 4\n",
+                "calculadora_lote_elementos_total{operacion=\"sumar\"} 0\n",
+                "calculadora_lote_elementos_total{operacion=\"raiz_cuadrada\"} 3\n",
+                "calculadora_lote_errores_total{operacion=\"raiz_cuadrada\"} 2\n",
+                "calculadora_latencia_segundos_count{operacion=\"resumir\"} 1\n",
+        };
+        for (String esperada : esperadas) {
+            assertTrue(texto.contains(esperada), esperada + " en\n" + texto);
+        }
+    }
+
     // ========== PRUEBAS PARAMETRIZADAS ==========
 
     @ParameterizedTest
@@ -0,0 +1,154 @@
+package com.ejemplo;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Casos de prueba de las reducciones paralelas
+ * Ubicación: src/test/java/com/ejemplo/EstadisticasTest.java
+ */
+class EstadisticasTest {
+
+    private static final int B = Estadisticas.BLOQUE;
+
+    @TempDir
+    Path directorio;
+
+    private static double[] aleatorios(int n, long semilla) {
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        double[] datos = new double[n];
+        for (int i = 0; i < n; i++) {
+            // Magnitudes muy distintas para que el orden de las sumas importe
+            datos[i] = aleatorio.nextDouble(-1, 1) * Math.pow(10, aleatorio.nextInt(-3, 9));
+        }
+        return datos;
+    }
+
+    private static byte[] bytes(double[] datos, ByteOrder orden) {
+        ByteBuffer b = ByteBuffer.allocate(datos.length * Double.BYTES).order(orden);
+        b.asDoubleBuffer().put(datos);
+        return b.array();
+    }
+
+    @Test
+    @DisplayName("ES001 - Valores correctos contra un cálculo exacto")
+    void testValoresCorrectos() {
+        double[] datos = aleatorios(3 * B + 123, 1);
+        ResumenEstadistico resumen = new Calculadora().resumir(datos);
+
+        BigDecimal exacta = BigDecimal.ZERO;
+        double minimo = Double.POSITIVE_INFINITY;
+        double maximo = Double.NEGATIVE_INFINITY;
+        for (double x : datos) {
+            exacta = exacta.add(new BigDecimal(x));
+            minimo = Math.min(minimo, x);
+            maximo = Math.max(maximo, x);
+        }
+        assertEquals(exacta.doubleValue(), resumen.getSuma(), Math.ulp(exacta.doubleValue()));
+        double media = exacta.divide(BigDecimal.valueOf(datos.length), MathContext.DECIMAL128).doubleValue();
+        BigDecimal m2 = BigDecimal.ZERO;
+        for (double x : datos) {
+            BigDecimal d = new BigDecimal(x).subtract(new BigDecimal(media));
+            m2 = m2.add(d.multiply(d));
+        }
+        double varianza = m2.divide(BigDecimal.valueOf(datos.length), MathContext.DECIMAL128).doubleValue();
+        assertEquals(datos.length, resumen.getCantidad());
+        assertEquals(media, resumen.getMedia(), Math.abs(media) * 1e-12);
+        assertEquals(varianza, resumen.getVarianza(), varianza * 1e-9);
+        assertEquals(minimo, resumen.getMinimo());
+        assertEquals(maximo, resumen.getMaximo());
+    }
+
+    @Test
+    @DisplayName("ES002 - La suma compensada no pierde los sumandos chicos")
+    void testSumaCompensada() {
+        double[] datos = {1e16, 1.0, -1e16, 1.0, 1e100, 1.0, -1e100};
+        assertEquals(3.0, Estadisticas.resumir(datos).getSuma());
+
+        double[] infinitos = {1.0, Double.POSITIVE_INFINITY, 2.0};
+        assertEquals(Double.POSITIVE_INFINITY, Estadisticas.resumir(infinitos).getSuma());
+    }
+
+    @Test
+    @DisplayName("ES003 - Mismo resultado bit a bit con cualquier cantidad de hilos y cualquier fuente")
+    void testDeterminismo() throws IOException {
+        int[] tamanos = {0, 1, B - 1, B, B + 1, 4 * B, 5 * B + 7, 11 * B, 13 * B + 1};
+        for (int n : tamanos) {
+            double[] datos = aleatorios(n, n);
+            ResumenEstadistico referencia = Estadisticas.resumir(datos, new ForkJoinPool(1));
+
+            for (int hilos = 2; hilos <= 5; hilos++) {
+                ForkJoinPool pool = new ForkJoinPool(hilos);
+                try {
+                    assertEquals(referencia, Estadisticas.resumir(datos, pool), "n=" + n + " hilos=" + hilos);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+
+            // Flujo en partes de tamaño aleatorio
+            ResumenIncremental incremental = new ResumenIncremental();
+            SplittableRandom partes = new SplittableRandom(n);
+            int i = 0;
+            while (i < n) {
+                int hasta = Math.min(n, i + partes.nextInt(1, 3 * B));
+                if (partes.nextBoolean()) {
+                    incremental.agregar(datos, i, hasta);
+                } else {
+                    for (int j = i; j < hasta; j++) {
+                        incremental.agregar(datos[j]);
+                    }
+                }
+                i = hasta;
+            }
+            assertEquals(referencia, incremental.resumen(), "incremental n=" + n);
+
+            for (ByteOrder orden : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+                Path archivo = Files.write(directorio.resolve("datos-" + n + "-" + orden + ".bin"), bytes(datos, orden));
+                assertEquals(referencia, Estadisticas.resumir(archivo, orden), "archivo n=" + n);
+                assertEquals(referencia, Estadisticas.resumir(new ByteArrayInputStream(bytes(datos, orden)), orden),
+                        "flujo n=" + n);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("ES004 - Pares, datos vacíos y archivos inválidos")
+    void testCasosLimite() throws IOException {
+        ResumenEstadistico pares = Estadisticas.resumir(new double[]{0, 1, 2, -4, 2.5, 7, Double.NaN, 1e20});
+        assertEquals(4, pares.getPares(), "0, 2, -4 y 1e20 son pares");
+        Calculadora calculadora = new Calculadora();
+        for (int i = -5000; i <= 5000; i++) {
+            assertEquals(calculadora.esPar(i), AcumuladorEstadistico.esPar(i), "i=" + i);
+            assertFalse(AcumuladorEstadistico.esPar(i + 0.5));
+        }
+        assertEquals(calculadora.esPar(Integer.MIN_VALUE), AcumuladorEstadistico.esPar(Integer.MIN_VALUE));
+        assertFalse(AcumuladorEstadistico.esPar(Double.POSITIVE_INFINITY));
+
+        ResumenEstadistico vacio = Estadisticas.resumir(new double[0]);
+        assertEquals(0, vacio.getCantidad());
+        assertEquals(0.0, vacio.getSuma());
+        assertTrue(Double.isNaN(vacio.getMedia()) && Double.isNaN(vacio.getMinimo()));
+
+        ResumenEstadistico uno = Estadisticas.resumir(new double[]{5});
+        assertEquals(0.0, uno.getVarianza());
+        assertTrue(Double.isNaN(uno.getVarianzaMuestral()));
+
+        Path roto = Files.write(directorio.resolve("roto.bin"), new byte[12]);
+        assertThrows(IOException.class, () -> Estadisticas.resumir(roto, ByteOrder.BIG_ENDIAN));
+        assertThrows(IOException.class,
+                () -> Estadisticas.resumir(new ByteArrayInputStream(new byte[12]), ByteOrder.BIG_ENDIAN));
+    }
+}
@@ -0,0 +1,103 @@
+package com.ejemplo;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Casos de prueba del evaluador de expresiones
+ * Ubicación: src/test/java/com/ejemplo/ExpresionTest.java
+ */
+class ExpresionTest {
+
+    @Test
+    @DisplayName("EX001 - Evaluar una fórmula con variables")
+    void testEvaluarFormula() {
+        Expresion expresion = Expresion.compilar("sqrt(a*a + b*b) / c");
+
+        assertEquals(List.of("a", "b", "c"), expresion.getVariables());
+        assertEquals(2.5, expresion.evaluar(3, 4, 2), 0.0);
+        assertEquals(2.5, expresion.evaluar(Map.of("a", 3.0, "b", 4.0, "c", 2.0)), 0.0);
+    }
+
+    @Test
+    @DisplayName("EX002 - Precedencia y asociatividad")
+    void testPrecedencia() {
+        assertEquals(7.0, Expresion.compilar("1 + 2 * 3").evaluar());
+        assertEquals(9.0, Expresion.compilar("(1 + 2) * 3").evaluar());
+        assertEquals(2.0, Expresion.compilar("8 / 2 / 2").evaluar());
+        assertEquals(-4.0, Expresion.compilar("-2^2").evaluar());
+        assertEquals(512.0, Expresion.compilar("2^3^2").evaluar());
+        assertEquals(0.5, Expresion.compilar("2^-1").evaluar());
+        assertEquals(1.0, Expresion.compilar("1 - 2 + 2").evaluar());
+        assertEquals(2500.0, Expresion.compilar("2.5e3").evaluar());
+        assertEquals(3.0, Expresion.compilar("max(min(x, 3), abs(-1))").evaluar(10));
+        assertEquals(81.0, Expresion.compilar("pow(x, 4)").evaluar(3));
+    }
+
+    @Test
+    @DisplayName("EX003 - Los errores de Calculadora se conservan")
+    void testErroresDeCalculadora() {
+        Expresion division = Expresion.compilar("a / b");
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> division.evaluar(1, 0));
+        assertEquals("No se puede dividir por cero", error.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> Expresion.compilar("sqrt(x - 10)").evaluar(1));
+        assertThrows(IllegalArgumentException.class, () -> Expresion.compilar("x ^ 0.5").evaluar(4));
+
+        // Un subárbol constante que falla no se pliega: el error aparece al evaluar
+        Expresion constante = Expresion.compilar("x + 1 / 0");
+        assertThrows(IllegalArgumentException.class, () -> constante.evaluar(1));
+    }
+
+    @Test
+    @DisplayName("EX004 - Errores de sintaxis con posición")
+    void testErroresDeSintaxis() {
+        String[] invalidas = {"", "1 +", "(1 + 2", "1 + * 2", "foo(1)", "sqrt(1, 2)", "1 2", "2e", "1..2", "#"};
+        for (String invalida : invalidas) {
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                    () -> Expresion.compilar(invalida), invalida);
+            assertTrue(error.getMessage().contains("posición"), error.getMessage());
+        }
+        assertThrows(IllegalArgumentException.class, () -> Expresion.compilar(null));
+        assertThrows(IllegalArgumentException.class, () -> Expresion.compilar("a + b").evaluar(1));
+    }
+
+    @Test
+    @DisplayName("EX005 - El plegado de constantes no cambia el resultado")
+    void testPlegado() {
+        Expresion plegada = Expresion.compilar("x * (2 + 3) * 1 + sqrt(16)");
+        assertEquals("((x * 5.0) + 4.0)", plegada.toString());
+
+        SplittableRandom aleatorio = new SplittableRandom(3);
+        String[] formulas = {"sqrt(a*a + b*b) / c", "a * 1 - -b / 1 + 0.1 * 3", "pow(a, 3) - b ^ 2 * c",
+                "max(a, b) / (abs(c) + 1)", "1 * a * 1 + (2 ^ 10) / 4"};
+        for (String formula : formulas) {
+            Expresion compilada = Expresion.compilar(formula);
+            NodoExpresion sinPlegar = AnalizadorExpresion.analizar(formula).arbol;
+            for (int i = 0; i < 1000; i++) {
+                double[] valores = new double[compilada.getVariables().size()];
+                for (int v = 0; v < valores.length; v++) {
+                    valores[v] = aleatorio.nextDouble(1, 100);
+                }
+                assertEquals(sinPlegar.interpretar(valores), compilada.evaluar(valores), 0.0, formula);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("EX006 - La caché devuelve la misma expresión compilada")
+    void testCache() {
+        Expresion primera = Expresion.compilar("cache_a + cache_b");
+        assertSame(primera, Expresion.compilar("cache_a + cache_b"));
+
+        for (int i = 0; i < Expresion.CAPACIDAD_CACHE + 10; i++) {
+            Expresion.compilar("x + " + i);
+        }
+        assertTrue(Expresion.tamanoCache() <= Expresion.CAPACIDAD_CACHE, "La caché debe estar acotada");
+        assertNotSame(primera, Expresion.compilar("cache_a + cache_b"), "La entrada más antigua se descarta");
+    }
+}
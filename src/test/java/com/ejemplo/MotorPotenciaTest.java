@@ -0,0 +1,101 @@
+package com.ejemplo;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+
+/**
+ * Casos de prueba de los caminos rápidos de potencia
+ * Ubicación: src/test/java/com/ejemplo/MotorPotenciaTest.java
+ */
+class MotorPotenciaTest {
+
+    private static void assertIgualAMathPow(double base, int exponente) {
+        long esperado = Double.doubleToRawLongBits(Math.pow(base, exponente));
+        long obtenido = Double.doubleToRawLongBits(MotorPotencia.potencia(base, exponente));
+        assertEquals(esperado, obtenido, () -> base + "^" + exponente + ": Math.pow=" + Math.pow(base, exponente)
+                + " motor=" + MotorPotencia.potencia(base, exponente));
+    }
+
+    @Test
+    @DisplayName("MP001 - Bases enteras pequeñas coinciden bit a bit con Math.pow")
+    void testBasesEnterasPequenas() {
+        for (int base = -40; base <= 40; base++) {
+            for (int exponente = -80; exponente <= 80; exponente++) {
+                assertIgualAMathPow(base, exponente);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("MP002 - Potencias de dos en todo el rango, incluidos subnormales y desbordes")
+    void testPotenciasDeDos() {
+        for (int k = 0; k <= 12; k++) {
+            double base = Math.scalb(1.0, k);
+            for (int exponente = -1200; exponente <= 1200; exponente++) {
+                assertIgualAMathPow(base, exponente);
+                assertIgualAMathPow(-base, exponente);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("MP003 - Valores especiales y bases no enteras siguen a Math.pow")
+    void testValoresEspeciales() {
+        double[] bases = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, 0.5, -1.5, 1e-300, 9007199254740993.0,
+                9007199254740992.0, 4503599627370497.0, 1e300};
+        int[] exponentes = {Integer.MIN_VALUE, -1075, -3, -2, -1, 0, 1, 2, 3, 53, 1024, Integer.MAX_VALUE};
+        for (double base : bases) {
+            for (int exponente : exponentes) {
+                assertIgualAMathPow(base, exponente);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("MP004 - Bases enteras aleatorias coinciden bit a bit con Math.pow")
+    void testBasesAleatorias() {
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        for (int i = 0; i < 200_000; i++) {
+            long base = aleatorio.nextLong(-(1L << 30), 1L << 30) >> aleatorio.nextInt(31);
+            int exponente = aleatorio.nextInt(-4, 12);
+            assertIgualAMathPow(base, exponente);
+        }
+    }
+
+    @Test
+    @DisplayName("MP005 - Potencia exacta en long detecta el desborde")
+    void testPotenciaExactaLong() {
+        assertEquals(1L, MotorPotencia.potenciaExacta(0, 0));
+        assertEquals(0L, MotorPotencia.potenciaExacta(0, 5));
+        assertEquals(-2187L, MotorPotencia.potenciaExacta(-3, 7));
+        assertEquals(Long.MIN_VALUE, MotorPotencia.potenciaExacta(-2, 63));
+        assertEquals(4611686014132420609L, MotorPotencia.potenciaExacta(Integer.MAX_VALUE, 2));
+        assertEquals(1L, MotorPotencia.potenciaExacta(-1, Integer.MAX_VALUE - 1));
+        assertThrows(ArithmeticException.class, () -> MotorPotencia.potenciaExacta(2, 63));
+        assertThrows(ArithmeticException.class, () -> MotorPotencia.potenciaExacta(10, 19));
+        assertThrows(IllegalArgumentException.class, () -> MotorPotencia.potenciaExacta(2, -1));
+        for (int base = -12; base <= 12; base++) {
+            for (int exponente = 0; exponente <= 70; exponente++) {
+                BigInteger esperado = BigInteger.valueOf(base).pow(exponente);
+                if (esperado.bitLength() < 64) {
+                    assertEquals(esperado.longValueExact(), MotorPotencia.potenciaExacta(base, exponente));
+                } else {
+                    final int b = base, e = exponente;
+                    assertThrows(ArithmeticException.class, () -> MotorPotencia.potenciaExacta(b, e));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("MP006 - Potencia exacta en BigInteger")
+    void testPotenciaExactaBigInteger() {
+        Calculadora calculadora = new Calculadora();
+        assertEquals(new BigInteger("100000000000000000000"), calculadora.potenciaExacta(BigInteger.TEN, 20));
+        assertThrows(IllegalArgumentException.class, () -> calculadora.potenciaExacta(BigInteger.TEN, -1));
+    }
+}
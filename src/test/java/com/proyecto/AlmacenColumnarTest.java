@@ -0,0 +1,154 @@
+package com.proyecto;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static com.proyecto.UsuariosPrueba.CREDENCIAL;
+import static com.proyecto.UsuariosPrueba.usuario;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Casos de prueba del almacén columnar de usuarios
+ * Ubicación: src/test/java/com/proyecto/AlmacenColumnarTest.java
+ */
+class AlmacenColumnarTest {
+
+    @TempDir
+    Path directorio;
+
+    private static void assertMismoUsuario(Usuario esperado, Usuario actual) {
+        assertEquals(esperado.getEmail(), actual.getEmail());
+        assertEquals(esperado.getNombre(), actual.getNombre());
+        assertEquals(esperado.getFechaCreacion(), actual.getFechaCreacion());
+        assertEquals(esperado.getCredencial(), actual.getCredencial());
+    }
+
+    @Test
+    @DisplayName("AC001 - Se comporta como un HashMap ante operaciones aleatorias")
+    void testEquivalenteAHashMap() {
+        AlmacenColumnar almacen = new AlmacenColumnar(0);
+        Map<String, Usuario> referencia = new HashMap<>();
+        SplittableRandom aleatorio = new SplittableRandom(13);
+        List<Credencial> credenciales = List.of(CREDENCIAL, Credencial.crear("otra123", 1));
+
+        // Pocas claves y muchas operaciones: fuerza reutilización de ranuras, crecimiento y compactación
+        for (int paso = 0; paso < 200_000; paso++) {
+            String email = "u" + aleatorio.nextInt(3000) + (aleatorio.nextInt(10) == 0 ? "ñ@test.com" : "@test.com");
+            switch (aleatorio.nextInt(5)) {
+                case 0:
+                case 1:
+                    String nombre = "Nombre " + "x".repeat(aleatorio.nextInt(200)) + paso;
+                    Usuario nuevo = usuario(email, nombre, paso);
+                    almacen.compute(email, (clave, actual) -> actual != null ? actual : nuevo);
+                    referencia.putIfAbsent(email, usuario(email, nombre, paso));
+                    break;
+                case 2:
+                    assertEquals(referencia.remove(email) != null, almacen.remove(email) != null);
+                    break;
+                case 3:
+                    String renombre = "Renombrado " + paso;
+                    almacen.computeIfPresent(email, (clave, actual) -> {
+                        actual.setNombre(renombre);
+                        return actual;
+                    });
+                    Usuario renombrado = referencia.get(email);
+                    if (renombrado != null) {
+                        renombrado.setNombre(renombre);
+                    }
+                    break;
+                default:
+                    Credencial credencial = credenciales.get(aleatorio.nextInt(2));
+                    Usuario cambiado = almacen.get(email);
+                    if (cambiado != null) {
+                        cambiado.setCredencial(credencial);
+                        referencia.get(email).setCredencial(credencial);
+                    }
+                    break;
+            }
+        }
+
+        assertEquals(referencia.size(), almacen.size());
+        for (Usuario esperado : referencia.values()) {
+            assertMismoUsuario(esperado, almacen.get(esperado.getEmail()));
+        }
+        int recorridos = 0;
+        for (Map.Entry<String, Usuario> entrada : almacen.entrySet()) {
+            assertMismoUsuario(referencia.get(entrada.getKey()), entrada.getValue());
+            recorridos++;
+        }
+        assertEquals(referencia.size(), recorridos);
+        assertNull(almacen.get("inexistente@test.com"));
+        assertFalse(almacen.containsKey(42));
+
+        almacen.clear();
+        assertEquals(0, almacen.size());
+        assertFalse(almacen.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    @DisplayName("AC002 - Las vistas de usuarios eliminados dejan de valer al reutilizar la ranura")
+    void testVistasDeUsuariosEliminados() {
+        AlmacenColumnar almacen = new AlmacenColumnar(16);
+        almacen.put("ana@test.com", usuario("ana@test.com", "Ana", 1));
+        Usuario vista = almacen.get("ana@test.com");
+        vista.setNombre("Ana María");
+        assertEquals("Ana María", almacen.get("ana@test.com").getNombre());
+        assertEquals(vista, almacen.get("ana@test.com"));
+
+        Usuario eliminado = almacen.remove("ana@test.com");
+        assertEquals("Ana María", eliminado.getNombre(), "remove devuelve una copia independiente");
+        assertEquals("Ana María", vista.getNombre(), "Se lee hasta que la ranura se reutiliza");
+        assertThrows(IllegalStateException.class, () -> vista.setNombre("Otra"));
+
+        almacen.put("luis@test.com", usuario("luis@test.com", "Luis", 2));
+        assertThrows(IllegalStateException.class, vista::getNombre);
+        assertEquals("Luis", almacen.get("luis@test.com").getNombre());
+    }
+
+    @Test
+    @DisplayName("AC003 - GestorUsuarios funciona igual con el almacén columnar, también en modo durable")
+    void testGestorColumnar() {
+        ConfiguracionGestor configuracion = new ConfiguracionGestor()
+                .almacen(TipoAlmacen.COLUMNAR)
+                .persistencia(directorio)
+                .compactacionCada(0, TimeUnit.MILLISECONDS)
+                .iteracionesKdf(1);
+        try (GestorUsuarios gestor = new GestorUsuarios(configuracion)) {
+            List<RegistroUsuario> lote = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                lote.add(new RegistroUsuario("user" + i + "@test.com", "pass123", "Usuario " + i));
+            }
+            assertEquals(2000, gestor.registrarLote(lote.stream()).contar(ResultadoRegistro.ACEPTADO));
+            assertTrue(gestor.actualizarUsuario("user1@test.com", "José Renombrado"));
+            assertTrue(gestor.cambiarPassword("user2@test.com", "pass123", "nueva123"));
+            assertFalse(gestor.cambiarPassword("user2@test.com", "pass123", "otra123"), "La password vieja ya no vale");
+            assertTrue(gestor.eliminarUsuario("user3@test.com"));
+            gestor.compactar();
+            assertTrue(gestor.eliminarUsuario("user4@test.com"));
+
+            // Sin índice de nombres la búsqueda recorre el almacén; el listado paginado no está
+            assertEquals("José Renombrado", gestor.buscarPorNombre("jose", 10).get(0).getNombre());
+            assertThrows(IllegalStateException.class, () -> gestor.listarPagina(null, 10));
+            assertEquals("José Renombrado", gestor.streamUsuarios()
+                    .filter(u -> u.getEmail().equals("user1@test.com")).findFirst().get().getNombre());
+        }
+
+        try (GestorUsuarios recuperado = new GestorUsuarios(configuracion)) {
+            assertEquals(1998, recuperado.obtenerCantidadUsuarios());
+            assertEquals("José Renombrado", recuperado.buscarUsuario("user1@test.com").getNombre());
+            assertNotNull(recuperado.autenticar("user2@test.com", "nueva123"));
+            assertNull(recuperado.autenticar("user2@test.com", "pass123"));
+            assertFalse(recuperado.existeUsuario("user3@test.com"));
+            assertFalse(recuperado.existeUsuario("user4@test.com"));
+            assertEquals(1998, recuperado.streamUsuarios().count());
+        }
+    }
+}
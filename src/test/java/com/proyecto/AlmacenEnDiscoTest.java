@@ -0,0 +1,237 @@
+package com.proyecto;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static com.proyecto.UsuariosPrueba.usuario;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Casos de prueba del almacén en disco con caché W-TinyLFU
+ * Ubicación: src/test/java/com/proyecto/AlmacenEnDiscoTest.java
+ */
+class AlmacenEnDiscoTest {
+
+    @TempDir
+    Path directorio;
+
+    private static Map<String, String> nombres(Map<String, Usuario> almacen) {
+        Map<String, String> nombres = new HashMap<>();
+        for (Map.Entry<String, Usuario> entrada : almacen.entrySet()) {
+            assertNull(nombres.put(entrada.getKey(), entrada.getValue().getNombre()), "repetido: " + entrada.getKey());
+        }
+        return nombres;
+    }
+
+    private static Map<String, String> nombres(ArchivoUsuarios archivo) {
+        Map<String, String> nombres = new HashMap<>();
+        archivo.recorrer().forEachRemaining(usuario -> nombres.put(usuario.getEmail(), usuario.getNombre()));
+        return nombres;
+    }
+
+    @Test
+    @DisplayName("AD001 - Se comporta como un HashMap con una caché chica, al compactar y al reabrir")
+    void testEquivalenteAHashMap() throws IOException {
+        Map<String, String> referencia = new HashMap<>();
+        SplittableRandom aleatorio = new SplittableRandom(24);
+        // Unos 30 usuarios en memoria: casi todo se lee del disco
+        try (AlmacenEnDisco almacen = AlmacenEnDisco.abrir(directorio, false, 16, 30 * CacheTinyLfu.PESO_BASE)) {
+            for (int paso = 0; paso < 60_000; paso++) {
+                // "Aa" y "BB" tienen el mismo hashCode
+                String email = aleatorio.nextInt(8) == 0
+                        ? (aleatorio.nextBoolean() ? "Aa" : "BB") + (aleatorio.nextBoolean() ? "Aa" : "BB") + "@test.com"
+                        : "u" + aleatorio.nextInt(3000) + "@test.com";
+                String nombre = "Nombre " + paso;
+                switch (aleatorio.nextInt(5)) {
+                    case 0:
+                        Usuario nuevo = usuario(email, nombre, paso);
+                        almacen.compute(email, (clave, actual) -> actual != null ? actual : nuevo);
+                        referencia.putIfAbsent(email, nombre);
+                        break;
+                    case 1:
+                        assertEquals(referencia.remove(email) != null, almacen.remove(email) != null);
+                        break;
+                    case 2:
+                        Usuario cambiado = almacen.computeIfPresent(email, (clave, actual) -> {
+                            actual.setNombre(nombre);
+                            return actual;
+                        });
+                        assertEquals(referencia.containsKey(email), cambiado != null);
+                        referencia.computeIfPresent(email, (clave, actual) -> nombre);
+                        break;
+                    default:
+                        Usuario encontrado = almacen.get(email);
+                        assertEquals(referencia.get(email), encontrado == null ? null : encontrado.getNombre());
+                        break;
+                }
+                assertEquals(referencia.size(), almacen.size());
+            }
+            assertEquals(referencia, nombres(almacen));
+            EstadisticasCache estadisticas = almacen.estadisticas();
+            assertTrue(estadisticas.getFallos() > 0 && estadisticas.getDesalojos() > 0, estadisticas.toString());
+            assertTrue(estadisticas.getBytesEnMemoria() <= estadisticas.getMemoriaMaxima());
+        }
+
+        // Reabrir con el índice cerrado limpio, compactar y volver a reabrir
+        try (ArchivoUsuarios archivo = ArchivoUsuarios.abrir(directorio, false, 16)) {
+            assertEquals(referencia.size(), archivo.cantidad());
+            assertEquals(referencia, nombres(archivo));
+            archivo.compactar();
+            assertEquals(referencia, nombres(archivo));
+            archivo.escribir(usuario("tras@test.com", "Tras compactar", System.currentTimeMillis()));
+            referencia.put("tras@test.com", "Tras compactar");
+        }
+        try (ArchivoUsuarios archivo = ArchivoUsuarios.abrir(directorio, true, 16)) {
+            assertEquals(referencia, nombres(archivo));
+            archivo.vaciar();
+            assertEquals(0, archivo.cantidad());
+            assertNull(archivo.leer("tras@test.com"));
+        }
+    }
+
+    @Test
+    @DisplayName("AD002 - Los usuarios frecuentes sobreviven a un recorrido de una sola pasada")
+    void testAdmisionPorFrecuencia() throws IOException {
+        try (AlmacenEnDisco almacen = AlmacenEnDisco.abrir(directorio, false, 5000, 200 * 340)) {
+            for (int i = 0; i < 5000; i++) {
+                String email = "u" + i + "@test.com";
+                almacen.compute(email, (clave, actual) -> usuario(clave));
+            }
+            // 100 usuarios frecuentes y luego un recorrido por todos los demás, una vez cada uno
+            for (int vuelta = 0; vuelta < 20; vuelta++) {
+                for (int i = 0; i < 100; i++) {
+                    assertNotNull(almacen.get("u" + i + "@test.com"));
+                }
+            }
+            for (int i = 100; i < 5000; i++) {
+                assertNotNull(almacen.get("u" + i + "@test.com"));
+            }
+            long fallosAntes = almacen.estadisticas().getFallos();
+            for (int i = 0; i < 100; i++) {
+                almacen.get("u" + i + "@test.com");
+            }
+            EstadisticasCache estadisticas = almacen.estadisticas();
+            assertTrue(estadisticas.getFallos() - fallosAntes < 10, estadisticas.toString());
+            assertTrue(estadisticas.getUsuariosEnMemoria() <= 200);
+            assertNull(almacen.get("nadie@test.com"));
+        }
+    }
+
+    @Test
+    @DisplayName("AD003 - El gestor con almacén en disco recupera todo, también tras una caída")
+    void testGestorYCaida() throws IOException {
+        Path caida = directorio.resolve("caida");
+        Path datos = directorio.resolve("datos");
+        // Sin activarlos explícitamente, los índices que guardan cada Usuario en el heap quedan fuera
+        ConfiguracionGestor configuracion = new ConfiguracionGestor().almacenEnDisco(datos, 50 * 340)
+                .iteracionesKdf(1);
+        try (GestorUsuarios gestor = new GestorUsuarios(configuracion)) {
+            for (int i = 0; i < 500; i++) {
+                assertTrue(gestor.registrarUsuario("u" + i + "@test.com", "pass123", "Usuario " + i));
+            }
+            assertFalse(gestor.registrarUsuario("u7@test.com", "pass123", "Otro"));
+            assertTrue(gestor.actualizarUsuario("u1@test.com", "Uno"));
+            assertTrue(gestor.cambiarPassword("u2@test.com", "pass123", "nueva123"));
+            assertTrue(gestor.eliminarUsuario("u3@test.com"));
+            assertNotNull(gestor.autenticar("u2@test.com", "nueva123"));
+            assertEquals(499, gestor.obtenerCantidadUsuarios());
+            assertEquals(499, gestor.listarUsuarios().size());
+            assertTrue(gestor.obtenerEstadisticasCache().getAciertos() > 0);
+            assertThrows(IllegalStateException.class, () -> gestor.listarPagina(null, 10));
+
+            // Copia de los archivos abiertos: el índice no tiene la marca de cierre limpio
+            Files.createDirectories(caida);
+            Files.copy(datos.resolve(ArchivoUsuarios.DATOS), caida.resolve(ArchivoUsuarios.DATOS));
+            Files.copy(datos.resolve(ArchivoUsuarios.INDICE), caida.resolve(ArchivoUsuarios.INDICE));
+        }
+        // Un índice dañado también se rearma desde la bitácora
+        try (FileChannel indice = FileChannel.open(caida.resolve(ArchivoUsuarios.INDICE), StandardOpenOption.WRITE)) {
+            indice.truncate(100);
+        }
+        for (Path ruta : new Path[]{datos, caida}) {
+            try (GestorUsuarios recuperado = new GestorUsuarios(new ConfiguracionGestor().almacenEnDisco(ruta, 1 << 20)
+                    .iteracionesKdf(1).listadoPaginado(true))) {
+                assertEquals(499, recuperado.obtenerCantidadUsuarios());
+                assertEquals("Uno", recuperado.buscarUsuario("u1@test.com").getNombre());
+                assertNotNull(recuperado.autenticar("u2@test.com", "nueva123"));
+                assertFalse(recuperado.existeUsuario("u3@test.com"));
+                assertEquals(1, recuperado.buscarPorNombre("Uno", 10).size());
+                assertEquals(10, recuperado.listarPagina(null, 10).getUsuarios().size());
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new GestorUsuarios(new ConfiguracionGestor().almacen(TipoAlmacen.DISCO)));
+        assertThrows(IllegalArgumentException.class, () -> new GestorUsuarios(new ConfiguracionGestor()
+                .almacenEnDisco(datos, 1 << 20).persistencia(directorio.resolve("diario"))));
+        try (GestorUsuarios mapa = new GestorUsuarios()) {
+            assertThrows(IllegalStateException.class, mapa::obtenerEstadisticasCache);
+        }
+    }
+
+    @Test
+    @DisplayName("AD004 - Reabrir con otra ClaveEmail canoniza los emails guardados en disco")
+    void testReabrirConOtraClave() {
+        ConfiguracionGestor exacta = new ConfiguracionGestor().almacenEnDisco(directorio, 1 << 20)
+                .iteracionesKdf(1).claveEmail(ClaveEmail.EXACTA);
+        try (GestorUsuarios gestor = new GestorUsuarios(exacta)) {
+            assertTrue(gestor.registrarUsuario("Ana@Ejemplo.COM", "pass123", "Ana"));
+            assertTrue(gestor.registrarUsuario("luis@ejemplo.com", "pass123", "Luis"));
+        }
+        ConfiguracionGestor dominio = new ConfiguracionGestor().almacenEnDisco(directorio, 1 << 20)
+                .iteracionesKdf(1).claveEmail(ClaveEmail.DOMINIO);
+        try (GestorUsuarios gestor = new GestorUsuarios(dominio)) {
+            assertEquals(2, gestor.obtenerCantidadUsuarios());
+            assertEquals("Ana", gestor.buscarUsuario("Ana@ejemplo.com").getNombre());
+            assertNotNull(gestor.autenticar("Ana@EJEMPLO.com", "pass123"));
+            assertFalse(gestor.registrarUsuario("Ana@ejemplo.com", "pass123", "Otra Ana"), "No se duplica la cuenta");
+        }
+        // El cambio quedó en disco: reabrir con la clave exacta ve la forma canónica
+        try (GestorUsuarios gestor = new GestorUsuarios(exacta)) {
+            assertNotNull(gestor.buscarUsuario("Ana@ejemplo.com"));
+            assertNull(gestor.buscarUsuario("Ana@Ejemplo.COM"));
+            assertEquals(2, gestor.obtenerCantidadUsuarios());
+        }
+    }
+
+    @Test
+    @DisplayName("AD005 - Una compactación automática que falla no hace fallar la escritura y se reintenta")
+    void testFalloDeCompactacion() throws IOException {
+        // Un directorio no vacío donde va la bitácora nueva impide reescribirla
+        Path bloqueo = Files.createDirectories(directorio.resolve(ArchivoUsuarios.DATOS + ".nuevo"));
+        Files.createFile(bloqueo.resolve("ocupado"));
+        String nombre = "n".repeat(256 * 1024);
+        try (AlmacenEnDisco almacen = AlmacenEnDisco.abrir(directorio, false, 16, 4 * CacheTinyLfu.PESO_BASE)) {
+            // Unos 75 MB de versiones descartadas de un mismo usuario superan el umbral de compactación
+            for (int version = 0; version < 300; version++) {
+                Usuario nuevo = usuario("grande@test.com", nombre, version);
+                almacen.compute("grande@test.com", (clave, actual) -> nuevo);
+            }
+            assertNotNull(almacen.getFalloCompactacion());
+            assertEquals(1, almacen.getFallosCompactacion(), "Se reintenta recién cuando crece otra ventana");
+            assertEquals(299, almacen.get("grande@test.com").getFechaCreacion().getTime());
+
+            Files.delete(bloqueo.resolve("ocupado"));
+            Files.delete(bloqueo);
+            for (int version = 300; version < 600; version++) {
+                Usuario nuevo = usuario("grande@test.com", nombre, version);
+                almacen.compute("grande@test.com", (clave, actual) -> nuevo);
+            }
+            assertNull(almacen.getFalloCompactacion(), "El reintento compactó la bitácora");
+            assertEquals(1, almacen.getFallosCompactacion());
+        }
+        try (ArchivoUsuarios archivo = ArchivoUsuarios.abrir(directorio, false, 16)) {
+            assertEquals(1, archivo.cantidad());
+            assertEquals(599, archivo.leer("grande@test.com").getFechaCreacion().getTime());
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.proyecto;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static com.proyecto.UsuariosPrueba.usuario;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Casos de prueba del almacén versionado y de las instantáneas de GestorUsuarios
+ * Ubicación: src/test/java/com/proyecto/AlmacenVersionadoTest.java
+ */
+class AlmacenVersionadoTest {
+
+    @TempDir
+    Path directorio;
+
+    // "Aa" y "BB" tienen el mismo hashCode: los emails del mismo largo armados con ellos colisionan
+    private static String email(SplittableRandom aleatorio) {
+        if (aleatorio.nextInt(4) == 0) {
+            StringBuilder email = new StringBuilder();
+            for (int i = 0; i < 4; i++) {
+                email.append(aleatorio.nextBoolean() ? "Aa" : "BB");
+            }
+            return email.append("@test.com").toString();
+        }
+        return "u" + aleatorio.nextInt(3000) + "@test.com";
+    }
+
+    private static Map<String, String> nombres(Iterable<Map.Entry<String, Usuario>> entradas) {
+        Map<String, String> nombres = new HashMap<>();
+        for (Map.Entry<String, Usuario> entrada : entradas) {
+            assertNull(nombres.put(entrada.getKey(), entrada.getValue().getNombre()), "repetido: " + entrada.getKey());
+        }
+        return nombres;
+    }
+
+    @Test
+    @DisplayName("AV001 - Se comporta como un HashMap y las versiones tomadas no cambian")
+    void testEquivalenteAHashMap() {
+        AlmacenVersionado almacen = new AlmacenVersionado();
+        Map<String, Usuario> referencia = new HashMap<>();
+        SplittableRandom aleatorio = new SplittableRandom(17);
+        List<AlmacenVersionado.Version> versiones = new ArrayList<>();
+        List<Map<String, String>> esperadas = new ArrayList<>();
+
+        for (int paso = 0; paso < 200_000; paso++) {
+            String email = email(aleatorio);
+            switch (aleatorio.nextInt(5)) {
+                case 0:
+                case 1:
+                    Usuario nuevo = usuario(email, "Nombre " + paso, paso);
+                    almacen.compute(email, (clave, actual) -> actual != null ? actual : nuevo);
+                    referencia.putIfAbsent(email, nuevo);
+                    break;
+                case 2:
+                    assertEquals(referencia.remove(email) != null, almacen.remove(email) != null);
+                    break;
+                case 3:
+                    String nombre = "Otro " + paso;
+                    Usuario previo = almacen.get(email);
+                    Usuario cambiado = almacen.computeIfPresent(email, (clave, actual) -> {
+                        actual.setNombre(nombre);
+                        return actual;
+                    });
+                    assertEquals(referencia.containsKey(email), cambiado != null);
+                    if (cambiado != null) {
+                        // El cambio quedó en una versión nueva, no en el usuario que ya estaba
+                        assertNotSame(previo, almacen.get(email));
+                        assertNotEquals(nombre, previo.getNombre());
+                        referencia.put(email, cambiado);
+                    }
+                    break;
+                default:
+                    Usuario encontrado = almacen.get(email);
+                    assertEquals(referencia.containsKey(email), encontrado != null);
+                    if (encontrado != null) {
+                        assertEquals(referencia.get(email).getNombre(), encontrado.getNombre());
+                    }
+                    break;
+            }
+            assertEquals(referencia.size(), almacen.size());
+            if (paso % 20_000 == 0) {
+                versiones.add(almacen.version());
+                esperadas.add(nombres(almacen.entrySet()));
+            }
+        }
+
+        Map<String, String> nombres = new HashMap<>();
+        referencia.forEach((email, usuario) -> nombres.put(email, usuario.getNombre()));
+        assertEquals(nombres, nombres(almacen.entrySet()));
+        for (int i = 0; i < versiones.size(); i++) {
+            AlmacenVersionado.Version version = versiones.get(i);
+            Map<String, String> vista = new HashMap<>();
+            version.recorrer().forEachRemaining(entrada -> vista.put(entrada.email, entrada.usuario.getNombre()));
+            assertEquals(esperadas.get(i), vista);
+            assertEquals(vista.size(), version.cantidad);
+        }
+
+        almacen.clear();
+        assertTrue(almacen.isEmpty());
+        assertFalse(almacen.keySet().iterator().hasNext());
+    }
+
+    @Test
+    @DisplayName("AV002 - Una instantánea no ve los cambios posteriores, también en modo durable")
+    void testInstantanea() {
+        ConfiguracionGestor configuracion = new ConfiguracionGestor().almacen(TipoAlmacen.VERSIONADO)
+                .persistencia(directorio).iteracionesKdf(1);
+        try (GestorUsuarios gestor = new GestorUsuarios(configuracion)) {
+            gestor.registrarUsuario("ana@test.com", "pass123", "Ana");
+            gestor.registrarUsuario("luis@test.com", "pass123", "Luis");
+            InstantaneaUsuarios antes = gestor.instantanea();
+
+            gestor.actualizarUsuario("ana@test.com", "Ana María");
+            assertTrue(gestor.cambiarPassword("ana@test.com", "pass123", "nueva123"));
+            gestor.eliminarUsuario("luis@test.com");
+            gestor.registrarUsuario("eva@test.com", "pass123", "Eva");
+
+            assertEquals(2, antes.getCantidad());
+            assertEquals("Ana", antes.buscarUsuario("ana@TEST.com").getNombre());
+            assertTrue(antes.buscarUsuario("ana@test.com").verificarPassword("pass123"));
+            assertTrue(antes.existeUsuario("luis@test.com"));
+            assertFalse(antes.existeUsuario("eva@test.com"));
+            assertEquals(List.of("Ana", "Luis"), antes.streamUsuarios().map(Usuario::getNombre).sorted()
+                    .collect(Collectors.toList()));
+
+            InstantaneaUsuarios despues = gestor.instantanea();
+            assertEquals(2, despues.getCantidad());
+            assertEquals("Ana María", despues.buscarUsuario("ana@test.com").getNombre());
+            assertEquals(2, despues.listarUsuarios().size());
+            assertEquals(2, gestor.listarUsuarios().size());
+            assertNull(gestor.autenticar("ana@test.com", "pass123"));
+        }
+        try (GestorUsuarios recuperado = new GestorUsuarios(configuracion)) {
+            assertEquals(2, recuperado.obtenerCantidadUsuarios());
+            assertEquals("Ana María", recuperado.instantanea().buscarUsuario("ana@test.com").getNombre());
+            assertNotNull(recuperado.autenticar("ana@test.com", "nueva123"));
+            assertFalse(recuperado.existeUsuario("luis@test.com"));
+        }
+        try (GestorUsuarios mapa = new GestorUsuarios()) {
+            assertThrows(IllegalStateException.class, mapa::instantanea);
+        }
+    }
+
+    @Test
+    @DisplayName("AV003 - Las instantáneas se recorren enteras mientras los escritores siguen")
+    void testEscritoresConcurrentes() throws Exception {
+        ConfiguracionGestor configuracion = new ConfiguracionGestor().almacen(TipoAlmacen.VERSIONADO)
+                .concurrente(true).iteracionesKdf(1);
+        try (GestorUsuarios gestor = new GestorUsuarios(configuracion)) {
+            for (int i = 0; i < 2000; i++) {
+                gestor.registrarUsuario("fijo" + i + "@test.com", "pass123", "Vuelta 0");
+            }
+            List<Thread> escritores = new ArrayList<>();
+            for (int h = 0; h < 3; h++) {
+                int hilo = h;
+                Thread escritor = new Thread(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        String email = "hilo" + hilo + "-" + (i % 100) + "@test.com";
+                        if (!gestor.registrarUsuario(email, "pass123", "Usuario")) {
+                            gestor.eliminarUsuario(email);
+                        }
+                        gestor.actualizarUsuario("fijo" + (i % 2000) + "@test.com", "Vuelta " + (i / 2000 + 1));
+                    }
+                });
+                escritores.add(escritor);
+                escritor.start();
+            }
+
+            int recorridos = 0;
+            while (escritores.stream().anyMatch(Thread::isAlive) || recorridos == 0) {
+                InstantaneaUsuarios instantanea = gestor.instantanea();
+                List<Usuario> primera = instantanea.listarUsuarios();
+                assertEquals(instantanea.getCantidad(), primera.size());
+                // Volver a recorrerla da exactamente los mismos usuarios, en la misma versión
+                List<Usuario> segunda = instantanea.streamUsuarios().collect(Collectors.toList());
+                assertEquals(primera.size(), segunda.size());
+                for (int i = 0; i < primera.size(); i++) {
+                    assertSame(primera.get(i), segunda.get(i));
+                }
+                for (int i = 0; i < 2000; i += 97) {
+                    assertNotNull(instantanea.buscarUsuario("fijo" + i + "@test.com"));
+                }
+                recorridos++;
+            }
+            for (Thread escritor : escritores) {
+                escritor.join();
+            }
+            assertTrue(recorridos > 0);
+            assertEquals(gestor.obtenerCantidadUsuarios(), gestor.instantanea().getCantidad());
+            assertEquals(gestor.obtenerCantidadUsuarios(), gestor.listarUsuarios().size());
+        }
+    }
+
+    @Test
+    @DisplayName("AV004 - Los usuarios devueltos no se pueden modificar por fuera del gestor")
+    void testUsuariosSellados() {
+        ConfiguracionGestor configuracion = new ConfiguracionGestor().almacen(TipoAlmacen.VERSIONADO)
+                .persistencia(directorio).iteracionesKdf(1);
+        try (GestorUsuarios gestor = new GestorUsuarios(configuracion)) {
+            gestor.registrarUsuario("ana@test.com", "pass123", "Ana");
+            InstantaneaUsuarios antes = gestor.instantanea();
+
+            Usuario devuelto = gestor.buscarUsuario("ana@test.com");
+            assertSame(devuelto, antes.buscarUsuario("ana@test.com"));
+            assertThrows(IllegalStateException.class, () -> devuelto.setNombre("Intrusa"));
+            assertThrows(IllegalStateException.class, () -> devuelto.setPassword("otra123"));
+            assertThrows(IllegalStateException.class,
+                    () -> antes.listarUsuarios().get(0).setNombre("Intrusa"));
+
+            assertEquals("Ana", antes.buscarUsuario("ana@test.com").getNombre());
+            assertTrue(antes.buscarUsuario("ana@test.com").verificarPassword("pass123"));
+            assertNotNull(gestor.autenticar("ana@test.com", "pass123"));
+
+            // Por el gestor sí: la versión nueva queda sellada y la instantánea conserva la anterior
+            assertTrue(gestor.actualizarUsuario("ana@test.com", "Ana María"));
+            assertEquals("Ana", antes.buscarUsuario("ana@test.com").getNombre());
+            assertThrows(IllegalStateException.class,
+                    () -> gestor.buscarUsuario("ana@test.com").setNombre("Intrusa"));
+        }
+        // El diario se reaplica sobre el almacén versionado sin tocar versiones selladas
+        try (GestorUsuarios recuperado = new GestorUsuarios(configuracion)) {
+            assertEquals("Ana María", recuperado.buscarUsuario("ana@test.com").getNombre());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.proyecto;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Casos de prueba de la forma canónica de los emails
+ * Ubicación: src/test/java/com/proyecto/ClaveEmailTest.java
+ */
+class ClaveEmailTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("CE001 - Cada modo pliega lo suyo y no copia un email ya canónico")
+    void testCanonica() {
+        assertEquals("Ana.Perez@test.com", ClaveEmail.DOMINIO.canonica("Ana.Perez@Test.COM"));
+        assertEquals("ana.perez@test.com", ClaveEmail.COMPLETA.canonica("Ana.Perez@Test.COM"));
+        assertEquals("Ana.Perez@Test.COM", ClaveEmail.EXACTA.canonica("Ana.Perez@Test.COM"));
+
+        String canonico = "Ana@test.com";
+        assertSame(canonico, ClaveEmail.DOMINIO.canonica(canonico));
+        assertSame("ana@test.com", ClaveEmail.COMPLETA.canonica("ana@test.com"));
+        assertSame("SinArroba", ClaveEmail.DOMINIO.canonica("SinArroba"));
+        assertNull(ClaveEmail.COMPLETA.canonica(null));
+    }
+
+    @Test
+    @DisplayName("CE002 - Todas las operaciones usan la clave canónica")
+    void testOperaciones() {
+        try (GestorUsuarios gestor = new GestorUsuarios(new ConfiguracionGestor().iteracionesKdf(1))) {
+            assertTrue(gestor.registrarUsuario("Ana@Test.com", "pass123", "Ana"));
+            assertFalse(gestor.registrarUsuario("Ana@test.COM", "pass123", "Otra"));
+            assertEquals("Ana@test.com", gestor.buscarUsuario("Ana@TEST.com").getEmail());
+            assertNull(gestor.buscarUsuario("ana@test.com"), "Con DOMINIO la parte local distingue mayúsculas");
+            assertNotNull(gestor.autenticar("Ana@TeSt.CoM", "pass123"));
+            assertTrue(gestor.actualizarUsuario("Ana@TEST.COM", "Ana María"));
+            assertTrue(gestor.cambiarPassword("Ana@Test.Com", "pass123", "nueva123"));
+            assertTrue(gestor.eliminarUsuario("Ana@TEST.COM"));
+            assertFalse(gestor.existeUsuario("Ana@test.com"));
+        }
+
+        try (GestorUsuarios gestor = new GestorUsuarios(new ConfiguracionGestor()
+                .claveEmail(ClaveEmail.COMPLETA).almacen(TipoAlmacen.COLUMNAR).iteracionesKdf(1))) {
+            ResultadoLote lote = gestor.registrarLote(Stream.of(
+                    new RegistroUsuario("Luis@Test.com", "pass123", "Luis"),
+                    new RegistroUsuario("LUIS@test.com", "pass123", "Repetido")));
+            assertEquals(ResultadoRegistro.DUPLICADO, lote.getResultado(1));
+            assertEquals("luis@test.com", gestor.buscarUsuario("lUiS@tEsT.cOm").getEmail());
+            assertNotNull(gestor.autenticar("LUIS@TEST.COM", "pass123"));
+        }
+
+        try (GestorUsuarios gestor = new GestorUsuarios(new ConfiguracionGestor()
+                .claveEmail(ClaveEmail.EXACTA).iteracionesKdf(1))) {
+            assertTrue(gestor.registrarUsuario("ana@test.com", "pass123", "Ana"));
+            assertTrue(gestor.registrarUsuario("ana@Test.com", "pass123", "Otra"));
+        }
+    }
+
+    @Test
+    @DisplayName("CE003 - Al cambiar de clave un almacén durable pasa sus emails a la forma nueva")
+    void testRecuperacion() {
+        ConfiguracionGestor exacta = new ConfiguracionGestor()
+                .persistencia(directorio)
+                .compactacionCada(0, TimeUnit.MILLISECONDS)
+                .claveEmail(ClaveEmail.EXACTA)
+                .iteracionesKdf(1);
+        try (GestorUsuarios gestor = new GestorUsuarios(exacta)) {
+            gestor.registrarUsuario("Ana@Test.com", "pass123", "Ana");
+            gestor.registrarUsuario("luis@test.com", "pass123", "Luis");
+            gestor.registrarUsuario("Luis@test.com", "pass123", "Otro Luis");
+        }
+
+        ConfiguracionGestor dominio = new ConfiguracionGestor()
+                .persistencia(directorio)
+                .compactacionCada(0, TimeUnit.MILLISECONDS)
+                .iteracionesKdf(1);
+        try (GestorUsuarios gestor = new GestorUsuarios(dominio)) {
+            assertEquals("Ana@test.com", gestor.buscarUsuario("Ana@TEST.com").getEmail());
+            assertNotNull(gestor.autenticar("Ana@test.com", "pass123"));
+            assertEquals(3, gestor.obtenerCantidadUsuarios());
+        }
+        // El cambio quedó en el diario: también lo ve quien abre sin plegar
+        try (GestorUsuarios gestor = new GestorUsuarios(exacta)) {
+            assertTrue(gestor.existeUsuario("Ana@test.com"));
+            assertFalse(gestor.existeUsuario("Ana@Test.com"));
+        }
+
+        // Dos cuentas que con COMPLETA serían la misma: no se toca nada
+        IllegalStateException conflicto = assertThrows(IllegalStateException.class,
+                () -> new GestorUsuarios(new ConfiguracionGestor()
+                        .persistencia(directorio)
+                        .claveEmail(ClaveEmail.COMPLETA)
+                        .iteracionesKdf(1)));
+        assertTrue(conflicto.getMessage().contains("uis@test.com"), conflicto.getMessage());
+        try (GestorUsuarios gestor = new GestorUsuarios(exacta)) {
+            assertEquals(3, gestor.obtenerCantidadUsuarios());
+            assertTrue(gestor.existeUsuario("Luis@test.com") && gestor.existeUsuario("luis@test.com"));
+        }
+    }
+}
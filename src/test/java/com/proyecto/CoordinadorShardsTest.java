@@ -0,0 +1,326 @@
+package com.proyecto;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Casos de prueba del reparto de usuarios entre shards, locales y remotos por loopback
+ * Ubicación: src/test/java/com/proyecto/CoordinadorShardsTest.java
+ */
+class CoordinadorShardsTest {
+
+    private final List<AutoCloseable> abiertos = new ArrayList<>();
+
+    @AfterEach
+    void cerrar() throws Exception {
+        for (int i = abiertos.size() - 1; i >= 0; i--) {
+            abiertos.get(i).close();
+        }
+    }
+
+    private GestorUsuarios gestor() {
+        GestorUsuarios gestor = new GestorUsuarios(new ConfiguracionGestor().concurrente(true).iteracionesKdf(1));
+        abiertos.add(gestor);
+        return gestor;
+    }
+
+    private ServidorShard servidor(GestorUsuarios gestor) throws Exception {
+        ServidorShard servidor = ServidorShard.iniciar(gestor, 0);
+        abiertos.add(servidor);
+        return servidor;
+    }
+
+    private static String email(int i) {
+        return "usuario" + i + "@test.com";
+    }
+
+    /**
+     * Cada email está en exactamente un gestor, el que indica el anillo
+     */
+    private static void verificarUbicacion(CoordinadorShards coordinador, Map<String, GestorUsuarios> gestores,
+                                           List<String> emails) {
+        int total = 0;
+        for (GestorUsuarios gestor : gestores.values()) {
+            total += gestor.obtenerCantidadUsuarios();
+        }
+        assertEquals(emails.size(), total);
+        assertEquals(emails.size(), coordinador.obtenerCantidadUsuarios());
+        for (String email : emails) {
+            String dueno = coordinador.nombreDueno(email);
+            assertTrue(gestores.get(dueno).existeUsuario(email), email + " debería estar en " + dueno);
+            assertNotNull(coordinador.autenticar(email, "pass123"), email);
+        }
+    }
+
+    @Test
+    @DisplayName("CS001 - El anillo reparte parejo y al agregar un shard sólo mueve lo que le toca")
+    void testAnillo() {
+        Map<String, Shard> shards = new LinkedHashMap<>();
+        for (int s = 0; s < 4; s++) {
+            shards.put("shard-" + s, new ShardLocal(new GestorUsuarios()));
+        }
+        AnilloConsistente cuatro = new AnilloConsistente(shards, CoordinadorShards.NODOS_VIRTUALES_POR_DEFECTO);
+        int n = 100_000;
+        Map<Shard, Integer> carga = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            carga.merge(cuatro.dueno(email(i)), 1, Integer::sum);
+        }
+        for (int usuarios : carga.values()) {
+            assertEquals(n / 4.0, usuarios, n / 4.0 * 0.1, "Carga de cada shard a menos de 10 % de la media");
+        }
+
+        Shard nuevo = new ShardLocal(new GestorUsuarios());
+        Map<String, Shard> cinco = new HashMap<>(shards);
+        cinco.put("shard-4", nuevo);
+        AnilloConsistente ampliado = new AnilloConsistente(cinco, CoordinadorShards.NODOS_VIRTUALES_POR_DEFECTO);
+        int movidos = 0;
+        for (int i = 0; i < n; i++) {
+            Shard antes = cuatro.dueno(email(i));
+            Shard despues = ampliado.dueno(email(i));
+            if (antes != despues) {
+                assertSame(nuevo, despues, "Sólo se mueven emails hacia el shard nuevo");
+                movidos++;
+            }
+        }
+        assertEquals(n / 5.0, movidos, n / 5.0 * 0.1);
+
+        // El anillo no depende del orden en que se agregaron los shards
+        Map<String, Shard> invertido = new LinkedHashMap<>();
+        List<String> nombres = new ArrayList<>(cinco.keySet());
+        for (int i = nombres.size() - 1; i >= 0; i--) {
+            invertido.put(nombres.get(i), cinco.get(nombres.get(i)));
+        }
+        AnilloConsistente otro = new AnilloConsistente(invertido, CoordinadorShards.NODOS_VIRTUALES_POR_DEFECTO);
+        for (int i = 0; i < 1000; i++) {
+            assertSame(ampliado.dueno(email(i)), otro.dueno(email(i)));
+        }
+        assertThrows(IllegalStateException.class, () -> new CoordinadorShards().existeUsuario("a@test.com"));
+    }
+
+    @Test
+    @DisplayName("CS002 - Las operaciones dan lo mismo que un gestor, con shards locales y remotos")
+    void testOperaciones() throws Exception {
+        CoordinadorShards coordinador = new CoordinadorShards();
+        abiertos.add(coordinador);
+        coordinador.agregarShard("local", gestor());
+        coordinador.agregarShardRemoto("remoto", servidor(gestor()).getDireccion());
+        GestorUsuarios referencia = gestor();
+
+        for (OperacionesUsuarios operaciones : List.of(coordinador, referencia)) {
+            for (int i = 0; i < 200; i++) {
+                assertTrue(operaciones.registrarUsuario(email(i), "pass123", i % 2 == 0 ? "José " + i : "Ana " + i));
+            }
+            assertFalse(operaciones.registrarUsuario(email(0), "pass123", "Otra"));
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                    () -> operaciones.registrarUsuario("invalido", "pass123", "X"));
+            assertEquals("Email inválido", error.getMessage());
+            assertNull(operaciones.autenticar(email(1), "incorrecta"));
+            assertTrue(operaciones.cambiarPassword(email(1), "pass123", "nueva123"));
+            assertEquals("José 2", operaciones.autenticar(email(2), "pass123").getNombre());
+            assertTrue(operaciones.actualizarUsuario(email(3), "Ángela"));
+            assertThrows(IllegalArgumentException.class, () -> operaciones.actualizarUsuario(email(3), " "));
+            assertTrue(operaciones.eliminarUsuario(email(4)));
+            assertFalse(operaciones.existeUsuario(email(4)));
+            assertNull(operaciones.buscarUsuario(null));
+        }
+        assertEquals(referencia.obtenerCantidadUsuarios(), coordinador.obtenerCantidadUsuarios());
+        assertEquals(referencia.listarUsuarios().size(), coordinador.listarUsuarios().size());
+        assertNotNull(coordinador.autenticar(email(1), "nueva123"));
+        assertEquals("Ángela", coordinador.buscarUsuario(email(3)).getNombre());
+        for (String prefijo : new String[]{"jose", "an", "Á", "zz"}) {
+            assertEquals(referencia.buscarPorNombre(prefijo, 25), coordinador.buscarPorNombre(prefijo, 25), prefijo);
+        }
+        assertThrows(IllegalArgumentException.class, () -> coordinador.agregarShard("local", gestor()));
+        assertEquals(List.of("local", "remoto"), new ArrayList<>(coordinador.getShards()));
+    }
+
+    @Test
+    @DisplayName("CS003 - Agregar y quitar shards con tráfico concurrente no pierde usuarios")
+    void testRebalanceo() throws Exception {
+        CoordinadorShards coordinador = new CoordinadorShards();
+        abiertos.add(coordinador);
+        Map<String, GestorUsuarios> gestores = new HashMap<>();
+        for (String nombre : new String[]{"a", "b"}) {
+            gestores.put(nombre, gestor());
+            coordinador.agregarShard(nombre, gestores.get(nombre));
+        }
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            coordinador.registrarUsuario(email(i), "pass123", "Usuario " + i);
+            emails.add(email(i));
+        }
+
+        // Tráfico durante las migraciones: logins de existentes y registros nuevos
+        AtomicBoolean seguir = new AtomicBoolean(true);
+        AtomicInteger siguiente = new AtomicInteger(emails.size());
+        List<String> registrados = java.util.Collections.synchronizedList(new ArrayList<>());
+        ExecutorService ejecutor = Executors.newFixedThreadPool(3);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < 3; h++) {
+            tareas.add(ejecutor.submit(() -> {
+                java.util.SplittableRandom aleatorio = new java.util.SplittableRandom();
+                while (seguir.get()) {
+                    assertNotNull(coordinador.autenticar(email(aleatorio.nextInt(5000)), "pass123"));
+                    String nuevo = email(siguiente.getAndIncrement());
+                    assertTrue(coordinador.registrarUsuario(nuevo, "pass123", "Nuevo"));
+                    registrados.add(nuevo);
+                }
+                return null;
+            }));
+        }
+        try {
+            gestores.put("c", gestor());
+            int movidos = coordinador.agregarShardRemoto("c", servidor(gestores.get("c")).getDireccion());
+            // Los registros concurrentes siguen sumando usuarios: se compara la proporción del shard nuevo
+            double proporcion = (double) gestores.get("c").obtenerCantidadUsuarios()
+                    / coordinador.obtenerCantidadUsuarios();
+            assertEquals(1 / 3.0, proporcion, 0.05, "Movidos: " + movidos);
+            assertTrue(movidos >= 5000 / 3 * 0.9, "Movidos: " + movidos);
+
+            int quitados = coordinador.quitarShard("a");
+            assertEquals(0, gestores.get("a").obtenerCantidadUsuarios());
+            assertTrue(quitados > 0);
+        } finally {
+            seguir.set(false);
+            ejecutor.shutdown();
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        gestores.remove("a");
+        emails.addAll(registrados);
+        verificarUbicacion(coordinador, gestores, emails);
+        assertEquals(List.of("b", "c"), new ArrayList<>(coordinador.getShards()));
+    }
+
+    @Test
+    @DisplayName("CS004 - Una migración que falla a medias se puede reanudar sin perder usuarios")
+    void testMigracionInterrumpida() {
+        CoordinadorShards coordinador = new CoordinadorShards();
+        Map<String, GestorUsuarios> gestores = new HashMap<>();
+        gestores.put("a", gestor());
+        coordinador.agregarShard("a", gestores.get("a"));
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 4 * CoordinadorShards.TAMANO_LOTE_MIGRACION; i++) {
+            coordinador.registrarUsuario(email(i), "pass123", "Usuario " + i);
+            emails.add(email(i));
+        }
+
+        // Shard que acepta el primer lote y falla en el segundo, como un remoto que se cae
+        gestores.put("b", gestor());
+        AtomicInteger lotesPermitidos = new AtomicInteger(1);
+        Shard inestable = new ShardLocal(gestores.get("b")) {
+            @Override
+            public void importar(List<Usuario> usuarios) {
+                if (lotesPermitidos.getAndDecrement() <= 0) {
+                    throw new UncheckedIOException(new java.io.IOException("Conexión cortada"));
+                }
+                super.importar(usuarios);
+            }
+        };
+        assertThrows(UncheckedIOException.class, () -> coordinador.agregar("b", inestable));
+        assertEquals(CoordinadorShards.TAMANO_LOTE_MIGRACION, gestores.get("b").obtenerCantidadUsuarios());
+        assertEquals(emails.size(), coordinador.obtenerCantidadUsuarios());
+        for (String email : emails) {
+            assertNotNull(coordinador.autenticar(email, "pass123"), "Sigue accesible: " + email);
+        }
+        assertThrows(IllegalStateException.class, () -> coordinador.agregarShard("c", gestor()));
+
+        lotesPermitidos.set(Integer.MAX_VALUE);
+        assertTrue(coordinador.reanudarMigracion() > 0);
+        assertEquals(0, coordinador.reanudarMigracion());
+        verificarUbicacion(coordinador, gestores, emails);
+    }
+
+    @Test
+    @DisplayName("CS005 - Si se corta la conexión al quitar del origen, ningún usuario se pierde ni se duplica")
+    void testCorteDespuesDeQuitar() {
+        CoordinadorShards coordinador = new CoordinadorShards();
+        Map<String, GestorUsuarios> gestores = new HashMap<>();
+        gestores.put("a", gestor());
+        // 0: normal; 1: el pedido no llega; 2: se quitan los usuarios y se pierde la respuesta
+        AtomicInteger corte = new AtomicInteger();
+        AtomicInteger lotesSinCorte = new AtomicInteger(1);
+        Shard origen = new ShardLocal(gestores.get("a")) {
+            @Override
+            public void quitar(List<String> emails) {
+                if (corte.get() == 0 || lotesSinCorte.getAndDecrement() > 0) {
+                    super.quitar(emails);
+                    return;
+                }
+                if (corte.get() == 2) {
+                    super.quitar(emails);
+                }
+                throw new UncheckedIOException(new java.io.IOException("Conexión cortada"));
+            }
+        };
+        coordinador.agregar("a", origen);
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 4 * CoordinadorShards.TAMANO_LOTE_MIGRACION; i++) {
+            coordinador.registrarUsuario(email(i), "pass123", "Usuario " + i);
+            emails.add(email(i));
+        }
+
+        gestores.put("b", gestor());
+        corte.set(2);
+        assertThrows(UncheckedIOException.class, () -> coordinador.agregarShard("b", gestores.get("b")));
+        assertEquals(emails.size(), gestores.get("a").obtenerCantidadUsuarios() + gestores.get("b").obtenerCantidadUsuarios());
+        for (String email : emails) {
+            assertNotNull(coordinador.autenticar(email, "pass123"), "Sigue accesible: " + email);
+        }
+
+        // Ahora el lote queda en los dos shards: se ve una sola vez y la copia vigente es la del dueño nuevo
+        corte.set(1);
+        lotesSinCorte.set(0);
+        assertThrows(UncheckedIOException.class, coordinador::reanudarMigracion);
+        List<String> duplicados = new ArrayList<>();
+        for (String email : emails) {
+            if (gestores.get("a").existeUsuario(email) && gestores.get("b").existeUsuario(email)) {
+                duplicados.add(email);
+            }
+        }
+        assertFalse(duplicados.isEmpty());
+        assertEquals(emails.size(), coordinador.obtenerCantidadUsuarios());
+        assertEquals(emails.size(), coordinador.listarUsuarios().size());
+        assertTrue(coordinador.actualizarUsuario(duplicados.get(0), "Renombrado"));
+        assertEquals("Renombrado", coordinador.buscarUsuario(duplicados.get(0)).getNombre());
+        assertTrue(coordinador.eliminarUsuario(duplicados.get(1)));
+        assertFalse(coordinador.existeUsuario(duplicados.get(1)), "La copia vieja no reaparece");
+        emails.remove(duplicados.get(1));
+
+        corte.set(0);
+        assertTrue(coordinador.reanudarMigracion() > 0);
+        assertEquals("Renombrado", coordinador.buscarUsuario(duplicados.get(0)).getNombre());
+        verificarUbicacion(coordinador, gestores, emails);
+    }
+
+    @Test
+    @DisplayName("CS006 - Un shard remoto colgado falla por tiempo en lugar de bloquear al coordinador")
+    void testShardColgado() throws Exception {
+        // Acepta la conexión pero nunca responde
+        try (ServerSocket colgado = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            ShardRemoto shard = new ShardRemoto((InetSocketAddress) colgado.getLocalSocketAddress(), 200);
+            abiertos.add(shard);
+            long inicio = System.nanoTime();
+            assertThrows(UncheckedIOException.class, () -> shard.existeUsuario("ana@test.com"));
+            assertThrows(UncheckedIOException.class, () -> shard.copiar(List.of("ana@test.com")));
+            assertTrue(System.nanoTime() - inicio < 10_000_000_000L);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.proyecto;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Casos de prueba de la derivación de passwords
+ * Ubicación: src/test/java/com/proyecto/CredencialTest.java
+ */
+class CredencialTest {
+
+    @Test
+    @DisplayName("CR001 - Verifica sólo la password correcta")
+    void testVerificar() {
+        Credencial credencial = Credencial.crear("password123", 1000);
+
+        assertTrue(credencial.verificar("password123"));
+        assertFalse(credencial.verificar("password124"));
+        assertFalse(credencial.verificar(""));
+        assertFalse(credencial.verificar(null));
+    }
+
+    @Test
+    @DisplayName("CR002 - La misma password con distinta sal produce credenciales distintas")
+    void testSalAleatoria() {
+        Credencial primera = Credencial.crear("password123", 1000);
+        Credencial segunda = Credencial.crear("password123", 1000);
+
+        assertNotEquals(primera, segunda);
+        assertTrue(segunda.verificar("password123"));
+    }
+
+    @Test
+    @DisplayName("CR003 - Codificar y decodificar conserva la credencial")
+    void testCodificacion() {
+        Credencial original = Credencial.crear("password123", 1234);
+        Credencial copia = Credencial.decodificar(original.codificar());
+
+        assertEquals(original, copia);
+        assertEquals(1234, copia.getIteraciones());
+        assertTrue(copia.verificar("password123"));
+        assertFalse(copia.toString().contains("password123"));
+
+        assertThrows(IllegalArgumentException.class, () -> Credencial.decodificar(new byte[3]));
+        assertThrows(IllegalArgumentException.class, () -> Credencial.decodificar(new byte[]{0, 0, 0, 0, 0}));
+    }
+}
@@ -0,0 +1,130 @@
+package com.proyecto;
+
+import com.ejemplo.Calculadora;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Casos de prueba de los eventos de Java Flight Recorder: se graba, se vuelca a un archivo
+ * y se leen los eventos del archivo
+ * Ubicación: src/test/java/com/proyecto/EventosJfrTest.java
+ */
+class EventosJfrTest {
+
+    private static final String[] EVENTOS = {
+            "com.proyecto.Registro", "com.proyecto.Autenticacion", "com.proyecto.CambioPassword",
+            "com.proyecto.RegistroLote", "com.ejemplo.ErrorCalculadora"
+    };
+
+    @TempDir
+    Path directorio;
+
+    private static void operar(GestorUsuarios gestor) {
+        gestor.registrarUsuario("ana@test.com", "pass123", "Ana");
+        gestor.registrarUsuario("ana@test.com", "pass123", "Ana");
+        gestor.autenticar("ana@test.com", "pass123");
+        gestor.autenticar("ana@test.com", "incorrecta");
+        gestor.autenticar("nadie@test.com", "pass123");
+        gestor.cambiarPassword("ana@test.com", "pass123", "nueva123");
+        gestor.registrarLote(Stream.of(new RegistroUsuario("bea@test.com", "pass123", "Bea"),
+                new RegistroUsuario("ana@test.com", "pass123", "Ana"),
+                new RegistroUsuario("cin@test.com", "1", "Cin")));
+    }
+
+    private List<RecordedEvent> grabar(boolean sinUmbral, Runnable operaciones) throws IOException {
+        Path archivo = directorio.resolve("grabacion-" + sinUmbral + ".jfr");
+        try (Recording grabacion = new Recording()) {
+            for (String evento : EVENTOS) {
+                if (sinUmbral) {
+                    grabacion.enable(evento).withThreshold(Duration.ZERO);
+                } else {
+                    grabacion.enable(evento);
+                }
+            }
+            grabacion.start();
+            operaciones.run();
+            grabacion.stop();
+            grabacion.dump(archivo);
+        }
+        return RecordingFile.readAllEvents(archivo).stream()
+                .filter(e -> e.getEventType().getName().startsWith("com."))
+                .collect(Collectors.toList());
+    }
+
+    private static List<RecordedEvent> deTipo(List<RecordedEvent> eventos, String tipo) {
+        return eventos.stream().filter(e -> e.getEventType().getName().equals(tipo)).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("EJ001 - Cada operación deja un evento con hash del email, resultado y duración")
+    void testEventosGrabados() throws IOException {
+        GestorUsuarios gestor = new GestorUsuarios(new ConfiguracionGestor().iteracionesKdf(1));
+        Calculadora calculadora = new Calculadora();
+        List<RecordedEvent> eventos = grabar(true, () -> {
+            operar(gestor);
+            assertThrows(IllegalArgumentException.class, () -> calculadora.dividir(1, 0));
+            assertThrows(IllegalArgumentException.class, () -> calculadora.raizCuadrada(-4));
+            calculadora.raizCuadrada(new double[]{1, -1, -2}, new double[3], new boolean[3]);
+            calculadora.dividir(3, 1);
+        });
+
+        String hashAna = EventoUsuario.hashEmail("ana@test.com");
+        assertEquals(16, hashAna.length());
+        List<RecordedEvent> registros = deTipo(eventos, "com.proyecto.Registro");
+        assertEquals(2, registros.size());
+        assertEquals("exito", registros.get(0).getString("resultado"));
+        assertEquals("duplicado", registros.get(1).getString("resultado"));
+        assertEquals(hashAna, registros.get(0).getString("emailHash"));
+        assertFalse(registros.get(0).getDuration("derivacion").isNegative());
+        assertTrue(registros.get(0).getDuration().compareTo(registros.get(0).getDuration("derivacion")) >= 0);
+
+        List<RecordedEvent> logins = deTipo(eventos, "com.proyecto.Autenticacion");
+        assertEquals(List.of("exito", "password_incorrecta", "usuario_desconocido"),
+                logins.stream().map(e -> e.getString("resultado")).collect(Collectors.toList()));
+        assertEquals(EventoUsuario.hashEmail("nadie@test.com"), logins.get(2).getString("emailHash"));
+        assertTrue(logins.get(0).getDuration("verificacion").toNanos() > 0);
+        assertEquals(0, logins.get(2).getDuration("verificacion").toNanos(), "Sin usuario no hay verificación");
+
+        List<RecordedEvent> cambios = deTipo(eventos, "com.proyecto.CambioPassword");
+        assertEquals(1, cambios.size());
+        assertEquals("exito", cambios.get(0).getString("resultado"));
+        assertTrue(cambios.get(0).getDuration("derivacion").toNanos() > 0);
+
+        RecordedEvent lote = deTipo(eventos, "com.proyecto.RegistroLote").get(0);
+        assertEquals(3, lote.getInt("registros"));
+        assertEquals(1, lote.getInt("aceptados"));
+        assertEquals(1, lote.getInt("duplicados"));
+        assertEquals(1, lote.getInt("invalidos"));
+
+        List<RecordedEvent> errores = deTipo(eventos, "com.ejemplo.ErrorCalculadora");
+        assertEquals(3, errores.size(), "La división correcta no deja evento");
+        assertEquals("dividir", errores.get(0).getString("operacion"));
+        assertEquals(0.0, errores.get(0).getDouble("operando"));
+        assertEquals(-4.0, errores.get(1).getDouble("operando"));
+        assertEquals(3, errores.get(2).getInt("elementos"));
+        assertEquals(2, errores.get(2).getInt("errores"));
+        assertNotNull(errores.get(0).getStackTrace());
+    }
+
+    @Test
+    @DisplayName("EJ002 - Con el umbral por defecto las operaciones rápidas no se graban")
+    void testUmbral() throws IOException {
+        GestorUsuarios gestor = new GestorUsuarios(new ConfiguracionGestor().iteracionesKdf(1));
+        List<RecordedEvent> eventos = grabar(false, () -> operar(gestor));
+        // Sin KDF real todo dura mucho menos de 100 ms; las importaciones masivas no tienen umbral
+        assertEquals(List.of("com.proyecto.RegistroLote"),
+                eventos.stream().map(e -> e.getEventType().getName()).collect(Collectors.toList()));
+    }
+}
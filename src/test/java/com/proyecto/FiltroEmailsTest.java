@@ -0,0 +1,150 @@
+package com.proyecto;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static com.proyecto.UsuariosPrueba.usuario;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Casos de prueba del filtro de Bloom de emails
+ * Ubicación: src/test/java/com/proyecto/FiltroEmailsTest.java
+ */
+class FiltroEmailsTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("FE001 - Sin falsos negativos y con la tasa de falsos positivos configurada")
+    void testTasaFalsosPositivos() {
+        FiltroEmails filtro = new FiltroEmails(1024, 0.01);
+        int cantidad = 100_000;
+        for (int i = 0; i < cantidad; i++) {
+            filtro.usuarioRegistrado(usuario("usuario" + i + "@test.com"));
+        }
+        assertTrue(filtro.cantidadEtapas() > 1, "Las etapas crecen al llenarse");
+        for (int i = 0; i < cantidad; i++) {
+            assertTrue(filtro.puedeContener("usuario" + i + "@test.com"), "usuario" + i);
+        }
+        int positivos = 0;
+        for (int i = 0; i < cantidad; i++) {
+            if (filtro.puedeContener("desconocido" + i + "@test.com")) {
+                positivos++;
+            }
+        }
+        assertTrue(positivos < cantidad * 0.01, positivos + " falsos positivos");
+        assertThrows(IllegalArgumentException.class, () -> new ConfiguracionGestor().filtroEmails(0.6));
+        assertThrows(IllegalArgumentException.class, () -> new ConfiguracionGestor().filtroEmails(Double.NaN));
+    }
+
+    @Test
+    @DisplayName("FE002 - Muchas eliminaciones reconstruyen el filtro sin perder a los que quedan")
+    void testReconstruccion() {
+        FiltroEmails filtro = new FiltroEmails(1024, 0.01);
+        List<String> quedan = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String email = "usuario" + i + "@test.com";
+            filtro.usuarioRegistrado(usuario(email));
+            if (i % 5 == 0) {
+                quedan.add(email);
+            } else {
+                filtro.usuarioEliminado(usuario(email));
+            }
+        }
+        assertTrue(filtro.programarReconstruccion());
+        assertFalse(filtro.programarReconstruccion(), "Una sola reconstrucción programada a la vez");
+        filtro.reconstruir(quedan, quedan.size());
+        assertEquals(1, filtro.cantidadEtapas());
+        assertEquals(quedan.size(), filtro.insertados());
+        assertFalse(filtro.programarReconstruccion());
+        for (String email : quedan) {
+            assertTrue(filtro.puedeContener(email));
+        }
+
+        // A través del gestor: borrar casi todo reconstruye y las consultas siguen siendo exactas
+        try (GestorUsuarios gestor = new GestorUsuarios(new ConfiguracionGestor().filtroEmails(0.01).iteracionesKdf(1))) {
+            for (int i = 0; i < 3000; i++) {
+                gestor.registrarUsuario("usuario" + i + "@test.com", "pass123", "Usuario");
+            }
+            for (int i = 0; i < 2900; i++) {
+                gestor.eliminarUsuario("usuario" + i + "@test.com");
+            }
+            for (int i = 0; i < 3000; i++) {
+                assertEquals(i >= 2900, gestor.existeUsuario("usuario" + i + "@test.com"));
+            }
+            assertNotNull(gestor.autenticar("usuario2999@test.com", "pass123"));
+            assertNull(gestor.autenticar("nadie@test.com", "pass123"));
+        }
+    }
+
+    @Test
+    @DisplayName("FE003 - Al arrancar se construye desde el almacén recuperado")
+    void testRecuperacion() {
+        ConfiguracionGestor configuracion = new ConfiguracionGestor()
+                .persistencia(directorio)
+                .compactacionCada(0, TimeUnit.MILLISECONDS)
+                .filtroEmails(0.01)
+                .iteracionesKdf(1);
+        try (GestorUsuarios gestor = new GestorUsuarios(configuracion)) {
+            for (int i = 0; i < 2000; i++) {
+                gestor.registrarUsuario("usuario" + i + "@test.com", "pass123", "Usuario");
+            }
+            gestor.compactar();
+            gestor.registrarUsuario("diario@test.com", "pass123", "Diario");
+        }
+        try (GestorUsuarios recuperado = new GestorUsuarios(configuracion)) {
+            for (int i = 0; i < 2000; i++) {
+                assertTrue(recuperado.existeUsuario("usuario" + i + "@test.com"));
+            }
+            assertNotNull(recuperado.autenticar("diario@test.com", "pass123"));
+            assertFalse(recuperado.existeUsuario("nadie@test.com"));
+            assertNull(recuperado.buscarUsuario("nadie@test.com"));
+        }
+    }
+
+    @Test
+    @DisplayName("FE004 - Las inserciones durante una reconstrucción no se pierden")
+    void testInsercionesConcurrentes() throws Exception {
+        FiltroEmails filtro = new FiltroEmails(1024, 0.01);
+        ConcurrentHashMap<String, Usuario> almacen = new ConcurrentHashMap<>();
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < 4; h++) {
+            int hilo = h;
+            Thread escritor = new Thread(() -> {
+                // El mismo protocolo que GestorUsuarios: época y notificación dentro de compute
+                for (int i = 0; i < 20_000; i++) {
+                    String email = "hilo" + hilo + "-" + i + "@test.com";
+                    int epoca = filtro.iniciarCambio();
+                    try {
+                        almacen.compute(email, (clave, actual) -> {
+                            Usuario nuevo = usuario(clave);
+                            filtro.usuarioRegistrado(nuevo);
+                            return nuevo;
+                        });
+                    } finally {
+                        filtro.terminarCambio(epoca);
+                    }
+                }
+            });
+            hilos.add(escritor);
+            escritor.start();
+        }
+        while (hilos.stream().anyMatch(Thread::isAlive)) {
+            filtro.reconstruir(almacen.keySet(), almacen.size());
+        }
+        for (Thread escritor : hilos) {
+            escritor.join();
+        }
+        assertEquals(80_000, almacen.size());
+        for (String email : almacen.keySet()) {
+            assertTrue(filtro.puedeContener(email), email);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.proyecto;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Casos de prueba del flujo de cambios de GestorUsuarios
+ * Ubicación: src/test/java/com/proyecto/FlujoCambiosTest.java
+ */
+class FlujoCambiosTest {
+
+    private static GestorUsuarios gestor(int capacidad) {
+        return new GestorUsuarios(new ConfiguracionGestor().concurrente(true).flujoCambios(capacidad).iteracionesKdf(1));
+    }
+
+    @Test
+    @DisplayName("FC001 - Cada mutación llega una vez, en orden, por lotes y se puede retomar")
+    void testCambios() throws Exception {
+        try (GestorUsuarios gestor = gestor(1024)) {
+            SuscripcionCambios suscripcion = gestor.suscribirCambios();
+            long inicio = suscripcion.getSecuencia();
+            gestor.registrarUsuario("ana@test.com", "pass123", "Ana");
+            gestor.actualizarUsuario("ana@test.com", "Ana María");
+            gestor.cambiarPassword("ana@test.com", "pass123", "nueva123");
+            gestor.eliminarUsuario("ana@test.com");
+            // Lo que no cambia nada no se publica
+            assertFalse(gestor.eliminarUsuario("ana@test.com"));
+            assertEquals(4, suscripcion.getRetraso());
+
+            LoteCambios primero = suscripcion.leer(3);
+            assertEquals(3, primero.getCambios().size());
+            assertEquals(1, primero.getRetraso());
+            LoteCambios segundo = suscripcion.leer(10, 1, TimeUnit.SECONDS);
+            assertEquals(1, segundo.getCambios().size());
+            List<CambioUsuario> cambios = new ArrayList<>(primero.getCambios());
+            cambios.addAll(segundo.getCambios());
+
+            CambioUsuario.Tipo[] esperados = {CambioUsuario.Tipo.REGISTRO, CambioUsuario.Tipo.NOMBRE,
+                    CambioUsuario.Tipo.PASSWORD, CambioUsuario.Tipo.ELIMINACION};
+            for (int i = 0; i < esperados.length; i++) {
+                assertEquals(esperados[i], cambios.get(i).getTipo());
+                assertEquals(inicio + i, cambios.get(i).getSecuencia());
+                assertEquals("ana@test.com", cambios.get(i).getEmail());
+            }
+            assertEquals("Ana", cambios.get(0).getNombre());
+            assertEquals("Ana María", cambios.get(1).getNombre());
+            assertEquals(0, primero.getPerdidos() + segundo.getPerdidos());
+
+            assertTrue(suscripcion.leer(10, 10, TimeUnit.MILLISECONDS).getCambios().isEmpty());
+
+            // Otro lector retoma desde la secuencia que guardó, sin afectar al primero
+            SuscripcionCambios retomada = gestor.suscribirCambios(primero.getSiguienteSecuencia());
+            assertEquals(CambioUsuario.Tipo.ELIMINACION, retomada.leer(10).getCambios().get(0).getTipo());
+            assertThrows(IllegalArgumentException.class, () -> gestor.suscribirCambios(inicio + 100));
+            assertThrows(IllegalArgumentException.class, () -> suscripcion.leer(0));
+        }
+        try (GestorUsuarios sinFlujo = new GestorUsuarios()) {
+            assertThrows(IllegalStateException.class, sinFlujo::suscribirCambios);
+        }
+    }
+
+    @Test
+    @DisplayName("FC002 - Un lector atrasado pierde cambios y se entera; los escritores no esperan")
+    void testLectorAtrasado() {
+        try (GestorUsuarios gestor = gestor(16)) {
+            SuscripcionCambios atrasada = gestor.suscribirCambios();
+            for (int i = 0; i < 100; i++) {
+                gestor.registrarUsuario("usuario" + i + "@test.com", "pass123", "Usuario " + i);
+            }
+            assertEquals(100, atrasada.getRetraso());
+            LoteCambios lote = atrasada.leer(1000);
+            assertEquals(84, lote.getPerdidos());
+            assertEquals(16, lote.getCambios().size());
+            assertEquals("usuario84@test.com", lote.getCambios().get(0).getEmail());
+            assertEquals(0, lote.getRetraso());
+
+            // Una secuencia de otra ejecución del gestor queda antes de todo lo retenido
+            SuscripcionCambios vieja = gestor.suscribirCambios(0);
+            LoteCambios reanudado = vieja.leer(1000);
+            assertTrue(reanudado.getPerdidos() > 0);
+            assertEquals(16, reanudado.getCambios().size());
+        }
+    }
+
+    @Test
+    @DisplayName("FC003 - Con escritores concurrentes cada lector ve todas las secuencias y el orden por usuario")
+    void testConcurrencia() throws Exception {
+        int hilos = 4;
+        int porHilo = 2000;
+        try (GestorUsuarios gestor = gestor(1 << 16)) {
+            List<SuscripcionCambios> lectores = List.of(gestor.suscribirCambios(), gestor.suscribirCambios());
+            long inicio = lectores.get(0).getSecuencia();
+            List<Thread> escritores = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                int hilo = h;
+                Thread escritor = new Thread(() -> {
+                    for (int i = 0; i < porHilo; i++) {
+                        String email = "hilo" + hilo + "-" + (i % 50) + "@test.com";
+                        if (!gestor.registrarUsuario(email, "pass123", "Usuario")) {
+                            gestor.eliminarUsuario(email);
+                        }
+                    }
+                });
+                escritores.add(escritor);
+                escritor.start();
+            }
+
+            List<List<CambioUsuario>> leidos = new ArrayList<>();
+            for (SuscripcionCambios lector : lectores) {
+                leidos.add(new ArrayList<>());
+            }
+            while (escritores.stream().anyMatch(Thread::isAlive) || lectores.get(0).getRetraso() > 0
+                    || lectores.get(1).getRetraso() > 0) {
+                for (int l = 0; l < lectores.size(); l++) {
+                    LoteCambios lote = lectores.get(l).leer(256, 1, TimeUnit.MILLISECONDS);
+                    assertEquals(0, lote.getPerdidos());
+                    leidos.get(l).addAll(lote.getCambios());
+                }
+            }
+            for (Thread escritor : escritores) {
+                escritor.join();
+            }
+
+            for (List<CambioUsuario> cambios : leidos) {
+                assertEquals(hilos * porHilo, cambios.size());
+                Map<String, CambioUsuario.Tipo> ultimo = new HashMap<>();
+                for (int i = 0; i < cambios.size(); i++) {
+                    CambioUsuario cambio = cambios.get(i);
+                    assertEquals(inicio + i, cambio.getSecuencia());
+                    // Por usuario se alternan registro y eliminación, empezando por el registro
+                    CambioUsuario.Tipo anterior = ultimo.put(cambio.getEmail(), cambio.getTipo());
+                    assertEquals(anterior == CambioUsuario.Tipo.REGISTRO
+                            ? CambioUsuario.Tipo.ELIMINACION : CambioUsuario.Tipo.REGISTRO, cambio.getTipo());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.proyecto;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Casos de prueba de la fachada asíncrona
+ * Ubicación: src/test/java/com/proyecto/GestorUsuariosAsyncTest.java
+ */
+class GestorUsuariosAsyncTest {
+
+    private GestorUsuarios gestor;
+
+    @BeforeEach
+    void setUp() {
+        gestor = new GestorUsuarios(new ConfiguracionGestor().concurrente(true).iteracionesKdf(1));
+        gestor.registrarUsuario("ana@test.com", "pass123", "Ana");
+    }
+
+    @AfterEach
+    void tearDown() {
+        gestor.close();
+    }
+
+    /**
+     * Un hilo y una tarea que lo ocupa hasta soltar el cerrojo: lo que llegue después espera en la cola
+     */
+    private static ThreadPoolExecutor grupoOcupado(int capacidadCola, CountDownLatch cerrojo) {
+        ThreadPoolExecutor grupo = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola));
+        CountDownLatch ocupado = new CountDownLatch(1);
+        grupo.execute(() -> {
+            ocupado.countDown();
+            try {
+                cerrojo.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            ocupado.await();
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        return grupo;
+    }
+
+    @Test
+    @DisplayName("GA001 - Las operaciones dan lo mismo que las síncronas y los errores llegan como causa")
+    void testOperaciones() {
+        try (GestorUsuariosAsync async = new GestorUsuariosAsync(gestor)) {
+            assertTrue(async.registrarUsuarioAsync("luis@test.com", "pass123", "Luis").join());
+            assertFalse(async.registrarUsuarioAsync("luis@test.com", "pass123", "Otro").join());
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> async.registrarUsuarioAsync("invalido", "pass123", "X").join());
+            assertInstanceOf(IllegalArgumentException.class, error.getCause());
+
+            assertEquals("Luis", async.autenticarAsync("luis@test.com", "pass123").join().getNombre());
+            assertNull(async.autenticarAsync("luis@test.com", "incorrecta").join());
+            assertTrue(async.existeUsuarioAsync("luis@test.com").join());
+            assertTrue(async.actualizarUsuarioAsync("luis@test.com", "Luis Pérez").join());
+            assertEquals("Luis Pérez", async.buscarUsuarioAsync("luis@test.com").join().getNombre());
+            assertEquals(1, async.buscarPorNombreAsync("luis", 10).join().size());
+            assertTrue(async.cambiarPasswordAsync("luis@test.com", "pass123", "nueva123").join());
+            assertNotNull(gestor.autenticar("luis@test.com", "nueva123"));
+            assertTrue(async.eliminarUsuarioAsync("luis@test.com").join());
+            assertFalse(async.existeUsuarioAsync("luis@test.com").join());
+            assertEquals(0, async.getConsultasAgrupadas());
+        }
+    }
+
+    @Test
+    @DisplayName("GA002 - Las consultas idénticas en cola se resuelven con una sola ejecución")
+    void testAgrupacion() {
+        CountDownLatch cerrojo = new CountDownLatch(1);
+        try (GestorUsuariosAsync async = new GestorUsuariosAsync(gestor, grupoOcupado(16, cerrojo))) {
+            List<CompletableFuture<Usuario>> logins = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                logins.add(async.autenticarAsync("ana@test.com", "pass123"));
+            }
+            CompletableFuture<Usuario> otraPassword = async.autenticarAsync("ana@test.com", "incorrecta");
+            CompletableFuture<Usuario> busqueda = async.buscarUsuarioAsync("ana@test.com");
+            CompletableFuture<Boolean> existe = async.existeUsuarioAsync("ana@test.com");
+            CompletableFuture<Boolean> existeOtra = async.existeUsuarioAsync("ana@test.com");
+            assertEquals(9 + 1, async.getConsultasAgrupadas());
+
+            // Cancelar una copia no afecta a las demás
+            logins.get(0).cancel(false);
+            cerrojo.countDown();
+            for (CompletableFuture<Usuario> login : logins.subList(1, logins.size())) {
+                assertEquals("Ana", login.join().getNombre());
+            }
+            assertNull(otraPassword.join());
+            assertSame(busqueda.join(), gestor.buscarUsuario("ana@test.com"));
+            assertTrue(existe.join() && existeOtra.join());
+
+            // Con la cola vacía se ejecuta de nuevo y ve los cambios
+            gestor.eliminarUsuario("ana@test.com");
+            assertNull(async.autenticarAsync("ana@test.com", "pass123").join());
+            assertEquals(10, async.getConsultasAgrupadas());
+        }
+    }
+
+    @Test
+    @DisplayName("GA003 - Con la cola llena los futuros fallan de inmediato")
+    void testColaLlena() {
+        CountDownLatch cerrojo = new CountDownLatch(1);
+        try (GestorUsuariosAsync async = new GestorUsuariosAsync(gestor, grupoOcupado(2, cerrojo))) {
+            CompletableFuture<Boolean> primero = async.actualizarUsuarioAsync("ana@test.com", "Ana 1");
+            CompletableFuture<Boolean> segundo = async.actualizarUsuarioAsync("ana@test.com", "Ana 2");
+            CompletableFuture<Boolean> rechazado = async.actualizarUsuarioAsync("ana@test.com", "Ana 3");
+            CompletableFuture<Usuario> consultaRechazada = async.buscarUsuarioAsync("ana@test.com");
+            assertTrue(rechazado.isCompletedExceptionally());
+            CompletionException error = assertThrows(CompletionException.class, consultaRechazada::join);
+            assertInstanceOf(RejectedExecutionException.class, error.getCause());
+
+            cerrojo.countDown();
+            assertTrue(primero.join() && segundo.join());
+            assertEquals("Ana 2", gestor.buscarUsuario("ana@test.com").getNombre());
+            // La consulta rechazada no quedó registrada como pendiente
+            assertEquals("Ana 2", async.buscarUsuarioAsync("ana@test.com").join().getNombre());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new GestorUsuariosAsync(gestor, 0, 1));
+    }
+}
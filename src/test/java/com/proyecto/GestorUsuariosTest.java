@@ -1,15 +1,25 @@
 package com.proyecto;
 
+import com.proyecto.metricas.RegistroMetricas;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Casos de prueba para la clase GestorUsuarios
  * Ubicación: src/test/java/com/proyecto/GestorUsuariosTest.java
  *
  * PROYECTO DE AULA - MÍNIMO 5 CASOS DE PRUEBA UNITARIA
- * Este archivo contiene 8 casos de prueba completos
  */
 class GestorUsuariosTest {
 
@@ -21,6 +31,13 @@ class GestorUsuariosTest {
         gestor = new GestorUsuarios();
     }
 
+    /**
+     * Gestor con un KDF de una sola iteración, para pruebas que registran miles de usuarios
+     */
+    private static GestorUsuarios gestorRapido(boolean concurrente) {
+        return new GestorUsuarios(new ConfiguracionGestor().concurrente(concurrente).iteracionesKdf(1));
+    }
+
     @AfterEach
     void tearDown() {
         // Se ejecuta después de cada prueba
@@ -175,7 +192,7 @@ class GestorUsuariosTest {
 
         // Verificar que otros datos no cambiaron
         assertEquals(email, usuarioActualizado.getEmail(), "El email no debe cambiar");
-        assertEquals(passwordOriginal, usuarioActualizado.getPassword(), "La password no debe cambiar");
+        assertTrue(usuarioActualizado.verificarPassword(passwordOriginal), "La password no debe cambiar");
 
         // Act & Assert - Actualizar usuario INEXISTENTE
         boolean actualizacionFallida = gestor.actualizarUsuario("noexiste@test.com", "Nuevo Nombre");
@@ -220,7 +237,7 @@ class GestorUsuariosTest {
         // Verificar que se mantuvo el primer usuario
         Usuario usuario = gestor.buscarUsuario(email);
         assertEquals("Usuario 1", usuario.getNombre(), "Debe mantener los datos del primer registro");
-        assertEquals("pass1", usuario.getPassword(), "Debe mantener la password del primer registro");
+        assertTrue(usuario.verificarPassword("pass1"), "Debe mantener la password del primer registro");
     }
 
     // ========== CASO DE PRUEBA 7: VALIDACIÓN DE PASSWORD ==========
@@ -343,4 +360,311 @@ class GestorUsuariosTest {
                 () -> gestor.registrarUsuario("test2@test.com", password, "Juan Carlos Pérez"),
                 "Nombre completo debe funcionar");
     }
-}
\ No newline at end of file
+
+    // ========== PRUEBAS DE CONCURRENCIA ==========
+
+    @Test
+    @DisplayName("CP011 - Registro concurrente sin pérdidas ni duplicados")
+    void testRegistroConcurrente() throws Exception {
+        GestorUsuarios concurrente = gestorRapido(true);
+        int hilos = 8;
+        int usuariosPorHilo = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        CountDownLatch salida = new CountDownLatch(1);
+        try {
+            // Cada hilo intenta registrar TODOS los emails: sólo un hilo debe ganar cada uno
+            List<Future<Integer>> resultados = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                final int hilo = h;
+                resultados.add(pool.submit(() -> {
+                    salida.await();
+                    int ganados = 0;
+                    for (int i = 0; i < hilos * usuariosPorHilo; i++) {
+                        int indice = (i + hilo * usuariosPorHilo) % (hilos * usuariosPorHilo);
+                        String email = "user" + indice + "@test.com";
+                        if (concurrente.registrarUsuario(email, "pass" + hilo, "Hilo " + hilo)) {
+                            ganados++;
+                        }
+                    }
+                    return ganados;
+                }));
+            }
+            salida.countDown();
+
+            int totalGanados = 0;
+            for (Future<Integer> resultado : resultados) {
+                totalGanados += resultado.get(60, TimeUnit.SECONDS);
+            }
+
+            // Ningún registro perdido y ningún email registrado dos veces
+            assertEquals(hilos * usuariosPorHilo, totalGanados, "Cada email debe registrarse exactamente una vez");
+            assertEquals(hilos * usuariosPorHilo, concurrente.obtenerCantidadUsuarios());
+            Set<String> emails = new HashSet<>();
+            for (Usuario usuario : concurrente.listarUsuarios()) {
+                assertTrue(emails.add(usuario.getEmail()), "Email duplicado: " + usuario.getEmail());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("CP012 - Autenticación y cambio de password concurrentes")
+    void testAutenticacionConcurrente() throws Exception {
+        GestorUsuarios concurrente = gestorRapido(true);
+        concurrente.registrarUsuario("compartido@test.com", "inicial", "Compartido");
+        int hilos = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            // Todos los hilos intentan cambiar la password partiendo de la misma password actual
+            List<Future<Boolean>> cambios = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                final int hilo = h;
+                cambios.add(pool.submit(() ->
+                        concurrente.cambiarPassword("compartido@test.com", "inicial", "nueva" + hilo)));
+            }
+            int exitosos = 0;
+            for (Future<Boolean> cambio : cambios) {
+                if (cambio.get(30, TimeUnit.SECONDS)) {
+                    exitosos++;
+                }
+            }
+            assertEquals(1, exitosos, "Sólo un cambio de password debe ganar");
+            assertNull(concurrente.autenticar("compartido@test.com", "inicial"),
+                    "La password inicial ya no debe servir");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ========== PRUEBAS DE IMPORTACIÓN MASIVA ==========
+
+    @Test
+    @DisplayName("CP013 - Importación masiva informa el resultado de cada registro")
+    void testRegistrarLoteResultados() {
+        gestor.registrarUsuario("existente@test.com", "pass123", "Existente");
+
+        ResultadoLote resultado = gestor.registrarLote(Stream.of(
+                new RegistroUsuario("nuevo@test.com", "pass123", "Nuevo"),
+                new RegistroUsuario("existente@test.com", "pass123", "Repetido"),
+                new RegistroUsuario("emailinvalido", "pass123", "Sin arroba"),
+                new RegistroUsuario("corta@test.com", "1234", "Password corta"),
+                new RegistroUsuario("sinnombre@test.com", "pass123", "   "),
+                new RegistroUsuario("nuevo@test.com", "otra123", "Repetido en el lote"),
+                null));
+
+        assertEquals(7, resultado.getCantidad());
+        assertEquals(ResultadoRegistro.ACEPTADO, resultado.getResultado(0));
+        assertEquals(ResultadoRegistro.DUPLICADO, resultado.getResultado(1));
+        assertEquals(ResultadoRegistro.EMAIL_INVALIDO, resultado.getResultado(2));
+        assertEquals(ResultadoRegistro.PASSWORD_INVALIDA, resultado.getResultado(3));
+        assertEquals(ResultadoRegistro.NOMBRE_INVALIDO, resultado.getResultado(4));
+        assertEquals(ResultadoRegistro.DUPLICADO, resultado.getResultado(5), "Gana la primera aparición");
+        assertEquals(ResultadoRegistro.EMAIL_INVALIDO, resultado.getResultado(6));
+        assertEquals(2, resultado.contar(ResultadoRegistro.DUPLICADO));
+
+        assertEquals(2, gestor.obtenerCantidadUsuarios());
+        assertEquals("Nuevo", gestor.buscarUsuario("nuevo@test.com").getNombre());
+        assertNotNull(gestor.autenticar("nuevo@test.com", "pass123"));
+    }
+
+    @Test
+    @DisplayName("CP014 - Importación masiva de varios bloques en ambos modos")
+    void testRegistrarLoteGrande() {
+        int cantidad = 150_000;
+        for (GestorUsuarios destino : List.of(gestorRapido(false), gestorRapido(true))) {
+            ResultadoLote resultado = destino.registrarLote(IntStream.range(0, cantidad)
+                    .mapToObj(i -> new RegistroUsuario("lote" + i + "@test.com", "pass123", "Lote " + i))
+                    .iterator(), cantidad);
+
+            assertEquals(cantidad, resultado.contar(ResultadoRegistro.ACEPTADO));
+            assertEquals(cantidad, destino.obtenerCantidadUsuarios());
+            assertNotNull(destino.buscarUsuario("lote149999@test.com"));
+        }
+    }
+
+    // ========== PRUEBAS DE CREDENCIALES ==========
+
+    @Test
+    @DisplayName("CP015 - La caché de verificaciones no acepta passwords viejas")
+    void testCacheVerificaciones() {
+        GestorUsuarios cacheado = gestorRapido(true);
+        cacheado.registrarUsuario("cache@test.com", "original", "Cache");
+
+        // La segunda autenticación sale de la caché
+        assertNotNull(cacheado.autenticar("cache@test.com", "original"));
+        assertNotNull(cacheado.autenticar("cache@test.com", "original"));
+        assertNull(cacheado.autenticar("cache@test.com", "incorrecta"));
+
+        assertTrue(cacheado.cambiarPassword("cache@test.com", "original", "renovada"));
+        assertNull(cacheado.autenticar("cache@test.com", "original"), "La password vieja ya no debe servir");
+        assertNotNull(cacheado.autenticar("cache@test.com", "renovada"));
+
+        // Un usuario nuevo con el mismo email no hereda la verificación del anterior
+        assertTrue(cacheado.eliminarUsuario("cache@test.com"));
+        cacheado.registrarUsuario("cache@test.com", "distinta", "Cache 2");
+        assertNull(cacheado.autenticar("cache@test.com", "renovada"));
+        assertNotNull(cacheado.autenticar("cache@test.com", "distinta"));
+    }
+
+    @Test
+    @DisplayName("CP016 - Las passwords no se guardan en claro")
+    void testPasswordNoSeGuardaEnClaro() {
+        gestor.registrarUsuario("hash@test.com", "secreta123", "Hash");
+        Usuario usuario = gestor.buscarUsuario("hash@test.com");
+
+        assertFalse(usuario.toString().contains("secreta123"));
+        assertTrue(usuario.verificarPassword("secreta123"));
+        assertFalse(usuario.verificarPassword("secreta124"));
+        assertFalse(usuario.verificarPassword(null));
+        assertEquals(Credencial.ITERACIONES_POR_DEFECTO, usuario.getCredencial().getIteraciones());
+    }
+
+    // ========== PRUEBAS DE BÚSQUEDA POR NOMBRE ==========
+
+    private static List<String> emails(List<Usuario> usuarios) {
+        List<String> emails = new ArrayList<>();
+        for (Usuario usuario : usuarios) {
+            emails.add(usuario.getEmail());
+        }
+        return emails;
+    }
+
+    @Test
+    @DisplayName("CP017 - Buscar por prefijo del nombre sin distinguir mayúsculas ni acentos")
+    void testBuscarPorNombre() {
+        for (boolean conIndice : new boolean[]{true, false}) {
+            for (boolean concurrente : new boolean[]{false, true}) {
+                GestorUsuarios buscador = new GestorUsuarios(new ConfiguracionGestor()
+                        .concurrente(concurrente).iteracionesKdf(1).indiceNombres(conIndice));
+                buscador.registrarUsuario("jose@test.com", "pass123", "José Álvarez");
+                buscador.registrarUsuario("josefina@test.com", "pass123", "JOSEFINA Díaz");
+                buscador.registrarUsuario("b.jose@test.com", "pass123", "jose alvarez");
+                buscador.registrarUsuario("a.jose@test.com", "pass123", "Jose Alvarez");
+                buscador.registrarUsuario("ana@test.com", "pass123", "Ana");
+                String modo = "indice=" + conIndice + " concurrente=" + concurrente;
+
+                // Orden por nombre plegado y, entre homónimos, por email
+                assertEquals(List.of("a.jose@test.com", "b.jose@test.com", "jose@test.com", "josefina@test.com"),
+                        emails(buscador.buscarPorNombre("JOSÉ", 10)), modo);
+                assertEquals(List.of("a.jose@test.com", "b.jose@test.com"),
+                        emails(buscador.buscarPorNombre("  jose", 2)), modo);
+                assertEquals(List.of("ana@test.com"), emails(buscador.buscarPorNombre("Á", 10)), modo);
+                assertTrue(buscador.buscarPorNombre("zz", 10).isEmpty(), modo);
+                assertTrue(buscador.buscarPorNombre(null, 10).isEmpty(), modo);
+                assertEquals(5, buscador.buscarPorNombre("", 10).size(), modo);
+                assertThrows(IllegalArgumentException.class, () -> buscador.buscarPorNombre("a", -1));
+
+                // El índice sigue a las actualizaciones y eliminaciones
+                buscador.actualizarUsuario("josefina@test.com", "Ángela Díaz");
+                buscador.eliminarUsuario("a.jose@test.com");
+                assertEquals(List.of("b.jose@test.com", "jose@test.com"),
+                        emails(buscador.buscarPorNombre("jose", 10)), modo);
+                assertEquals(List.of("ana@test.com", "josefina@test.com"),
+                        emails(buscador.buscarPorNombre("an", 10)), modo);
+            }
+        }
+    }
+
+    // ========== PRUEBAS DE LISTADO PAGINADO ==========
+
+    @Test
+    @DisplayName("CP018 - Listado por páginas con cursor y flujo perezoso")
+    void testListarPagina() {
+        for (boolean concurrente : new boolean[]{false, true}) {
+            GestorUsuarios paginado = gestorRapido(concurrente);
+            for (int i = 0; i < 250; i++) {
+                paginado.registrarUsuario(String.format("u%03d@test.com", i), "pass123", "Usuario " + i);
+            }
+
+            // Recorrido completo en páginas de 100: 100 + 100 + 50, en orden de email
+            List<String> vistos = new ArrayList<>();
+            PaginaUsuarios pagina = paginado.listarPagina(null, 100);
+            assertEquals(100, pagina.getUsuarios().size());
+            vistos.addAll(emails(pagina.getUsuarios()));
+
+            // Cambios entre páginas: lo eliminado no aparece y lo nuevo detrás del cursor tampoco
+            paginado.eliminarUsuario("u150@test.com");
+            paginado.eliminarUsuario("u099@test.com");
+            paginado.registrarUsuario("u000x@test.com", "pass123", "Detrás del cursor");
+            paginado.registrarUsuario("u999@test.com", "pass123", "Delante del cursor");
+
+            while (pagina.hayMas()) {
+                pagina = paginado.listarPagina(pagina.getSiguienteCursor(), 100);
+                vistos.addAll(emails(pagina.getUsuarios()));
+            }
+            assertEquals(250, vistos.size(), "concurrente=" + concurrente);
+            assertEquals(new HashSet<>(vistos).size(), vistos.size(), "Ningún email se repite");
+            assertFalse(vistos.contains("u150@test.com"));
+            assertTrue(vistos.contains("u099@test.com"), "Ya se había entregado en la primera página");
+            assertFalse(vistos.contains("u000x@test.com"));
+            assertEquals("u999@test.com", vistos.get(vistos.size() - 1));
+            List<String> ordenados = new ArrayList<>(vistos);
+            ordenados.sort(null);
+            assertEquals(ordenados, vistos);
+
+            // Página exacta: la última no promete más
+            assertFalse(paginado.listarPagina(null, paginado.obtenerCantidadUsuarios()).hayMas());
+            assertThrows(IllegalArgumentException.class, () -> paginado.listarPagina(null, 0));
+            assertThrows(IllegalArgumentException.class, () -> paginado.listarPagina("no es base64!", 10));
+
+            assertEquals(paginado.obtenerCantidadUsuarios(), paginado.streamUsuarios().parallel().count());
+            assertEquals("u000@test.com", paginado.streamUsuarios().findFirst().get().getEmail());
+        }
+
+        GestorUsuarios sinIndice = new GestorUsuarios(new ConfiguracionGestor().listadoPaginado(false));
+        assertThrows(IllegalStateException.class, () -> sinIndice.listarPagina(null, 10));
+        assertEquals(0, sinIndice.streamUsuarios().count());
+    }
+
+    @Test
+    @DisplayName("CP019 - Métricas por operación y resultado")
+    void testMetricas() {
+        RegistroMetricas registro = new RegistroMetricas();
+        GestorUsuarios medido = new GestorUsuarios(new ConfiguracionGestor().iteracionesKdf(1).metricas(registro));
+
+        assertTrue(medido.registrarUsuario("ana@test.com", "pass123", "Ana"));
+        assertFalse(medido.registrarUsuario("ana@test.com", "pass123", "Ana"));
+        assertThrows(IllegalArgumentException.class, () -> medido.registrarUsuario("no-es-email", "pass123", "X"));
+        medido.registrarLote(Stream.of(new RegistroUsuario("bea@test.com", "pass123", "Bea"),
+                new RegistroUsuario("ana@test.com", "pass123", "Ana"),
+                new RegistroUsuario("cin@test.com", "123", "Cin")));
+        for (int i = 0; i < 100; i++) {
+            assertNotNull(medido.autenticar("ana@test.com", "pass123"));
+        }
+        assertNull(medido.autenticar("ana@test.com", "incorrecta"));
+        assertNull(medido.autenticar("nadie@test.com", "pass123"));
+        assertFalse(medido.cambiarPassword("ana@test.com", "incorrecta", "nueva123"));
+        assertThrows(IllegalArgumentException.class, () -> medido.cambiarPassword("ana@test.com", "pass123", "1"));
+        assertTrue(medido.cambiarPassword("ana@test.com", "pass123", "nueva123"));
+        assertTrue(medido.actualizarUsuario("bea@test.com", "Beatriz"));
+        assertThrows(IllegalArgumentException.class, () -> medido.actualizarUsuario("bea@test.com", " "));
+        assertTrue(medido.eliminarUsuario("bea@test.com"));
+        assertFalse(medido.eliminarUsuario("bea@test.com"));
+
+        String texto = registro.aTextoPrometheus();
+        String[] esperadas = {
+                "operacion=\"registro\",resultado=\"exito\"} 2",
+                "operacion=\"registro\",resultado=\"duplicado\"} 2",
+                "operacion=\"registro\",resultado=\"error_validacion\"} 2",
+                "operacion=\"login\",resultado=\"exito\"} 100",
+                "operacion=\"login\",resultado=\"password_incorrecta\"} 1",
+                "operacion=\"login\",resultado=\"usuario_desconocido\"} 1",
+                "operacion=\"cambio_password\",resultado=\"password_incorrecta\"} 1",
+                "operacion=\"cambio_password\",resultado=\"error_validacion\"} 1",
+                "operacion=\"cambio_password\",resultado=\"exito\"} 1",
+                "operacion=\"actualizacion\",resultado=\"exito\"} 1",
+                "operacion=\"actualizacion\",resultado=\"error_validacion\"} 1",
+                "operacion=\"eliminacion\",resultado=\"exito\"} 1",
+                "operacion=\"eliminacion\",resultado=\"usuario_desconocido\"} 1",
+                "usuarios_registrados 1\n",
+        };
+        for (String esperada : esperadas) {
+            assertTrue(texto.contains(esperada), esperada + " en\n" + texto);
+        }
+        // La latencia se muestrea: de 100 logins exitosos se midieron algunos, no todos
+        assertTrue(texto.contains("usuarios_latencia_segundos_count{operacion=\"login\"}"), texto);
+        assertFalse(texto.contains("operacion=\"eliminacion\",resultado=\"password_incorrecta\""),
+                "Sólo se publican las combinaciones posibles");
+    }
+}
@@ -0,0 +1,155 @@
+package com.proyecto;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static com.proyecto.UsuariosPrueba.usuario;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+/**
+ * Casos de prueba del índice por fecha de creación y de las consultas de altas de GestorUsuarios
+ * Ubicación: src/test/java/com/proyecto/IndiceFechasTest.java
+ */
+class IndiceFechasTest {
+
+    @TempDir
+    Path directorio;
+
+    // Clave del modelo de referencia con el mismo orden que el índice
+    private static String clave(long fecha, String email) {
+        return String.format("%019d %s", fecha, email);
+    }
+
+    private static List<String> emails(PaginaUsuarios pagina) {
+        List<String> emails = new ArrayList<>();
+        for (Usuario usuario : pagina.getUsuarios()) {
+            emails.add(usuario.getEmail());
+        }
+        return emails;
+    }
+
+    @Test
+    @DisplayName("IF001 - Cuenta, pagina e histograma igual que un mapa ordenado con altas y bajas aleatorias")
+    void testEquivalenteAMapaOrdenado() {
+        IndiceFechas indice = new IndiceFechas();
+        Map<String, Usuario> usuarios = new HashMap<>();
+        TreeMap<String, String> referencia = new TreeMap<>();
+        SplittableRandom aleatorio = new SplittableRandom(23);
+        long ahora = 1_000_000;
+
+        // Mezcla de altas en orden (el caso común) y en cualquier lugar, con muchos empates de milisegundo
+        for (int paso = 0; paso < 60_000; paso++) {
+            String email = "u" + aleatorio.nextInt(20_000) + "@test.com";
+            Usuario actual = usuarios.get(email);
+            if (actual == null) {
+                long fecha = aleatorio.nextInt(3) == 0 ? aleatorio.nextLong(ahora) : ahora++ / 3;
+                Usuario usuario = usuario(email, "Usuario", fecha);
+                usuarios.put(email, usuario);
+                indice.usuarioRegistrado(usuario);
+                referencia.put(clave(fecha, email), email);
+            } else if (aleatorio.nextInt(3) == 0) {
+                usuarios.remove(email);
+                indice.usuarioEliminado(actual);
+                referencia.remove(clave(actual.getFechaCreacion().getTime(), email));
+            }
+
+            if (paso % 5_000 == 0) {
+                long desde = aleatorio.nextLong(ahora / 2);
+                long hasta = desde + aleatorio.nextLong(ahora / 2);
+                Map<String, String> rango = referencia.subMap(clave(desde, ""), clave(hasta, ""));
+                assertEquals(rango.size(), indice.contar(desde, hasta));
+                assertEquals(referencia.size(), indice.contar(0, Long.MAX_VALUE));
+
+                int[] barras = indice.histograma(desde, hasta, 1000, (int) ((hasta - desde + 999) / 1000));
+                int total = 0;
+                for (int i = 0; i < barras.length; i++) {
+                    long inicio = desde + i * 1000L;
+                    assertEquals(referencia.subMap(clave(inicio, ""), clave(Math.min(hasta, inicio + 1000), "")).size(),
+                            barras[i]);
+                    total += barras[i];
+                }
+                assertEquals(rango.size(), total);
+
+                // Recorrer el rango por páginas da exactamente las claves del modelo, en orden
+                List<String> recorridos = new ArrayList<>();
+                String cursor = null;
+                do {
+                    PaginaUsuarios pagina = indice.pagina(desde, hasta, cursor, 1 + aleatorio.nextInt(700), usuarios::get);
+                    recorridos.addAll(emails(pagina));
+                    cursor = pagina.getSiguienteCursor();
+                } while (cursor != null);
+                assertEquals(new ArrayList<>(rango.values()), recorridos);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("IF002 - Las consultas de altas dan lo mismo con y sin índice, también al recuperar")
+    void testGestor() {
+        ConfiguracionGestor configuracion = new ConfiguracionGestor().persistencia(directorio).indiceFechas(true)
+                .iteracionesKdf(1);
+        long base = 1_700_000_000_000L;
+        try (GestorUsuarios con = new GestorUsuarios(configuracion);
+             GestorUsuarios sin = new GestorUsuarios(new ConfiguracionGestor().iteracionesKdf(1))) {
+            for (int i = 0; i < 3000; i++) {
+                // Una alta cada 7 minutos, dos por milisegundo
+                Usuario usuario = usuario("u" + i + "@test.com", "Usuario " + i, base + (i / 2) * 7 * 60_000L);
+                assertTrue(con.importarUsuario(usuario));
+                assertTrue(sin.importarUsuario(usuario));
+            }
+            con.eliminarUsuario("u10@test.com");
+            sin.eliminarUsuario("u10@test.com");
+
+            Date desde = new Date(base + Duration.ofHours(1).toMillis());
+            Date hasta = new Date(base + Duration.ofDays(5).toMillis());
+            assertEquals(sin.contarAltas(desde, hasta), con.contarAltas(desde, hasta));
+            assertEquals(2 * 1020, con.contarAltas(desde, hasta));
+            assertArrayEquals(sin.histogramaAltas(desde, hasta, Duration.ofHours(1)),
+                    con.histogramaAltas(desde, hasta, Duration.ofHours(1)));
+            int[] porDia = con.histogramaAltas(new Date(base), new Date(base + Duration.ofDays(3).toMillis()),
+                    Duration.ofDays(1));
+            assertArrayEquals(new int[]{2 * 206 - 1, 2 * 206, 2 * 206}, porDia);
+
+            List<String> conIndice = new ArrayList<>();
+            List<String> sinIndice = new ArrayList<>();
+            String cursorCon = null;
+            String cursorSin = null;
+            do {
+                PaginaUsuarios paginaCon = con.listarAltas(desde, hasta, cursorCon, 100);
+                PaginaUsuarios paginaSin = sin.listarAltas(desde, hasta, cursorSin, 100);
+                conIndice.addAll(emails(paginaCon));
+                sinIndice.addAll(emails(paginaSin));
+                cursorCon = paginaCon.getSiguienteCursor();
+                cursorSin = paginaSin.getSiguienteCursor();
+                assertEquals(cursorCon, cursorSin);
+            } while (cursorCon != null);
+            assertEquals(sinIndice, conIndice);
+            assertEquals(con.contarAltas(desde, hasta), conIndice.size());
+
+            assertThrows(IllegalArgumentException.class, () -> con.contarAltas(hasta, desde));
+            assertThrows(IllegalArgumentException.class, () -> con.contarAltas(null, hasta));
+            assertThrows(IllegalArgumentException.class, () -> con.listarAltas(desde, hasta, "!!", 10));
+            assertThrows(IllegalArgumentException.class, () -> con.listarAltas(desde, hasta, null, 0));
+            assertThrows(IllegalArgumentException.class, () -> con.histogramaAltas(desde, hasta, Duration.ZERO));
+            assertThrows(IllegalArgumentException.class,
+                    () -> con.histogramaAltas(new Date(0), hasta, Duration.ofMillis(1)));
+        }
+        // El índice se arma con los usuarios recuperados del disco
+        try (GestorUsuarios recuperado = new GestorUsuarios(configuracion)) {
+            assertEquals(2999, recuperado.contarAltas(new Date(0), new Date(Long.MAX_VALUE)));
+            PaginaUsuarios primera = recuperado.listarAltas(new Date(base), new Date(base + 1), null, 10);
+            assertEquals(List.of("u0@test.com", "u1@test.com"), emails(primera));
+            assertFalse(primera.hayMas());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.proyecto;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Casos de prueba del modo durable de GestorUsuarios
+ * Ubicación: src/test/java/com/proyecto/PersistenciaUsuariosTest.java
+ */
+class PersistenciaUsuariosTest {
+
+    @TempDir
+    Path directorio;
+
+    private GestorUsuarios abrir() {
+        return new GestorUsuarios(new ConfiguracionGestor()
+                .persistencia(directorio)
+                .compactacionCada(0, TimeUnit.MILLISECONDS)
+                .iteracionesKdf(1));
+    }
+
+    private long contar(String prefijo) throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.filter(a -> a.getFileName().toString().startsWith(prefijo)).count();
+        }
+    }
+
+    @Test
+    @DisplayName("PU001 - Las mutaciones sobreviven a un reinicio")
+    void testRecuperarDesdeDiario() {
+        try (GestorUsuarios gestor = abrir()) {
+            gestor.registrarUsuario("ana@test.com", "secreta1", "Ana");
+            gestor.registrarUsuario("luis@test.com", "secreta2", "Luis");
+            gestor.registrarUsuario("borrar@test.com", "secreta3", "Borrar");
+            gestor.actualizarUsuario("ana@test.com", "Ana María");
+            gestor.cambiarPassword("luis@test.com", "secreta2", "nueva123");
+            gestor.eliminarUsuario("borrar@test.com");
+        }
+
+        try (GestorUsuarios recuperado = abrir()) {
+            assertEquals(2, recuperado.obtenerCantidadUsuarios());
+            assertEquals("Ana María", recuperado.buscarUsuario("ana@test.com").getNombre());
+            assertEquals(1, recuperado.buscarPorNombre("ana mar", 10).size(), "El índice por nombre se reconstruye");
+            assertNotNull(recuperado.autenticar("luis@test.com", "nueva123"));
+            assertNull(recuperado.autenticar("luis@test.com", "secreta2"));
+            assertFalse(recuperado.existeUsuario("borrar@test.com"));
+        }
+    }
+
+    @Test
+    @DisplayName("PU002 - Compactar escribe una instantánea y el diario sólo guarda la cola")
+    void testCompactarYReproducirCola() throws IOException {
+        long fechaAna;
+        try (GestorUsuarios gestor = abrir()) {
+            for (int i = 0; i < 500; i++) {
+                gestor.registrarUsuario("user" + i + "@test.com", "pass123", "Usuario " + i);
+            }
+            fechaAna = gestor.buscarUsuario("user7@test.com").getFechaCreacion().getTime();
+            gestor.compactar();
+            assertEquals(1, contar("instantanea-"), "Debe quedar una sola instantánea");
+            assertEquals(1, contar("diario-"), "Los segmentos compactados deben borrarse");
+
+            // Cola posterior a la instantánea
+            gestor.eliminarUsuario("user0@test.com");
+            gestor.actualizarUsuario("user1@test.com", "Renombrado");
+            gestor.registrarUsuario("nuevo@test.com", "pass123", "Nuevo");
+        }
+
+        try (GestorUsuarios recuperado = abrir()) {
+            assertEquals(500, recuperado.obtenerCantidadUsuarios());
+            assertFalse(recuperado.existeUsuario("user0@test.com"));
+            assertEquals("Renombrado", recuperado.buscarUsuario("user1@test.com").getNombre());
+            assertTrue(recuperado.existeUsuario("nuevo@test.com"));
+            assertEquals(fechaAna, recuperado.buscarUsuario("user7@test.com").getFechaCreacion().getTime(),
+                    "La fecha de creación debe conservarse");
+        }
+    }
+
+    @Test
+    @DisplayName("PU003 - Una cola rota por una caída se descarta sin perder lo confirmado")
+    void testColaRotaSeIgnora() throws IOException {
+        try (GestorUsuarios gestor = abrir()) {
+            gestor.registrarUsuario("ana@test.com", "secreta1", "Ana");
+            gestor.registrarUsuario("luis@test.com", "secreta2", "Luis");
+        }
+
+        // Simular un registro a medio escribir al final del último segmento
+        Path segmento;
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            segmento = archivos.filter(a -> a.getFileName().toString().startsWith("diario-"))
+                    .filter(a -> a.toFile().length() > 0)
+                    .max(Path::compareTo).orElseThrow();
+        }
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.APPEND)) {
+            canal.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2, 3}));
+        }
+
+        try (GestorUsuarios recuperado = abrir()) {
+            assertEquals(2, recuperado.obtenerCantidadUsuarios());
+            recuperado.registrarUsuario("tercero@test.com", "secreta3", "Tercero");
+        }
+        try (GestorUsuarios recuperado = abrir()) {
+            assertEquals(3, recuperado.obtenerCantidadUsuarios(), "Lo escrito después de la cola rota no se pierde");
+        }
+    }
+
+    @Test
+    @DisplayName("PU004 - El modo no durable no permite compactar")
+    void testCompactarSinPersistencia() {
+        GestorUsuarios gestor = new GestorUsuarios();
+        assertThrows(IllegalStateException.class, gestor::compactar);
+    }
+
+    @Test
+    @DisplayName("PU005 - La importación masiva queda en el diario")
+    void testLoteDurable() {
+        try (GestorUsuarios gestor = abrir()) {
+            ResultadoLote resultado = gestor.registrarLote(IntStream.range(0, 1000)
+                    .mapToObj(i -> new RegistroUsuario("lote" + i + "@test.com", "pass123", "Lote " + i)));
+            assertEquals(1000, resultado.contar(ResultadoRegistro.ACEPTADO));
+        }
+        try (GestorUsuarios recuperado = abrir()) {
+            assertEquals(1000, recuperado.obtenerCantidadUsuarios());
+        }
+    }
+
+    @Test
+    @DisplayName("PU006 - Una compactación automática fallida queda a la vista y se reintenta")
+    void testFalloCompactacionEnFondo() throws Exception {
+        try (GestorUsuarios gestor = new GestorUsuarios(new ConfiguracionGestor()
+                .persistencia(directorio)
+                .compactacionCada(20, TimeUnit.MILLISECONDS)
+                .iteracionesKdf(1))) {
+            gestor.registrarUsuario("ana@test.com", "secreta1", "Ana");
+            // Sin el directorio no se puede abrir el segmento nuevo del diario
+            Path movido = directorio.resolveSibling(directorio.getFileName() + "-movido");
+            Files.move(directorio, movido);
+            try {
+                long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (gestor.obtenerFalloCompactacion() == null && System.nanoTime() < limite) {
+                    Thread.sleep(10);
+                }
+                assertTrue(gestor.obtenerFalloCompactacion() instanceof IOException);
+            } finally {
+                Files.move(movido, directorio);
+            }
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (gestor.obtenerFalloCompactacion() != null && System.nanoTime() < limite) {
+                Thread.sleep(10);
+            }
+            assertNull(gestor.obtenerFalloCompactacion(), "La siguiente compactación funciona");
+        }
+        try (GestorUsuarios recuperado = abrir()) {
+            assertNotNull(recuperado.autenticar("ana@test.com", "secreta1"));
+            assertThrows(IllegalStateException.class, () -> new GestorUsuarios().obtenerFalloCompactacion());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.proyecto;
+
+import java.util.Date;
+
+/**
+ * Usuarios armados sin pasar por el gestor, para las pruebas de los almacenes y los índices
+ * Ubicación: src/test/java/com/proyecto/UsuariosPrueba.java
+ */
+final class UsuariosPrueba {
+
+    /** Credencial de "pass123" con una sola iteración: derivarla no cuesta nada */
+    static final Credencial CREDENCIAL = Credencial.crear("pass123", 1);
+
+    private UsuariosPrueba() {
+    }
+
+    static Usuario usuario(String email, String nombre, long fecha) {
+        return new Usuario(email, CREDENCIAL, nombre, new Date(fecha));
+    }
+
+    static Usuario usuario(String email) {
+        return usuario(email, "Usuario", System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,100 @@
+package com.proyecto;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Casos de prueba para ValidadorEmail: prueba diferencial contra la expresión regular original
+ * Ubicación: src/test/java/com/proyecto/ValidadorEmailTest.java
+ */
+class ValidadorEmailTest {
+
+    // Expresión regular que usaba GestorUsuarios: el validador debe aceptar exactamente el mismo lenguaje
+    private static final Pattern EMAIL_PATTERN =
+            Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+
+    // Incluye caracteres válidos, los separadores y algunos que la regex rechaza
+    private static final String ALFABETO = "aZk09+_.-@.@-.x\n é$#";
+
+    private static boolean regex(String email) {
+        return email != null && EMAIL_PATTERN.matcher(email).matches();
+    }
+
+    @ParameterizedTest
+    @DisplayName("VE001 - Casos límite coinciden con la regex")
+    @ValueSource(strings = {
+        "", "@", "a@b.co", "a@b.c", "a@.co", "a@..co", "@b.co", "a@b.co.", "a@b.c0", "a@b-c.d-e.fg",
+        "a.b+c_d-e@x.yz", "a@b@c.co", "a@b.co\n", "a@b.co ", " a@b.co", "a@b.CO", "a@b.cOm1", "a@b..co",
+        "a@-.co", "a@b.c.", "a@b.co.uk", "a@bco", "a@.", "a@b.", "ñ@b.co", "a@b.có", "usuario.test+tag@dominio.co.uk"
+    })
+    void testCasosLimite(String email) {
+        assertEquals(regex(email), ValidadorEmail.esValido(email), "Difiere para: " + email);
+    }
+
+    @Test
+    @DisplayName("VE002 - Nulo es inválido")
+    void testNulo() {
+        assertFalse(ValidadorEmail.esValido(null));
+    }
+
+    @Test
+    @DisplayName("VE003 - Prueba diferencial con cadenas aleatorias")
+    void testDiferencialAleatorio() {
+        Random aleatorio = new Random(20240611L);
+        // Cada segmento se arma con caracteres típicos de esa parte del email, y a veces con cualquiera
+        String[] partes = {"aZk09+_.-", "@", "aZ0.-", ".", "aZx"};
+        int validos = 0;
+        for (int n = 0; n < 300_000; n++) {
+            StringBuilder email = new StringBuilder();
+            for (String parte : partes) {
+                int repeticiones = parte.length() == 1 ? aleatorio.nextInt(2) + (aleatorio.nextInt(8) == 0 ? 1 : 0)
+                        : aleatorio.nextInt(5);
+                for (int i = 0; i < repeticiones; i++) {
+                    String origen = aleatorio.nextInt(10) == 0 ? ALFABETO : parte;
+                    email.append(origen.charAt(aleatorio.nextInt(origen.length())));
+                }
+            }
+            String candidato = email.toString();
+            boolean esperado = regex(candidato);
+            assertEquals(esperado, ValidadorEmail.esValido(candidato), "Difiere para: " + candidato);
+            if (esperado) {
+                validos++;
+            }
+        }
+        assertTrue(validos > 1000, "El generador debe producir también emails válidos");
+    }
+
+    @Test
+    @DisplayName("VE004 - Prueba diferencial mutando emails válidos")
+    void testDiferencialMutaciones() {
+        Random aleatorio = new Random(7L);
+        String[] semillas = {"usuario@test.com", "a.b+c@sub.dominio.org", "x_y-z@d-1.io"};
+        for (int n = 0; n < 200_000; n++) {
+            StringBuilder email = new StringBuilder(semillas[aleatorio.nextInt(semillas.length)]);
+            int mutaciones = 1 + aleatorio.nextInt(3);
+            for (int m = 0; m < mutaciones && email.length() > 0; m++) {
+                int posicion = aleatorio.nextInt(email.length());
+                char c = ALFABETO.charAt(aleatorio.nextInt(ALFABETO.length()));
+                switch (aleatorio.nextInt(3)) {
+                    case 0:
+                        email.setCharAt(posicion, c);
+                        break;
+                    case 1:
+                        email.insert(posicion, c);
+                        break;
+                    default:
+                        email.deleteCharAt(posicion);
+                        break;
+                }
+            }
+            String candidato = email.toString();
+            assertEquals(regex(candidato), ValidadorEmail.esValido(candidato), "Difiere para: " + candidato);
+        }
+    }
+}
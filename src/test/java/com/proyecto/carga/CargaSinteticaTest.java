@@ -0,0 +1,161 @@
+package com.proyecto.carga;
+
+import com.proyecto.ConfiguracionGestor;
+import com.proyecto.GestorUsuarios;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Casos de prueba del generador de carga sintética, sus trazas grabadas y su ejecución
+ * Ubicación: src/test/java/com/proyecto/carga/CargaSinteticaTest.java
+ */
+class CargaSinteticaTest {
+
+    @TempDir
+    Path directorio;
+
+    private static ConfiguracionCarga configuracion() {
+        return new ConfiguracionCarga().semilla(7).usuarios(1000).hilos(3).operacionesPorHilo(20_000);
+    }
+
+    @Test
+    @DisplayName("CS001 - La misma semilla da la misma traza, con la mezcla y el sesgo pedidos")
+    void testGeneracionDeterminista() {
+        TrazaCarga traza = TrazaCarga.generar(configuracion());
+        assertEquals(traza, TrazaCarga.generar(configuracion()));
+        assertNotEquals(traza, TrazaCarga.generar(configuracion().semilla(8)));
+        // Agregar un hilo no cambia las secuencias de los demás
+        TrazaCarga conOtroHilo = TrazaCarga.generar(configuracion().hilos(4));
+        for (int i = 0; i < traza.getCantidad(0); i += 997) {
+            assertEquals(traza.getOperacion(0, i), conOtroHilo.getOperacion(0, i));
+        }
+
+        // Mezcla por defecto: 70 % autenticar, 20 % buscar
+        assertEquals(60_000, traza.getHilos() * (long) traza.getCantidad(0));
+        assertEquals(0.70, traza.contar(OperacionCarga.AUTENTICAR) / 60_000.0, 0.01);
+        assertEquals(0.20, traza.contar(OperacionCarga.BUSCAR) / 60_000.0, 0.01);
+        TrazaCarga escritura = TrazaCarga.generar(configuracion().lecturas(0.5));
+        assertEquals(0.5, (escritura.contar(OperacionCarga.AUTENTICAR) + escritura.contar(OperacionCarga.BUSCAR))
+                / 60_000.0, 0.01);
+
+        // Las eliminaciones nunca superan a los registros del mismo hilo ni tocan la población inicial
+        for (int hilo = 0; hilo < traza.getHilos(); hilo++) {
+            int registrados = 0;
+            for (int i = 0; i < traza.getCantidad(hilo); i++) {
+                OperacionCarga operacion = traza.getOperacion(hilo, i);
+                int clave = traza.getClave(hilo, i);
+                if (operacion == OperacionCarga.REGISTRAR) {
+                    registrados++;
+                    assertEquals(hilo, (clave - traza.getUsuarios()) % traza.getHilos());
+                } else if (operacion == OperacionCarga.ELIMINAR) {
+                    assertTrue(--registrados >= 0);
+                    assertTrue(clave >= traza.getUsuarios());
+                } else {
+                    assertTrue(clave < traza.getUsuarios());
+                }
+            }
+        }
+
+        // Zipf 0.99 sobre mil claves: la más popular se lleva alrededor del 13 %
+        Zipf zipf = new Zipf(1000, 0.99);
+        int[] cuentas = new int[1000];
+        SplittableRandom aleatorio = new SplittableRandom(3);
+        for (int i = 0; i < 100_000; i++) {
+            cuentas[zipf.siguiente(aleatorio)]++;
+        }
+        int maxima = 0;
+        for (int cuenta : cuentas) {
+            maxima = Math.max(maxima, cuenta);
+        }
+        assertEquals(0.13, maxima / 100_000.0, 0.02);
+
+        assertThrows(IllegalArgumentException.class, () -> TrazaCarga.generar(new ConfiguracionCarga()
+                .peso(OperacionCarga.AUTENTICAR, 0).peso(OperacionCarga.BUSCAR, 0).lecturas(0.5)));
+        assertThrows(IllegalArgumentException.class, () -> new Zipf(0, 1));
+    }
+
+    @Test
+    @DisplayName("CS002 - La traza grabada se lee igual y una dañada se rechaza")
+    void testArchivo() throws IOException {
+        TrazaCarga traza = TrazaCarga.generar(configuracion());
+        Path archivo = directorio.resolve("carga.trz");
+        traza.escribir(archivo);
+        assertEquals(traza, TrazaCarga.leer(archivo));
+        // Compacta: unos pocos bytes por operación
+        assertTrue(Files.size(archivo) < 3 * 60_000, "tamaño " + Files.size(archivo));
+
+        byte[] bytes = Files.readAllBytes(archivo);
+        bytes[bytes.length / 2] ^= 0x10;
+        Path danado = directorio.resolve("danado.trz");
+        Files.write(danado, bytes);
+        assertThrows(IOException.class, () -> TrazaCarga.leer(danado));
+        Path incompleto = directorio.resolve("incompleto.trz");
+        Files.write(incompleto, Arrays.copyOf(bytes, bytes.length / 3));
+        assertThrows(IOException.class, () -> TrazaCarga.leer(incompleto));
+    }
+
+    @Test
+    @DisplayName("CS003 - Ejecutar y reproducir la traza da los mismos resultados por operación")
+    void testEjecucionYReproduccion() throws Exception {
+        ConfiguracionCarga carga = new ConfiguracionCarga().semilla(11).usuarios(500).hilos(1).operacionesPorHilo(5000);
+        TrazaCarga traza = TrazaCarga.generar(carga);
+        InformeCarga primera;
+        try (GestorUsuarios gestor = new GestorUsuarios(new ConfiguracionGestor().concurrente(true).iteracionesKdf(1))) {
+            assertEquals(500, CargaSintetica.poblar(gestor, traza));
+            primera = CargaSintetica.ejecutar(gestor, traza);
+            assertEquals(500 + traza.contar(OperacionCarga.REGISTRAR) - traza.contar(OperacionCarga.ELIMINAR),
+                    gestor.obtenerCantidadUsuarios());
+        }
+        assertEquals(5000, primera.getCantidad());
+        // Con un hilo todas las operaciones encuentran lo que esperan
+        for (OperacionCarga operacion : OperacionCarga.values()) {
+            assertEquals(traza.contar(operacion), primera.getCantidad(operacion));
+            assertEquals(primera.getCantidad(operacion), primera.getExitos(operacion), operacion.getEtiqueta());
+        }
+        assertTrue(primera.getPercentil(OperacionCarga.AUTENTICAR, 99) > 0);
+        assertTrue(primera.getRendimiento() > 0);
+
+        // La línea de comandos graba la traza y luego la reproduce con los mismos resultados
+        Path archivo = directorio.resolve("carga.trz");
+        ByteArrayOutputStream texto = new ByteArrayOutputStream();
+        PrintStream salida = new PrintStream(texto, true, StandardCharsets.UTF_8);
+        CargaSintetica.ejecutar(CargaSintetica.Parametros.leer(new String[]{"--semilla", "11", "--usuarios", "500",
+                "--hilos", "1", "--operaciones", "5000", "--iteraciones-kdf", "1", "--grabar", archivo.toString()}), salida);
+        InformeCarga reproducida = CargaSintetica.ejecutar(CargaSintetica.Parametros.leer(new String[]{
+                "--reproducir", archivo.toString(), "--iteraciones-kdf", "1", "--almacen", "versionado"}), salida);
+        for (OperacionCarga operacion : OperacionCarga.values()) {
+            assertEquals(primera.getExitos(operacion), reproducida.getExitos(operacion));
+        }
+        assertTrue(texto.toString(StandardCharsets.UTF_8).contains("autenticar"));
+
+        // Varios hilos a la vez: sólo los cambios de password simultáneos sobre un usuario pueden perder
+        TrazaCarga concurrente = TrazaCarga.generar(carga.hilos(4).operacionesPorHilo(2000));
+        try (GestorUsuarios gestor = new GestorUsuarios(new ConfiguracionGestor().concurrente(true).iteracionesKdf(1))) {
+            CargaSintetica.poblar(gestor, concurrente);
+            InformeCarga informe = CargaSintetica.ejecutar(gestor, concurrente);
+            assertEquals(8000, informe.getCantidad());
+            for (OperacionCarga operacion : OperacionCarga.values()) {
+                if (operacion != OperacionCarga.CAMBIAR_PASSWORD) {
+                    assertEquals(informe.getCantidad(operacion), informe.getExitos(operacion), operacion.getEtiqueta());
+                }
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CargaSintetica.Parametros.leer(new String[]{"--mezcla", "autenticar=1,volar=2"}));
+        assertThrows(IllegalArgumentException.class, () -> CargaSintetica.Parametros.leer(new String[]{"--hilos"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> CargaSintetica.Parametros.leer(new String[]{"--almacen", "disco"}));
+    }
+}
@@ -0,0 +1,167 @@
+package com.proyecto.metricas;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Casos de prueba de los contadores, histogramas y la exportación de métricas
+ * Ubicación: src/test/java/com/proyecto/metricas/RegistroMetricasTest.java
+ */
+class RegistroMetricasTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("RM001 - Cubetas contiguas y percentiles con error acotado")
+    void testPercentiles() {
+        // Cada valor cae en la cubeta cuyo rango lo contiene, y las cubetas no dejan huecos
+        assertEquals(0, Histograma.inicioCubeta(0));
+        for (int i = 1; i < Histograma.CUBETAS; i++) {
+            assertEquals(Histograma.finCubeta(i - 1) + 1, Histograma.inicioCubeta(i), "cubeta " + i);
+        }
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        for (int i = 0; i < 100_000; i++) {
+            long valor = aleatorio.nextLong(Long.MAX_VALUE) >>> aleatorio.nextInt(63);
+            int cubeta = Histograma.cubeta(valor);
+            assertTrue(Histograma.inicioCubeta(cubeta) <= valor && valor <= Histograma.finCubeta(cubeta), "valor " + valor);
+        }
+
+        // Latencias log-normales, de cientos de ns a decenas de ms
+        Histograma histograma = new RegistroMetricas().histograma("latencia_segundos", "prueba");
+        long[] valores = new long[200_000];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = (long) Math.exp(aleatorio.nextDouble(6, 17));
+            histograma.registrar(valores[i]);
+        }
+        Arrays.sort(valores);
+        InstantaneaHistograma instantanea = histograma.instantanea();
+        assertEquals(valores.length, instantanea.getCantidad());
+        assertEquals(Arrays.stream(valores).sum(), instantanea.getSuma());
+        assertEquals(valores[valores.length - 1], instantanea.getMaximo());
+        for (double p : new double[]{1, 50, 90, 99, 99.9, 100}) {
+            long exacto = valores[(int) Math.ceil(valores.length * p / 100) - 1];
+            long estimado = instantanea.percentil(p);
+            assertTrue(estimado >= exacto && estimado <= exacto + exacto / 16, "p" + p + ": " + estimado + " vs " + exacto);
+        }
+        assertEquals(0, new RegistroMetricas().histograma("vacio_segundos", "").instantanea().percentil(99));
+        assertThrows(IllegalArgumentException.class, () -> instantanea.percentil(101));
+    }
+
+    @Test
+    @DisplayName("RM002 - Formato de texto de Prometheus")
+    void testFormatoPrometheus() {
+        RegistroMetricas registro = new RegistroMetricas();
+        Contador exitos = registro.contador("logins_total", "Logins", "resultado", "exito");
+        registro.contador("logins_total", "Logins", "resultado", "error").sumar(3);
+        exitos.incrementar();
+        assertSame(exitos, registro.contador("logins_total", "Logins", "resultado", "exito"), "Misma serie, misma instancia");
+        AtomicLong usuarios = new AtomicLong(42);
+        registro.indicador("usuarios", "Usuarios \\ registrados", usuarios::get);
+        Histograma latencia = registro.histograma("latencia_segundos", "Latencia", "ruta", "a\"b\nc");
+        latencia.registrar(1_500);      // 1,5 µs: cae en le=2^11 ns
+        latencia.registrar(3_000_000);  // 3 ms
+
+        String texto = registro.aTextoPrometheus();
+        assertTrue(texto.contains("# HELP logins_total Logins\n# TYPE logins_total counter\n"), texto);
+        assertTrue(texto.contains("logins_total{resultado=\"error\"} 3\nlogins_total{resultado=\"exito\"} 1\n"), texto);
+        assertTrue(texto.contains("# HELP usuarios Usuarios \\\\ registrados\n# TYPE usuarios gauge\nusuarios 42\n"), texto);
+        String etiqueta = "ruta=\"a\\\"b\\nc\"";
+        assertTrue(texto.contains("latencia_segundos_bucket{" + etiqueta + ",le=\"1.024E-6\"} 0\n"), texto);
+        assertTrue(texto.contains("latencia_segundos_bucket{" + etiqueta + ",le=\"2.048E-6\"} 1\n"), texto);
+        assertTrue(texto.contains("latencia_segundos_bucket{" + etiqueta + ",le=\"0.004194304\"} 2\n"), texto);
+        assertTrue(texto.contains("latencia_segundos_bucket{" + etiqueta + ",le=\"+Inf\"} 2\n"), texto);
+        assertTrue(texto.contains("latencia_segundos_sum{" + etiqueta + "} 0.0030015\n"), texto);
+        assertTrue(texto.contains("latencia_segundos_count{" + etiqueta + "} 2\n"), texto);
+        // Familias en orden alfabético
+        assertTrue(texto.indexOf("latencia_segundos") < texto.indexOf("logins_total"));
+        assertTrue(texto.indexOf("logins_total") < texto.indexOf("usuarios"));
+
+        usuarios.set(7);
+        assertTrue(registro.aTextoPrometheus().contains("\nusuarios 7\n"), "El indicador se lee al exportar");
+
+        assertThrows(IllegalArgumentException.class, () -> registro.histograma("logins_total", "Otro tipo"));
+        assertThrows(IllegalArgumentException.class, () -> registro.contador("con espacio", ""));
+        assertThrows(IllegalArgumentException.class, () -> registro.contador("x_total", "", "le", "1"));
+        assertThrows(IllegalArgumentException.class, () -> registro.contador("x_total", "", "sin_valor"));
+    }
+
+    @Test
+    @DisplayName("RM003 - Contadores e histogramas exactos con varios hilos")
+    void testConcurrencia() throws Exception {
+        RegistroMetricas registro = new RegistroMetricas();
+        Contador contador = registro.contador("eventos_total", "");
+        Histograma histograma = registro.histograma("duracion_segundos", "");
+        int hilos = 4;
+        int porHilo = 100_000;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try {
+            Future<?>[] tareas = new Future<?>[hilos];
+            for (int h = 0; h < hilos; h++) {
+                tareas[h] = ejecutor.submit(() -> {
+                    for (int i = 0; i < porHilo; i++) {
+                        contador.incrementar();
+                        histograma.registrar(i);
+                    }
+                });
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            ejecutor.shutdown();
+        }
+        assertEquals((long) hilos * porHilo, contador.valor());
+        InstantaneaHistograma instantanea = histograma.instantanea();
+        assertEquals((long) hilos * porHilo, instantanea.getCantidad());
+        assertEquals((long) hilos * porHilo * (porHilo - 1) / 2, instantanea.getSuma());
+        assertEquals(porHilo - 1, instantanea.getMaximo());
+    }
+
+    @Test
+    @DisplayName("RM004 - Exportar a archivo y publicar en un endpoint HTTP local")
+    void testExportacion() throws Exception {
+        RegistroMetricas registro = new RegistroMetricas();
+        Contador contador = registro.contador("pedidos_total", "Pedidos");
+        contador.sumar(5);
+
+        Path archivo = directorio.resolve("metricas.prom");
+        registro.exportar(archivo);
+        assertEquals(registro.aTextoPrometheus(), Files.readString(archivo));
+        contador.incrementar();
+        registro.exportar(archivo);
+        assertTrue(Files.readString(archivo).contains("pedidos_total 6\n"));
+        try (var archivos = Files.list(directorio)) {
+            assertEquals(1, archivos.count(), "No quedan archivos temporales");
+        }
+
+        try (ServidorMetricas servidor = ServidorMetricas.iniciar(registro, 0)) {
+            URL url = new URL("http://localhost:" + servidor.getPuerto() + "/metrics");
+            HttpURLConnection conexion = (HttpURLConnection) url.openConnection();
+            assertEquals(200, conexion.getResponseCode());
+            assertEquals(ServidorMetricas.TIPO_CONTENIDO, conexion.getContentType());
+            try (InputStream cuerpo = conexion.getInputStream()) {
+                assertEquals(registro.aTextoPrometheus(), new String(cuerpo.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            HttpURLConnection post = (HttpURLConnection) url.openConnection();
+            post.setRequestMethod("POST");
+            assertEquals(405, post.getResponseCode());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.proyecto.servidor;
+
+import com.proyecto.ConfiguracionGestor;
+import com.proyecto.GestorUsuarios;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Casos de prueba del servicio de autenticación por red
+ * Ubicación: src/test/java/com/proyecto/servidor/ServidorLoginTest.java
+ */
+class ServidorLoginTest {
+
+    private final List<AutoCloseable> abiertos = new ArrayList<>();
+
+    @AfterEach
+    void cerrar() throws Exception {
+        for (int i = abiertos.size() - 1; i >= 0; i--) {
+            abiertos.get(i).close();
+        }
+    }
+
+    private <T extends AutoCloseable> T abierto(T recurso) {
+        abiertos.add(recurso);
+        return recurso;
+    }
+
+    private GestorUsuarios gestor(int iteracionesKdf) {
+        return abierto(new GestorUsuarios(new ConfiguracionGestor().concurrente(true).iteracionesKdf(iteracionesKdf)));
+    }
+
+    private static Throwable causa(CompletableFuture<?> futuro) {
+        return assertThrows(CompletionException.class, futuro::join).getCause();
+    }
+
+    @Test
+    @DisplayName("SL001 - Las cuatro operaciones dan lo mismo que el gestor, con sus errores")
+    void testOperaciones() throws Exception {
+        GestorUsuarios gestor = gestor(1);
+        ServidorLogin servidor = abierto(ServidorLogin.iniciar(gestor, 0));
+        ClienteLogin cliente = abierto(ClienteLogin.conectar(servidor.getDireccion(), 16));
+
+        assertTrue(cliente.registrarUsuario("ana@test.com", "pass123", "Ana Ñandú").join());
+        assertFalse(cliente.registrarUsuario("ana@test.com", "pass123", "Otra").join());
+        Throwable invalido = causa(cliente.registrarUsuario("invalido", "pass123", "X"));
+        assertInstanceOf(IllegalArgumentException.class, invalido);
+        assertEquals("Email inválido", invalido.getMessage());
+
+        PerfilUsuario perfil = cliente.autenticar("ana@test.com", "pass123").join();
+        assertEquals("ana@test.com", perfil.getEmail());
+        assertEquals("Ana Ñandú", perfil.getNombre());
+        assertEquals(gestor.buscarUsuario("ana@test.com").getFechaCreacion(), perfil.getFechaCreacion());
+        assertNull(cliente.autenticar("ana@test.com", "incorrecta").join());
+        assertNull(cliente.autenticar("nadie@test.com", "pass123").join());
+        assertNull(cliente.autenticar(null, null).join());
+
+        assertTrue(cliente.cambiarPassword("ana@test.com", "pass123", "nueva123").join());
+        assertFalse(cliente.cambiarPassword("ana@test.com", "pass123", "otra123").join());
+        assertInstanceOf(IllegalArgumentException.class,
+                causa(cliente.cambiarPassword("ana@test.com", "nueva123", "x")));
+        assertNotNull(gestor.autenticar("ana@test.com", "nueva123"));
+
+        assertEquals(perfil, cliente.buscarUsuario("ana@test.com").join());
+        assertNull(cliente.buscarUsuario("nadie@test.com").join());
+        assertInstanceOf(IllegalArgumentException.class,
+                causa(cliente.buscarUsuario("x".repeat(ProtocoloLogin.MAXIMO_TRAMA))));
+    }
+
+    @Test
+    @DisplayName("SL002 - Pedidos en cadena: respuestas por id, pausa de lectura y rechazo con la cola llena")
+    void testContrapresion() throws Exception {
+        GestorUsuarios gestor = gestor(1);
+        ServidorLogin servidor = abierto(ServidorLogin.iniciar(gestor, 0));
+        for (int i = 0; i < 100; i++) {
+            gestor.registrarUsuario("usuario" + i + "@test.com", "pass123", "Usuario " + i);
+        }
+        // Más pedidos en vuelo que los que el servidor lee de una conexión: pausa y reanuda
+        ClienteLogin cliente = abierto(
+                ClienteLogin.conectar(servidor.getDireccion(), 4 * ServidorLogin.MAXIMO_EN_VUELO));
+        List<CompletableFuture<PerfilUsuario>> respuestas = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            respuestas.add(i % 2 == 0
+                    ? cliente.autenticar("usuario" + i % 100 + "@test.com", "pass123")
+                    : cliente.buscarUsuario("usuario" + i % 100 + "@test.com"));
+        }
+        for (int i = 0; i < respuestas.size(); i++) {
+            assertEquals("Usuario " + i % 100, respuestas.get(i).join().getNombre(), "pedido " + i);
+        }
+
+        // Un hilo, cola de uno y registros caros: la mayoría se rechaza sin ejecutarse
+        GestorUsuarios lento = gestor(200_000);
+        ServidorLogin saturado = abierto(ServidorLogin.iniciar(lento,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1, 1));
+        ClienteLogin apurado = abierto(ClienteLogin.conectar(saturado.getDireccion(), 64));
+        List<CompletableFuture<Boolean>> registros = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            registros.add(apurado.registrarUsuario("lento" + i + "@test.com", "pass123", "Lento"));
+        }
+        int aceptados = 0;
+        int rechazados = 0;
+        for (int i = 0; i < registros.size(); i++) {
+            try {
+                assertTrue(registros.get(i).join());
+                assertTrue(lento.existeUsuario("lento" + i + "@test.com"));
+                aceptados++;
+            } catch (CompletionException e) {
+                assertInstanceOf(RejectedExecutionException.class, e.getCause());
+                assertFalse(lento.existeUsuario("lento" + i + "@test.com"));
+                rechazados++;
+            }
+        }
+        assertTrue(aceptados >= 1 && rechazados >= 1, aceptados + " aceptados, " + rechazados + " rechazados");
+        assertEquals(aceptados, lento.obtenerCantidadUsuarios());
+        // Tras vaciarse la cola vuelve a aceptar
+        assertNull(apurado.buscarUsuario("nadie@test.com").join());
+    }
+
+    @Test
+    @DisplayName("SL003 - Una trama inválida cierra la conexión y sus pedidos pendientes fallan")
+    void testTramaInvalida() throws Exception {
+        ServidorLogin servidor = abierto(ServidorLogin.iniciar(gestor(1), 0));
+        try (Socket socket = new Socket()) {
+            socket.connect(servidor.getDireccion());
+            DataOutputStream salida = new DataOutputStream(socket.getOutputStream());
+            salida.writeInt(ProtocoloLogin.MAXIMO_TRAMA + 1);
+            salida.write("basura".getBytes(StandardCharsets.UTF_8));
+            salida.flush();
+            assertEquals(-1, socket.getInputStream().read(), "El servidor cierra la conexión");
+        }
+
+        ClienteLogin cliente = ClienteLogin.conectar(servidor.getDireccion(), 4);
+        assertNull(cliente.buscarUsuario("nadie@test.com").join());
+        servidor.close();
+        assertInstanceOf(UncheckedIOException.class, causa(cliente.buscarUsuario("nadie@test.com")));
+        cliente.close();
+    }
+
+    @Test
+    @DisplayName("SL004 - El generador de carga mide y encuentra un ritmo sostenible")
+    void testGeneradorCarga() throws Exception {
+        ServidorLogin servidor = abierto(ServidorLogin.iniciar(gestor(1), 0));
+        GeneradorCarga.Parametros parametros = GeneradorCarga.Parametros.leer(new String[]{
+                "--host", "localhost", "--puerto", String.valueOf(servidor.getDireccion().getPort()),
+                "--conexiones", "2", "--en-vuelo", "16", "--usuarios", "50", "--duracion", "0.2",
+                "--p99-ms", "1000", "--mezcla", "autenticar=80,buscar=10,registrar=5,cambiar=5"});
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long sostenible = new GeneradorCarga(parametros).ejecutar(new PrintStream(salida, true, "UTF-8"));
+
+        String informe = salida.toString("UTF-8");
+        assertTrue(sostenible > 0, informe);
+        assertTrue(informe.contains("Máximo sostenible con p99 <= 1000 ms: " + sostenible + " RPS"), informe);
+        assertThrows(IllegalArgumentException.class, () -> GeneradorCarga.Parametros.leer(new String[]{"--nada", "1"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> GeneradorCarga.Parametros.leer(new String[]{"--mezcla", "x=1"}));
+        assertThrows(IllegalArgumentException.class, () -> GeneradorCarga.Parametros.leer(new String[]{"--usuarios"}));
+    }
+}